@@ -0,0 +1,312 @@
+package io.noties.markwon.benchmark.android;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import io.noties.markwon.Markwon;
+
+/**
+ * Renders each corpus with the standard plugins stack, records wall time, allocated bytes and
+ * number of spans for each document and fails if allocated bytes per KB of input regress
+ * beyond tolerance (compared to checked-in baseline). See README of this module.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RenderBenchmarkTest {
+
+    private static final String BASELINE = "/render-benchmark-baseline.properties";
+    private static final String OUTPUT_DIRECTORY = "build/reports/render-benchmark";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static int warmup;
+    private static int rounds;
+    private static double tolerance;
+    private static boolean requireBaseline;
+
+    @BeforeClass
+    public static void beforeClass() {
+        warmup = Integer.parseInt(System.getProperty("markwon.benchmark.warmup", "3"));
+        rounds = Math.max(1, Integer.parseInt(System.getProperty("markwon.benchmark.rounds", "5")));
+        tolerance = Double.parseDouble(System.getProperty("markwon.benchmark.tolerance", "0.1"));
+        requireBaseline = Boolean.parseBoolean(System.getProperty("markwon.benchmark.requireBaseline", "false"));
+    }
+
+    @Test
+    public void render() throws IOException {
+
+        Assume.assumeTrue("Allocated bytes cannot be measured on this JVM", isAllocationMeasurementSupported());
+
+        final Markwon markwon = RenderStack.builder(RuntimeEnvironment.application).build();
+
+        final List<CorpusResult> results = new ArrayList<>(RenderCorpus.ALL.size());
+        for (String corpus : RenderCorpus.ALL) {
+            results.add(measure(markwon, corpus, RenderCorpus.documents(corpus)));
+        }
+
+        write(results);
+
+        final Properties baseline = baseline();
+        final List<String> regressions = new ArrayList<>();
+        final List<String> missing = new ArrayList<>();
+
+        for (CorpusResult result : results) {
+
+            final double actual = result.allocatedBytesPerKb();
+
+            System.out.printf(Locale.US, "%s: documents=%d, input=%d chars, time=%.2f ms, " +
+                            "allocated=%d bytes (%.0f bytes/KB), spans=%d%n",
+                    result.name,
+                    result.documents.size(),
+                    result.inputLength(),
+                    result.nanos() / 1_000_000D,
+                    result.allocatedBytes(),
+                    actual,
+                    result.spans());
+
+            final String value = baseline.getProperty(result.name);
+            if (value == null) {
+                // a corpus without baseline cannot be checked (reported after other corpora are checked)
+                missing.add(String.format(Locale.US, "%s=%d", result.name, Math.round(actual)));
+                continue;
+            }
+
+            final double expected = Double.parseDouble(value);
+            if (actual > expected * (1 + tolerance)) {
+                regressions.add(String.format(Locale.US, "%s: %.0f bytes/KB, baseline: %.0f bytes/KB (tolerance: %.0f%%)",
+                        result.name, actual, expected, tolerance * 100));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            Assert.fail("Allocations per rendered KB have regressed:\n" + join(regressions));
+        }
+
+        if (!missing.isEmpty()) {
+            // baseline must be measured with the JVM that runs the test, so it cannot be
+            //  checked in for every environment, such corpora are reported as skipped (not passed)
+            final String message = "No baseline for corpora, add measured values to " + BASELINE +
+                    " (also written to " + OUTPUT_DIRECTORY + "/baseline.properties):\n" + join(missing);
+            if (requireBaseline) {
+                Assert.fail(message);
+            }
+            Assume.assumeTrue(message, false);
+        }
+    }
+
+    @NonNull
+    private static CorpusResult measure(
+            @NonNull Markwon markwon,
+            @NonNull String name,
+            @NonNull List<String> documents) {
+
+        for (int i = 0; i < warmup; i++) {
+            for (String document : documents) {
+                markwon.toMarkdown(document);
+            }
+        }
+
+        final CorpusResult result = new CorpusResult(name);
+
+        for (String document : documents) {
+
+            // minimum of all rounds is the most stable value (it is least affected by GC, JIT, etc)
+            long nanos = Long.MAX_VALUE;
+            long allocatedBytes = Long.MAX_VALUE;
+            int spans = 0;
+
+            for (int i = 0; i < rounds; i++) {
+
+                final long allocatedStart = allocatedBytes();
+                final long start = System.nanoTime();
+
+                final Spanned spanned = markwon.toMarkdown(document);
+
+                final long end = System.nanoTime();
+                final long allocatedEnd = allocatedBytes();
+
+                nanos = Math.min(nanos, end - start);
+                allocatedBytes = Math.min(allocatedBytes, allocatedEnd - allocatedStart);
+                spans = spanned.getSpans(0, spanned.length(), Object.class).length;
+            }
+
+            result.documents.add(new DocumentResult(document.length(), nanos, allocatedBytes, spans));
+        }
+
+        return result;
+    }
+
+    private static boolean isAllocationMeasurementSupported() {
+        return THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @NonNull
+    private static Properties baseline() throws IOException {
+        final Properties properties = new Properties();
+        final InputStream inputStream = RenderBenchmarkTest.class.getResourceAsStream(BASELINE);
+        if (inputStream != null) {
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        }
+        return properties;
+    }
+
+    private static void write(@NonNull List<CorpusResult> results) throws IOException {
+
+        final File directory = new File(OUTPUT_DIRECTORY);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+
+        final StringBuilder json = new StringBuilder();
+        final StringBuilder baseline = new StringBuilder()
+                .append("# Allocated bytes per KB of markdown input for each corpus (see RenderBenchmarkTest)\n");
+
+        json.append("[\n");
+        for (int i = 0, size = results.size(); i < size; i++) {
+
+            final CorpusResult result = results.get(i);
+
+            json.append("  {\n")
+                    .append("    \"corpus\": \"").append(result.name).append("\",\n")
+                    .append("    \"inputLength\": ").append(result.inputLength()).append(",\n")
+                    .append("    \"nanos\": ").append(result.nanos()).append(",\n")
+                    .append("    \"allocatedBytes\": ").append(result.allocatedBytes()).append(",\n")
+                    .append("    \"allocatedBytesPerKb\": ").append(Math.round(result.allocatedBytesPerKb())).append(",\n")
+                    .append("    \"spans\": ").append(result.spans()).append(",\n")
+                    .append("    \"documents\": [\n");
+
+            for (int d = 0, documents = result.documents.size(); d < documents; d++) {
+                final DocumentResult document = result.documents.get(d);
+                json.append("      {\"index\": ").append(d)
+                        .append(", \"inputLength\": ").append(document.inputLength)
+                        .append(", \"nanos\": ").append(document.nanos)
+                        .append(", \"allocatedBytes\": ").append(document.allocatedBytes)
+                        .append(", \"spans\": ").append(document.spans)
+                        .append('}')
+                        .append(d < documents - 1 ? ",\n" : "\n");
+            }
+
+            json.append("    ]\n  }").append(i < size - 1 ? ",\n" : "\n");
+
+            baseline.append(result.name).append('=').append(Math.round(result.allocatedBytesPerKb())).append('\n');
+        }
+        json.append("]\n");
+
+        write(new File(directory, "results.json"), json.toString());
+        write(new File(directory, "baseline.properties"), baseline.toString());
+    }
+
+    private static void write(@NonNull File file, @NonNull String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @NonNull
+    private static String join(@NonNull List<String> lines) {
+        final StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            builder.append(line).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static class CorpusResult {
+
+        final String name;
+        final List<DocumentResult> documents = new ArrayList<>();
+
+        CorpusResult(@NonNull String name) {
+            this.name = name;
+        }
+
+        long inputLength() {
+            long value = 0L;
+            for (DocumentResult document : documents) {
+                value += document.inputLength;
+            }
+            return value;
+        }
+
+        long nanos() {
+            long value = 0L;
+            for (DocumentResult document : documents) {
+                value += document.nanos;
+            }
+            return value;
+        }
+
+        long allocatedBytes() {
+            long value = 0L;
+            for (DocumentResult document : documents) {
+                value += document.allocatedBytes;
+            }
+            return value;
+        }
+
+        long spans() {
+            long value = 0L;
+            for (DocumentResult document : documents) {
+                value += document.spans;
+            }
+            return value;
+        }
+
+        double allocatedBytesPerKb() {
+            return allocatedBytes() / (Math.max(1L, inputLength()) / 1024D);
+        }
+    }
+
+    private static class DocumentResult {
+
+        final int inputLength;
+        final long nanos;
+        final long allocatedBytes;
+        final int spans;
+
+        DocumentResult(int inputLength, long nanos, long allocatedBytes, int spans) {
+            this.inputLength = inputLength;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.spans = spans;
+        }
+    }
+}
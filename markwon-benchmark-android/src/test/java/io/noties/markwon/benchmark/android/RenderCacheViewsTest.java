@@ -0,0 +1,133 @@
+package io.noties.markwon.benchmark.android;
+
+import android.text.Spanned;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import io.noties.markwon.Markwon;
+import io.noties.markwon.MarkwonRenderCache;
+import io.noties.markwon.core.spans.OrderedListItemSpan;
+import io.noties.markwon.core.spans.StrongEmphasisSpan;
+import io.noties.markwon.ext.tables.TableRowSpan;
+import io.noties.markwon.ext.tasklist.TaskListSpan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that results of {@link MarkwonRenderCache} that are displayed in different
+ * TextViews do not share stateful spans (with the standard plugins stack)
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RenderCacheViewsTest {
+
+    private MarkwonRenderCache cache;
+    private Markwon markwon;
+
+    @Before
+    public void before() {
+        cache = MarkwonRenderCache.create(1024 * 1024);
+        markwon = RenderStack.builder(RuntimeEnvironment.application)
+                .renderCache(cache)
+                .build();
+    }
+
+    @Test
+    public void table_not_shared() {
+
+        final String input = "| a | b |\n|---|---|\n| **1** | 2 |";
+
+        final TextView first = textView(input);
+        final TextView second = textView(input);
+
+        final TableRowSpan[] firstRows = spans(first, TableRowSpan.class);
+        final TableRowSpan[] secondRows = spans(second, TableRowSpan.class);
+
+        assertEquals(2, firstRows.length);
+        assertEquals(2, secondRows.length);
+
+        for (int i = 0; i < firstRows.length; i++) {
+            assertNotSame(firstRows[i], secondRows[i]);
+        }
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void task_list_not_shared() {
+
+        final String input = "- [ ] first\n- [x] second";
+
+        final TextView first = textView(input);
+        final TextView second = textView(input);
+
+        final TaskListSpan[] firstTasks = spans(first, TaskListSpan.class);
+        final TaskListSpan[] secondTasks = spans(second, TaskListSpan.class);
+
+        assertEquals(2, firstTasks.length);
+        assertEquals(2, secondTasks.length);
+
+        assertNotSame(firstTasks[0], secondTasks[0]);
+
+        // toggled in the first view only
+        firstTasks[0].setDone(true);
+        assertTrue(firstTasks[0].isDone());
+        assertFalse(secondTasks[0].isDone());
+
+        // a new result has the original state
+        final TaskListSpan[] tasks = spans(textView(input), TaskListSpan.class);
+        assertFalse(tasks[0].isDone());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void stateless_shared_stateful_copied() {
+
+        final String input = "1. **first**\n2. second";
+
+        final TextView first = textView(input);
+        final TextView second = textView(input);
+
+        assertEquals(1, cache.hitCount());
+
+        final StrongEmphasisSpan[] firstStrong = spans(first, StrongEmphasisSpan.class);
+        final StrongEmphasisSpan[] secondStrong = spans(second, StrongEmphasisSpan.class);
+        assertEquals(1, firstStrong.length);
+        assertSame(firstStrong[0], secondStrong[0]);
+
+        // measured with paint of each TextView
+        final OrderedListItemSpan[] firstItems = spans(first, OrderedListItemSpan.class);
+        final OrderedListItemSpan[] secondItems = spans(second, OrderedListItemSpan.class);
+        assertEquals(2, firstItems.length);
+        assertEquals(2, secondItems.length);
+        for (int i = 0; i < firstItems.length; i++) {
+            assertNotSame(firstItems[i], secondItems[i]);
+        }
+    }
+
+    @NonNull
+    private TextView textView(@NonNull String input) {
+        final TextView textView = new TextView(RuntimeEnvironment.application);
+        markwon.setMarkdown(textView, input);
+        return textView;
+    }
+
+    @NonNull
+    private static <T> T[] spans(@NonNull TextView textView, @NonNull Class<T> type) {
+        final Spanned spanned = (Spanned) textView.getText();
+        return spanned.getSpans(0, spanned.length(), type);
+    }
+}
@@ -0,0 +1,155 @@
+package io.noties.markwon.benchmark.android;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.node.Emphasis;
+import org.commonmark.node.Heading;
+import org.commonmark.node.StrongEmphasis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.noties.markwon.AbstractMarkwonPlugin;
+import io.noties.markwon.Markwon;
+import io.noties.markwon.MarkwonConfiguration;
+import io.noties.markwon.MarkwonRenderCache;
+import io.noties.markwon.MarkwonSpansFactory;
+import io.noties.markwon.RenderProps;
+import io.noties.markwon.RenderResult;
+import io.noties.markwon.SpanFactory;
+import io.noties.markwon.core.CoreProps;
+import io.noties.markwon.test.TestSpan;
+import io.noties.markwon.test.TestSpanMatcher;
+
+import static io.noties.markwon.test.TestSpan.args;
+import static io.noties.markwon.test.TestSpan.document;
+import static io.noties.markwon.test.TestSpan.span;
+import static io.noties.markwon.test.TestSpan.text;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that all rendering paths produce the same output for the benchmark corpus with
+ * the standard plugins stack (so an optimization of one path can be verified against others)
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RenderConsistencyTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void all_paths_same_output() {
+
+        final Markwon reference = RenderStack.builder(RuntimeEnvironment.application).build();
+
+        final Markwon cached = RenderStack.builder(RuntimeEnvironment.application)
+                .renderCache(MarkwonRenderCache.create(64L * 1024 * 1024))
+                .build();
+
+        for (String corpus : RenderCorpus.ALL) {
+
+            final List<String> documents = RenderCorpus.documents(corpus);
+
+            // fills the cache
+            final List<RenderResult> batch = cached.renderAll(documents, executor);
+
+            for (int i = 0, size = documents.size(); i < size; i++) {
+
+                final String document = documents.get(i);
+                final String message = String.format(Locale.US, "%s #%d", corpus, i);
+
+                final String expected = snapshot(reference.toMarkdown(document));
+
+                // an empty result is replaced with raw input by `toMarkdown` only
+                final Spanned rendered = reference.render(reference.parse(document));
+                if (rendered.length() > 0) {
+                    assertEquals(message + " render", expected, snapshot(rendered));
+                }
+                assertEquals(message + " incremental", expected,
+                        snapshot(reference.renderIncremental(null, document).spanned()));
+
+                assertTrue(message, batch.get(i).isSuccess());
+                assertEquals(message + " renderAll", expected, snapshot(batch.get(i).requireSpanned()));
+                assertEquals(message + " cached", expected, snapshot(cached.toMarkdown(document)));
+            }
+        }
+    }
+
+    @Test
+    public void standard_stack_does_not_affect_core() {
+
+        final String input = "# Title\n\n**bold** and _italic_";
+
+        final TestSpan.Document document = document(
+                span("heading", args("level", 1), text("Title")),
+                text("\n\n"),
+                span("bold", text("bold")),
+                text(" and "),
+                span("italic", text("italic")));
+
+        final Markwon markwon = RenderStack.builder(RuntimeEnvironment.application, new AbstractMarkwonPlugin() {
+            @Override
+            public void configureSpansFactory(@NonNull MarkwonSpansFactory.Builder builder) {
+                builder
+                        .setFactory(Heading.class, new SpanFactory() {
+                            @Override
+                            public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                return span("heading", args("level", CoreProps.HEADING_LEVEL.require(props)));
+                            }
+                        })
+                        .setFactory(StrongEmphasis.class, new SpanFactory() {
+                            @Override
+                            public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                return span("bold");
+                            }
+                        })
+                        .setFactory(Emphasis.class, new SpanFactory() {
+                            @Override
+                            public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                return span("italic");
+                            }
+                        });
+            }
+        }).build();
+
+        TestSpanMatcher.matches(markwon.toMarkdown(input), document);
+    }
+
+    /**
+     * @return text and all spans (in the order they are returned) with their positions and flags
+     */
+    @NonNull
+    private static String snapshot(@NonNull Spanned spanned) {
+        final StringBuilder builder = new StringBuilder(spanned.toString());
+        for (Object span : spanned.getSpans(0, spanned.length(), Object.class)) {
+            builder.append(String.format(Locale.US, "\n%s[%d, %d, %d]",
+                    span.getClass().getName(),
+                    spanned.getSpanStart(span),
+                    spanned.getSpanEnd(span),
+                    spanned.getSpanFlags(span)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package io.noties.markwon.benchmark.android;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.testutil.TestResources;
+import org.commonmark.testutil.example.Example;
+import org.commonmark.testutil.example.ExampleReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the same corpus as {@code markwon-benchmark} module (see its README)
+ */
+abstract class RenderCorpus {
+
+    static final String SPEC = "spec";
+    static final String README = "readme";
+    static final String PATHOLOGICAL = "pathological";
+    static final String HTML = "html";
+
+    static final List<String> ALL = Collections.unmodifiableList(Arrays.asList(
+            SPEC, README, PATHOLOGICAL, HTML));
+
+    // separates documents in pathological corpus
+    private static final String CASE_SEPARATOR = "\n<!-- case -->\n";
+
+    @NonNull
+    static List<String> documents(@NonNull String name) {
+        switch (name) {
+            case SPEC:
+                return spec();
+            case README:
+            case HTML:
+                return Collections.singletonList(read(name));
+            case PATHOLOGICAL:
+                return Arrays.asList(read(name).split(CASE_SEPARATOR));
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    @NonNull
+    private static List<String> spec() {
+        final List<Example> examples = ExampleReader.readExamples(TestResources.getSpec());
+        final List<String> documents = new ArrayList<>(examples.size());
+        for (Example example : examples) {
+            documents.add(example.getSource());
+        }
+        return documents;
+    }
+
+    @NonNull
+    private static String read(@NonNull String name) {
+        final InputStream inputStream = RenderCorpus.class.getResourceAsStream("/corpus/" + name + ".md");
+        if (inputStream == null) {
+            throw new IllegalStateException("Corpus resource is missing: " + name);
+        }
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, length);
+            }
+            return new String(outputStream.toByteArray(), Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+    }
+
+    private RenderCorpus() {
+    }
+}
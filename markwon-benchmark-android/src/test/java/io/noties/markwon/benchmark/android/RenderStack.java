@@ -0,0 +1,49 @@
+package io.noties.markwon.benchmark.android;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import io.noties.markwon.Markwon;
+import io.noties.markwon.MarkwonPlugin;
+import io.noties.markwon.ext.latex.JLatexMathPlugin;
+import io.noties.markwon.ext.strikethrough.StrikethroughPlugin;
+import io.noties.markwon.ext.tables.TablePlugin;
+import io.noties.markwon.ext.tasklist.TaskListPlugin;
+import io.noties.markwon.html.HtmlPlugin;
+import io.noties.markwon.linkify.LinkifyPlugin;
+import io.noties.markwon.syntax.Prism4jThemeDefault;
+import io.noties.markwon.syntax.SyntaxHighlightPlugin;
+import io.noties.prism4j.Prism4j;
+import io.noties.prism4j.annotations.PrismBundle;
+
+/**
+ * Standard plugins stack that is used by end-to-end benchmark
+ */
+@PrismBundle(
+        include = {"clike", "java", "kotlin", "groovy", "javascript", "markup", "markdown", "python"},
+        grammarLocatorClassName = ".GrammarLocatorRender"
+)
+abstract class RenderStack {
+
+    @NonNull
+    static Markwon.Builder builder(@NonNull Context context, @NonNull MarkwonPlugin... additional) {
+        final Markwon.Builder builder = Markwon.builder(context)
+                .usePlugin(HtmlPlugin.create())
+                .usePlugin(TablePlugin.create(context))
+                .usePlugin(TaskListPlugin.create(context))
+                .usePlugin(StrikethroughPlugin.create())
+                .usePlugin(LinkifyPlugin.create())
+                .usePlugin(SyntaxHighlightPlugin.create(
+                        new Prism4j(new GrammarLocatorRender()),
+                        Prism4jThemeDefault.create()))
+                .usePlugin(JLatexMathPlugin.create(48F));
+        for (MarkwonPlugin plugin : additional) {
+            builder.usePlugin(plugin);
+        }
+        return builder;
+    }
+
+    private RenderStack() {
+    }
+}
@@ -0,0 +1,42 @@
+package io.noties.markwon.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs benchmarks. Arguments are regular JMH command line arguments (for example, a regular
+ * expression to select benchmarks: {@code ParserBenchmark}). Unless specified otherwise
+ * results are written in JSON format to {@code build/reports/jmh/results.json}
+ */
+public class BenchmarkMain {
+
+    private static final String DEFAULT_RESULT = "build/reports/jmh/results.json";
+
+    public static void main(String[] args) throws Exception {
+
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        final ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLineOptions);
+
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (!commandLineOptions.getResult().hasValue()) {
+            final File file = new File(DEFAULT_RESULT);
+            final File parent = file.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IllegalStateException("Cannot create directory: " + parent);
+            }
+            builder.result(file.getPath());
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
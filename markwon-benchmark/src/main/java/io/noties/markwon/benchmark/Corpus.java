@@ -0,0 +1,168 @@
+package io.noties.markwon.benchmark;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.HtmlBlock;
+import org.commonmark.node.HtmlInline;
+import org.commonmark.parser.Parser;
+import org.commonmark.testutil.TestResources;
+import org.commonmark.testutil.example.Example;
+import org.commonmark.testutil.example.ExampleReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inputs for benchmarks. All documents are checked-in (in {@code src/main/resources/corpus})
+ * or come with a pinned dependency (CommonMark spec examples), so results of different runs
+ * can be compared.
+ */
+public abstract class Corpus {
+
+    /**
+     * Examples of CommonMark specification (each example is a separate document)
+     */
+    public static final String SPEC = "spec";
+
+    /**
+     * A single big document (README, CHANGELOG and documentation of Markwon)
+     */
+    public static final String README = "readme";
+
+    /**
+     * Documents with pathological nesting and unclosed delimiters
+     */
+    public static final String PATHOLOGICAL = "pathological";
+
+    /**
+     * A document with block and inline HTML
+     */
+    public static final String HTML = "html";
+
+    // separates documents in pathological corpus
+    private static final String CASE_SEPARATOR = "\n<!-- case -->\n";
+
+    @NonNull
+    public static List<String> documents(@NonNull String name) {
+        switch (name) {
+            case SPEC:
+                return spec();
+            case README:
+            case HTML:
+                return Collections.singletonList(read(name));
+            case PATHOLOGICAL:
+                return Arrays.asList(read(name).split(CASE_SEPARATOR));
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    /**
+     * @return literals of all HTML blocks and inline HTML of supplied corpus (in the same
+     * form as they are supplied to {@code MarkwonHtmlParser})
+     */
+    @NonNull
+    public static List<String> htmlFragments(@NonNull String name) {
+        final List<String> fragments = new ArrayList<>();
+        final Parser parser = Parser.builder().build();
+        for (String document : documents(name)) {
+            parser.parse(document).accept(new AbstractVisitor() {
+                @Override
+                public void visit(HtmlBlock htmlBlock) {
+                    fragments.add(htmlBlock.getLiteral());
+                }
+
+                @Override
+                public void visit(HtmlInline htmlInline) {
+                    fragments.add(htmlInline.getLiteral());
+                }
+            });
+        }
+        return fragments;
+    }
+
+    /**
+     * @return fenced code blocks of supplied corpus
+     */
+    @NonNull
+    public static List<FencedCodeBlock> codeBlocks(@NonNull String name) {
+        final List<FencedCodeBlock> blocks = new ArrayList<>();
+        final Parser parser = Parser.builder().build();
+        for (String document : documents(name)) {
+            parser.parse(document).accept(new AbstractVisitor() {
+                @Override
+                public void visit(FencedCodeBlock fencedCodeBlock) {
+                    blocks.add(fencedCodeBlock);
+                }
+            });
+        }
+        return blocks;
+    }
+
+    /**
+     * @return supplied document split into sections (each section starts with a heading line)
+     */
+    @NonNull
+    public static List<String> sections(@NonNull String document) {
+        final List<String> sections = new ArrayList<>();
+        final String[] lines = document.split("\n");
+        final StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            if (line.startsWith("#") && builder.length() > 0) {
+                sections.add(builder.toString());
+                builder.setLength(0);
+            }
+            builder.append(line).append('\n');
+        }
+        if (builder.length() > 0) {
+            sections.add(builder.toString());
+        }
+        return sections;
+    }
+
+    @NonNull
+    private static List<String> spec() {
+        final List<Example> examples = ExampleReader.readExamples(TestResources.getSpec());
+        final List<String> documents = new ArrayList<>(examples.size());
+        for (Example example : examples) {
+            documents.add(example.getSource());
+        }
+        return documents;
+    }
+
+    @NonNull
+    private static String read(@NonNull String name) {
+        final InputStream inputStream = Corpus.class.getResourceAsStream("/corpus/" + name + ".md");
+        if (inputStream == null) {
+            throw new IllegalStateException("Corpus resource is missing: " + name);
+        }
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, length);
+            }
+            return new String(outputStream.toByteArray(), Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+    }
+
+    private Corpus() {
+    }
+}
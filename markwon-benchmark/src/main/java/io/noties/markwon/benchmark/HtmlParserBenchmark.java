@@ -0,0 +1,74 @@
+package io.noties.markwon.benchmark;
+
+import androidx.annotation.NonNull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.markwon.html.HtmlTag;
+import io.noties.markwon.html.MarkwonHtmlParser;
+import io.noties.markwon.html.MarkwonHtmlParserImpl;
+
+/**
+ * Processing of HTML fragments (literals of HTML blocks and inline HTML) with
+ * {@link MarkwonHtmlParserImpl} the same way {@code HtmlPlugin} does it: all fragments
+ * of a document are processed and then tags are flushed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlParserBenchmark {
+
+    @Param({Corpus.HTML, Corpus.README})
+    public String corpus;
+
+    private List<String> fragments;
+
+    @Setup
+    public void setup() {
+        fragments = Corpus.htmlFragments(corpus);
+    }
+
+    @Benchmark
+    public void processFragments(final Blackhole blackhole) {
+
+        final MarkwonHtmlParser parser = MarkwonHtmlParserImpl.create();
+        final StringBuilder output = new StringBuilder();
+
+        for (String fragment : fragments) {
+            parser.processFragment(output, fragment);
+        }
+
+        parser.flushInlineTags(output.length(), new MarkwonHtmlParser.FlushAction<HtmlTag.Inline>() {
+            @Override
+            public void apply(@NonNull List<HtmlTag.Inline> tags) {
+                blackhole.consume(tags.size());
+            }
+        });
+
+        parser.flushBlockTags(output.length(), new MarkwonHtmlParser.FlushAction<HtmlTag.Block>() {
+            @Override
+            public void apply(@NonNull List<HtmlTag.Block> tags) {
+                blackhole.consume(tags.size());
+            }
+        });
+
+        blackhole.consume(output);
+    }
+}
@@ -0,0 +1,64 @@
+package io.noties.markwon.benchmark;
+
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.markwon.inlineparser.MarkwonInlineParser;
+
+/**
+ * Parsing of markdown with commonmark-java. {@code inlineParser} parameter specifies
+ * which inline parser is used: {@code commonmark} (default one) or {@code markwon}
+ * ({@link MarkwonInlineParser} with default inline and delimiter processors).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({Corpus.SPEC, Corpus.README, Corpus.PATHOLOGICAL})
+    public String corpus;
+
+    @Param({"commonmark", "markwon"})
+    public String inlineParser;
+
+    private List<String> documents;
+    private Parser parser;
+
+    @Setup
+    public void setup() {
+
+        documents = Corpus.documents(corpus);
+
+        final Parser.Builder builder = Parser.builder();
+        if ("markwon".equals(inlineParser)) {
+            builder.inlineParserFactory(MarkwonInlineParser.factoryBuilder().build());
+        }
+        parser = builder.build();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String document : documents) {
+            final Node node = parser.parse(document);
+            blackhole.consume(node);
+        }
+    }
+}
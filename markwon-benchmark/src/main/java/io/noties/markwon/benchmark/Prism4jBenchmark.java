@@ -0,0 +1,73 @@
+package io.noties.markwon.benchmark;
+
+import org.commonmark.node.FencedCodeBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.prism4j.Prism4j;
+import io.noties.prism4j.annotations.PrismBundle;
+
+/**
+ * Tokenization of code blocks with Prism4j (the same call that {@code Prism4jSyntaxHighlight} does
+ * before applying spans). Code blocks are taken from README corpus, blocks of languages that
+ * are not bundled are skipped.
+ */
+@PrismBundle(
+        include = {"clike", "java", "kotlin", "groovy", "javascript", "markup", "markdown", "python"},
+        grammarLocatorClassName = ".GrammarLocatorBenchmark"
+)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Prism4jBenchmark {
+
+    private Prism4j prism4j;
+
+    private final List<String> codes = new ArrayList<>();
+    private final List<Prism4j.Grammar> grammars = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+
+        prism4j = new Prism4j(new GrammarLocatorBenchmark());
+
+        for (FencedCodeBlock block : Corpus.codeBlocks(Corpus.README)) {
+            final String info = block.getInfo();
+            if (info == null || info.isEmpty()) {
+                continue;
+            }
+            final Prism4j.Grammar grammar = prism4j.grammar(info);
+            if (grammar != null) {
+                codes.add(block.getLiteral());
+                grammars.add(grammar);
+            }
+        }
+
+        if (codes.isEmpty()) {
+            throw new IllegalStateException("No code blocks with bundled grammars are found");
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (int i = 0, size = codes.size(); i < size; i++) {
+            blackhole.consume(prism4j.tokenize(codes.get(i), grammars.get(i)));
+        }
+    }
+}
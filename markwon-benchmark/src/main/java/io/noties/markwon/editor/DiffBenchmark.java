@@ -0,0 +1,69 @@
+package io.noties.markwon.editor;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.markwon.benchmark.Corpus;
+
+/**
+ * {@link diff_match_patch#diff_main(String, String)} between markdown input and its rendered
+ * text, as {@code MarkwonEditorImpl} does it on each edit. Rendered text is obtained with
+ * commonmark {@link TextContentRenderer} (which is close to what Markwon renders, but does not
+ * require Android). This class is placed in editor package as {@code diff_match_patch}
+ * is package-private. README corpus is split into sections (by headings), as editor usually
+ * deals with smaller inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffBenchmark {
+
+    @Param({Corpus.SPEC, Corpus.README})
+    public String corpus;
+
+    private final List<String> inputs = new ArrayList<>();
+    private final List<String> rendered = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+
+        final List<String> documents = new ArrayList<>();
+        for (String document : Corpus.documents(corpus)) {
+            documents.addAll(Corpus.sections(document));
+        }
+
+        final Parser parser = Parser.builder().build();
+        final TextContentRenderer renderer = TextContentRenderer.builder().build();
+
+        for (String document : documents) {
+            inputs.add(document);
+            rendered.add(renderer.render(parser.parse(document)));
+        }
+    }
+
+    @Benchmark
+    public void diff(Blackhole blackhole) {
+        for (int i = 0, size = inputs.size(); i < size; i++) {
+            blackhole.consume(diff_match_patch.diff_main(inputs.get(i), rendered.get(i)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.noties.markwon;
+
+import android.os.Build;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MarkwonTracer} that emits {@link Trace} sections, so stages are visible in
+ * systrace and Perfetto. Section names have form {@code Markwon:STAGE:SubjectClass}
+ * (for example {@code Markwon:AFTER_RENDER:HtmlPlugin}).
+ * <p>
+ * Please note that android trace sections are available starting with API 18, on older
+ * versions {@link #create()} returns {@link MarkwonTracer#noOp()}
+ *
+ * @since $SNAPSHOT;
+ */
+public class AndroidTraceTracer extends MarkwonTracer {
+
+    @NonNull
+    public static MarkwonTracer create() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return MarkwonTracer.noOp();
+        }
+        return new AndroidTraceTracer();
+    }
+
+    // android limits section name length
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    // names are cached, so no allocations are done for each section
+    private final Map<Stage, Map<Class<?>, String>> names = new EnumMap<>(Stage.class);
+
+    AndroidTraceTracer() {
+        for (Stage stage : Stage.values()) {
+            names.put(stage, new ConcurrentHashMap<Class<?>, String>());
+        }
+    }
+
+    @Override
+    public void begin(@NonNull Stage stage, @NonNull Class<?> subject) {
+        Trace.beginSection(sectionName(stage, subject));
+    }
+
+    @Override
+    public void end(@NonNull Stage stage, @NonNull Class<?> subject) {
+        Trace.endSection();
+    }
+
+    @NonNull
+    String sectionName(@NonNull Stage stage, @NonNull Class<?> subject) {
+        //noinspection ConstantConditions
+        final Map<Class<?>, String> map = names.get(stage);
+        String name = map.get(subject);
+        if (name == null) {
+            // anonymous classes have no simple name
+            final String simpleName = subject.getSimpleName();
+            name = "Markwon:" + stage.name() + ":"
+                    + (simpleName.length() > 0 ? simpleName : subject.getName());
+            if (name.length() > MAX_SECTION_NAME_LENGTH) {
+                name = name.substring(0, MAX_SECTION_NAME_LENGTH);
+            }
+            map.put(subject, name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,246 @@
+package io.noties.markwon;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Spanned;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of {@link Markwon#setMarkdownAsync(TextView, String)}. Markdown is processed,
+ * parsed and rendered on an executor, only setting of rendered markdown is posted to the main thread.
+ * <p>
+ * Each TextView holds its state as a tag with a generation token, which is incremented
+ * when a new markdown is requested, when markdown is set synchronously and when the view is
+ * detached from a window. A request which generation no longer matches is stale, it is dropped
+ * before rendering (if it is still waiting in executor queue) and its result is never set.
+ * A request dropped due to detach is submitted again when the view is attached back
+ * (unless another markdown is set meanwhile).
+ *
+ * @since $SNAPSHOT;
+ */
+class AsyncMarkdownSetter {
+
+    /**
+     * Cancels pending asynchronous request of supplied TextView (if any), must be called
+     * on the main thread
+     */
+    static void cancel(@NonNull TextView textView) {
+        final Object tag = textView.getTag(R.id.markwon_set_markdown_async);
+        if (tag instanceof State) {
+            ((State) tag).cancel();
+        }
+    }
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static volatile Executor defaultExecutor;
+
+    @NonNull
+    private static Executor defaultExecutor() {
+        Executor executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (AsyncMarkdownSetter.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    final int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+                    final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                            threads,
+                            threads,
+                            1L,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            new DaemonThreadFactory());
+                    // threads are not kept when there is nothing to render
+                    threadPoolExecutor.allowCoreThreadTimeOut(true);
+                    executor = defaultExecutor = threadPoolExecutor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Nullable
+    private final Executor executor;
+
+    /**
+     * @param executor to render markdown on, null to use a shared executor
+     *                 (created when first needed)
+     */
+    AsyncMarkdownSetter(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Must be called on the main thread
+     */
+    void setMarkdown(@NonNull Markwon markwon, @NonNull TextView textView, @NonNull String markdown) {
+
+        State state;
+
+        final Object tag = textView.getTag(R.id.markwon_set_markdown_async);
+        if (tag instanceof State) {
+            state = (State) tag;
+        } else {
+            state = new State(textView);
+            textView.setTag(R.id.markwon_set_markdown_async, state);
+            textView.addOnAttachStateChangeListener(state);
+        }
+
+        state.setter = this;
+        state.markwon = markwon;
+        state.markdown = markdown;
+        state.dropped = false;
+
+        submit(state);
+    }
+
+    private void submit(@NonNull final State state) {
+
+        // all modifications happen on the main thread, so there is no need to synchronize
+        final int generation = ++state.generation;
+
+        final Markwon markwon = state.markwon;
+        final String markdown = state.markdown;
+
+        final Runnable render = new Runnable() {
+            @Override
+            public void run() {
+
+                // the view is rebound or detached before rendering is started
+                if (state.generation != generation) {
+                    return;
+                }
+
+                Spanned spanned = null;
+                Throwable error = null;
+                try {
+                    //noinspection ConstantConditions
+                    spanned = markwon.toMarkdown(markdown);
+                } catch (Throwable t) {
+                    error = t;
+                }
+
+                if (state.generation != generation) {
+                    return;
+                }
+
+                final Spanned result = spanned;
+                final Throwable throwable = error;
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        state.deliver(generation, result, throwable);
+                    }
+                });
+            }
+        };
+
+        final Executor executor = this.executor != null
+                ? this.executor
+                : defaultExecutor();
+        try {
+            executor.execute(render);
+        } catch (RejectedExecutionException e) {
+            // render on the calling thread (the same as synchronous setMarkdown)
+            render.run();
+        }
+    }
+
+    private static class State implements View.OnAttachStateChangeListener {
+
+        private final TextView textView;
+
+        // written on the main thread only, read by executor to skip stale requests
+        volatile int generation;
+
+        // pending (not yet delivered) request, accessed on the main thread only
+        AsyncMarkdownSetter setter;
+        Markwon markwon;
+        String markdown;
+
+        // pending request is dropped due to detach and must be submitted when attached again
+        boolean dropped;
+
+        State(@NonNull TextView textView) {
+            this.textView = textView;
+        }
+
+        void deliver(int generation, @Nullable Spanned spanned, @Nullable Throwable error) {
+
+            if (this.generation != generation) {
+                return;
+            }
+
+            final Markwon markwon = this.markwon;
+            clear();
+
+            if (error != null) {
+                // surface the error the same way synchronous setMarkdown does
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                }
+                if (error instanceof Error) {
+                    throw (Error) error;
+                }
+                throw new RuntimeException(error);
+            }
+
+            //noinspection ConstantConditions
+            markwon.setParsedMarkdown(textView, spanned);
+        }
+
+        void cancel() {
+            if (markdown != null) {
+                generation += 1;
+                clear();
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (dropped && markdown != null) {
+                dropped = false;
+                setter.submit(this);
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (markdown != null && !dropped) {
+                generation += 1;
+                dropped = true;
+            }
+        }
+
+        private void clear() {
+            setter = null;
+            markwon = null;
+            markdown = null;
+            dropped = false;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            final Thread thread = new Thread(r, "Markwon-setMarkdownAsync-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Renders multiple documents in parallel. Documents are claimed one by one by workers that
+ * are submitted to supplied executor, the calling thread also takes part in rendering,
+ * so the call finishes even if executor is saturated (or rejects workers)
+ *
+ * @since $SNAPSHOT;
+ */
+abstract class BatchRender {
+
+    interface Task {
+        @NonNull
+        Spanned render(int index);
+    }
+
+    @NonNull
+    static List<RenderResult> execute(final int count, @NonNull Executor executor, @NonNull final Task task) {
+
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        final AtomicReferenceArray<RenderResult> results = new AtomicReferenceArray<>(count);
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(count);
+
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = next.getAndIncrement()) < count) {
+                    RenderResult result;
+                    try {
+                        result = RenderResult.success(index, task.render(index));
+                    } catch (Throwable t) {
+                        result = RenderResult.failure(index, t);
+                    }
+                    results.set(index, result);
+                    latch.countDown();
+                }
+            }
+        };
+
+        // calling thread is a worker also
+        final int workers = Math.min(count - 1, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // documents will be rendered by already submitted workers and the calling thread
+                break;
+            }
+        }
+
+        worker.run();
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // report documents that are still being rendered as failed
+            for (int i = 0; i < count; i++) {
+                results.compareAndSet(i, null, RenderResult.failure(i, e));
+            }
+        }
+
+        final List<RenderResult> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(results.get(i));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private BatchRender() {
+    }
+}
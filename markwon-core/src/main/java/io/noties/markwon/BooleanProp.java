@@ -0,0 +1,48 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link Prop} of a {@code boolean} value. Values are stored without boxing when accessed
+ * with {@link #getBoolean(RenderProps, boolean)}, {@link #requireBoolean(RenderProps)} and
+ * {@link #setBoolean(RenderProps, boolean)} methods. Generic {@link Prop} methods can still be used,
+ * values are shared between both kinds of access.
+ *
+ * @see Prop#ofBoolean(String)
+ * @since $SNAPSHOT;
+ */
+public class BooleanProp extends Prop<Boolean> {
+
+    BooleanProp(@NonNull String name) {
+        super(name);
+    }
+
+    public boolean getBoolean(@NonNull RenderProps props, boolean defValue) {
+        if (props instanceof RenderPropsImpl) {
+            return ((RenderPropsImpl) props).getBoolean(this, defValue);
+        }
+        final Boolean value = get(props);
+        return value != null
+                ? value
+                : defValue;
+    }
+
+    public boolean requireBoolean(@NonNull RenderProps props) {
+        if (props instanceof RenderPropsImpl) {
+            final RenderPropsImpl impl = (RenderPropsImpl) props;
+            if (!impl.contains(this)) {
+                throw new NullPointerException(name());
+            }
+            return impl.getBoolean(this, false);
+        }
+        return require(props);
+    }
+
+    public void setBoolean(@NonNull RenderProps props, boolean value) {
+        if (props instanceof RenderPropsImpl) {
+            ((RenderPropsImpl) props).setBoolean(this, value);
+        } else {
+            set(props, value);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MarkwonTracer} that aggregates durations of stages in memory. For each stage and subject
+ * (for example {@code AFTER_RENDER} of {@code HtmlPlugin} or {@code VISIT} of {@code Paragraph})
+ * keeps number of calls, total and self time and a histogram of self time. Self time excludes
+ * nested stages (a {@code VISIT} of a paragraph does not include visits of its children),
+ * so it tells which plugin or node is responsible for the time spent.
+ * <pre><code>
+ * final HistogramTracer tracer = HistogramTracer.create();
+ * final Markwon markwon = Markwon.builder(context)
+ *         .tracer(tracer)
+ *         .build();
+ * // ...
+ * Log.i("Markwon", tracer.toString());
+ * </code></pre>
+ *
+ * @since $SNAPSHOT;
+ */
+public class HistogramTracer extends MarkwonTracer {
+
+    @NonNull
+    public static HistogramTracer create() {
+        return new HistogramTracer();
+    }
+
+    /**
+     * Aggregated durations of a stage and a subject (all durations are in nanoseconds)
+     */
+    public static class Entry {
+
+        private final Stage stage;
+        private final Class<?> subject;
+        private final long count;
+        private final long totalNanos;
+        private final long selfNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        Entry(
+                @NonNull Stage stage,
+                @NonNull Class<?> subject,
+                long count,
+                long totalNanos,
+                long selfNanos,
+                long maxNanos,
+                @NonNull long[] buckets) {
+            this.stage = stage;
+            this.subject = subject;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.selfNanos = selfNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        @NonNull
+        public Stage stage() {
+            return stage;
+        }
+
+        @NonNull
+        public Class<?> subject() {
+            return subject;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * @return time spent in this stage including nested stages
+         */
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return time spent in this stage excluding nested stages
+         */
+        public long selfNanos() {
+            return selfNanos;
+        }
+
+        /**
+         * @return maximum time of a single call (including nested stages)
+         */
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Histogram of self time, a bucket at index {@code i} contains number of calls that
+         * took less than {@code 2^i} nanoseconds (and not less than {@code 2^(i - 1)})
+         */
+        @NonNull
+        public long[] buckets() {
+            return buckets.clone();
+        }
+
+        /**
+         * @param percentile in range {@code (0, 100]}
+         * @return upper bound of histogram bucket that contains requested percentile of self time
+         */
+        public long percentileNanos(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be in (0, 100] range: " + percentile);
+            }
+            final double target = count * percentile / 100;
+            long value = 0L;
+            for (int i = 0, length = buckets.length; i < length; i++) {
+                value += buckets[i];
+                if (value >= target) {
+                    return i < 63 ? 1L << i : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        @NonNull
+        public String toString() {
+            return String.format(Locale.US, "%s %s: count=%d, self=%.3f ms, total=%.3f ms, " +
+                            "max=%.3f ms, p50<%.3f ms, p99<%.3f ms",
+                    stage,
+                    subject.getName(),
+                    count,
+                    selfNanos / 1E6,
+                    totalNanos / 1E6,
+                    maxNanos / 1E6,
+                    count > 0 ? percentileNanos(50) / 1E6 : 0D,
+                    count > 0 ? percentileNanos(99) / 1E6 : 0D);
+        }
+    }
+
+    // index of a bucket is the number of significant bits of a duration
+    private static final int BUCKETS = 64;
+
+    private final Map<Stage, ConcurrentHashMap<Class<?>, Metric>> metrics = new EnumMap<>(Stage.class);
+
+    private final ThreadLocal<Frames> frames = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
+        }
+    };
+
+    HistogramTracer() {
+        for (Stage stage : Stage.values()) {
+            metrics.put(stage, new ConcurrentHashMap<Class<?>, Metric>());
+        }
+    }
+
+    @Override
+    public void begin(@NonNull Stage stage, @NonNull Class<?> subject) {
+        frames.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void end(@NonNull Stage stage, @NonNull Class<?> subject) {
+
+        final long end = System.nanoTime();
+
+        final Frames frames = this.frames.get();
+        if (frames.depth == 0) {
+            // unbalanced call, nothing to measure
+            return;
+        }
+
+        final int index = --frames.depth;
+        final long total = end - frames.starts[index];
+        final long self = Math.max(0L, total - frames.children[index]);
+
+        if (index > 0) {
+            frames.children[index - 1] += total;
+        }
+
+        //noinspection ConstantConditions
+        final ConcurrentHashMap<Class<?>, Metric> map = metrics.get(stage);
+        Metric metric = map.get(subject);
+        if (metric == null) {
+            metric = new Metric();
+            final Metric previous = map.putIfAbsent(subject, metric);
+            if (previous != null) {
+                metric = previous;
+            }
+        }
+        metric.record(total, self);
+    }
+
+    /**
+     * @return aggregated entries ordered by self time (the most expensive first)
+     */
+    @NonNull
+    public List<Entry> entries() {
+        final List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<Stage, ConcurrentHashMap<Class<?>, Metric>> stage : metrics.entrySet()) {
+            for (Map.Entry<Class<?>, Metric> subject : stage.getValue().entrySet()) {
+                entries.add(subject.getValue().entry(stage.getKey(), subject.getKey()));
+            }
+        }
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                final long left = o1.selfNanos;
+                final long right = o2.selfNanos;
+                return left < right ? 1 : (left == right ? 0 : -1);
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Removes all aggregated values
+     */
+    public void reset() {
+        for (ConcurrentHashMap<Class<?>, Metric> map : metrics.values()) {
+            map.clear();
+        }
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("HistogramTracer{");
+        for (Entry entry : entries()) {
+            builder.append("\n  ").append(entry);
+        }
+        return builder.append("\n}").toString();
+    }
+
+    private static class Metric {
+
+        private long count;
+        private long totalNanos;
+        private long selfNanos;
+        private long maxNanos;
+        private final long[] buckets = new long[BUCKETS];
+
+        synchronized void record(long total, long self) {
+            count += 1;
+            totalNanos += total;
+            selfNanos += self;
+            if (total > maxNanos) {
+                maxNanos = total;
+            }
+            buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(self))] += 1;
+        }
+
+        @NonNull
+        synchronized Entry entry(@NonNull Stage stage, @NonNull Class<?> subject) {
+            return new Entry(stage, subject, count, totalNanos, selfNanos, maxNanos, buckets.clone());
+        }
+    }
+
+    // stack of started stages of a thread
+    private static class Frames {
+
+        long[] starts = new long[16];
+        long[] children = new long[16];
+        int depth;
+
+        void push(long start) {
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+                children = Arrays.copyOf(children, depth * 2);
+            }
+            starts[depth] = start;
+            children[depth] = 0L;
+            depth += 1;
+        }
+    }
+}
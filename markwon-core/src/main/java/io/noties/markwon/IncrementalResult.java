@@ -0,0 +1,163 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Result of an incremental render. Holds rendered markdown along with information about
+ * top-level blocks, so subsequent render can reuse blocks that did not change.
+ * Please note that an instance of this class is tied to the {@link Markwon} instance that created it,
+ * supplying it to another {@link Markwon} instance would trigger a full render.
+ *
+ * @see Markwon#renderIncremental(IncrementalResult, String)
+ * @see Markwon#renderIncremental(IncrementalResult, org.commonmark.node.Node)
+ * @since $SNAPSHOT;
+ */
+public final class IncrementalResult {
+
+    final Markwon markwon;
+
+    final Spanned spanned;
+
+    // index in spanned at which rendered content of the first block starts
+    final int offset;
+
+    // fingerprint of each top-level block, NodeFingerprint.UNKNOWN if block cannot be reused
+    final long[] fingerprints;
+
+    // index in spanned at which rendered content of each top-level block ends
+    //  (including trailing new lines)
+    final int[] blockEnds;
+
+    private final int reusedBlocks;
+
+    IncrementalResult(
+            @NonNull Markwon markwon,
+            @NonNull Spanned spanned,
+            int offset,
+            @NonNull long[] fingerprints,
+            @NonNull int[] blockEnds,
+            int reusedBlocks) {
+        this.markwon = markwon;
+        this.spanned = spanned;
+        this.offset = offset;
+        this.fingerprints = fingerprints;
+        this.blockEnds = blockEnds;
+        this.reusedBlocks = reusedBlocks;
+    }
+
+    /**
+     * @return rendered markdown
+     */
+    @NonNull
+    public Spanned spanned() {
+        return spanned;
+    }
+
+    /**
+     * @return number of top-level blocks
+     */
+    public int blocks() {
+        return fingerprints.length;
+    }
+
+    /**
+     * @return number of top-level blocks that were reused from previous result (were not rendered)
+     */
+    public int reusedBlocks() {
+        return reusedBlocks;
+    }
+
+    /**
+     * Calculates how many leading blocks of this result can be reused when rendering
+     * blocks with supplied fingerprints. The last block is never reused, as its trailing
+     * new lines depend on the presence of a next block. Also a block cannot be reused if
+     * a span crosses its end (for example an HTML tag that was not closed inside the block).
+     */
+    int reusableBlocks(@NonNull Markwon markwon, @NonNull long[] fingerprints) {
+
+        if (this.markwon != markwon) {
+            return 0;
+        }
+
+        final int max = Math.min(this.fingerprints.length, fingerprints.length) - 1;
+
+        int count = 0;
+
+        long fingerprint;
+
+        while (count < max) {
+            fingerprint = fingerprints[count];
+            if (fingerprint == NodeFingerprint.UNKNOWN
+                    || fingerprint != this.fingerprints[count]) {
+                break;
+            }
+            count += 1;
+        }
+
+        while (count > 0
+                && hasCrossingSpans(blockEnds[count - 1])) {
+            count -= 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Creates result without blocks, so it cannot be reused (a full render was done).
+     */
+    @NonNull
+    static IncrementalResult full(@NonNull Markwon markwon, @NonNull Spanned spanned) {
+        return new IncrementalResult(
+                markwon,
+                spanned,
+                0,
+                new long[0],
+                new int[0],
+                0);
+    }
+
+    /**
+     * Creates result that contains only blocks after specified one (used by streaming).
+     */
+    @NonNull
+    IncrementalResult drop(int blocks) {
+
+        final int length = fingerprints.length - blocks;
+
+        final long[] fingerprints = new long[length];
+        final int[] blockEnds = new int[length];
+
+        System.arraycopy(this.fingerprints, blocks, fingerprints, 0, length);
+        System.arraycopy(this.blockEnds, blocks, blockEnds, 0, length);
+
+        return new IncrementalResult(
+                markwon,
+                spanned,
+                blocks > 0 ? this.blockEnds[blocks - 1] : offset,
+                fingerprints,
+                blockEnds,
+                0);
+    }
+
+    boolean hasCrossingSpans(int index) {
+
+        final Spanned spanned = this.spanned;
+        final Object[] spans = spanned.getSpans(
+                Math.max(0, index - 1),
+                Math.min(spanned.length(), index + 1),
+                Object.class);
+
+        if (spans != null) {
+            for (Object span : spans) {
+                if (spanned.getSpanStart(span) < index
+                        && spanned.getSpanEnd(span) > index) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link Prop} of an {@code int} value. Values are stored without boxing when accessed
+ * with {@link #getInt(RenderProps, int)}, {@link #requireInt(RenderProps)} and
+ * {@link #setInt(RenderProps, int)} methods. Generic {@link Prop} methods can still be used,
+ * values are shared between both kinds of access.
+ *
+ * @see Prop#ofInt(String)
+ * @since $SNAPSHOT;
+ */
+public class IntProp extends Prop<Integer> {
+
+    IntProp(@NonNull String name) {
+        super(name);
+    }
+
+    public int getInt(@NonNull RenderProps props, int defValue) {
+        if (props instanceof RenderPropsImpl) {
+            return ((RenderPropsImpl) props).getInt(this, defValue);
+        }
+        final Integer value = get(props);
+        return value != null
+                ? value
+                : defValue;
+    }
+
+    public int requireInt(@NonNull RenderProps props) {
+        if (props instanceof RenderPropsImpl) {
+            final RenderPropsImpl impl = (RenderPropsImpl) props;
+            if (!impl.contains(this)) {
+                throw new NullPointerException(name());
+            }
+            return impl.getInt(this, 0);
+        }
+        return require(props);
+    }
+
+    public void setInt(@NonNull RenderProps props, int value) {
+        if (props instanceof RenderPropsImpl) {
+            ((RenderPropsImpl) props).setInt(this, value);
+        } else {
+            set(props, value);
+        }
+    }
+}
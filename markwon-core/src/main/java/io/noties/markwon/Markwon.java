@@ -10,6 +10,7 @@ import androidx.annotation.Nullable;
 import org.commonmark.node.Node;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import io.noties.markwon.core.CorePlugin;
 
@@ -101,10 +102,130 @@ public abstract class Markwon {
     @NonNull
     public abstract Spanned toMarkdown(@NonNull String input);
 
+    /**
+     * Parses and renders supplied markdown reusing already rendered top-level blocks
+     * from {@code previous} result. Leading top-level blocks that did not change
+     * (have the same structure and content) are not rendered again, their spans are
+     * copied from previous result instead. Can be used when markdown is being constantly
+     * modified (edited or received in chunks), so only changed blocks are rendered.
+     * <p>
+     * Please note that blocks that contain custom nodes (registered by plugins) are
+     * always rendered again, as there is no way to tell if they are equal.
+     * Returned Spanned has the same limitations as from {@link #render(Node)} method.
+     * <p>
+     * Default implementation renders full markdown via {@link #toMarkdown(String)} and
+     * returns a result without blocks (so nothing is reused by a subsequent call).
+     *
+     * @param previous result of previous call or null (to render full markdown)
+     * @param input    markdown input
+     * @see IncrementalResult
+     * @see #toMarkdown(String)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public IncrementalResult renderIncremental(@Nullable IncrementalResult previous, @NonNull String input) {
+        return IncrementalResult.full(this, toMarkdown(input));
+    }
+
+    /**
+     * Variant of {@link #renderIncremental(IncrementalResult, String)} for already parsed markdown.
+     * Please note that supplied node must not be rendered before, as rendering can modify nodes
+     * (for example {@link org.commonmark.node.OrderedList} start number).
+     * <p>
+     * Default implementation renders full markdown via {@link #render(Node)}.
+     *
+     * @see #renderIncremental(IncrementalResult, String)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public IncrementalResult renderIncremental(@Nullable IncrementalResult previous, @NonNull Node node) {
+        return IncrementalResult.full(this, render(node));
+    }
+
+    /**
+     * Parses and renders supplied documents in parallel on supplied executor. The calling thread
+     * takes part in rendering and this method returns when all documents are rendered, so it should
+     * not be called on the main thread. Results are returned in the same order as supplied inputs.
+     * An error during rendering of a document does not abort other documents, instead it is reported
+     * via {@link RenderResult#error()}.
+     * <p>
+     * Please note that all plugins used by this instance must support concurrent rendering
+     * (all plugins that are provided by Markwon do).
+     *
+     * @param inputs   markdown documents
+     * @param executor to render documents on
+     * @return a list of {@link RenderResult} in the order of supplied inputs
+     * @see #toMarkdown(String)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public List<RenderResult> renderAll(@NonNull final List<String> inputs, @NonNull Executor executor) {
+        return BatchRender.execute(inputs.size(), executor, new BatchRender.Task() {
+            @NonNull
+            @Override
+            public Spanned render(int index) {
+                return toMarkdown(inputs.get(index));
+            }
+        });
+    }
+
+    /**
+     * Variant of {@link #renderAll(List, Executor)} for already parsed markdown.
+     *
+     * @see #renderAll(List, Executor)
+     * @see #render(Node)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public List<RenderResult> renderAllNodes(@NonNull final List<? extends Node> nodes, @NonNull Executor executor) {
+        return BatchRender.execute(nodes.size(), executor, new BatchRender.Task() {
+            @NonNull
+            @Override
+            public Spanned render(int index) {
+                return Markwon.this.render(nodes.get(index));
+            }
+        });
+    }
+
+    /**
+     * Creates a new {@link MarkwonStream} to render markdown that is received in chunks.
+     * Each call returns a new instance.
+     *
+     * @see MarkwonStream
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public MarkwonStream stream() {
+        return new MarkwonStream(this);
+    }
+
     public abstract void setMarkdown(@NonNull TextView textView, @NonNull String markdown);
 
     public abstract void setParsedMarkdown(@NonNull TextView textView, @NonNull Spanned markdown);
 
+    /**
+     * Asynchronous variant of {@link #setMarkdown(TextView, String)}. Markdown is processed, parsed
+     * and rendered on an executor (specified via {@link Builder#asyncExecutor(Executor)}) and only
+     * {@link #setParsedMarkdown(TextView, Spanned)} is called on the main thread. Must be called
+     * on the main thread.
+     * <p>
+     * Pending result is dropped if this TextView receives another markdown (with any of
+     * {@code setMarkdown}, {@code setParsedMarkdown} or this method) before it is ready, so
+     * TextView can be safely rebound (for example in a RecyclerView). If TextView is detached from
+     * a window, pending rendering is dropped and started again if TextView is attached back.
+     * <p>
+     * Please note that all plugins used by this instance must support rendering on a background
+     * thread and concurrent rendering (all plugins that are provided by Markwon do).
+     * <p>
+     * Default implementation sets markdown synchronously via {@link #setMarkdown(TextView, String)}.
+     *
+     * @see Builder#asyncExecutor(Executor)
+     * @since $SNAPSHOT;
+     */
+    public void setMarkdownAsync(@NonNull TextView textView, @NonNull String markdown) {
+        setMarkdown(textView, markdown);
+    }
+
     /**
      * Requests information if certain plugin has been registered. Please note that this
      * method will check for super classes also, so if supplied with {@code markwon.hasPlugin(MarkwonPlugin.class)}
@@ -203,6 +324,76 @@ public abstract class Markwon {
         @NonNull
         Builder fallbackToRawInputWhenEmpty(boolean fallbackToRawInputWhenEmpty);
 
+        /**
+         * Cache rendered results of {@link Markwon#toMarkdown(String)}. A single cache instance
+         * can be shared by multiple {@link Markwon} instances. No cache is used by default.
+         * <p>
+         * Default implementation ignores supplied cache (for builders that do not support caching).
+         *
+         * @param renderCache {@link MarkwonRenderCache} or null to disable caching
+         * @see MarkwonRenderCache
+         * @since $SNAPSHOT;
+         */
+        @NonNull
+        default Builder renderCache(@Nullable MarkwonRenderCache renderCache) {
+            return this;
+        }
+
+        /**
+         * Reports timings of each processing stage (every plugin callback, parsing and
+         * visiting of each node type) to supplied tracer. By default nothing is traced.
+         * <p>
+         * Default implementation ignores supplied tracer (for builders that do not support tracing).
+         *
+         * @param tracer {@link MarkwonTracer} or null to disable tracing
+         * @see AndroidTraceTracer
+         * @see HistogramTracer
+         * @since $SNAPSHOT;
+         */
+        @NonNull
+        default Builder tracer(@Nullable MarkwonTracer tracer) {
+            return this;
+        }
+
+        /**
+         * Executor to render markdown on in {@link Markwon#setMarkdownAsync(TextView, String)}.
+         * By default a shared executor with a small number of daemon threads is used.
+         * <p>
+         * Default implementation ignores supplied executor (for builders that do not
+         * support asynchronous rendering).
+         *
+         * @param executor to render markdown on or null to use the default one
+         * @see Markwon#setMarkdownAsync(TextView, String)
+         * @since $SNAPSHOT;
+         */
+        @NonNull
+        default Builder asyncExecutor(@Nullable Executor executor) {
+            return this;
+        }
+
+        /**
+         * Reuse render scaffolding (visitor, {@link RenderProps} and {@link SpannableBuilder})
+         * for subsequent renders on the same thread instead of creating it for each render.
+         * Text buffer keeps its capacity between renders and is pre-sized from the length of
+         * markdown input. After rendering, a workspace which text or spans capacity exceeds
+         * {@code maxRetainedLength} is dropped, so a single huge document does not keep memory.
+         * Disabled by default.
+         * <p>
+         * Please note that {@link MarkwonPlugin#afterRender(org.commonmark.node.Node, MarkwonVisitor)}
+         * must not keep a reference to supplied visitor (or its render props and builder) as
+         * they are cleared and reused after rendering.
+         * <p>
+         * Default implementation ignores this option (for builders that do not support reuse).
+         *
+         * @param maxRetainedLength maximum capacity (in characters and in spans) that can be kept
+         *                          by a thread, 0 to disable reuse
+         * @since $SNAPSHOT;
+         */
+        @NonNull
+        default Builder reuseRenderWorkspace(int maxRetainedLength) {
+            return this;
+        }
+
         @NonNull
         Markwon build();
     }
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.commonmark.parser.Parser;
 
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import io.noties.markwon.core.MarkwonTheme;
 
@@ -30,6 +32,18 @@ class MarkwonBuilderImpl implements Markwon.Builder {
     // @since 4.4.0
     private boolean fallbackToRawInputWhenEmpty = true;
 
+    // @since $SNAPSHOT;
+    private MarkwonRenderCache renderCache;
+
+    // @since $SNAPSHOT;
+    private MarkwonTracer tracer;
+
+    // @since $SNAPSHOT;
+    private Executor asyncExecutor;
+
+    // @since $SNAPSHOT; 0 - visitors are not reused
+    private int reuseRenderWorkspaceMaxLength;
+
     MarkwonBuilderImpl(@NonNull Context context) {
         this.context = context;
     }
@@ -81,6 +95,37 @@ class MarkwonBuilderImpl implements Markwon.Builder {
         return this;
     }
 
+    @NonNull
+    @Override
+    public Markwon.Builder renderCache(@Nullable MarkwonRenderCache renderCache) {
+        this.renderCache = renderCache;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Markwon.Builder tracer(@Nullable MarkwonTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Markwon.Builder asyncExecutor(@Nullable Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Markwon.Builder reuseRenderWorkspace(int maxRetainedLength) {
+        if (maxRetainedLength < 0) {
+            throw new IllegalArgumentException("Retained length cannot be negative: " + maxRetainedLength);
+        }
+        this.reuseRenderWorkspaceMaxLength = maxRetainedLength;
+        return this;
+    }
+
     @NonNull
     @Override
     public Markwon build() {
@@ -97,7 +142,7 @@ class MarkwonBuilderImpl implements Markwon.Builder {
         final Parser.Builder parserBuilder = new Parser.Builder();
         final MarkwonTheme.Builder themeBuilder = MarkwonTheme.builderWithDefaults(context);
         final MarkwonConfiguration.Builder configurationBuilder = new MarkwonConfiguration.Builder();
-        final MarkwonVisitor.Builder visitorBuilder = new MarkwonVisitorImpl.BuilderImpl();
+        final MarkwonVisitorImpl.BuilderImpl visitorBuilder = new MarkwonVisitorImpl.BuilderImpl();
         final MarkwonSpansFactory.Builder spanFactoryBuilder = new MarkwonSpansFactoryImpl.BuilderImpl();
 
         for (MarkwonPlugin plugin : plugins) {
@@ -108,15 +153,27 @@ class MarkwonBuilderImpl implements Markwon.Builder {
             plugin.configureSpansFactory(spanFactoryBuilder);
         }
 
+        // @since $SNAPSHOT; no-op tracer is the same as no tracer (nothing is traced)
+        final MarkwonTracer tracer = this.tracer == MarkwonTracer.noOp()
+                ? null
+                : this.tracer;
+        visitorBuilder.tracer(tracer);
+
+        final MarkwonSpansFactory spansFactory = spanFactoryBuilder.build();
+
         final MarkwonConfiguration configuration = configurationBuilder.build(
                 themeBuilder.build(),
-                spanFactoryBuilder.build());
+                spansFactory);
+
+        // @since $SNAPSHOT; resolve visitor and span factories of each node type once
+        visitorBuilder.renderPlan(spansFactory);
 
         // @since 4.1.1
         // @since 4.1.2 - do not reuse render-props (each render call should have own render-props)
-        final MarkwonVisitorFactory visitorFactory = MarkwonVisitorFactory.create(
-                visitorBuilder,
-                configuration);
+        // @since $SNAPSHOT; optionally reuse visitor, render props and builder on each thread
+        final MarkwonVisitorFactory visitorFactory = reuseRenderWorkspaceMaxLength > 0
+                ? MarkwonVisitorFactory.createReusable(visitorBuilder, configuration, reuseRenderWorkspaceMaxLength)
+                : MarkwonVisitorFactory.create(visitorBuilder, configuration);
 
         return new MarkwonImpl(
                 bufferType,
@@ -125,7 +182,10 @@ class MarkwonBuilderImpl implements Markwon.Builder {
                 visitorFactory,
                 configuration,
                 Collections.unmodifiableList(plugins),
-                fallbackToRawInputWhenEmpty
+                fallbackToRawInputWhenEmpty,
+                renderCache,
+                tracer,
+                asyncExecutor
         );
     }
 
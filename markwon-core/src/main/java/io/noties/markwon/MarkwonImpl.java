@@ -11,9 +11,14 @@ import androidx.annotation.Nullable;
 import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+
+import io.noties.markwon.core.factory.FlyweightSpanFactory;
 
 /**
  * @since 3.0.0
@@ -33,6 +38,24 @@ class MarkwonImpl extends Markwon {
     // @since 4.4.0
     private final boolean fallbackToRawInputWhenEmpty;
 
+    // @since $SNAPSHOT;
+    @Nullable
+    private final MarkwonRenderCache renderCache;
+
+    // identifies this instance in render cache (cache must not keep a reference to this instance)
+    private final Object renderCacheOwner = new Object();
+
+    // @since $SNAPSHOT;
+    @Nullable
+    private final MarkwonTracer tracer;
+
+    // @since $SNAPSHOT;
+    private final AsyncMarkdownSetter asyncMarkdownSetter;
+
+    // @since $SNAPSHOT; null if at least one plugin can affect plain text
+    @Nullable
+    private final PlainTextFastPath plainTextFastPath;
+
     MarkwonImpl(
             @NonNull TextView.BufferType bufferType,
             @Nullable TextSetter textSetter,
@@ -40,7 +63,10 @@ class MarkwonImpl extends Markwon {
             @NonNull MarkwonVisitorFactory visitorFactory,
             @NonNull MarkwonConfiguration configuration,
             @NonNull List<MarkwonPlugin> plugins,
-            boolean fallbackToRawInputWhenEmpty
+            boolean fallbackToRawInputWhenEmpty,
+            @Nullable MarkwonRenderCache renderCache,
+            @Nullable MarkwonTracer tracer,
+            @Nullable Executor asyncExecutor
     ) {
         this.bufferType = bufferType;
         this.textSetter = textSetter;
@@ -49,76 +75,247 @@ class MarkwonImpl extends Markwon {
         this.configuration = configuration;
         this.plugins = plugins;
         this.fallbackToRawInputWhenEmpty = fallbackToRawInputWhenEmpty;
+        this.renderCache = renderCache;
+        this.tracer = tracer;
+        this.asyncMarkdownSetter = new AsyncMarkdownSetter(asyncExecutor);
+        this.plainTextFastPath = PlainTextFastPath.create(plugins);
     }
 
     @NonNull
     @Override
     public Node parse(@NonNull String input) {
 
-        // make sure that all plugins are called `processMarkdown` before parsing
+        final MarkwonTracer tracer = this.tracer;
+        if (tracer == null) {
+
+            // make sure that all plugins are called `processMarkdown` before parsing
+            for (MarkwonPlugin plugin : plugins) {
+                input = plugin.processMarkdown(input);
+            }
+
+            return parser.parse(input);
+        }
+
         for (MarkwonPlugin plugin : plugins) {
-            input = plugin.processMarkdown(input);
+            final Class<?> type = plugin.getClass();
+            tracer.begin(MarkwonTracer.Stage.PROCESS_MARKDOWN, type);
+            try {
+                input = plugin.processMarkdown(input);
+            } finally {
+                tracer.end(MarkwonTracer.Stage.PROCESS_MARKDOWN, type);
+            }
         }
 
-        return parser.parse(input);
+        final Class<?> type = parser.getClass();
+        tracer.begin(MarkwonTracer.Stage.PARSE, type);
+        try {
+            return parser.parse(input);
+        } finally {
+            tracer.end(MarkwonTracer.Stage.PARSE, type);
+        }
     }
 
     @NonNull
     @Override
     public Spanned render(@NonNull Node node) {
+        return render(node, 0);
+    }
 
-        for (MarkwonPlugin plugin : plugins) {
-            plugin.beforeRender(node);
-        }
+    // @since $SNAPSHOT; expectedLength is used to pre-size text buffer (0 if unknown)
+    @NonNull
+    private Spanned render(@NonNull Node node, int expectedLength) {
 
-        // @since 4.1.1 obtain visitor via factory
-        final MarkwonVisitor visitor = visitorFactory.create();
+        beforeRender(node);
 
-        node.accept(visitor);
+        // @since 4.1.1 obtain visitor via factory
+        final MarkwonVisitor visitor = visitorFactory.create(expectedLength);
+        try {
 
-        for (MarkwonPlugin plugin : plugins) {
-            plugin.afterRender(node, visitor);
-        }
+            node.accept(visitor);
 
-        //noinspection UnnecessaryLocalVariable
-        final Spanned spanned = visitor.builder().spannableStringBuilder();
+            afterRender(node, visitor);
 
-        // clear render props and builder after rendering
-        // @since 4.1.1 as we no longer reuse visitor - there is no need to clean it
-        //  we might still do it if we introduce a thread-local storage though
-//        visitor.clear();
+            return visitor.builder().spannable();
 
-        return spanned;
+        } finally {
+            // @since $SNAPSHOT; factory clears visitor if it is reused (resulting spanned is a copy)
+            visitorFactory.release(visitor);
+        }
     }
 
     @NonNull
     @Override
     public Spanned toMarkdown(@NonNull String input) {
-        final Spanned spanned = render(parse(input));
+
+        // @since $SNAPSHOT;
+        final MarkwonRenderCache renderCache = this.renderCache;
+        if (renderCache != null) {
+            final Spanned cached = renderCache.get(renderCacheOwner, input);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // @since $SNAPSHOT; input without markdown syntax is not processed, parsed and visited
+        final PlainTextFastPath plainTextFastPath = this.plainTextFastPath;
+        final Spanned spanned = plainTextFastPath != null && plainTextFastPath.isPlainText(input)
+                ? plainTextFastPath.render(input)
+                : render(parse(input), input.length());
 
         // @since 4.4.0
         // if spanned is empty, we are configured to use raw input and input is not empty
         if (TextUtils.isEmpty(spanned)
                 && fallbackToRawInputWhenEmpty
                 && !TextUtils.isEmpty(input)) {
+            if (renderCache != null) {
+                renderCache.putRaw(renderCacheOwner, input);
+            }
             // let's use SpannableStringBuilder in order to keep backward-compatibility
             return new SpannableStringBuilder(input);
         }
 
+        if (renderCache != null) {
+            renderCache.put(renderCacheOwner, input, spanned);
+        }
+
         return spanned;
     }
 
+    @NonNull
+    @Override
+    public IncrementalResult renderIncremental(@Nullable IncrementalResult previous, @NonNull String input) {
+
+        final IncrementalResult result = renderIncremental(previous, parse(input), input.length(), true);
+
+        // same fallback as in `toMarkdown`
+        if (TextUtils.isEmpty(result.spanned())
+                && fallbackToRawInputWhenEmpty
+                && !TextUtils.isEmpty(input)) {
+            return IncrementalResult.full(this, new SpannableStringBuilder(input));
+        }
+
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public IncrementalResult renderIncremental(@Nullable IncrementalResult previous, @NonNull Node node) {
+        return renderIncremental(previous, node, 0, true);
+    }
+
+    /**
+     * Used by {@link MarkwonStream}, its results are spliced into a Spannable that already contains
+     * spans of previous renders, so shared span instances must not be used
+     *
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    IncrementalResult renderIncrementalNotShared(@Nullable IncrementalResult previous, @NonNull Node node) {
+        return renderIncremental(previous, node, 0, false);
+    }
+
+    @NonNull
+    private IncrementalResult renderIncremental(
+            @Nullable IncrementalResult previous,
+            @NonNull Node node,
+            int expectedLength,
+            boolean sharedSpans) {
+
+        // fingerprints must be obtained before rendering (rendering can modify nodes)
+        final List<Node> blocks = new ArrayList<>();
+        Node block = node.getFirstChild();
+        while (block != null) {
+            blocks.add(block);
+            block = block.getNext();
+        }
+
+        final int count = blocks.size();
+        final long[] fingerprints = new long[count];
+        for (int i = 0; i < count; i++) {
+            fingerprints[i] = NodeFingerprint.of(blocks.get(i));
+        }
+
+        final int reused = previous != null
+                ? previous.reusableBlocks(this, fingerprints)
+                : 0;
+
+        beforeRender(node);
+
+        final MarkwonVisitor visitor = visitorFactory.create(expectedLength);
+        try {
+            if (!sharedSpans) {
+                FlyweightSpanFactory.disable(visitor.renderProps());
+            }
+            return visitIncremental(previous, node, visitor, blocks, fingerprints, reused);
+        } finally {
+            visitorFactory.release(visitor);
+        }
+    }
+
+    @NonNull
+    private IncrementalResult visitIncremental(
+            @Nullable IncrementalResult previous,
+            @NonNull Node node,
+            @NonNull MarkwonVisitor visitor,
+            @NonNull List<Node> blocks,
+            @NonNull long[] fingerprints,
+            int reused) {
+
+        final int count = blocks.size();
+        final int[] blockEnds = new int[count];
+
+        if (reused > 0) {
+            // @since $SNAPSHOT; appended spans can contain shared instances
+            FlyweightSpanFactory.disable(visitor.renderProps());
+            //noinspection ConstantConditions
+            final int offset = previous.offset;
+            visitor.builder().appendSpanned(previous.spanned, offset, previous.blockEnds[reused - 1]);
+            for (int i = 0; i < reused; i++) {
+                blockEnds[i] = previous.blockEnds[i] - offset;
+            }
+        }
+
+        // visit only changed blocks (document itself is not visited as its children are visited here)
+        for (int i = reused; i < count; i++) {
+            blocks.get(i).accept(visitor);
+            blockEnds[i] = visitor.length();
+        }
+
+        afterRender(node, visitor);
+
+        // if a plugin has modified text after rendering, then recorded block ends are no
+        //  longer valid and this result must not be reused
+        if (count > 0
+                && blockEnds[count - 1] != visitor.length()) {
+            Arrays.fill(fingerprints, NodeFingerprint.UNKNOWN);
+        }
+
+        return new IncrementalResult(
+                this,
+                visitor.builder().spannable(),
+                0,
+                fingerprints,
+                blockEnds,
+                reused);
+    }
+
     @Override
     public void setMarkdown(@NonNull TextView textView, @NonNull String markdown) {
         setParsedMarkdown(textView, toMarkdown(markdown));
     }
 
+    @Override
+    public void setMarkdownAsync(@NonNull TextView textView, @NonNull String markdown) {
+        asyncMarkdownSetter.setMarkdown(this, textView, markdown);
+    }
+
     @Override
     public void setParsedMarkdown(@NonNull final TextView textView, @NonNull Spanned markdown) {
 
-        for (MarkwonPlugin plugin : plugins) {
-            plugin.beforeSetText(textView, markdown);
-        }
+        // @since $SNAPSHOT; result of a pending setMarkdownAsync must not replace this markdown
+        AsyncMarkdownSetter.cancel(textView);
+
+        beforeSetText(textView, markdown);
 
         // @since 4.1.0
         if (textSetter != null) {
@@ -126,9 +323,7 @@ class MarkwonImpl extends Markwon {
                 @Override
                 public void run() {
                     // on-complete we just must call `afterSetText` on all plugins
-                    for (MarkwonPlugin plugin : plugins) {
-                        plugin.afterSetText(textView);
-                    }
+                    afterSetText(textView);
                 }
             });
         } else {
@@ -136,8 +331,74 @@ class MarkwonImpl extends Markwon {
             // if no text-setter is specified -> just a regular sync operation
             textView.setText(markdown, bufferType);
 
-            for (MarkwonPlugin plugin : plugins) {
+            afterSetText(textView);
+        }
+    }
+
+    private void beforeRender(@NonNull Node node) {
+        final MarkwonTracer tracer = this.tracer;
+        for (MarkwonPlugin plugin : plugins) {
+            if (tracer == null) {
+                plugin.beforeRender(node);
+            } else {
+                final Class<?> type = plugin.getClass();
+                tracer.begin(MarkwonTracer.Stage.BEFORE_RENDER, type);
+                try {
+                    plugin.beforeRender(node);
+                } finally {
+                    tracer.end(MarkwonTracer.Stage.BEFORE_RENDER, type);
+                }
+            }
+        }
+    }
+
+    private void afterRender(@NonNull Node node, @NonNull MarkwonVisitor visitor) {
+        final MarkwonTracer tracer = this.tracer;
+        for (MarkwonPlugin plugin : plugins) {
+            if (tracer == null) {
+                plugin.afterRender(node, visitor);
+            } else {
+                final Class<?> type = plugin.getClass();
+                tracer.begin(MarkwonTracer.Stage.AFTER_RENDER, type);
+                try {
+                    plugin.afterRender(node, visitor);
+                } finally {
+                    tracer.end(MarkwonTracer.Stage.AFTER_RENDER, type);
+                }
+            }
+        }
+    }
+
+    private void beforeSetText(@NonNull TextView textView, @NonNull Spanned markdown) {
+        final MarkwonTracer tracer = this.tracer;
+        for (MarkwonPlugin plugin : plugins) {
+            if (tracer == null) {
+                plugin.beforeSetText(textView, markdown);
+            } else {
+                final Class<?> type = plugin.getClass();
+                tracer.begin(MarkwonTracer.Stage.BEFORE_SET_TEXT, type);
+                try {
+                    plugin.beforeSetText(textView, markdown);
+                } finally {
+                    tracer.end(MarkwonTracer.Stage.BEFORE_SET_TEXT, type);
+                }
+            }
+        }
+    }
+
+    private void afterSetText(@NonNull TextView textView) {
+        final MarkwonTracer tracer = this.tracer;
+        for (MarkwonPlugin plugin : plugins) {
+            if (tracer == null) {
                 plugin.afterSetText(textView);
+            } else {
+                final Class<?> type = plugin.getClass();
+                tracer.begin(MarkwonTracer.Stage.AFTER_SET_TEXT, type);
+                try {
+                    plugin.afterSetText(textView);
+                } finally {
+                    tracer.end(MarkwonTracer.Stage.AFTER_SET_TEXT, type);
+                }
             }
         }
     }
@@ -182,4 +443,9 @@ class MarkwonImpl extends Markwon {
     public MarkwonConfiguration configuration() {
         return configuration;
     }
+
+    @NonNull
+    Object renderCacheOwner() {
+        return renderCacheOwner;
+    }
 }
@@ -0,0 +1,388 @@
+package io.noties.markwon;
+
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.AbsoluteSizeSpan;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StrikethroughSpan;
+import android.text.style.StyleSpan;
+import android.text.style.SubscriptSpan;
+import android.text.style.SuperscriptSpan;
+import android.text.style.TypefaceSpan;
+import android.text.style.URLSpan;
+import android.text.style.UnderlineSpan;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.noties.markwon.core.spans.BlockQuoteSpan;
+import io.noties.markwon.core.spans.BulletListItemSpan;
+import io.noties.markwon.core.spans.CodeBlockSpan;
+import io.noties.markwon.core.spans.CodeSpan;
+import io.noties.markwon.core.spans.CustomTypefaceSpan;
+import io.noties.markwon.core.spans.EmphasisSpan;
+import io.noties.markwon.core.spans.HeadingSpan;
+import io.noties.markwon.core.spans.LastLineSpacingSpan;
+import io.noties.markwon.core.spans.LinkSpan;
+import io.noties.markwon.core.spans.OrderedListItemSpan;
+import io.noties.markwon.core.spans.StrongEmphasisSpan;
+import io.noties.markwon.core.spans.ThematicBreakSpan;
+import io.noties.markwon.image.AsyncDrawableSpan;
+
+/**
+ * Cache of rendered markdown used by {@link Markwon#toMarkdown(String)} (and thus by
+ * {@link Markwon#setMarkdown(android.widget.TextView, String)} and
+ * {@link Markwon#renderAll(java.util.List, java.util.concurrent.Executor)}). Can be useful
+ * when the same markdown is rendered multiple times (for example, when a list item is bound again
+ * or after a configuration change). Must be specified explicitly via
+ * {@link Markwon.Builder#renderCache(MarkwonRenderCache)}.
+ * <p>
+ * A single instance can be shared by multiple {@link Markwon} instances, entries are keyed by
+ * markdown input and the {@link Markwon} instance that rendered it (so different plugins
+ * configurations never share results), no references to {@link Markwon} instances are kept.
+ * Cache size is limited by an estimate of retained memory (characters, spans and drawables
+ * of cached results) and not by a number of entries.
+ * <p>
+ * Each call returns a new Spanned (so it can be modified by the caller). Spans that have no
+ * mutable state (core spans and common framework character styles) are shared between results.
+ * Spans with per-view state receive own copy in each result: {@link AsyncDrawableSpan} (its drawable
+ * is attached to a single view) and {@link OrderedListItemSpan} (measured number width).
+ * Results that contain any other span (for example, a table row or a task list item from
+ * extension modules, or subclasses of listed spans) are not cached, as sharing them between
+ * TextViews would share their state also.
+ * <p>
+ * If rendering depends on some external state that has changed (for example a theme), cached
+ * results must be invalidated via {@link #invalidate(Markwon)} or {@link #invalidateAll()}.
+ *
+ * @see Markwon.Builder#renderCache(MarkwonRenderCache)
+ * @since $SNAPSHOT;
+ */
+public final class MarkwonRenderCache {
+
+    /**
+     * @param maxWeight maximum estimated size (in bytes) of cached results
+     */
+    @NonNull
+    public static MarkwonRenderCache create(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0: " + maxWeight);
+        }
+        return new MarkwonRenderCache(maxWeight);
+    }
+
+    // rough estimates of retained memory
+    private static final int ENTRY_WEIGHT = 64;
+    private static final int SPAN_WEIGHT = 48;
+    private static final int DRAWABLE_WEIGHT = 256;
+
+    // spans without mutable state that can be shared between results, exact classes
+    // are checked as a subclass can add state
+    private static final Set<Class<?>> SHAREABLE = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            BlockQuoteSpan.class,
+            BulletListItemSpan.class,
+            CodeBlockSpan.class,
+            CodeSpan.class,
+            CustomTypefaceSpan.class,
+            EmphasisSpan.class,
+            HeadingSpan.class,
+            LastLineSpacingSpan.class,
+            LinkSpan.class,
+            StrongEmphasisSpan.class,
+            ThematicBreakSpan.class,
+            AbsoluteSizeSpan.class,
+            BackgroundColorSpan.class,
+            ForegroundColorSpan.class,
+            RelativeSizeSpan.class,
+            StrikethroughSpan.class,
+            StyleSpan.class,
+            SubscriptSpan.class,
+            SuperscriptSpan.class,
+            TypefaceSpan.class,
+            URLSpan.class,
+            UnderlineSpan.class
+    ));
+
+    private final long maxWeight;
+
+    // access-ordered, so eldest entry is the least recently used one
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, .75F, true);
+
+    private long weight;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private MarkwonRenderCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Removes all cached results
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0L;
+        }
+    }
+
+    /**
+     * Removes all cached results that were rendered by supplied {@link Markwon} instance
+     */
+    public void invalidate(@NonNull Markwon markwon) {
+        final Object owner = owner(markwon);
+        synchronized (entries) {
+            final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            Map.Entry<Key, Entry> entry;
+            while (iterator.hasNext()) {
+                entry = iterator.next();
+                if (entry.getKey().owner == owner) {
+                    weight -= entry.getValue().weight;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes cached result of supplied markdown that was rendered by supplied {@link Markwon} instance
+     */
+    public void invalidate(@NonNull Markwon markwon, @NonNull String input) {
+        synchronized (entries) {
+            final Entry entry = entries.remove(new Key(owner(markwon), input));
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return estimated size (in bytes) of cached results
+     */
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    public long missCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+
+    /**
+     * @return number of results that were removed in order to keep cache size under maximum
+     * (explicitly invalidated results are not counted)
+     */
+    public long evictionCount() {
+        synchronized (entries) {
+            return evictionCount;
+        }
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        synchronized (entries) {
+            return "MarkwonRenderCache{" +
+                    "size=" + entries.size() +
+                    ", weight=" + weight +
+                    ", maxWeight=" + maxWeight +
+                    ", hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    '}';
+        }
+    }
+
+    @Nullable
+    Spanned get(@NonNull Object owner, @NonNull String input) {
+
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(owner, input));
+            if (entry == null) {
+                missCount += 1;
+                return null;
+            } else {
+                hitCount += 1;
+            }
+        }
+
+        // cached spannable is never exposed, so it is safe to copy it without lock
+        if (entry.spanned == null) {
+            // the same as fallback to raw input in MarkwonImpl
+            return new SpannableStringBuilder(input);
+        }
+
+        return copy(entry.spanned);
+    }
+
+    /**
+     * @param spanned rendered markdown, must not be modified yet (result of {@link SpannableBuilder#spannable()})
+     */
+    void put(@NonNull Object owner, @NonNull String input, @NonNull Spanned spanned) {
+
+        if (!(spanned instanceof SpannableReversed)) {
+            // other types are not expected from rendering
+            return;
+        }
+
+        final SpannableReversed snapshot = copy((SpannableReversed) spanned);
+        if (snapshot == null) {
+            return;
+        }
+
+        int drawables = 0;
+        for (int i = 0, count = snapshot.spanCount(); i < count; i++) {
+            if (snapshot.spanAt(i) instanceof AsyncDrawableSpan) {
+                drawables += 1;
+            }
+        }
+
+        final long weight = ENTRY_WEIGHT
+                + 2L * (input.length() + snapshot.length())
+                + (long) SPAN_WEIGHT * snapshot.spanCount()
+                + (long) DRAWABLE_WEIGHT * drawables;
+
+        put(new Key(owner, input), new Entry(snapshot, weight));
+    }
+
+    /**
+     * Caches that markdown was rendered as raw input (see {@link Markwon.Builder#fallbackToRawInputWhenEmpty(boolean)})
+     */
+    void putRaw(@NonNull Object owner, @NonNull String input) {
+        put(new Key(owner, input), new Entry(null, ENTRY_WEIGHT + 2L * input.length()));
+    }
+
+    private void put(@NonNull Key key, @NonNull Entry entry) {
+
+        if (entry.weight > maxWeight) {
+            return;
+        }
+
+        synchronized (entries) {
+
+            final Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entry.weight;
+
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evictionCount += 1;
+            }
+        }
+    }
+
+    @NonNull
+    private static Object owner(@NonNull Markwon markwon) {
+        // a token is used in order not to keep a reference to Markwon instance (and thus to a Context)
+        return markwon instanceof MarkwonImpl
+                ? ((MarkwonImpl) markwon).renderCacheOwner()
+                : markwon;
+    }
+
+    /**
+     * @return copy of supplied spannable with own copies of stateful spans or null if there is
+     * a span that can neither be shared nor copied
+     */
+    @Nullable
+    private static SpannableReversed copy(@NonNull SpannableReversed spannable) {
+
+        final SpannableReversed copy = spannable.copy();
+
+        Object span;
+        Object spanCopy;
+
+        for (int i = 0, count = copy.spanCount(); i < count; i++) {
+            span = copy.spanAt(i);
+            if (SHAREABLE.contains(span.getClass())) {
+                continue;
+            }
+            if (span instanceof AsyncDrawableSpan) {
+                spanCopy = ((AsyncDrawableSpan) span).copy();
+            } else if (span instanceof OrderedListItemSpan) {
+                spanCopy = ((OrderedListItemSpan) span).copy();
+            } else {
+                spanCopy = null;
+            }
+            if (spanCopy == null) {
+                return null;
+            }
+            copy.replaceSpanAt(i, spanCopy);
+        }
+
+        return copy;
+    }
+
+    private static class Key {
+
+        // identity of Markwon instance (and thus its configuration), it is compared by reference
+        final Object owner;
+        final String input;
+
+        Key(@NonNull Object owner, @NonNull String input) {
+            this.owner = owner;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return owner == key.owner && input.equals(key.input);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + input.hashCode();
+        }
+    }
+
+    private static class Entry {
+
+        // null if input was rendered as raw
+        final SpannableReversed spanned;
+        final long weight;
+
+        Entry(@Nullable SpannableReversed spanned, long weight) {
+            this.spanned = spanned;
+            this.weight = weight;
+        }
+    }
+}
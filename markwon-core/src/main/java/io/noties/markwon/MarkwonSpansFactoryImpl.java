@@ -38,6 +38,12 @@ class MarkwonSpansFactoryImpl implements MarkwonSpansFactory {
         return f;
     }
 
+    // @since $SNAPSHOT; used to compile RenderPlan
+    @NonNull
+    Map<Class<? extends Node>, SpanFactory> factories() {
+        return factories;
+    }
+
     static class BuilderImpl implements Builder {
 
         private final Map<Class<? extends Node>, SpanFactory> factories =
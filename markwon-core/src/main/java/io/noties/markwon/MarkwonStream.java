@@ -0,0 +1,352 @@
+package io.noties.markwon;
+
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.HtmlBlock;
+import org.commonmark.node.HtmlInline;
+import org.commonmark.node.Node;
+
+/**
+ * Streaming front-end for markdown that is received in chunks (for example a response that
+ * is being generated). Each {@link #append(String)} call returns the same append-only Spanned:
+ * top-level blocks that are finished are <em>frozen</em> (never parsed or rendered again)
+ * and only the trailing open block(s) are parsed and rendered.
+ * <p>
+ * A block is considered finished when it is followed by a blank line and a line that starts
+ * with a letter (not indented), which cannot continue any of the preceding blocks (unless
+ * it is inside a fenced code block or a {@code $$} LaTeX block, which are tracked when lines are scanned).
+ * Please note that:
+ * <ul>
+ * <li>HTML blocks are not tracked when lines are scanned, instead blocks that contain HTML
+ * (block or inline) are never frozen (they are rendered again with the rest of markdown), as HTML
+ * tags are processed for the whole document and an HTML block can contain blank lines</li>
+ * <li>if a link reference definition is received, all frozen blocks are rendered again (as
+ * a definition can change already rendered content) and no blocks are frozen after that</li>
+ * <li>{@link MarkwonPlugin#processMarkdown(String)} is called for each parsed part of
+ * markdown individually</li>
+ * </ul>
+ * Regular plugin hooks ({@link MarkwonPlugin#beforeRender(Node)} and {@link MarkwonPlugin#afterRender(Node, MarkwonVisitor)})
+ * are called for each render of the trailing part. Result can be applied to a TextView
+ * via {@link Markwon#setParsedMarkdown(android.widget.TextView, Spanned)}.
+ *
+ * @see Markwon#stream()
+ * @since $SNAPSHOT;
+ */
+public class MarkwonStream {
+
+    private final Markwon markwon;
+
+    private final StringBuilder input = new StringBuilder();
+
+    private final SpannableStringBuilder output = new SpannableBuilder.SpannableStringBuilderReversed("");
+
+    // index in input at which not frozen markdown starts
+    private int inputFrozen;
+
+    // index in output at which rendered not frozen markdown starts
+    private int outputFrozen;
+
+    // result of the last render of not frozen markdown
+    private IncrementalResult result;
+
+    // line scanning state
+    private int scanned;
+    private boolean previousLineBlank = true;
+    private char fenceChar;
+    private int fenceLength;
+    private boolean latexBlock;
+    private boolean hasDefinitions;
+
+    // the last found index in input at which markdown can be split (or -1)
+    private int split = -1;
+
+    MarkwonStream(@NonNull Markwon markwon) {
+        this.markwon = markwon;
+    }
+
+    /**
+     * Appends a chunk of markdown and renders it.
+     *
+     * @param chunk of markdown to append
+     * @return rendered markdown, please note that the same instance is returned for each call
+     * and it is modified (only after {@link #frozenLength()} index) with each call
+     */
+    @NonNull
+    public Spanned append(@NonNull String chunk) {
+
+        input.append(chunk);
+
+        final boolean hadDefinitions = hasDefinitions;
+
+        scan();
+
+        if (!hadDefinitions && hasDefinitions) {
+            // render everything again and stop freezing
+            inputFrozen = 0;
+            outputFrozen = 0;
+            result = null;
+        }
+
+        final int split = this.split;
+
+        if (!hasDefinitions
+                && split > inputFrozen) {
+            renderWithSplit(split);
+        } else {
+            render(markwon.parse(input.substring(inputFrozen)), 0);
+        }
+
+        // if nothing is rendered, keep `toMarkdown` behaviour (fallback to raw input if configured)
+        if (output.length() == 0
+                && input.length() > 0) {
+            output.append(markwon.toMarkdown(input.toString()));
+        }
+
+        return output;
+    }
+
+    /**
+     * @return rendered markdown (the same instance that is returned from {@link #append(String)})
+     */
+    @NonNull
+    public Spanned spanned() {
+        return output;
+    }
+
+    /**
+     * @return all markdown that was received
+     */
+    @NonNull
+    public String input() {
+        return input.toString();
+    }
+
+    /**
+     * @return length of the rendered markdown that is frozen and won\'t be modified
+     */
+    public int frozenLength() {
+        return outputFrozen;
+    }
+
+    private void renderWithSplit(int split) {
+
+        final Node segment = markwon.parse(input.substring(inputFrozen, split));
+
+        final int blocks = childrenCount(segment);
+
+        if (blocks == 0
+                || HtmlFinder.hasHtml(segment)) {
+            render(markwon.parse(input.substring(inputFrozen)), 0);
+            return;
+        }
+
+        // stitch parsed trailing markdown with the segment, so the segment is
+        //  rendered as in the full document (with trailing new lines)
+        final Node tail = markwon.parse(input.substring(split));
+        Node node = tail.getFirstChild();
+        Node next;
+        while (node != null) {
+            next = node.getNext();
+            segment.appendChild(node);
+            node = next;
+        }
+
+        if (render(segment, blocks)) {
+            inputFrozen = split;
+        }
+    }
+
+    // returns true if supplied number of leading blocks are frozen
+    private boolean render(@NonNull Node document, int blocks) {
+
+        // result is spliced into output that contains spans of previous renders, so
+        //  span instances must not be shared between renders (flyweight span factories)
+        final IncrementalResult result = markwon instanceof MarkwonImpl
+                ? ((MarkwonImpl) markwon).renderIncrementalNotShared(this.result, document)
+                : markwon.renderIncremental(this.result, document);
+
+        output.replace(outputFrozen, output.length(), result.spanned());
+
+        final boolean freeze = blocks > 0
+                && blocks < result.blocks()
+                && !result.hasCrossingSpans(result.blockEnds[blocks - 1]);
+
+        if (freeze) {
+            outputFrozen += result.blockEnds[blocks - 1];
+            this.result = result.drop(blocks);
+        } else {
+            this.result = result;
+        }
+
+        return freeze;
+    }
+
+    private void scan() {
+
+        final StringBuilder input = this.input;
+        final int length = input.length();
+
+        int end;
+
+        while (scanned < length) {
+
+            end = indexOf(input, '\n', scanned, length);
+            if (end < 0) {
+                // only full lines are scanned
+                break;
+            }
+
+            line(input, scanned, end);
+
+            scanned = end + 1;
+        }
+    }
+
+    private void line(@NonNull CharSequence input, int start, int end) {
+
+        final boolean blank = isBlank(input, start, end);
+
+        if (previousLineBlank
+                && !blank
+                && fenceLength == 0
+                && !latexBlock
+                && Character.isLetter(input.charAt(start))) {
+            split = start;
+        }
+
+        previousLineBlank = blank;
+
+        if (blank) {
+            return;
+        }
+
+        // skip indentation and block quote markers
+        int index = start;
+        char c;
+        while (index < end) {
+            c = input.charAt(index);
+            if (c != ' ' && c != '\t' && c != '>') {
+                break;
+            }
+            index += 1;
+        }
+
+        if (index == end) {
+            return;
+        }
+
+        c = input.charAt(index);
+
+        if (fenceLength > 0) {
+            if (c == fenceChar) {
+                final int run = run(input, index, end, c);
+                if (run >= fenceLength
+                        && isBlank(input, index + run, end)) {
+                    fenceLength = 0;
+                }
+            }
+            return;
+        }
+
+        if (c == '`' || c == '~') {
+            final int run = run(input, index, end, c);
+            if (run >= 3) {
+                fenceChar = c;
+                fenceLength = run;
+                return;
+            }
+        }
+
+        if (c == '[') {
+            final int bracket = indexOf(input, ']', index, end);
+            if (bracket > 0
+                    && bracket + 1 < end
+                    && input.charAt(bracket + 1) == ':') {
+                hasDefinitions = true;
+            }
+        }
+
+        // toggle latex block if line contains odd number of `$$`
+        boolean toggle = false;
+        for (int i = index; i < end - 1; i++) {
+            if (input.charAt(i) == '$'
+                    && input.charAt(i + 1) == '$') {
+                toggle = !toggle;
+                i += 1;
+            }
+        }
+        if (toggle) {
+            latexBlock = !latexBlock;
+        }
+    }
+
+    private static boolean isBlank(@NonNull CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int run(@NonNull CharSequence input, int start, int end, char c) {
+        int index = start;
+        while (index < end
+                && input.charAt(index) == c) {
+            index += 1;
+        }
+        return index - start;
+    }
+
+    private static int indexOf(@NonNull CharSequence input, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (c == input.charAt(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int childrenCount(@NonNull Node node) {
+        int count = 0;
+        Node child = node.getFirstChild();
+        while (child != null) {
+            count += 1;
+            child = child.getNext();
+        }
+        return count;
+    }
+
+    private static class HtmlFinder extends AbstractVisitor {
+
+        static boolean hasHtml(@NonNull Node node) {
+            final HtmlFinder finder = new HtmlFinder();
+            node.accept(finder);
+            return finder.found;
+        }
+
+        boolean found;
+
+        @Override
+        public void visit(HtmlInline htmlInline) {
+            found = true;
+        }
+
+        @Override
+        public void visit(HtmlBlock htmlBlock) {
+            found = true;
+        }
+
+        @Override
+        protected void visitChildren(@Nullable Node parent) {
+            if (!found) {
+                super.visitChildren(parent);
+            }
+        }
+    }
+}
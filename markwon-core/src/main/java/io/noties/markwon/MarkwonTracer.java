@@ -0,0 +1,97 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives timings of each stage of markdown processing. Can be specified via
+ * {@link Markwon.Builder#tracer(MarkwonTracer)}. By default no tracer is used and
+ * tracing has no cost at all.
+ * <p>
+ * Each stage is reported as a pair of {@link #begin(Stage, Class)} and {@link #end(Stage, Class)}
+ * calls on the thread that executes it. Stages can be nested (for example a {@link Stage#VISIT}
+ * of a paragraph contains visits of its children), but {@code end} is always called for the most
+ * recently started stage on the same thread (even if stage has thrown an exception).
+ * <p>
+ * Implementation must be thread-safe if markdown is rendered on multiple threads.
+ *
+ * @see AndroidTraceTracer
+ * @see HistogramTracer
+ * @since $SNAPSHOT;
+ */
+public abstract class MarkwonTracer {
+
+    public enum Stage {
+
+        /**
+         * {@link MarkwonPlugin#processMarkdown(String)}, subject is a plugin class
+         */
+        PROCESS_MARKDOWN,
+
+        /**
+         * {@link org.commonmark.parser.Parser#parse(String)}, subject is the parser class
+         */
+        PARSE,
+
+        /**
+         * {@link MarkwonPlugin#beforeRender(org.commonmark.node.Node)}, subject is a plugin class
+         */
+        BEFORE_RENDER,
+
+        /**
+         * {@link MarkwonVisitor.NodeVisitor} of a node, subject is a node class
+         */
+        VISIT,
+
+        /**
+         * {@link MarkwonPlugin#afterRender(org.commonmark.node.Node, MarkwonVisitor)}, subject is a plugin class
+         */
+        AFTER_RENDER,
+
+        /**
+         * {@link MarkwonPlugin#beforeSetText(android.widget.TextView, android.text.Spanned)},
+         * subject is a plugin class
+         */
+        BEFORE_SET_TEXT,
+
+        /**
+         * {@link MarkwonPlugin#afterSetText(android.widget.TextView)}, subject is a plugin class
+         */
+        AFTER_SET_TEXT
+    }
+
+    /**
+     * @return tracer that does nothing. If specified via {@link Markwon.Builder#tracer(MarkwonTracer)}
+     * then {@link Markwon} instance does not trace at all (as if no tracer was specified)
+     */
+    @NonNull
+    public static MarkwonTracer noOp() {
+        return NoOp.INSTANCE;
+    }
+
+    /**
+     * @param stage   that is started
+     * @param subject of the stage (plugin, node or parser class)
+     */
+    public abstract void begin(@NonNull Stage stage, @NonNull Class<?> subject);
+
+    /**
+     * @param stage   that has ended
+     * @param subject of the stage (plugin, node or parser class)
+     */
+    public abstract void end(@NonNull Stage stage, @NonNull Class<?> subject);
+
+    private static class NoOp extends MarkwonTracer {
+
+        static final NoOp INSTANCE = new NoOp();
+
+        @Override
+        public void begin(@NonNull Stage stage, @NonNull Class<?> subject) {
+
+        }
+
+        @Override
+        public void end(@NonNull Stage stage, @NonNull Class<?> subject) {
+
+        }
+    }
+}
@@ -7,19 +7,139 @@ import androidx.annotation.NonNull;
  */
 abstract class MarkwonVisitorFactory {
 
+    /**
+     * @param expectedLength expected length of rendered text (for example length of markdown input)
+     *                       that is used to pre-size text buffer, 0 if unknown
+     * @since $SNAPSHOT; accepts expected length
+     */
     @NonNull
-    abstract MarkwonVisitor create();
+    abstract MarkwonVisitor create(int expectedLength);
+
+    /**
+     * Called when rendering with a visitor obtained from {@link #create(int)} is finished
+     * (spanned is already obtained from its builder). Visitor must not be used after this call.
+     *
+     * @since $SNAPSHOT;
+     */
+    void release(@NonNull MarkwonVisitor visitor) {
+        // no op
+    }
 
     @NonNull
     static MarkwonVisitorFactory create(
-            @NonNull final MarkwonVisitorImpl.Builder builder,
+            @NonNull final MarkwonVisitorImpl.BuilderImpl builder,
             @NonNull final MarkwonConfiguration configuration) {
         return new MarkwonVisitorFactory() {
             @NonNull
             @Override
-            MarkwonVisitor create() {
-                return builder.build(configuration, new RenderPropsImpl());
+            MarkwonVisitor create(int expectedLength) {
+                return builder.build(configuration, new RenderPropsImpl(), spannableBuilder(expectedLength));
             }
         };
     }
+
+    /**
+     * Creates a factory that keeps a visitor (with its render props and builder) for each thread
+     * and reuses it for subsequent renders on that thread, so render scaffolding is not allocated
+     * for each render and buffers are not grown again. A visitor is cleared when released.
+     * If a visitor of a thread is still in use (a render is started while another one is in progress
+     * on the same thread), a new visitor is created and not kept.
+     *
+     * @param maxRetainedLength maximum capacity (in characters and in spans) of a builder that is kept
+     *                          after rendering, a bigger builder is dropped, so a single huge document
+     *                          does not keep memory after it is rendered
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    static MarkwonVisitorFactory createReusable(
+            @NonNull final MarkwonVisitorImpl.BuilderImpl builder,
+            @NonNull final MarkwonConfiguration configuration,
+            final int maxRetainedLength) {
+        return new ReusableVisitorFactory(builder, configuration, maxRetainedLength);
+    }
+
+    @NonNull
+    private static SpannableBuilder spannableBuilder(int expectedLength) {
+        final SpannableBuilder spannableBuilder = new SpannableBuilder();
+        if (expectedLength > 0) {
+            spannableBuilder.ensureCapacity(expectedLength);
+        }
+        return spannableBuilder;
+    }
+
+    private static class ReusableVisitorFactory extends MarkwonVisitorFactory {
+
+        private final MarkwonVisitorImpl.BuilderImpl builder;
+        private final MarkwonConfiguration configuration;
+        private final int maxRetainedLength;
+
+        private final ThreadLocal<Workspace> workspaces = new ThreadLocal<>();
+
+        ReusableVisitorFactory(
+                @NonNull MarkwonVisitorImpl.BuilderImpl builder,
+                @NonNull MarkwonConfiguration configuration,
+                int maxRetainedLength) {
+            this.builder = builder;
+            this.configuration = configuration;
+            this.maxRetainedLength = maxRetainedLength;
+        }
+
+        @NonNull
+        @Override
+        MarkwonVisitor create(int expectedLength) {
+
+            Workspace workspace = workspaces.get();
+
+            if (workspace != null) {
+                if (workspace.inUse) {
+                    // nested render on the same thread
+                    return builder.build(configuration, new RenderPropsImpl(), spannableBuilder(expectedLength));
+                }
+                if (expectedLength > 0) {
+                    workspace.spannableBuilder.ensureCapacity(expectedLength);
+                }
+            } else {
+                final SpannableBuilder spannableBuilder = spannableBuilder(expectedLength);
+                workspace = new Workspace(
+                        builder.build(configuration, new RenderPropsImpl(), spannableBuilder),
+                        spannableBuilder);
+                workspaces.set(workspace);
+            }
+
+            workspace.inUse = true;
+            return workspace.visitor;
+        }
+
+        @Override
+        void release(@NonNull MarkwonVisitor visitor) {
+
+            final Workspace workspace = workspaces.get();
+            if (workspace == null
+                    || workspace.visitor != visitor) {
+                return;
+            }
+
+            final SpannableBuilder spannableBuilder = workspace.spannableBuilder;
+            if (spannableBuilder.capacity() > maxRetainedLength
+                    || spannableBuilder.spanCapacity() > maxRetainedLength) {
+                workspaces.remove();
+            } else {
+                visitor.clear();
+                workspace.inUse = false;
+            }
+        }
+    }
+
+    private static class Workspace {
+
+        final MarkwonVisitor visitor;
+        final SpannableBuilder spannableBuilder;
+
+        boolean inUse;
+
+        Workspace(@NonNull MarkwonVisitor visitor, @NonNull SpannableBuilder spannableBuilder) {
+            this.visitor = visitor;
+            this.spannableBuilder = spannableBuilder;
+        }
+    }
 }
@@ -28,7 +28,6 @@ import org.commonmark.node.StrongEmphasis;
 import org.commonmark.node.Text;
 import org.commonmark.node.ThematicBreak;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,22 +42,39 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
 
     private final SpannableBuilder builder;
 
-    private final Map<Class<? extends Node>, NodeVisitor<? extends Node>> nodes;
+    // @since $SNAPSHOT; visitors and span factories are resolved by a single lookup
+    private final RenderPlan renderPlan;
 
     // @since 4.3.0
     private final BlockHandler blockHandler;
 
+    // @since $SNAPSHOT;
+    @Nullable
+    private final MarkwonTracer tracer;
+
     MarkwonVisitorImpl(
             @NonNull MarkwonConfiguration configuration,
             @NonNull RenderProps renderProps,
             @NonNull SpannableBuilder builder,
             @NonNull Map<Class<? extends Node>, NodeVisitor<? extends Node>> nodes,
             @NonNull BlockHandler blockHandler) {
+        this(configuration, renderProps, builder, RenderPlan.create(nodes, null), blockHandler, null);
+    }
+
+    // @since $SNAPSHOT;
+    MarkwonVisitorImpl(
+            @NonNull MarkwonConfiguration configuration,
+            @NonNull RenderProps renderProps,
+            @NonNull SpannableBuilder builder,
+            @NonNull RenderPlan renderPlan,
+            @NonNull BlockHandler blockHandler,
+            @Nullable MarkwonTracer tracer) {
         this.configuration = configuration;
         this.renderProps = renderProps;
         this.builder = builder;
-        this.nodes = nodes;
+        this.renderPlan = renderPlan;
         this.blockHandler = blockHandler;
+        this.tracer = tracer;
     }
 
     @Override
@@ -177,10 +193,24 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
     }
 
     private void visit(@NonNull Node node) {
+        final RenderPlan.Entry entry = renderPlan.get(node.getClass());
         //noinspection unchecked
-        final NodeVisitor<Node> nodeVisitor = (NodeVisitor<Node>) nodes.get(node.getClass());
+        final NodeVisitor<Node> nodeVisitor = entry != null
+                ? (NodeVisitor<Node>) entry.visitor
+                : null;
         if (nodeVisitor != null) {
-            nodeVisitor.visit(this, node);
+            final MarkwonTracer tracer = this.tracer;
+            if (tracer == null) {
+                nodeVisitor.visit(this, node);
+            } else {
+                final Class<? extends Node> type = node.getClass();
+                tracer.begin(MarkwonTracer.Stage.VISIT, type);
+                try {
+                    nodeVisitor.visit(this, node);
+                } finally {
+                    tracer.end(MarkwonTracer.Stage.VISIT, type);
+                }
+            }
         } else {
             visitChildren(node);
         }
@@ -257,7 +287,9 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
 
     @Override
     public <N extends Node> void setSpansForNode(@NonNull Class<N> node, int start) {
-        setSpans(start, configuration.spansFactory().require(node).getSpans(configuration, renderProps));
+        if (!setSpansFromPlan(node, start)) {
+            setSpans(start, configuration.spansFactory().require(node).getSpans(configuration, renderProps));
+        }
     }
 
     @Override
@@ -267,10 +299,29 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
 
     @Override
     public <N extends Node> void setSpansForNodeOptional(@NonNull Class<N> node, int start) {
-        final SpanFactory factory = configuration.spansFactory().get(node);
-        if (factory != null) {
-            setSpans(start, factory.getSpans(configuration, renderProps));
+        if (!setSpansFromPlan(node, start)) {
+            final SpanFactory factory = configuration.spansFactory().get(node);
+            if (factory != null) {
+                setSpans(start, factory.getSpans(configuration, renderProps));
+            }
+        }
+    }
+
+    // @since $SNAPSHOT; returns false if factory is not resolved by the plan (and must be
+    //  obtained from spans factory), each factory of a composite applies own spans directly
+    private boolean setSpansFromPlan(@NonNull Class<?> node, int start) {
+        final RenderPlan.Entry entry = renderPlan.get(node);
+        final SpanFactory[] factories = entry != null
+                ? entry.factories
+                : null;
+        if (factories == null) {
+            return false;
+        }
+        final int end = builder.length();
+        for (SpanFactory factory : factories) {
+            SpannableBuilder.setSpans(builder, factory.getSpans(configuration, renderProps), start, end);
         }
+        return true;
     }
 
     @Override
@@ -288,6 +339,13 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
         private final Map<Class<? extends Node>, NodeVisitor<? extends Node>> nodes = new HashMap<>();
         private BlockHandler blockHandler;
 
+        // @since $SNAPSHOT;
+        private MarkwonTracer tracer;
+
+        // @since $SNAPSHOT; compiled when Markwon is built (or when requested with different
+        //  spans factory), RenderPlan is immutable so it can be shared by visitors of different threads
+        private RenderPlan renderPlan;
+
         @NonNull
         @Override
         public <N extends Node> Builder on(@NonNull Class<N> node, @Nullable NodeVisitor<? super N> nodeVisitor) {
@@ -303,6 +361,7 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
             } else {
                 nodes.put(node, nodeVisitor);
             }
+            renderPlan = null;
             return this;
         }
 
@@ -313,9 +372,35 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
             return this;
         }
 
+        // @since $SNAPSHOT; not a part of public builder as it is configured by Markwon.Builder
+        void tracer(@Nullable MarkwonTracer tracer) {
+            this.tracer = tracer;
+        }
+
+        // @since $SNAPSHOT; resolves visitors and span factories before the first render
+        @NonNull
+        RenderPlan renderPlan(@NonNull MarkwonSpansFactory spansFactory) {
+            RenderPlan renderPlan = this.renderPlan;
+            if (renderPlan == null
+                    || !renderPlan.isFor(spansFactory)) {
+                renderPlan = RenderPlan.create(nodes, spansFactory);
+                this.renderPlan = renderPlan;
+            }
+            return renderPlan;
+        }
+
         @NonNull
         @Override
         public MarkwonVisitor build(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps renderProps) {
+            return build(configuration, renderProps, new SpannableBuilder());
+        }
+
+        // @since $SNAPSHOT; allows supplying a pre-sized (or reused) builder
+        @NonNull
+        MarkwonVisitor build(
+                @NonNull MarkwonConfiguration configuration,
+                @NonNull RenderProps renderProps,
+                @NonNull SpannableBuilder builder) {
             // @since 4.3.0
             BlockHandler blockHandler = this.blockHandler;
             if (blockHandler == null) {
@@ -325,9 +410,10 @@ class MarkwonVisitorImpl implements MarkwonVisitor {
             return new MarkwonVisitorImpl(
                     configuration,
                     renderProps,
-                    new SpannableBuilder(),
-                    Collections.unmodifiableMap(nodes),
-                    blockHandler);
+                    builder,
+                    renderPlan(configuration.spansFactory()),
+                    blockHandler,
+                    tracer);
         }
     }
 }
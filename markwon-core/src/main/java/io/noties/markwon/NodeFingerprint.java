@@ -0,0 +1,246 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.BlockQuote;
+import org.commonmark.node.BulletList;
+import org.commonmark.node.Code;
+import org.commonmark.node.CustomBlock;
+import org.commonmark.node.CustomNode;
+import org.commonmark.node.Document;
+import org.commonmark.node.Emphasis;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.HardLineBreak;
+import org.commonmark.node.Heading;
+import org.commonmark.node.HtmlBlock;
+import org.commonmark.node.HtmlInline;
+import org.commonmark.node.Image;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.Link;
+import org.commonmark.node.LinkReferenceDefinition;
+import org.commonmark.node.ListItem;
+import org.commonmark.node.Node;
+import org.commonmark.node.OrderedList;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.SoftLineBreak;
+import org.commonmark.node.StrongEmphasis;
+import org.commonmark.node.Text;
+import org.commonmark.node.ThematicBreak;
+
+/**
+ * Calculates a structural 64-bit fingerprint of a node (and all its children). Only nodes
+ * that are known to commonmark-java are fingerprinted, as attributes of custom nodes are not
+ * accessible. If a node contains a custom node or HTML (tags are processed for the whole document,
+ * so an HTML node can affect other blocks), {@link #UNKNOWN} is returned, which must be
+ * treated as <em>changed</em>.
+ *
+ * @since $SNAPSHOT;
+ */
+abstract class NodeFingerprint {
+
+    static final long UNKNOWN = 0L;
+
+    static long of(@NonNull Node node) {
+        final FingerprintVisitor visitor = new FingerprintVisitor();
+        node.accept(visitor);
+        if (visitor.unknown
+                || visitor.hash == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return visitor.hash;
+    }
+
+    // FNV-1a 64
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private static class FingerprintVisitor extends AbstractVisitor {
+
+        long hash = OFFSET_BASIS;
+        boolean unknown;
+
+        @Override
+        public void visit(BlockQuote blockQuote) {
+            node(blockQuote);
+        }
+
+        @Override
+        public void visit(BulletList bulletList) {
+            mix(bulletList.getBulletMarker());
+            mix(bulletList.isTight());
+            node(bulletList);
+        }
+
+        @Override
+        public void visit(Code code) {
+            mix(code.getLiteral());
+            node(code);
+        }
+
+        @Override
+        public void visit(Document document) {
+            node(document);
+        }
+
+        @Override
+        public void visit(Emphasis emphasis) {
+            mix(emphasis.getOpeningDelimiter());
+            node(emphasis);
+        }
+
+        @Override
+        public void visit(FencedCodeBlock fencedCodeBlock) {
+            mix(fencedCodeBlock.getFenceChar());
+            mix(fencedCodeBlock.getFenceLength());
+            mix(fencedCodeBlock.getFenceIndent());
+            mix(fencedCodeBlock.getInfo());
+            mix(fencedCodeBlock.getLiteral());
+            node(fencedCodeBlock);
+        }
+
+        @Override
+        public void visit(HardLineBreak hardLineBreak) {
+            node(hardLineBreak);
+        }
+
+        @Override
+        public void visit(Heading heading) {
+            mix(heading.getLevel());
+            node(heading);
+        }
+
+        @Override
+        public void visit(ThematicBreak thematicBreak) {
+            node(thematicBreak);
+        }
+
+        @Override
+        public void visit(HtmlInline htmlInline) {
+            // HTML tags are processed for the whole document (a tag can be closed in another block),
+            //  so rendered block depends not only on its own nodes
+            unknown = true;
+        }
+
+        @Override
+        public void visit(HtmlBlock htmlBlock) {
+            // see HtmlInline
+            unknown = true;
+        }
+
+        @Override
+        public void visit(Image image) {
+            mix(image.getDestination());
+            mix(image.getTitle());
+            node(image);
+        }
+
+        @Override
+        public void visit(IndentedCodeBlock indentedCodeBlock) {
+            mix(indentedCodeBlock.getLiteral());
+            node(indentedCodeBlock);
+        }
+
+        @Override
+        public void visit(Link link) {
+            mix(link.getDestination());
+            mix(link.getTitle());
+            node(link);
+        }
+
+        @Override
+        public void visit(ListItem listItem) {
+            node(listItem);
+        }
+
+        @Override
+        public void visit(OrderedList orderedList) {
+            mix(orderedList.getStartNumber());
+            mix(orderedList.getDelimiter());
+            mix(orderedList.isTight());
+            node(orderedList);
+        }
+
+        @Override
+        public void visit(Paragraph paragraph) {
+            node(paragraph);
+        }
+
+        @Override
+        public void visit(SoftLineBreak softLineBreak) {
+            node(softLineBreak);
+        }
+
+        @Override
+        public void visit(StrongEmphasis strongEmphasis) {
+            mix(strongEmphasis.getOpeningDelimiter());
+            node(strongEmphasis);
+        }
+
+        @Override
+        public void visit(Text text) {
+            mix(text.getLiteral());
+            node(text);
+        }
+
+        @Override
+        public void visit(LinkReferenceDefinition linkReferenceDefinition) {
+            mix(linkReferenceDefinition.getLabel());
+            mix(linkReferenceDefinition.getDestination());
+            mix(linkReferenceDefinition.getTitle());
+            node(linkReferenceDefinition);
+        }
+
+        @Override
+        public void visit(CustomBlock customBlock) {
+            // attributes of custom nodes are not known, so we cannot tell if they are equal
+            unknown = true;
+        }
+
+        @Override
+        public void visit(CustomNode customNode) {
+            unknown = true;
+        }
+
+        private void node(@NonNull Node node) {
+            if (unknown) {
+                return;
+            }
+            mix(node.getClass().getName());
+            // mark boundaries of children, so `a(b)c` and `a(bc)` produce different values
+            mix('(');
+            visitChildren(node);
+            mix(')');
+        }
+
+        private void mix(@Nullable String value) {
+            if (value == null) {
+                mix(-1);
+            } else {
+                final int length = value.length();
+                mix(length);
+                for (int i = 0; i < length; i++) {
+                    mix(value.charAt(i));
+                }
+            }
+        }
+
+        private void mix(boolean value) {
+            mix(value ? 1 : 0);
+        }
+
+        private void mix(char value) {
+            hash ^= value;
+            hash *= PRIME;
+        }
+
+        private void mix(int value) {
+            mix((char) (value >>> 16));
+            mix((char) value);
+        }
+    }
+
+    private NodeFingerprint() {
+    }
+}
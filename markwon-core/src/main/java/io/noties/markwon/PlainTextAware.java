@@ -0,0 +1,33 @@
+package io.noties.markwon;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Can be implemented by a {@link MarkwonPlugin} to allow {@link Markwon#toMarkdown(String)}
+ * to render plain text input directly, without processing, parsing and visiting it.
+ * A plain text input is a single line of text that does not start or end with whitespace
+ * and contains no markdown syntax.
+ * <p>
+ * A plugin that implements this interface guarantees that it does not affect the result
+ * of rendering such input (in any of its methods, including {@link MarkwonPlugin#processMarkdown(String)},
+ * {@link MarkwonPlugin#beforeRender(org.commonmark.node.Node)} and
+ * {@link MarkwonPlugin#afterRender(org.commonmark.node.Node, MarkwonVisitor)}), unless the input
+ * contains one of the characters returned by {@link #specialCharacters()}. The direct
+ * rendering is used only if all registered plugins implement this interface, so a plugin
+ * that does not implement it disables it. A subclass that changes rendering of a plugin
+ * that implements this interface must override {@link #specialCharacters()} accordingly.
+ * <p>
+ * {@link io.noties.markwon.core.CorePlugin.OnTextAddedListener} can implement this interface also,
+ * otherwise {@link io.noties.markwon.core.CorePlugin} with such a listener can affect any input.
+ *
+ * @since $SNAPSHOT;
+ */
+public interface PlainTextAware {
+
+    /**
+     * @return characters that can make this plugin affect rendering of a plain text input
+     * (an empty string if there are none), or null if it can affect any input
+     */
+    @Nullable
+    String specialCharacters();
+}
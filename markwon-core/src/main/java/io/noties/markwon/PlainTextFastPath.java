@@ -0,0 +1,121 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.BitSet;
+import java.util.List;
+
+import io.noties.markwon.core.CorePlugin;
+
+/**
+ * Renders plain text input (a single line without markdown syntax) directly, without
+ * processing, parsing and visiting it. Input is checked in a single pass against characters
+ * that can start commonmark syntax and {@link PlainTextAware#specialCharacters()} of all plugins.
+ * The check is conservative: if input <em>can</em> contain syntax it is rendered as usual,
+ * so the result is always the same as of the full rendering (a paragraph with a single text node).
+ *
+ * @see PlainTextAware
+ * @since $SNAPSHOT;
+ */
+class PlainTextFastPath {
+
+    // characters that can trigger inline parsing (or are modified by parser) anywhere in a line
+    //  (`!` is not included as an image requires `[` also)
+    private static final String INLINE_CHARACTERS = "\n\r\u0000`[]\\<&*_";
+
+    // characters that can start a block (list item, heading, block quote, code block, thematic break, etc)
+    private static final String BLOCK_START_CHARACTERS = "#>-+*=_`~<0123456789";
+
+    /**
+     * @return fast path or null if it cannot be used with supplied plugins (if at least one of them
+     * does not implement {@link PlainTextAware} or there is no {@link CorePlugin} to render text)
+     */
+    @Nullable
+    static PlainTextFastPath create(@NonNull List<? extends MarkwonPlugin> plugins) {
+
+        final BitSet special = new BitSet(128);
+        add(special, INLINE_CHARACTERS);
+
+        boolean hasCorePlugin = false;
+
+        for (MarkwonPlugin plugin : plugins) {
+            if (!(plugin instanceof PlainTextAware)) {
+                return null;
+            }
+            final String characters = ((PlainTextAware) plugin).specialCharacters();
+            if (characters == null) {
+                return null;
+            }
+            add(special, characters);
+            if (plugin instanceof CorePlugin) {
+                hasCorePlugin = true;
+            }
+        }
+
+        if (!hasCorePlugin) {
+            return null;
+        }
+
+        final BitSet blockStart = new BitSet(128);
+        add(blockStart, BLOCK_START_CHARACTERS);
+
+        return new PlainTextFastPath(special, blockStart);
+    }
+
+    private static void add(@NonNull BitSet set, @NonNull String characters) {
+        for (int i = 0, length = characters.length(); i < length; i++) {
+            set.set(characters.charAt(i));
+        }
+    }
+
+    private static final Object[] EMPTY_SPANS = new Object[0];
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private final BitSet special;
+    private final BitSet blockStart;
+
+    private PlainTextFastPath(@NonNull BitSet special, @NonNull BitSet blockStart) {
+        this.special = special;
+        this.blockStart = blockStart;
+    }
+
+    boolean isPlainText(@NonNull String input) {
+
+        final int length = input.length();
+        if (length == 0) {
+            return false;
+        }
+
+        final char first = input.charAt(0);
+        if (Character.isWhitespace(first)
+                || blockStart.get(first)) {
+            return false;
+        }
+
+        // trailing whitespace is stripped by parser
+        if (Character.isWhitespace(input.charAt(length - 1))) {
+            return false;
+        }
+
+        final BitSet special = this.special;
+        for (int i = 0; i < length; i++) {
+            if (special.get(input.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Must be called only if {@link #isPlainText(String)} returned true for the same input
+     */
+    @NonNull
+    Spanned render(@NonNull String input) {
+        // the same type as returned from full rendering (arrays are copied when a span is added)
+        return new SpannableReversed(input, EMPTY_SPANS, EMPTY_INTS, EMPTY_INTS, EMPTY_INTS, 0);
+    }
+}
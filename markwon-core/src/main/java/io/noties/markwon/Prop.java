@@ -3,12 +3,20 @@ package io.noties.markwon;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Class to hold data in {@link RenderProps}. Represents a certain <em>property</em>.
  *
  * @param <T> represents the type that this instance holds
  * @see #of(String)
  * @see #of(Class, String)
+ * @see #ofInt(String)
+ * @see #ofBoolean(String)
  * @since 3.0.0
  */
 public class Prop<T> {
@@ -24,10 +32,74 @@ public class Prop<T> {
         return new Prop<>(name);
     }
 
+    /**
+     * @see IntProp
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public static IntProp ofInt(@NonNull String name) {
+        return new IntProp(name);
+    }
+
+    /**
+     * @see BooleanProp
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public static BooleanProp ofBoolean(@NonNull String name) {
+        return new BooleanProp(name);
+    }
+
+    // @since $SNAPSHOT; props are equal by name, so an index is assigned to a name (not an instance).
+    //  Index is released when no prop with that name is reachable (and no RenderProps holds its value),
+    //  so props that are created dynamically do not grow the registry (and arrays of RenderProps)
+    private static final Map<String, SlotReference> SLOTS = new HashMap<>();
+    private static final BitSet USED_INDICES = new BitSet();
+    private static final ReferenceQueue<Slot> RELEASED = new ReferenceQueue<>();
+
+    @NonNull
+    private static Slot slot(@NonNull String name) {
+        synchronized (SLOTS) {
+
+            release();
+
+            final SlotReference reference = SLOTS.get(name);
+            Slot slot = reference != null
+                    ? reference.get()
+                    : null;
+
+            if (slot == null) {
+                // the lowest free index, so indices stay dense
+                final int index = USED_INDICES.nextClearBit(0);
+                USED_INDICES.set(index);
+                slot = new Slot(index);
+                SLOTS.put(name, new SlotReference(name, slot, RELEASED));
+            }
+
+            return slot;
+        }
+    }
+
+    // must be called with SLOTS lock
+    private static void release() {
+        SlotReference reference;
+        while ((reference = (SlotReference) RELEASED.poll()) != null) {
+            // a new slot could have been assigned to the name already
+            if (SLOTS.get(reference.name) == reference) {
+                SLOTS.remove(reference.name);
+            }
+            USED_INDICES.clear(reference.index);
+        }
+    }
+
     private final String name;
 
+    // @since $SNAPSHOT; shared by all props with the same name (used by RenderPropsImpl to store values in an array)
+    private final Slot slot;
+
     Prop(@NonNull String name) {
         this.name = name;
+        this.slot = slot(name);
     }
 
     @NonNull
@@ -35,6 +107,17 @@ public class Prop<T> {
         return name;
     }
 
+    // @since $SNAPSHOT; dense index of this prop
+    int index() {
+        return slot.index;
+    }
+
+    // @since $SNAPSHOT;
+    @NonNull
+    Slot slot() {
+        return slot;
+    }
+
     @Nullable
     public T get(@NonNull RenderProps props) {
         return props.get(this);
@@ -83,4 +166,32 @@ public class Prop<T> {
                 "name='" + name + '\'' +
                 '}';
     }
+
+    /**
+     * Index of props with the same name. Kept strongly by props and by RenderProps that store
+     * a value for it, so an index is not reused while it is in use
+     *
+     * @since $SNAPSHOT;
+     */
+    static final class Slot {
+
+        final int index;
+
+        Slot(int index) {
+            this.index = index;
+        }
+    }
+
+    // @since $SNAPSHOT;
+    private static final class SlotReference extends WeakReference<Slot> {
+
+        final String name;
+        final int index;
+
+        SlotReference(@NonNull String name, @NonNull Slot slot, @NonNull ReferenceQueue<Slot> queue) {
+            super(slot, queue);
+            this.name = name;
+            this.index = slot.index;
+        }
+    }
 }
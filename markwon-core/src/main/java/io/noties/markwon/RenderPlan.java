@@ -0,0 +1,153 @@
+package io.noties.markwon;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.commonmark.node.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visitors and span factories of all registered node types (including custom nodes) resolved
+ * once when {@link Markwon} is built. A node type is resolved with a single lookup in an
+ * identity table (no {@code equals} calls and no boxing) that gives both node visitor and
+ * span factories. {@code CompositeSpanFactory} (created by {@code appendFactory} and
+ * {@code prependFactory}) is flattened into an array of its factories, so spans of each factory
+ * are applied directly without allocating an intermediate array for each node.
+ *
+ * @since $SNAPSHOT;
+ */
+final class RenderPlan {
+
+    /**
+     * @param visitors     registered node visitors
+     * @param spansFactory that is used by configuration. Span factories are resolved only if it is
+     *                     created by {@link MarkwonSpansFactoryImpl.BuilderImpl}, otherwise
+     *                     {@link Entry#factories} is always null and supplied factory
+     *                     must be queried directly
+     */
+    @NonNull
+    static RenderPlan create(
+            @NonNull Map<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>> visitors,
+            @Nullable MarkwonSpansFactory spansFactory) {
+
+        final Map<Class<? extends Node>, SpanFactory> factories = spansFactory instanceof MarkwonSpansFactoryImpl
+                ? ((MarkwonSpansFactoryImpl) spansFactory).factories()
+                : Collections.<Class<? extends Node>, SpanFactory>emptyMap();
+
+        final Map<Class<? extends Node>, Entry> entries = new HashMap<>(visitors.size() + factories.size());
+
+        for (Map.Entry<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>> entry : visitors.entrySet()) {
+            final Class<? extends Node> type = entry.getKey();
+            entries.put(type, new Entry(entry.getValue(), flatten(factories.get(type))));
+        }
+
+        for (Map.Entry<Class<? extends Node>, SpanFactory> entry : factories.entrySet()) {
+            final Class<? extends Node> type = entry.getKey();
+            if (!entries.containsKey(type)) {
+                entries.put(type, new Entry(null, flatten(entry.getValue())));
+            }
+        }
+
+        return new RenderPlan(spansFactory, entries);
+    }
+
+    static class Entry {
+
+        @Nullable
+        final MarkwonVisitor.NodeVisitor<? extends Node> visitor;
+
+        // flattened span factories or null if no factory is registered
+        @Nullable
+        final SpanFactory[] factories;
+
+        Entry(@Nullable MarkwonVisitor.NodeVisitor<? extends Node> visitor, @Nullable SpanFactory[] factories) {
+            this.visitor = visitor;
+            this.factories = factories;
+        }
+    }
+
+    @Nullable
+    private final MarkwonSpansFactory spansFactory;
+
+    // open addressing (linear probing) table with identity comparison of keys
+    private final Class<?>[] keys;
+    private final Entry[] values;
+    private final int mask;
+
+    private RenderPlan(@Nullable MarkwonSpansFactory spansFactory, @NonNull Map<Class<? extends Node>, Entry> entries) {
+
+        this.spansFactory = spansFactory;
+
+        // load factor is kept below 0.5, so a probe sequence is short
+        final int capacity = Math.max(8, Integer.highestOneBit(Math.max(1, entries.size()) * 2) << 1);
+
+        this.keys = new Class<?>[capacity];
+        this.values = new Entry[capacity];
+        this.mask = capacity - 1;
+
+        for (Map.Entry<Class<? extends Node>, Entry> entry : entries.entrySet()) {
+            int index = index(entry.getKey());
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * @return entry for supplied node type or null if neither visitor nor span factory is registered
+     */
+    @Nullable
+    Entry get(@NonNull Class<?> type) {
+        int index = index(type);
+        Class<?> key;
+        while ((key = keys[index]) != null) {
+            if (key == type) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if span factories of this plan are resolved from supplied spansFactory
+     */
+    boolean isFor(@Nullable MarkwonSpansFactory spansFactory) {
+        return this.spansFactory == spansFactory;
+    }
+
+    private int index(@NonNull Class<?> type) {
+        final int hash = System.identityHashCode(type);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Nullable
+    private static SpanFactory[] flatten(@Nullable SpanFactory factory) {
+        if (factory == null) {
+            return null;
+        }
+        if (!(factory instanceof MarkwonSpansFactoryImpl.CompositeSpanFactory)) {
+            return new SpanFactory[]{factory};
+        }
+        final List<SpanFactory> out = new ArrayList<>(3);
+        flatten(factory, out);
+        return out.toArray(new SpanFactory[0]);
+    }
+
+    private static void flatten(@NonNull SpanFactory factory, @NonNull List<SpanFactory> out) {
+        if (factory instanceof MarkwonSpansFactoryImpl.CompositeSpanFactory) {
+            for (SpanFactory f : ((MarkwonSpansFactoryImpl.CompositeSpanFactory) factory).factories) {
+                flatten(f, out);
+            }
+        } else {
+            out.add(factory);
+        }
+    }
+}
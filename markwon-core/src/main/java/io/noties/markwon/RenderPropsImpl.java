@@ -3,30 +3,55 @@ package io.noties.markwon;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * @since 3.0.0
  */
 class RenderPropsImpl implements RenderProps {
 
-    private final Map<Prop, Object> values = new HashMap<>(3);
+    // @since $SNAPSHOT; marks a value that is stored (without boxing) in `ints` array
+    private static final Object INT_VALUE = new Object();
+
+    // @since $SNAPSHOT; marks a boolean value that is stored (as 0 or 1) in `ints` array
+    private static final Object BOOLEAN_VALUE = new Object();
+
+    // @since $SNAPSHOT; values are stored by index of a prop (instead of a HashMap)
+    private Object[] values = new Object[16];
+
+    // slots of props with a value, keep index of a prop assigned (so it is not reused
+    //  for another name whilst a value is stored)
+    private Prop.Slot[] slots = new Prop.Slot[16];
+
+    // created when the first int (or boolean) value is set
+    private int[] ints;
 
     @Nullable
     @Override
     public <T> T get(@NonNull Prop<T> prop) {
+        final int index = prop.index();
+        if (index >= values.length) {
+            return null;
+        }
+        final Object value = values[index];
+        if (value == INT_VALUE) {
+            //noinspection unchecked
+            return (T) Integer.valueOf(ints[index]);
+        }
+        if (value == BOOLEAN_VALUE) {
+            //noinspection unchecked
+            return (T) Boolean.valueOf(ints[index] != 0);
+        }
         //noinspection unchecked
-        return (T) values.get(prop);
+        return (T) value;
     }
 
     @NonNull
     @Override
     public <T> T get(@NonNull Prop<T> prop, @NonNull T defValue) {
-        Object value = values.get(prop);
+        final T value = get(prop);
         if (value != null) {
-            //noinspection unchecked
-            return (T) value;
+            return value;
         }
         return defValue;
     }
@@ -34,19 +59,102 @@ class RenderPropsImpl implements RenderProps {
     @Override
     public <T> void set(@NonNull Prop<T> prop, @Nullable T value) {
         if (value == null) {
-            values.remove(prop);
+            clear(prop);
         } else {
-            values.put(prop, value);
+            final int index = prop.index();
+            ensureCapacity(index);
+            values[index] = value;
+            slots[index] = prop.slot();
         }
     }
 
     @Override
     public <T> void clear(@NonNull Prop<T> prop) {
-        values.remove(prop);
+        final int index = prop.index();
+        if (index < values.length) {
+            values[index] = null;
+            slots[index] = null;
+        }
     }
 
     @Override
     public void clearAll() {
-        values.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(slots, null);
+    }
+
+    // @since $SNAPSHOT;
+    boolean contains(@NonNull Prop<?> prop) {
+        final int index = prop.index();
+        return index < values.length
+                && values[index] != null;
+    }
+
+    // @since $SNAPSHOT;
+    int getInt(@NonNull IntProp prop, int defValue) {
+        final int index = prop.index();
+        if (index >= values.length) {
+            return defValue;
+        }
+        final Object value = values[index];
+        if (value == INT_VALUE) {
+            return ints[index];
+        }
+        if (value == null) {
+            return defValue;
+        }
+        // set via generic `set` method
+        return (Integer) value;
+    }
+
+    // @since $SNAPSHOT;
+    void setInt(@NonNull IntProp prop, int value) {
+        setPrimitive(prop, value, INT_VALUE);
+    }
+
+    // @since $SNAPSHOT;
+    boolean getBoolean(@NonNull BooleanProp prop, boolean defValue) {
+        final int index = prop.index();
+        if (index >= values.length) {
+            return defValue;
+        }
+        final Object value = values[index];
+        if (value == BOOLEAN_VALUE) {
+            return ints[index] != 0;
+        }
+        if (value == null) {
+            return defValue;
+        }
+        // set via generic `set` method
+        return (Boolean) value;
+    }
+
+    // @since $SNAPSHOT;
+    void setBoolean(@NonNull BooleanProp prop, boolean value) {
+        setPrimitive(prop, value ? 1 : 0, BOOLEAN_VALUE);
+    }
+
+    private void setPrimitive(@NonNull Prop<?> prop, int value, @NonNull Object marker) {
+        final int index = prop.index();
+        ensureCapacity(index);
+        if (ints == null || index >= ints.length) {
+            ints = ints == null
+                    ? new int[values.length]
+                    : Arrays.copyOf(ints, values.length);
+        }
+        ints[index] = value;
+        values[index] = marker;
+        slots[index] = prop.slot();
+    }
+
+    private void ensureCapacity(int index) {
+        if (index >= values.length) {
+            int length = values.length;
+            while (length <= index) {
+                length *= 2;
+            }
+            values = Arrays.copyOf(values, length);
+            slots = Arrays.copyOf(slots, length);
+        }
     }
 }
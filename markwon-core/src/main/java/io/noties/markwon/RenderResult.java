@@ -0,0 +1,86 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Result of rendering a single document in a batch. Contains either rendered markdown
+ * or an error that was thrown during processing of this document.
+ *
+ * @see Markwon#renderAll(java.util.List, java.util.concurrent.Executor)
+ * @see Markwon#renderAllNodes(java.util.List, java.util.concurrent.Executor)
+ * @since $SNAPSHOT;
+ */
+public final class RenderResult {
+
+    @NonNull
+    static RenderResult success(int index, @NonNull Spanned spanned) {
+        return new RenderResult(index, spanned, null);
+    }
+
+    @NonNull
+    static RenderResult failure(int index, @NonNull Throwable throwable) {
+        return new RenderResult(index, null, throwable);
+    }
+
+    private final int index;
+    private final Spanned spanned;
+    private final Throwable error;
+
+    private RenderResult(int index, @Nullable Spanned spanned, @Nullable Throwable error) {
+        this.index = index;
+        this.spanned = spanned;
+        this.error = error;
+    }
+
+    /**
+     * @return index of the document in the supplied list
+     */
+    public int index() {
+        return index;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return rendered markdown or null if rendering has failed
+     */
+    @Nullable
+    public Spanned spanned() {
+        return spanned;
+    }
+
+    /**
+     * @return error that was thrown during rendering or null if rendering was successful
+     */
+    @Nullable
+    public Throwable error() {
+        return error;
+    }
+
+    /**
+     * @return rendered markdown
+     * @throws IllegalStateException if rendering has failed (original error is set as a cause)
+     */
+    @NonNull
+    public Spanned requireSpanned() {
+        if (spanned == null) {
+            throw new IllegalStateException("Document at index " + index + " has failed to render", error);
+        }
+        return spanned;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "RenderResult{" +
+                "index=" + index +
+                ", spanned=" + spanned +
+                ", error=" + error +
+                '}';
+    }
+}
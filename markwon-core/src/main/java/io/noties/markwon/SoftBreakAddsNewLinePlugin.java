@@ -1,19 +1,29 @@
 package io.noties.markwon;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.commonmark.node.SoftLineBreak;
 
 /**
  * @since 4.3.0
  */
-public class SoftBreakAddsNewLinePlugin extends AbstractMarkwonPlugin {
+public class SoftBreakAddsNewLinePlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     @NonNull
     public static SoftBreakAddsNewLinePlugin create() {
         return new SoftBreakAddsNewLinePlugin();
     }
 
+    /**
+     * @since $SNAPSHOT; soft breaks are not present in a single line of text
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        return "";
+    }
+
     @Override
     public void configureVisitor(@NonNull MarkwonVisitor.Builder builder) {
         builder.on(SoftLineBreak.class, new MarkwonVisitor.NodeVisitor<SoftLineBreak>() {
@@ -1,5 +1,6 @@
 package io.noties.markwon;
 
+import android.text.Spannable;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 
@@ -7,11 +8,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -56,8 +55,26 @@ public class SpannableBuilder implements Appendable, CharSequence {
 
     private final StringBuilder builder;
 
-    // actually we might be just using ArrayList
-    private final Deque<Span> spans = new ArrayDeque<>(8);
+    // @since $SNAPSHOT; spans are stored in parallel arrays in order they were added,
+    //  so drawing order is the reversed order of these arrays
+    private Object[] spanWhat = new Object[8];
+    private int[] spanStarts = new int[8];
+    private int[] spanEnds = new int[8];
+    private int[] spanFlags = new int[8];
+
+    // interval index: maximum end of spans [0, i], it never decreases, so the first span
+    //  that can end after a position is found with a binary search
+    private int[] spanMaxEnds = new int[8];
+
+    private int spanCount;
+
+    // @since $SNAPSHOT; Span instances returned from `#getSpans` (created lazily). As they can be
+    //  modified, such instance (and not arrays) holds position of a span. Arrays and interval index
+    //  keep initial positions (so index stays valid for other spans), indices of spans with
+    //  an instance are kept (ascending) in `liveSpans` and checked individually
+    private Span[] spanObjects;
+    private int[] liveSpans;
+    private int liveSpanCount;
 
     public SpannableBuilder() {
         this("");
@@ -113,6 +130,48 @@ public class SpannableBuilder implements Appendable, CharSequence {
         return this;
     }
 
+    /**
+     * Appends {@code [start, end)} range of supplied spanned along with spans that are
+     * <em>fully</em> contained in this range (spans that cross range bounds are ignored). Unlike
+     * {@link #append(CharSequence, int, int)} preserves order of spans
+     * from previously rendered markdown.
+     *
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    SpannableBuilder appendSpanned(@NonNull Spanned spanned, int start, int end) {
+
+        final int index = length();
+
+        builder.append(spanned, start, end);
+
+        final Object[] spans = spanned.getSpans(start, end, Object.class);
+        final int length = spans != null
+                ? spans.length
+                : 0;
+
+        if (length > 0) {
+
+            // same as `copySpans`, reversed spanned must be iterated backwards
+            final boolean reversed = isReversed(spanned);
+
+            Object o;
+            int s;
+            int e;
+
+            for (int i = 0; i < length; i++) {
+                o = spans[reversed ? length - 1 - i : i];
+                s = spanned.getSpanStart(o);
+                e = spanned.getSpanEnd(o);
+                if (s >= start && e <= end) {
+                    setSpan(o, index + s - start, index + e - start, spanned.getSpanFlags(o));
+                }
+            }
+        }
+
+        return this;
+    }
+
     @NonNull
     public SpannableBuilder append(@NonNull CharSequence cs, @NonNull Object span) {
         final int length = length();
@@ -141,7 +200,23 @@ public class SpannableBuilder implements Appendable, CharSequence {
 
     @NonNull
     public SpannableBuilder setSpan(@NonNull Object span, int start, int end, int flags) {
-        spans.push(new Span(span, start, end, flags));
+
+        final int count = spanCount;
+
+        if (count == spanWhat.length) {
+            grow(count + (count >> 1) + 1);
+        }
+
+        spanWhat[count] = span;
+        spanStarts[count] = start;
+        spanEnds[count] = end;
+        spanFlags[count] = flags;
+        spanMaxEnds[count] = count == 0
+                ? end
+                : Math.max(spanMaxEnds[count - 1], end);
+
+        spanCount = count + 1;
+
         return this;
     }
 
@@ -161,45 +236,60 @@ public class SpannableBuilder implements Appendable, CharSequence {
     @Override
     public CharSequence subSequence(int start, int end) {
 
-        final CharSequence out;
+        if (!isPositionValid(length(), start, end)) {
+            return builder.subSequence(start, end);
+        }
+
+        SpannableStringBuilder out = null;
 
         // @since 2.0.1 we copy spans to resulting subSequence
-        final List<Span> spans = getSpans(start, end);
-        if (spans.isEmpty()) {
-            out = builder.subSequence(start, end);
-        } else {
+        // @since $SNAPSHOT; spans are read from arrays (no Span instances are created),
+        //  zero-length spans at `start` must be included also
+        final int first = firstSpanEndingAfter(start - 1);
+        final int live = liveSpansBefore(first);
 
-            // we should not be SpannableStringBuilderReversed here
-            final SpannableStringBuilder builder = new SpannableStringBuilder(this.builder.subSequence(start, end));
+        int i;
+        int s;
+        int e;
 
-            final int length = builder.length();
+        for (int n = 0, total = live + spanCount - first; n < total; n++) {
 
-            int s;
-            int e;
+            i = n < live
+                    ? liveSpans[n]
+                    : first + n - live;
+
+            if (!overlaps(i, start, end)) {
+                continue;
+            }
 
-            for (Span span : spans) {
-
-                // we should limit start/end to resulting subSequence length
-                //
-                // for example, originally it was 5-7 and range 5-7 requested
-                // span should have 0-2
-                //
-                // if a span was fully including resulting subSequence it's start and
-                // end must be within 0..length bounds
-                s = Math.max(0, span.start - start);
-                e = Math.min(length, s + (span.end - span.start));
-
-                builder.setSpan(
-                        span.what,
-                        s,
-                        e,
-                        span.flags
-                );
+            if (out == null) {
+                // we should not be SpannableStringBuilderReversed here
+                out = new SpannableStringBuilder(this.builder.subSequence(start, end));
             }
-            out = builder;
+
+            final int length = out.length();
+
+            // we should limit start/end to resulting subSequence length
+            //
+            // for example, originally it was 5-7 and range 5-7 requested
+            // span should have 0-2
+            //
+            // if a span was fully including resulting subSequence it's start and
+            // end must be within 0..length bounds
+            s = Math.max(0, spanStart(i) - start);
+            e = Math.min(length, s + (spanEnd(i) - spanStart(i)));
+
+            out.setSpan(
+                    spanWhat[i],
+                    s,
+                    e,
+                    spanFlags[i]
+            );
         }
 
-        return out;
+        return out != null
+                ? out
+                : builder.subSequence(start, end);
     }
 
     /**
@@ -223,30 +313,22 @@ public class SpannableBuilder implements Appendable, CharSequence {
             return Collections.emptyList();
         }
 
-        // all requested
-        if (start == 0
-                && length == end) {
-            // but also copy (do not allow external modification)
-            final List<Span> list = new ArrayList<>(spans);
-            Collections.reverse(list);
-            return Collections.unmodifiableList(list);
-        }
+        // @since $SNAPSHOT; spans that end before range start are skipped via index (zero-length
+        //  spans at `start` are included), returned Span instances are kept, so their modification
+        //  affects this builder
+        final int first = firstSpanEndingAfter(start - 1);
+        final int live = liveSpansBefore(first);
 
         final List<Span> list = new ArrayList<>(0);
 
-        final Iterator<Span> iterator = spans.descendingIterator();
-        Span span;
-
-        while (iterator.hasNext()) {
-            span = iterator.next();
-            // we must execute 2 checks: if overlap with specified range or fully include it
-            // if span.start is >= range.start -> check if it's before range.end
-            // if span.end is <= end -> check if it's after range.start
-            if (
-                    (span.start >= start && span.start < end)
-                            || (span.end <= end && span.end > start)
-                            || (span.start < start && span.end > end)) {
-                list.add(span);
+        int i;
+
+        for (int n = 0, total = live + spanCount - first; n < total; n++) {
+            i = n < live
+                    ? liveSpans[n]
+                    : first + n - live;
+            if (overlaps(i, start, end)) {
+                list.add(spanObject(i));
             }
         }
 
@@ -268,16 +350,63 @@ public class SpannableBuilder implements Appendable, CharSequence {
         // as we do not expose builder and do no apply spans to it, we are safe to NOT to convert to String
         final SpannableStringBuilderReversed impl = new SpannableStringBuilderReversed(builder.subSequence(start, end));
 
-        final Iterator<Span> iterator = spans.iterator();
+        // only spans that end after `start` can be removed (and spans with zero length at `start`)
+        int first = firstSpanEndingAfter(start - 1);
+
+        // a span with an instance could have been moved to removed range
+        for (int n = 0, live = liveSpansBefore(first); n < live; n++) {
+            final int i = liveSpans[n];
+            if (spanStart(i) >= start && spanEnd(i) <= end) {
+                first = i;
+                break;
+            }
+        }
+
+        final int count = spanCount;
+
+        int s;
+        int e;
 
-        Span span;
+        // newest spans are applied first (same as we do for resulting spannable)
+        for (int i = count - 1; i >= first; i--) {
+            s = spanStart(i);
+            e = spanEnd(i);
+            if (s >= start && e <= end) {
+                impl.setSpan(spanWhat[i], s - start, e - start, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                spanWhat[i] = null;
+            }
+        }
 
-        while (iterator.hasNext() && ((span = iterator.next())) != null) {
-            if (span.start >= start && span.end <= end) {
-                impl.setSpan(span.what, span.start - start, span.end - start, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-                iterator.remove();
+        // indices of remaining spans with an instance are added again whilst compacting
+        liveSpanCount = liveSpansBefore(first);
+
+        // compact remaining spans (keeping their order)
+        int index = first;
+        for (int i = first; i < count; i++) {
+            if (spanWhat[i] != null) {
+                if (index != i) {
+                    spanWhat[index] = spanWhat[i];
+                    spanStarts[index] = spanStarts[i];
+                    spanEnds[index] = spanEnds[i];
+                    spanFlags[index] = spanFlags[i];
+                    spanWhat[i] = null;
+                    if (spanObjects != null) {
+                        spanObjects[index] = spanObjects[i];
+                        spanObjects[i] = null;
+                    }
+                }
+                if (spanObjects != null && spanObjects[index] != null) {
+                    addLiveSpan(index);
+                }
+                spanMaxEnds[index] = index == 0
+                        ? spanEnds[index]
+                        : Math.max(spanMaxEnds[index - 1], spanEnds[index]);
+                index += 1;
+            } else if (spanObjects != null) {
+                spanObjects[i] = null;
             }
         }
+        spanCount = index;
 
         builder.replace(start, end, "");
 
@@ -317,21 +446,181 @@ public class SpannableBuilder implements Appendable, CharSequence {
 
         final SpannableStringBuilderReversed reversed = new SpannableStringBuilderReversed(builder);
 
-        // NB, as e are using Deque -> iteration will be started with last element
-        // so, spans will be appearing in the for loop in reverse order
-        for (Span span : spans) {
-            reversed.setSpan(span.what, span.start, span.end, span.flags);
+        // NB, spans are applied in reverse order (last added span is applied first)
+        for (int i = spanCount - 1; i >= 0; i--) {
+            reversed.setSpan(spanWhat[i], spanStart(i), spanEnd(i), spanFlags[i]);
         }
 
         return reversed;
     }
 
+    /**
+     * Creates a Spannable that takes already ordered spans without copying them to
+     * a SpannableStringBuilder (only spans are not copied, text is still copied to a String).
+     * Resulting Spannable has the same text and returns spans in the same order as {@link #spannableStringBuilder()}, but its text cannot be modified.
+     * This builder can be modified or cleared afterwards without affecting returned instance.
+     * <p>
+     * NB, each span instance is expected to be set only once
+     *
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public Spannable spannable() {
+
+        final int count = spanCount;
+
+        final Object[] what = new Object[count];
+        final int[] starts = new int[count];
+        final int[] ends = new int[count];
+        final int[] flags = new int[count];
+
+        // the same order in which `#spannableStringBuilder()` applies spans
+        for (int i = 0, index = count - 1; i < count; i++, index--) {
+            what[i] = spanWhat[index];
+            starts[i] = spanStart(index);
+            ends[i] = spanEnd(index);
+            flags[i] = spanFlags[index];
+        }
+
+        return new SpannableReversed(builder.toString(), what, starts, ends, flags, count);
+    }
+
     /**
      * @since 3.0.0
      */
     public void clear() {
         builder.setLength(0);
-        spans.clear();
+        Arrays.fill(spanWhat, 0, spanCount, null);
+        if (spanObjects != null) {
+            Arrays.fill(spanObjects, 0, spanCount, null);
+        }
+        liveSpanCount = 0;
+        spanCount = 0;
+    }
+
+    // @since $SNAPSHOT; pre-sizes text buffer (for example from the length of markdown input)
+    void ensureCapacity(int capacity) {
+        builder.ensureCapacity(capacity);
+    }
+
+    // @since $SNAPSHOT; number of characters text buffer can hold without growing
+    int capacity() {
+        return builder.capacity();
+    }
+
+    // @since $SNAPSHOT; number of spans this builder can hold without growing
+    int spanCapacity() {
+        return spanWhat.length;
+    }
+
+    // @since $SNAPSHOT; returns index of the first span that can end after specified position
+    //  (all spans before returned index end at or before position)
+    private int firstSpanEndingAfter(int position) {
+        int low = 0;
+        int high = spanCount;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (spanMaxEnds[mid] > position) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private void grow(int size) {
+        spanWhat = Arrays.copyOf(spanWhat, size);
+        spanStarts = Arrays.copyOf(spanStarts, size);
+        spanEnds = Arrays.copyOf(spanEnds, size);
+        spanFlags = Arrays.copyOf(spanFlags, size);
+        spanMaxEnds = Arrays.copyOf(spanMaxEnds, size);
+        if (spanObjects != null) {
+            spanObjects = Arrays.copyOf(spanObjects, size);
+        }
+    }
+
+    // we must execute 2 checks: if overlap with specified range or fully include it
+    // if span.start is >= range.start -> check if it's before range.end
+    // if span.end is <= end -> check if it's after range.start
+    private boolean overlaps(int index, int start, int end) {
+        final int s = spanStart(index);
+        final int e = spanEnd(index);
+        return (s >= start && s < end)
+                || (e <= end && e > start)
+                || (s < start && e > end);
+    }
+
+    // @since $SNAPSHOT; current position of a span (Span instance can be modified)
+    private int spanStart(int index) {
+        final Span span = spanObjects != null
+                ? spanObjects[index]
+                : null;
+        return span != null
+                ? span.start
+                : spanStarts[index];
+    }
+
+    // @since $SNAPSHOT;
+    private int spanEnd(int index) {
+        final Span span = spanObjects != null
+                ? spanObjects[index]
+                : null;
+        return span != null
+                ? span.end
+                : spanEnds[index];
+    }
+
+    // @since $SNAPSHOT; returns the same (live) Span instance for a span each time it is requested
+    @NonNull
+    private Span spanObject(int index) {
+        if (spanObjects == null) {
+            spanObjects = new Span[spanWhat.length];
+        }
+        Span span = spanObjects[index];
+        if (span == null) {
+            span = new Span(spanWhat[index], spanStarts[index], spanEnds[index], spanFlags[index]);
+            spanObjects[index] = span;
+            insertLiveSpan(index);
+        }
+        return span;
+    }
+
+    // @since $SNAPSHOT; number of spans with an instance that have index lower than specified
+    private int liveSpansBefore(int index) {
+        int low = 0;
+        int high = liveSpanCount;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (liveSpans[mid] < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // @since $SNAPSHOT; keeps indices ascending
+    private void insertLiveSpan(int index) {
+        final int position = liveSpansBefore(index);
+        addLiveSpan(index);
+        if (position < liveSpanCount - 1) {
+            System.arraycopy(liveSpans, position, liveSpans, position + 1, liveSpanCount - 1 - position);
+            liveSpans[position] = index;
+        }
+    }
+
+    // @since $SNAPSHOT; appends an index (must be greater than all added indices)
+    private void addLiveSpan(int index) {
+        if (liveSpans == null) {
+            liveSpans = new int[8];
+        } else if (liveSpanCount == liveSpans.length) {
+            liveSpans = Arrays.copyOf(liveSpans, liveSpanCount + (liveSpanCount >> 1) + 1);
+        }
+        liveSpans[liveSpanCount++] = index;
     }
 
     private void copySpans(final int index, @Nullable CharSequence cs) {
@@ -342,7 +631,7 @@ public class SpannableBuilder implements Appendable, CharSequence {
         if (cs instanceof Spanned) {
 
             final Spanned spanned = (Spanned) cs;
-            final boolean reversed = spanned instanceof SpannableStringBuilderReversed;
+            final boolean reversed = isReversed(spanned);
 
             final Object[] spans = spanned.getSpans(0, spanned.length(), Object.class);
             final int length = spans != null
@@ -377,6 +666,12 @@ public class SpannableBuilder implements Appendable, CharSequence {
         }
     }
 
+    // @since $SNAPSHOT; spans of both reversed implementations must be iterated backwards
+    private static boolean isReversed(@NonNull Spanned spanned) {
+        return spanned instanceof SpannableStringBuilderReversed
+                || spanned instanceof SpannableReversed;
+    }
+
     /**
      * @since 2.0.1 made public in order to be returned from `getSpans` method, initially added in 1.0.1
      */
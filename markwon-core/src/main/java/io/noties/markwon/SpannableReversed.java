@@ -0,0 +1,391 @@
+package io.noties.markwon;
+
+import android.text.GetChars;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.SpanWatcher;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.Array;
+import java.util.IdentityHashMap;
+
+/**
+ * Spannable that is created by {@link SpannableBuilder#spannable()}. Unlike
+ * {@link SpannableBuilder.SpannableStringBuilderReversed} it does not replay spans through
+ * SpannableStringBuilder bookkeeping, but takes ownership of already ordered span arrays.
+ * Spans are stored in the order they are returned from {@link #getSpans(int, int, Class)},
+ * which is the same order as {@link SpannableBuilder.SpannableStringBuilderReversed} returns them
+ * (so a span that is added last is drawn first).
+ * <p>
+ * Text is an immutable String copied from the builder (only the span copy is avoided: text
+ * would be converted to a String anyway, for example by {@code SpannedString} that TextView
+ * creates from it). Spans can still be added and removed (for example, by plugins in
+ * {@link MarkwonPlugin#beforeSetText(android.widget.TextView, Spanned)}), {@link SpanWatcher}s
+ * are notified about these changes
+ *
+ * @since $SNAPSHOT;
+ */
+final class SpannableReversed implements Spannable, GetChars {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    // after this number of spans `getSpanStart`, `getSpanEnd` and `getSpanFlags` use identity index
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final String text;
+
+    private Object[] spans;
+    private int[] starts;
+    private int[] ends;
+    private int[] flags;
+    private int count;
+
+    // lazily created, reset when spans are modified
+    private volatile IdentityHashMap<Object, Integer> index;
+
+    // NB, arrays are not copied, each span instance is expected to be present once
+    SpannableReversed(
+            @NonNull String text,
+            @NonNull Object[] spans,
+            @NonNull int[] starts,
+            @NonNull int[] ends,
+            @NonNull int[] flags,
+            int count) {
+        this.text = text;
+        this.spans = spans;
+        this.starts = starts;
+        this.ends = ends;
+        this.flags = flags;
+        this.count = count;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        // the same as SpannableStringBuilder does
+        return new SpannableStringBuilder(this, start, end);
+    }
+
+    @Override
+    public void getChars(int start, int end, char[] dest, int destoff) {
+        text.getChars(start, end, dest, destoff);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return text;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] getSpans(int queryStart, int queryEnd, Class<T> kind) {
+
+        if (kind == null) {
+            return (T[]) EMPTY;
+        }
+
+        final boolean any = kind == Object.class;
+
+        int found = 0;
+        boolean priority = false;
+
+        for (int i = 0; i < count; i++) {
+            if (matches(i, queryStart, queryEnd)
+                    && (any || kind.isInstance(spans[i]))) {
+                found += 1;
+                priority |= (flags[i] & SPAN_PRIORITY) != 0;
+            }
+        }
+
+        final T[] out = (T[]) Array.newInstance(kind, found);
+
+        if (found == 0) {
+            return out;
+        }
+
+        if (!priority) {
+            for (int i = 0, o = 0; i < count && o < found; i++) {
+                if (matches(i, queryStart, queryEnd)
+                        && (any || kind.isInstance(spans[i]))) {
+                    out[o++] = (T) spans[i];
+                }
+            }
+            return out;
+        }
+
+        // spans with higher priority come first, original order is kept for the same priority
+        final int[] priorities = new int[found];
+        int o = 0;
+
+        for (int i = 0; i < count && o < found; i++) {
+            if (matches(i, queryStart, queryEnd)
+                    && (any || kind.isInstance(spans[i]))) {
+
+                final int p = flags[i] & SPAN_PRIORITY;
+                final Object span = spans[i];
+
+                int j = o;
+                while (j > 0 && priorities[j - 1] < p) {
+                    priorities[j] = priorities[j - 1];
+                    out[j] = out[j - 1];
+                    j -= 1;
+                }
+                priorities[j] = p;
+                out[j] = (T) span;
+
+                o += 1;
+            }
+        }
+
+        return out;
+    }
+
+    @Override
+    public int getSpanStart(Object tag) {
+        final int i = indexOf(tag);
+        return i < 0
+                ? -1
+                : starts[i];
+    }
+
+    @Override
+    public int getSpanEnd(Object tag) {
+        final int i = indexOf(tag);
+        return i < 0
+                ? -1
+                : ends[i];
+    }
+
+    @Override
+    public int getSpanFlags(Object tag) {
+        final int i = indexOf(tag);
+        return i < 0
+                ? 0
+                : flags[i];
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public int nextSpanTransition(int start, int limit, Class kind) {
+
+        if (kind == null) {
+            kind = Object.class;
+        }
+
+        int s;
+        int e;
+
+        for (int i = 0; i < count; i++) {
+            s = starts[i];
+            e = ends[i];
+            if ((s > start && s < limit) || (e > start && e < limit)) {
+                if (kind.isInstance(spans[i])) {
+                    if (s > start && s < limit) {
+                        limit = s;
+                    }
+                    if (e > start && e < limit) {
+                        limit = e;
+                    }
+                }
+            }
+        }
+
+        return limit;
+    }
+
+    @Override
+    public void setSpan(Object what, int start, int end, int flags) {
+
+        final int length = length();
+
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException("setSpan (" + start + " ... " + end + ") " +
+                    "is invalid for length " + length);
+        }
+
+        final int i = indexOf(what);
+        if (i >= 0) {
+
+            final int ostart = starts[i];
+            final int oend = ends[i];
+
+            starts[i] = start;
+            ends[i] = end;
+            this.flags[i] = flags;
+
+            sendSpanChanged(what, ostart, oend, start, end);
+            return;
+        }
+
+        if (count == spans.length) {
+            final int size = Math.max(8, count + (count >> 1));
+            spans = copyOf(spans, size);
+            starts = copyOf(starts, size);
+            ends = copyOf(ends, size);
+            this.flags = copyOf(this.flags, size);
+        }
+
+        spans[count] = what;
+        starts[count] = start;
+        ends[count] = end;
+        this.flags[count] = flags;
+        count += 1;
+
+        index = null;
+
+        sendSpanAdded(what, start, end);
+    }
+
+    @Override
+    public void removeSpan(Object what) {
+
+        final int i = indexOf(what);
+        if (i < 0) {
+            return;
+        }
+
+        final int start = starts[i];
+        final int end = ends[i];
+
+        final int moved = count - i - 1;
+        if (moved > 0) {
+            System.arraycopy(spans, i + 1, spans, i, moved);
+            System.arraycopy(starts, i + 1, starts, i, moved);
+            System.arraycopy(ends, i + 1, ends, i, moved);
+            System.arraycopy(flags, i + 1, flags, i, moved);
+        }
+        count -= 1;
+        spans[count] = null;
+
+        index = null;
+
+        sendSpanRemoved(what, start, end);
+    }
+
+    /**
+     * @return a copy that shares text and span instances (but not span arrays), so it can be
+     * modified independently. Span watchers are not notified
+     */
+    @NonNull
+    SpannableReversed copy() {
+        return new SpannableReversed(
+                text,
+                copyOf(spans, count),
+                copyOf(starts, count),
+                copyOf(ends, count),
+                copyOf(flags, count),
+                count);
+    }
+
+    int spanCount() {
+        return count;
+    }
+
+    @NonNull
+    Object spanAt(int i) {
+        return spans[i];
+    }
+
+    /**
+     * Replaces span at specified position (keeping its start, end and flags). Span watchers
+     * are not notified, so must be called only before this instance is published
+     */
+    void replaceSpanAt(int i, @NonNull Object span) {
+        spans[i] = span;
+        index = null;
+    }
+
+    private boolean matches(int i, int queryStart, int queryEnd) {
+
+        final int spanStart = starts[i];
+        final int spanEnd = ends[i];
+
+        // the same rules as SpannableStringBuilder (and SpannableString) use
+        if (spanStart > queryEnd || spanEnd < queryStart) {
+            return false;
+        }
+
+        //noinspection RedundantIfStatement
+        if (spanStart != spanEnd
+                && queryStart != queryEnd
+                && (spanStart == queryEnd || spanEnd == queryStart)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    private int indexOf(Object what) {
+
+        if (count < INDEX_THRESHOLD) {
+            for (int i = 0; i < count; i++) {
+                if (spans[i] == what) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        IdentityHashMap<Object, Integer> index = this.index;
+        if (index == null) {
+            index = new IdentityHashMap<>(count);
+            // iterate backwards so the first occurrence wins (if a span was added twice)
+            for (int i = count - 1; i >= 0; i--) {
+                index.put(spans[i], i);
+            }
+            this.index = index;
+        }
+
+        final Integer i = index.get(what);
+        return i != null
+                ? i
+                : -1;
+    }
+
+    private void sendSpanAdded(Object what, int start, int end) {
+        final SpanWatcher[] watchers = getSpans(start, end, SpanWatcher.class);
+        for (SpanWatcher watcher : watchers) {
+            watcher.onSpanAdded(this, what, start, end);
+        }
+    }
+
+    private void sendSpanChanged(Object what, int ostart, int oend, int nstart, int nend) {
+        final SpanWatcher[] watchers = getSpans(Math.min(ostart, nstart), Math.max(oend, nend), SpanWatcher.class);
+        for (SpanWatcher watcher : watchers) {
+            watcher.onSpanChanged(this, what, ostart, oend, nstart, nend);
+        }
+    }
+
+    private void sendSpanRemoved(Object what, int start, int end) {
+        final SpanWatcher[] watchers = getSpans(start, end, SpanWatcher.class);
+        for (SpanWatcher watcher : watchers) {
+            watcher.onSpanRemoved(this, what, start, end);
+        }
+    }
+
+    @NonNull
+    private static Object[] copyOf(@NonNull Object[] array, int size) {
+        final Object[] out = new Object[size];
+        System.arraycopy(array, 0, out, 0, Math.min(array.length, size));
+        return out;
+    }
+
+    @NonNull
+    private static int[] copyOf(@NonNull int[] array, int size) {
+        final int[] out = new int[size];
+        System.arraycopy(array, 0, out, 0, Math.min(array.length, size));
+        return out;
+    }
+}
@@ -41,6 +41,7 @@ import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonSpansFactory;
 import io.noties.markwon.MarkwonVisitor;
+import io.noties.markwon.PlainTextAware;
 import io.noties.markwon.RenderProps;
 import io.noties.markwon.SpanFactory;
 import io.noties.markwon.SpannableBuilder;
@@ -48,6 +49,7 @@ import io.noties.markwon.core.factory.BlockQuoteSpanFactory;
 import io.noties.markwon.core.factory.CodeBlockSpanFactory;
 import io.noties.markwon.core.factory.CodeSpanFactory;
 import io.noties.markwon.core.factory.EmphasisSpanFactory;
+import io.noties.markwon.core.factory.FlyweightSpanFactory;
 import io.noties.markwon.core.factory.HeadingSpanFactory;
 import io.noties.markwon.core.factory.LinkSpanFactory;
 import io.noties.markwon.core.factory.ListItemSpanFactory;
@@ -61,7 +63,7 @@ import io.noties.markwon.image.ImageProps;
  * @see CoreProps
  * @since 3.0.0
  */
-public class CorePlugin extends AbstractMarkwonPlugin {
+public class CorePlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     /**
      * @see #addOnTextAddedListener(OnTextAddedListener)
@@ -118,6 +120,9 @@ public class CorePlugin extends AbstractMarkwonPlugin {
     // @since 4.5.0
     private boolean hasExplicitMovementMethod;
 
+    // @since $SNAPSHOT;
+    private boolean flyweightSpans;
+
     protected CorePlugin() {
     }
 
@@ -131,6 +136,24 @@ public class CorePlugin extends AbstractMarkwonPlugin {
         return this;
     }
 
+    /**
+     * Share immutable span instances between rendered results instead of creating new spans
+     * for each node. Applies to emphasis, strong emphasis, code, code block, block quote,
+     * thematic break, heading and bullet list item spans. Disabled by default.
+     * <p>
+     * Please note that results that share span instances must not be combined into
+     * a single Spannable (for example with {@code TextUtils.concat}).
+     *
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    @NonNull
+    public CorePlugin flyweightSpans(boolean flyweightSpans) {
+        this.flyweightSpans = flyweightSpans;
+        return this;
+    }
+
     /**
      * Can be useful to post-process text added. For example for auto-linking capabilities.
      *
@@ -144,6 +167,32 @@ public class CorePlugin extends AbstractMarkwonPlugin {
         return this;
     }
 
+    /**
+     * Plain text is affected only by registered {@link OnTextAddedListener}s, so special characters
+     * are collected from them (if all of them implement {@link PlainTextAware})
+     *
+     * @since $SNAPSHOT;
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        if (onTextAddedListeners.isEmpty()) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (OnTextAddedListener onTextAddedListener : onTextAddedListeners) {
+            if (!(onTextAddedListener instanceof PlainTextAware)) {
+                return null;
+            }
+            final String characters = ((PlainTextAware) onTextAddedListener).specialCharacters();
+            if (characters == null) {
+                return null;
+            }
+            builder.append(characters);
+        }
+        return builder.toString();
+    }
+
     @Override
     public void configureVisitor(@NonNull MarkwonVisitor.Builder builder) {
         text(builder);
@@ -168,20 +217,25 @@ public class CorePlugin extends AbstractMarkwonPlugin {
     @Override
     public void configureSpansFactory(@NonNull MarkwonSpansFactory.Builder builder) {
 
+        // @since $SNAPSHOT; 0 creates new spans for each node
+        final int shared = flyweightSpans
+                ? FlyweightSpanFactory.DEFAULT_MAX_SHARED_INSTANCES
+                : 0;
+
         // reuse this one for both code-blocks (indent & fenced)
-        final CodeBlockSpanFactory codeBlockSpanFactory = new CodeBlockSpanFactory();
+        final CodeBlockSpanFactory codeBlockSpanFactory = new CodeBlockSpanFactory(shared);
 
         builder
-                .setFactory(StrongEmphasis.class, new StrongEmphasisSpanFactory())
-                .setFactory(Emphasis.class, new EmphasisSpanFactory())
-                .setFactory(BlockQuote.class, new BlockQuoteSpanFactory())
-                .setFactory(Code.class, new CodeSpanFactory())
+                .setFactory(StrongEmphasis.class, new StrongEmphasisSpanFactory(shared))
+                .setFactory(Emphasis.class, new EmphasisSpanFactory(shared))
+                .setFactory(BlockQuote.class, new BlockQuoteSpanFactory(shared))
+                .setFactory(Code.class, new CodeSpanFactory(shared))
                 .setFactory(FencedCodeBlock.class, codeBlockSpanFactory)
                 .setFactory(IndentedCodeBlock.class, codeBlockSpanFactory)
-                .setFactory(ListItem.class, new ListItemSpanFactory())
-                .setFactory(Heading.class, new HeadingSpanFactory())
+                .setFactory(ListItem.class, new ListItemSpanFactory(shared))
+                .setFactory(Heading.class, new HeadingSpanFactory(shared))
                 .setFactory(Link.class, new LinkSpanFactory())
-                .setFactory(ThematicBreak.class, new ThematicBreakSpanFactory());
+                .setFactory(ThematicBreak.class, new ThematicBreakSpanFactory(shared));
     }
 
     @Override
@@ -343,7 +397,7 @@ public class CorePlugin extends AbstractMarkwonPlugin {
                 // Please note that we explicitly set IMAGE_SIZE to null as we do not clear
                 // properties after we applied span (we could though)
                 ImageProps.DESTINATION.set(props, destination);
-                ImageProps.REPLACEMENT_TEXT_IS_LINK.set(props, link);
+                ImageProps.REPLACEMENT_TEXT_IS_LINK_BOOLEAN.setBoolean(props, link);
                 ImageProps.IMAGE_SIZE.set(props, null);
 
                 visitor.setSpans(length, spanFactory.getSpans(configuration, props));
@@ -404,7 +458,7 @@ public class CorePlugin extends AbstractMarkwonPlugin {
                     final int start = ((OrderedList) parent).getStartNumber();
 
                     CoreProps.LIST_ITEM_TYPE.set(visitor.renderProps(), CoreProps.ListItemType.ORDERED);
-                    CoreProps.ORDERED_LIST_ITEM_NUMBER.set(visitor.renderProps(), start);
+                    CoreProps.ORDERED_LIST_ITEM_NUMBER_INT.setInt(visitor.renderProps(), start);
 
                     // after we have visited the children increment start number
                     final OrderedList orderedList = (OrderedList) parent;
@@ -412,7 +466,7 @@ public class CorePlugin extends AbstractMarkwonPlugin {
 
                 } else {
                     CoreProps.LIST_ITEM_TYPE.set(visitor.renderProps(), CoreProps.ListItemType.BULLET);
-                    CoreProps.BULLET_LIST_ITEM_LEVEL.set(visitor.renderProps(), listLevel(listItem));
+                    CoreProps.BULLET_LIST_ITEM_LEVEL_INT.setInt(visitor.renderProps(), listLevel(listItem));
                 }
 
                 visitor.setSpansForNodeOptional(listItem, length);
@@ -465,7 +519,7 @@ public class CorePlugin extends AbstractMarkwonPlugin {
                 final int length = visitor.length();
                 visitor.visitChildren(heading);
 
-                CoreProps.HEADING_LEVEL.set(visitor.renderProps(), heading.getLevel());
+                CoreProps.HEADING_LEVEL_INT.setInt(visitor.renderProps(), heading.getLevel());
 
                 visitor.setSpansForNodeOptional(heading, length);
 
@@ -506,7 +560,7 @@ public class CorePlugin extends AbstractMarkwonPlugin {
                 final int length = visitor.length();
                 visitor.visitChildren(paragraph);
 
-                CoreProps.PARAGRAPH_IS_IN_TIGHT_LIST.set(visitor.renderProps(), inTightList);
+                CoreProps.PARAGRAPH_IS_IN_TIGHT_LIST_BOOLEAN.setBoolean(visitor.renderProps(), inTightList);
 
                 // @since 1.1.1 apply paragraph span
                 visitor.setSpansForNodeOptional(paragraph, length);
@@ -1,5 +1,7 @@
 package io.noties.markwon.core;
 
+import io.noties.markwon.BooleanProp;
+import io.noties.markwon.IntProp;
 import io.noties.markwon.Prop;
 
 /**
@@ -9,15 +11,43 @@ public abstract class CoreProps {
 
     public static final Prop<ListItemType> LIST_ITEM_TYPE = Prop.of("list-item-type");
 
-    public static final Prop<Integer> BULLET_LIST_ITEM_LEVEL = Prop.of("bullet-list-item-level");
+    /**
+     * Same prop as {@link #BULLET_LIST_ITEM_LEVEL} with unboxed accessors
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final IntProp BULLET_LIST_ITEM_LEVEL_INT = Prop.ofInt("bullet-list-item-level");
+
+    public static final Prop<Integer> BULLET_LIST_ITEM_LEVEL = BULLET_LIST_ITEM_LEVEL_INT;
+
+    /**
+     * Same prop as {@link #ORDERED_LIST_ITEM_NUMBER} with unboxed accessors
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final IntProp ORDERED_LIST_ITEM_NUMBER_INT = Prop.ofInt("ordered-list-item-number");
 
-    public static final Prop<Integer> ORDERED_LIST_ITEM_NUMBER = Prop.of("ordered-list-item-number");
+    public static final Prop<Integer> ORDERED_LIST_ITEM_NUMBER = ORDERED_LIST_ITEM_NUMBER_INT;
 
-    public static final Prop<Integer> HEADING_LEVEL = Prop.of("heading-level");
+    /**
+     * Same prop as {@link #HEADING_LEVEL} with unboxed accessors
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final IntProp HEADING_LEVEL_INT = Prop.ofInt("heading-level");
+
+    public static final Prop<Integer> HEADING_LEVEL = HEADING_LEVEL_INT;
 
     public static final Prop<String> LINK_DESTINATION = Prop.of("link-destination");
 
-    public static final Prop<Boolean> PARAGRAPH_IS_IN_TIGHT_LIST = Prop.of("paragraph-is-in-tight-list");
+    /**
+     * Same prop as {@link #PARAGRAPH_IS_IN_TIGHT_LIST} with unboxed accessors
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final BooleanProp PARAGRAPH_IS_IN_TIGHT_LIST_BOOLEAN = Prop.ofBoolean("paragraph-is-in-tight-list");
+
+    public static final Prop<Boolean> PARAGRAPH_IS_IN_TIGHT_LIST = PARAGRAPH_IS_IN_TIGHT_LIST_BOOLEAN;
 
     /**
      * @since 4.1.1
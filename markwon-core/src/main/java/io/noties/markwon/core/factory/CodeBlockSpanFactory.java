@@ -1,17 +1,28 @@
 package io.noties.markwon.core.factory;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.RenderProps;
-import io.noties.markwon.SpanFactory;
 import io.noties.markwon.core.spans.CodeBlockSpan;
 
-public class CodeBlockSpanFactory implements SpanFactory {
-    @Nullable
+public class CodeBlockSpanFactory extends FlyweightSpanFactory {
+
+    public CodeBlockSpanFactory() {
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared {@link CodeBlockSpan} instances
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    public CodeBlockSpanFactory(int maxSharedInstances) {
+        super(maxSharedInstances);
+    }
+
+    @NonNull
     @Override
-    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+    protected Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
         return new CodeBlockSpan(configuration.theme());
     }
 }
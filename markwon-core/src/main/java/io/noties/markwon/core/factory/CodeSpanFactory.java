@@ -1,17 +1,28 @@
 package io.noties.markwon.core.factory;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.RenderProps;
-import io.noties.markwon.SpanFactory;
 import io.noties.markwon.core.spans.CodeSpan;
 
-public class CodeSpanFactory implements SpanFactory {
-    @Nullable
+public class CodeSpanFactory extends FlyweightSpanFactory {
+
+    public CodeSpanFactory() {
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared {@link CodeSpan} instances
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    public CodeSpanFactory(int maxSharedInstances) {
+        super(maxSharedInstances);
+    }
+
+    @NonNull
     @Override
-    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+    protected Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
         return new CodeSpan(configuration.theme());
     }
 }
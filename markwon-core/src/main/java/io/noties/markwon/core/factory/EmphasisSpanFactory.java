@@ -1,17 +1,28 @@
 package io.noties.markwon.core.factory;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.RenderProps;
-import io.noties.markwon.SpanFactory;
 import io.noties.markwon.core.spans.EmphasisSpan;
 
-public class EmphasisSpanFactory implements SpanFactory {
-    @Nullable
+public class EmphasisSpanFactory extends FlyweightSpanFactory {
+
+    public EmphasisSpanFactory() {
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared {@link EmphasisSpan} instances
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    public EmphasisSpanFactory(int maxSharedInstances) {
+        super(maxSharedInstances);
+    }
+
+    @NonNull
     @Override
-    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+    protected Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
         return new EmphasisSpan();
     }
 }
@@ -0,0 +1,232 @@
+package io.noties.markwon.core.factory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import io.noties.markwon.MarkwonConfiguration;
+import io.noties.markwon.Prop;
+import io.noties.markwon.RenderProps;
+import io.noties.markwon.SpanFactory;
+
+/**
+ * Base class for span factories which spans depend only on {@link io.noties.markwon.core.MarkwonTheme}
+ * and render props (for example {@link io.noties.markwon.core.spans.EmphasisSpan} or
+ * {@link io.noties.markwon.core.spans.HeadingSpan} of a certain level). If created with
+ * {@code maxSharedInstances > 0} (flyweight mode) such a factory returns span instances that
+ * are shared between rendered results instead of creating new spans for each node.
+ * <p>
+ * As a span instance can be present in a Spannable only once (both {@code SpannableStringBuilder}
+ * and Markwon results identify spans by instance), instances are shared by occurrence:
+ * the n-th span of a factory in a document is the same instance in all documents, so spans
+ * of a single document are always different. If a document contains more than
+ * {@code maxSharedInstances} nodes of a kind, the rest receive new instances. Instances are not
+ * shared when a render appends spans of a previous result
+ * ({@link io.noties.markwon.Markwon#renderIncremental(io.noties.markwon.IncrementalResult, String)}),
+ * see {@link #disable(RenderProps)}.
+ * <p>
+ * Please note that results that share span instances must not be combined into a single Spannable
+ * (for example with {@code TextUtils.concat}), such results must be rendered without flyweight mode.
+ * Shared instances must be immutable, so a span that is modified after rendering
+ * (for example {@link io.noties.markwon.core.spans.OrderedListItemSpan}) must not be shared.
+ *
+ * @see io.noties.markwon.core.CorePlugin#flyweightSpans(boolean)
+ * @since $SNAPSHOT;
+ */
+public abstract class FlyweightSpanFactory implements SpanFactory {
+
+    /**
+     * Number of shared instances of each span variant used by {@link io.noties.markwon.core.CorePlugin}
+     */
+    public static final int DEFAULT_MAX_SHARED_INSTANCES = 1024;
+
+    /**
+     * Returned by {@link #variant(RenderProps)} if span must not be shared
+     */
+    protected static final int NOT_SHARED = -1;
+
+    /**
+     * Disables shared span instances for current render. Must be called if rendered
+     * result already contains spans that were not created during this render (shared instances
+     * in them cannot be tracked)
+     */
+    public static void disable(@NonNull RenderProps props) {
+        occurrences(props).disabled = true;
+    }
+
+    private static final Prop<Occurrences> OCCURRENCES = Prop.of("flyweight-span-factory-occurrences");
+
+    private final int maxSharedInstances;
+
+    // replaced when this factory is used with another configuration (theme)
+    private volatile Pool pool;
+
+    /**
+     * Creates a factory that creates new spans for each node
+     */
+    protected FlyweightSpanFactory() {
+        this(0);
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared instances of each span variant,
+     *                           0 to create new spans for each node
+     */
+    protected FlyweightSpanFactory(int maxSharedInstances) {
+        if (maxSharedInstances < 0) {
+            throw new IllegalArgumentException("Number of shared instances cannot be negative: " + maxSharedInstances);
+        }
+        this.maxSharedInstances = maxSharedInstances;
+    }
+
+    /**
+     * Creates a new span. In flyweight mode returned span can be shared, so it must be
+     * immutable and must depend only on configuration and render props values identified
+     * by {@link #variant(RenderProps)}.
+     */
+    @NonNull
+    protected abstract Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props);
+
+    /**
+     * @return non-negative variant of a span that is created for current render props (for example
+     * heading level) or {@link #NOT_SHARED} if span cannot be shared. Spans of different variants
+     * are never shared. By default all spans of a factory are the same and 0 is returned
+     */
+    protected int variant(@NonNull RenderProps props) {
+        return 0;
+    }
+
+    /**
+     * @return true if this factory shares span instances (flyweight mode)
+     */
+    public boolean isFlyweight() {
+        return maxSharedInstances > 0;
+    }
+
+    @Nullable
+    @Override
+    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+
+        if (maxSharedInstances == 0) {
+            return createSpans(configuration, props);
+        }
+
+        final int variant = variant(props);
+        if (variant < 0) {
+            return createSpans(configuration, props);
+        }
+
+        final Occurrences occurrences = occurrences(props);
+        if (occurrences.disabled) {
+            return createSpans(configuration, props);
+        }
+
+        final int occurrence = occurrences.next(this, variant);
+        if (occurrence >= maxSharedInstances) {
+            return createSpans(configuration, props);
+        }
+
+        return obtain(configuration, props, variant, occurrence);
+    }
+
+    @NonNull
+    private Object obtain(
+            @NonNull MarkwonConfiguration configuration,
+            @NonNull RenderProps props,
+            int variant,
+            int occurrence) {
+
+        Pool pool = this.pool;
+        if (pool != null && pool.configuration == configuration) {
+            final Object[][] variants = pool.variants;
+            if (variant < variants.length) {
+                final Object[] instances = variants[variant];
+                if (instances != null && occurrence < instances.length) {
+                    return instances[occurrence];
+                }
+            }
+        }
+
+        synchronized (this) {
+
+            pool = this.pool;
+            if (pool == null || pool.configuration != configuration) {
+                pool = new Pool(configuration, new Object[variant + 1][]);
+            }
+
+            Object[][] variants = pool.variants;
+            if (variant >= variants.length) {
+                variants = Arrays.copyOf(variants, variant + 1);
+            } else {
+                variants = variants.clone();
+            }
+
+            final Object[] existing = variants[variant];
+            if (existing != null && occurrence < existing.length) {
+                // added by another thread
+                return existing[occurrence];
+            }
+
+            // occurrences are requested sequentially, so usually a single instance is added here
+            final int length = existing != null
+                    ? existing.length
+                    : 0;
+            final Object[] instances = existing != null
+                    ? Arrays.copyOf(existing, occurrence + 1)
+                    : new Object[occurrence + 1];
+            for (int i = length; i <= occurrence; i++) {
+                instances[i] = createSpans(configuration, props);
+            }
+            variants[variant] = instances;
+
+            // pool and arrays are never modified after they are published
+            this.pool = new Pool(configuration, variants);
+
+            return instances[occurrence];
+        }
+    }
+
+    @NonNull
+    private static Occurrences occurrences(@NonNull RenderProps props) {
+        Occurrences occurrences = OCCURRENCES.get(props);
+        if (occurrences == null) {
+            occurrences = new Occurrences();
+            OCCURRENCES.set(props, occurrences);
+        }
+        return occurrences;
+    }
+
+    private static class Pool {
+
+        final MarkwonConfiguration configuration;
+
+        // instances by variant and occurrence
+        final Object[][] variants;
+
+        Pool(@NonNull MarkwonConfiguration configuration, @NonNull Object[][] variants) {
+            this.configuration = configuration;
+            this.variants = variants;
+        }
+    }
+
+    // state of a single render (render props are not shared between renders)
+    private static class Occurrences {
+
+        final IdentityHashMap<FlyweightSpanFactory, int[]> counters = new IdentityHashMap<>(4);
+
+        boolean disabled;
+
+        int next(@NonNull FlyweightSpanFactory factory, int variant) {
+            int[] counter = counters.get(factory);
+            if (counter == null || variant >= counter.length) {
+                counter = counter == null
+                        ? new int[variant + 1]
+                        : Arrays.copyOf(counter, variant + 1);
+                counters.put(factory, counter);
+            }
+            return counter[variant]++;
+        }
+    }
+}
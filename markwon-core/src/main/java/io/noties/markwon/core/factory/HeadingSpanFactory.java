@@ -1,21 +1,41 @@
 package io.noties.markwon.core.factory;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.RenderProps;
-import io.noties.markwon.SpanFactory;
 import io.noties.markwon.core.CoreProps;
 import io.noties.markwon.core.spans.HeadingSpan;
 
-public class HeadingSpanFactory implements SpanFactory {
-    @Nullable
+public class HeadingSpanFactory extends FlyweightSpanFactory {
+
+    public HeadingSpanFactory() {
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared {@link HeadingSpan} instances of each level
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    public HeadingSpanFactory(int maxSharedInstances) {
+        super(maxSharedInstances);
+    }
+
+    @NonNull
     @Override
-    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+    protected Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
         return new HeadingSpan(
                 configuration.theme(),
-                CoreProps.HEADING_LEVEL.require(props)
+                CoreProps.HEADING_LEVEL_INT.requireInt(props)
         );
     }
+
+    // @since $SNAPSHOT; a span is shared between headings of the same level
+    @Override
+    protected int variant(@NonNull RenderProps props) {
+        final int level = CoreProps.HEADING_LEVEL_INT.requireInt(props);
+        return level >= 0
+                ? level
+                : NOT_SHARED;
+    }
 }
@@ -1,20 +1,31 @@
 package io.noties.markwon.core.factory;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.RenderProps;
-import io.noties.markwon.SpanFactory;
 import io.noties.markwon.core.CoreProps;
 import io.noties.markwon.core.spans.BulletListItemSpan;
 import io.noties.markwon.core.spans.OrderedListItemSpan;
 
-public class ListItemSpanFactory implements SpanFactory {
+public class ListItemSpanFactory extends FlyweightSpanFactory {
 
-    @Nullable
+    public ListItemSpanFactory() {
+    }
+
+    /**
+     * @param maxSharedInstances maximum number of shared {@link BulletListItemSpan} instances
+     *                           of each level ({@link OrderedListItemSpan} is never shared)
+     * @see FlyweightSpanFactory
+     * @since $SNAPSHOT;
+     */
+    public ListItemSpanFactory(int maxSharedInstances) {
+        super(maxSharedInstances);
+    }
+
+    @NonNull
     @Override
-    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+    protected Object createSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
 
         // type of list item
         // bullet : level
@@ -24,12 +35,12 @@ public class ListItemSpanFactory implements SpanFactory {
         if (CoreProps.ListItemType.BULLET == CoreProps.LIST_ITEM_TYPE.require(props)) {
             spans = new BulletListItemSpan(
                     configuration.theme(),
-                    CoreProps.BULLET_LIST_ITEM_LEVEL.require(props)
+                    CoreProps.BULLET_LIST_ITEM_LEVEL_INT.requireInt(props)
             );
         } else {
 
             // todo| in order to provide real RTL experience there must be a way to provide this string
-            final String number = String.valueOf(CoreProps.ORDERED_LIST_ITEM_NUMBER.require(props))
+            final String number = String.valueOf(CoreProps.ORDERED_LIST_ITEM_NUMBER_INT.requireInt(props))
                     + "." + '\u00a0';
 
             spans = new OrderedListItemSpan(
@@ -40,4 +51,17 @@ public class ListItemSpanFactory implements SpanFactory {
 
         return spans;
     }
+
+    // @since $SNAPSHOT; bullet span is shared between items of the same level, ordered list
+    //  item span is measured (modified) when it is displayed, so it is never shared
+    @Override
+    protected int variant(@NonNull RenderProps props) {
+        if (CoreProps.ListItemType.BULLET == CoreProps.LIST_ITEM_TYPE.require(props)) {
+            final int level = CoreProps.BULLET_LIST_ITEM_LEVEL_INT.requireInt(props);
+            return level >= 0
+                    ? level
+                    : NOT_SHARED;
+        }
+        return NOT_SHARED;
+    }
 }
@@ -9,6 +9,7 @@ import android.text.style.LeadingMarginSpan;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import io.noties.markwon.core.MarkwonTheme;
 import io.noties.markwon.utils.LeadingMarginUtils;
@@ -63,6 +64,19 @@ public class OrderedListItemSpan implements LeadingMarginSpan {
         this.number = number;
     }
 
+    /**
+     * @return a copy of this span (without measured number width, so it must be measured again
+     * before it is displayed) or null if this span is a subclass (which cannot be copied)
+     * @since $SNAPSHOT;
+     */
+    @Nullable
+    public OrderedListItemSpan copy() {
+        if (getClass() != OrderedListItemSpan.class) {
+            return null;
+        }
+        return new OrderedListItemSpan(theme, number);
+    }
+
     @Override
     public int getLeadingMargin(boolean first) {
         // @since 2.0.1 we return maximum value of both (now we should measure number before)
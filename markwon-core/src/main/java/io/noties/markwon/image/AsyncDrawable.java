@@ -102,6 +102,15 @@ public class AsyncDrawable extends Drawable {
         return textSize;
     }
 
+    /**
+     * @return a new (not loaded) drawable for the same destination
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    AsyncDrawable copy() {
+        return new AsyncDrawable(destination, loader, imageSizeResolver, imageSize);
+    }
+
     public Drawable getResult() {
         return result;
     }
@@ -240,6 +249,11 @@ public class AsyncDrawable extends Drawable {
         this.result = result;
 //        this.result.setCallback(callback);
 
+        // @since $SNAPSHOT;
+        if (!isVisible()) {
+            result.setVisible(false, false);
+        }
+
         initBounds();
     }
 
@@ -327,6 +341,21 @@ public class AsyncDrawable extends Drawable {
         }
     }
 
+    /**
+     * Visibility is applied to result also (so, for example, an animated result is paused when
+     * it is not visible)
+     *
+     * @since $SNAPSHOT;
+     */
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        if (result != null) {
+            result.setVisible(visible, restart);
+        }
+        return changed;
+    }
+
     @Override
     public void setAlpha(@IntRange(from = 0, to = 255) int alpha) {
 
@@ -1,17 +1,25 @@
 package io.noties.markwon.image;
 
 import android.graphics.Rect;
+import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
 import android.os.Looper;
 import android.os.SystemClock;
+import android.text.Layout;
 import android.text.Spanned;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
 import io.noties.markwon.R;
+import io.noties.markwon.utils.RelayoutScheduler;
 
 public abstract class AsyncDrawableScheduler {
 
@@ -25,46 +33,40 @@ public abstract class AsyncDrawableScheduler {
         // if it's not -> unschedule, else ignore
 
         // @since 4.0.0
-        final Integer lastTextHashCode =
-                (Integer) textView.getTag(R.id.markwon_drawables_scheduler_last_text_hashcode);
-        final int textHashCode = textView.getText().hashCode();
-        if (lastTextHashCode != null
-                && lastTextHashCode == textHashCode) {
+        // @since $SNAPSHOT; identity of scheduled text is used instead of its hashCode (which
+        //  iterates all characters and spans of text)
+        final CharSequence text = textView.getText();
+        final Object lastText = textView.getTag(R.id.markwon_drawables_scheduler_last_text);
+        if (lastText instanceof ScheduledText
+                && ((ScheduledText) lastText).get() == text) {
             return;
         }
-        textView.setTag(R.id.markwon_drawables_scheduler_last_text_hashcode, textHashCode);
+        textView.setTag(R.id.markwon_drawables_scheduler_last_text, new ScheduledText(text));
 
 
         final AsyncDrawableSpan[] spans = extractSpans(textView);
         if (spans != null
                 && spans.length > 0) {
 
-            if (textView.getTag(R.id.markwon_drawables_scheduler) == null) {
-                final View.OnAttachStateChangeListener listener = new View.OnAttachStateChangeListener() {
-                    @Override
-                    public void onViewAttachedToWindow(View v) {
-
-                    }
-
-                    @Override
-                    public void onViewDetachedFromWindow(View v) {
-                        unschedule(textView);
-                        v.removeOnAttachStateChangeListener(this);
-                        v.setTag(R.id.markwon_drawables_scheduler, null);
-                    }
-                };
-                textView.addOnAttachStateChangeListener(listener);
-                textView.setTag(R.id.markwon_drawables_scheduler, listener);
+            // @since $SNAPSHOT; state of TextView (shared frame ticker and visibility of animated drawables)
+            ViewState viewState = (ViewState) textView.getTag(R.id.markwon_drawables_scheduler);
+            if (viewState == null) {
+                viewState = new ViewState(textView);
+                textView.addOnAttachStateChangeListener(viewState);
+                textView.setTag(R.id.markwon_drawables_scheduler, viewState);
             }
 
-            // @since 4.1.0
-            final DrawableCallbackImpl.Invalidator invalidator = new TextViewInvalidator(textView);
+            // @since $SNAPSHOT; relayout is shared with other spans of this TextView (at most once per frame)
+            final RelayoutScheduler relayoutScheduler = RelayoutScheduler.obtain(textView);
 
-            AsyncDrawable drawable;
+            viewState.callbacks.clear();
+
+            DrawableCallbackImpl callback;
 
             for (AsyncDrawableSpan span : spans) {
-                drawable = span.getDrawable();
-                drawable.setCallback2(new DrawableCallbackImpl(textView, invalidator, drawable.getBounds()));
+                callback = new DrawableCallbackImpl(textView, viewState, relayoutScheduler, span);
+                viewState.callbacks.add(callback);
+                span.getDrawable().setCallback2(callback);
             }
         }
     }
@@ -73,18 +75,20 @@ public abstract class AsyncDrawableScheduler {
     public static void unschedule(@NonNull TextView view) {
 
         // @since 4.0.0
-        if (view.getTag(R.id.markwon_drawables_scheduler_last_text_hashcode) == null) {
+        if (view.getTag(R.id.markwon_drawables_scheduler_last_text) == null) {
             return;
         }
-        view.setTag(R.id.markwon_drawables_scheduler_last_text_hashcode, null);
-
-
-        final AsyncDrawableSpan[] spans = extractSpans(view);
-        if (spans != null
-                && spans.length > 0) {
-            for (AsyncDrawableSpan span : spans) {
-                span.getDrawable().setCallback2(null);
+        view.setTag(R.id.markwon_drawables_scheduler_last_text, null);
+
+        // @since $SNAPSHOT; drawables are obtained from callbacks created in `schedule` (and not
+        //  extracted from text again)
+        final ViewState viewState = (ViewState) view.getTag(R.id.markwon_drawables_scheduler);
+        if (viewState != null) {
+            final List<DrawableCallbackImpl> callbacks = viewState.callbacks;
+            for (int i = 0, size = callbacks.size(); i < size; i++) {
+                callbacks.get(i).drawable.setCallback2(null);
             }
+            viewState.clear();
         }
     }
 
@@ -110,26 +114,47 @@ public abstract class AsyncDrawableScheduler {
     private AsyncDrawableScheduler() {
     }
 
-    private static class DrawableCallbackImpl implements Drawable.Callback {
-
-        // @since 4.1.0
-        // interface to be used when bounds change and view must be invalidated
-        interface Invalidator {
-            void invalidate();
+    // @since $SNAPSHOT; does not keep text after it is replaced in TextView
+    private static class ScheduledText extends WeakReference<CharSequence> {
+        ScheduledText(@NonNull CharSequence text) {
+            super(text);
         }
+    }
+
+    private static class DrawableCallbackImpl implements Drawable.Callback, RelayoutScheduler.Request {
 
         private final TextView view;
-        private final Invalidator invalidator; // @since 4.1.0
+        private final ViewState viewState; // @since $SNAPSHOT;
+        private final RelayoutScheduler relayoutScheduler; // @since $SNAPSHOT;
+        private final AsyncDrawableSpan span; // @since $SNAPSHOT;
+        private final AsyncDrawable drawable; // @since $SNAPSHOT;
 
         private Rect previousBounds;
 
+        // @since $SNAPSHOT; values that AsyncDrawableSpan reports in `getSize` for the current layout
+        private boolean layoutHasResult;
+        private int layoutRight;
+        private int layoutBottom;
+
+        // @since $SNAPSHOT; line box of the span (in Layout coordinates) that is valid for `lineLayout`
+        private Layout lineLayout;
+        private final Rect lineRect = new Rect();
+
+        // @since $SNAPSHOT; animated result which visibility was checked
+        private Drawable checkedResult;
+
         DrawableCallbackImpl(
                 @NonNull TextView view,
-                @NonNull Invalidator invalidator,
-                Rect initialBounds) {
+                @NonNull ViewState viewState,
+                @NonNull RelayoutScheduler relayoutScheduler,
+                @NonNull AsyncDrawableSpan span) {
             this.view = view;
-            this.invalidator = invalidator;
-            this.previousBounds = new Rect(initialBounds);
+            this.viewState = viewState;
+            this.relayoutScheduler = relayoutScheduler;
+            this.span = span;
+            this.drawable = span.getDrawable();
+            this.previousBounds = new Rect(drawable.getBounds());
+            onRelayout();
         }
 
         @Override
@@ -145,52 +170,378 @@ public abstract class AsyncDrawableScheduler {
                 return;
             }
 
+            // @since $SNAPSHOT; check if new animated result is visible (so it does not run when offscreen)
+            final Drawable result = drawable.getResult();
+            if (result != checkedResult
+                    && result instanceof Animatable) {
+                checkedResult = result;
+                viewState.requestVisibilityUpdate();
+            }
+
             final Rect rect = who.getBounds();
 
             // okay... the thing is IF we do not change bounds size, normal invalidate would do
             // but if the size has changed, then we need to update the whole layout...
 
-            if (!previousBounds.equals(rect)) {
+            if (!previousBounds.equals(rect)
+                    || layoutHasResult != drawable.hasResult()) {
                 // @since 4.1.0
                 // invalidation moved to upper level (so invalidation can be deferred,
                 // and multiple calls combined)
-                invalidator.invalidate();
+                // @since $SNAPSHOT; relayout is skipped if span size is not changed
+                relayoutScheduler.requestRelayout(this);
                 previousBounds = new Rect(rect);
+                view.postInvalidate();
+            } else if (affectsLayout()
+                    || !invalidateLine()) {
+                view.postInvalidate();
+            }
+        }
+
+        // @since $SNAPSHOT; invalidates only the line box of the span (for example a frame of animated drawable),
+        //  returns false if line box cannot be obtained and whole view must be invalidated
+        private boolean invalidateLine() {
+
+            final Rect lineRect = lineRect();
+            if (lineRect == null) {
+                return false;
+            }
+
+            final int left = view.getTotalPaddingLeft();
+            final int top = view.getTotalPaddingTop();
+
+            view.invalidate(
+                    left + lineRect.left,
+                    top + lineRect.top,
+                    left + lineRect.right,
+                    top + lineRect.bottom);
+
+            return true;
+        }
+
+        // @since $SNAPSHOT; animated drawable is visible only if its line box intersects visible rect of TextView,
+        //  visibleRect is null if TextView is not visible
+        void updateVisibility(@Nullable Rect visibleRect) {
+
+            if (!(drawable.getResult() instanceof Animatable)) {
+                return;
+            }
+
+            final boolean visible;
+            if (visibleRect == null) {
+                visible = false;
             } else {
+                final Rect lineRect = lineRect();
+                if (lineRect == null) {
+                    // cannot tell, keep it running
+                    visible = true;
+                } else {
+                    final int left = view.getTotalPaddingLeft() - view.getScrollX();
+                    final int top = view.getTotalPaddingTop() - view.getScrollY();
+                    visible = visibleRect.intersects(
+                            left + lineRect.left,
+                            top + lineRect.top,
+                            left + lineRect.right,
+                            top + lineRect.bottom);
+                }
+            }
 
-                view.postInvalidate();
+            if (drawable.isVisible() != visible) {
+                drawable.setVisible(visible, false);
+            }
+        }
+
+        // line box in Layout coordinates (cached until layout changes) or null if it cannot be obtained
+        @Nullable
+        private Rect lineRect() {
+
+            final Layout layout = view.getLayout();
+            if (layout == null) {
+                return null;
+            }
+
+            if (layout != lineLayout) {
+                // new layout is created when text is set (relayout) or view is resized
+                if (!lineRect(layout, lineRect)) {
+                    lineLayout = null;
+                    return null;
+                }
+                lineLayout = layout;
             }
+
+            return lineRect;
+        }
+
+        private boolean lineRect(@NonNull Layout layout, @NonNull Rect out) {
+
+            final CharSequence text = view.getText();
+            if (!(text instanceof Spanned)) {
+                return false;
+            }
+
+            final int start = ((Spanned) text).getSpanStart(span);
+            if (start < 0
+                    || start >= layout.getText().length()) {
+                // span is not in current text (or text is ellipsized)
+                return false;
+            }
+
+            final int line = layout.getLineForOffset(start);
+
+            final int left;
+            final int right;
+
+            if (layout.getParagraphDirection(line) == Layout.DIR_LEFT_TO_RIGHT) {
+                left = (int) layout.getPrimaryHorizontal(start);
+                right = left + drawable.getBounds().right;
+            } else {
+                // whole line for RTL
+                left = 0;
+                right = layout.getWidth();
+            }
+
+            out.set(left, layout.getLineTop(line), right, layout.getLineBottom(line));
+
+            return true;
+        }
+
+        @Override
+        public boolean affectsLayout() {
+            final Rect rect = drawable.getBounds();
+            return layoutHasResult != drawable.hasResult()
+                    || layoutRight != rect.right
+                    || layoutBottom != rect.bottom;
+        }
+
+        @Override
+        public void onRelayout() {
+            lineLayout = null;
+            final Rect rect = drawable.getBounds();
+            layoutHasResult = drawable.hasResult();
+            layoutRight = rect.right;
+            layoutBottom = rect.bottom;
         }
 
         @Override
         public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
-            final long delay = when - SystemClock.uptimeMillis();
-            view.postDelayed(what, delay);
+            // @since $SNAPSHOT; a single ticker for all drawables of TextView
+            viewState.scheduleFrame(what, when);
         }
 
         @Override
         public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
-            view.removeCallbacks(what);
+            viewState.unscheduleFrame(what);
         }
     }
 
-    private static class TextViewInvalidator implements DrawableCallbackImpl.Invalidator, Runnable {
+    /**
+     * State of a TextView with scheduled drawables:
+     * <ul>
+     * <li>single ticker that executes frames of all drawables (instead of a runnable posted for each one)</li>
+     * <li>visibility of animated drawables, updated when TextView is scrolled or laid out, so
+     * an animation is paused when its span is outside of visible rect of TextView</li>
+     * </ul>
+     *
+     * @since $SNAPSHOT;
+     */
+    private static class ViewState implements View.OnAttachStateChangeListener,
+            ViewTreeObserver.OnScrollChangedListener,
+            ViewTreeObserver.OnGlobalLayoutListener {
+
+        final TextView view;
+
+        // modified on main thread only
+        final List<DrawableCallbackImpl> callbacks = new ArrayList<>(2);
+
+        private final List<Frame> frames = new ArrayList<>(2);
+        private long tickAt;
+
+        private boolean visibilityUpdatePending;
+        private final Rect visibleRect = new Rect();
+
+        private final Runnable tick = new Runnable() {
+            @Override
+            public void run() {
+                tickAt = 0L;
+                tick();
+            }
+        };
+
+        private final Runnable updateVisibility = new Runnable() {
+            @Override
+            public void run() {
+                visibilityUpdatePending = false;
+                updateVisibility();
+            }
+        };
 
-        private final TextView textView;
+        ViewState(@NonNull TextView view) {
+            this.view = view;
 
-        TextViewInvalidator(@NonNull TextView textView) {
-            this.textView = textView;
+            // if view is not attached yet, listeners are added to a temporary tree observer
+            //  and transferred to window tree observer when it is attached
+            final ViewTreeObserver observer = view.getViewTreeObserver();
+            observer.addOnScrollChangedListener(this);
+            observer.addOnGlobalLayoutListener(this);
         }
 
         @Override
-        public void invalidate() {
-            textView.removeCallbacks(this);
-            textView.post(this);
+        public void onViewAttachedToWindow(View v) {
+
         }
 
         @Override
-        public void run() {
-            textView.setText(textView.getText());
+        public void onViewDetachedFromWindow(View v) {
+            unschedule(view);
+            v.removeOnAttachStateChangeListener(this);
+            v.setTag(R.id.markwon_drawables_scheduler, null);
+
+            final ViewTreeObserver observer = view.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnScrollChangedListener(this);
+                observer.removeOnGlobalLayoutListener(this);
+            }
+            view.removeCallbacks(updateVisibility);
+        }
+
+        @Override
+        public void onScrollChanged() {
+            requestVisibilityUpdate();
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            requestVisibilityUpdate();
+        }
+
+        void clear() {
+            callbacks.clear();
+            frames.clear();
+            view.removeCallbacks(tick);
+            tickAt = 0L;
+        }
+
+        void requestVisibilityUpdate() {
+            if (!visibilityUpdatePending
+                    && !callbacks.isEmpty()) {
+                visibilityUpdatePending = true;
+                view.postOnAnimation(updateVisibility);
+            }
+        }
+
+        private void updateVisibility() {
+
+            final Rect visibleRect = view.getLocalVisibleRect(this.visibleRect)
+                    ? this.visibleRect
+                    : null;
+
+            for (int i = 0, size = callbacks.size(); i < size; i++) {
+                callbacks.get(i).updateVisibility(visibleRect);
+            }
+        }
+
+        void scheduleFrame(@NonNull final Runnable what, final long when) {
+
+            if (Looper.myLooper() != Looper.getMainLooper()) {
+                view.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        scheduleFrame(what, when);
+                    }
+                });
+                return;
+            }
+
+            removeFrame(what);
+            frames.add(new Frame(what, when));
+            reschedule();
+        }
+
+        void unscheduleFrame(@NonNull final Runnable what) {
+
+            if (Looper.myLooper() != Looper.getMainLooper()) {
+                view.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        unscheduleFrame(what);
+                    }
+                });
+                return;
+            }
+
+            if (removeFrame(what)) {
+                reschedule();
+            }
+        }
+
+        private void tick() {
+
+            final long now = SystemClock.uptimeMillis();
+
+            // collect due frames first, executed frame can schedule next one
+            List<Frame> due = null;
+
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                final Frame frame = frames.get(i);
+                if (frame.when <= now) {
+                    if (due == null) {
+                        due = new ArrayList<>(2);
+                    }
+                    due.add(frame);
+                    frames.remove(i);
+                }
+            }
+
+            if (due != null) {
+                for (int i = due.size() - 1; i >= 0; i--) {
+                    due.get(i).what.run();
+                }
+            }
+
+            reschedule();
+        }
+
+        private void reschedule() {
+
+            if (frames.isEmpty()) {
+                if (tickAt != 0L) {
+                    view.removeCallbacks(tick);
+                    tickAt = 0L;
+                }
+                return;
+            }
+
+            long when = Long.MAX_VALUE;
+            for (int i = 0, size = frames.size(); i < size; i++) {
+                when = Math.min(when, frames.get(i).when);
+            }
+
+            if (when != tickAt) {
+                view.removeCallbacks(tick);
+                view.postDelayed(tick, Math.max(0L, when - SystemClock.uptimeMillis()));
+                tickAt = when;
+            }
+        }
+
+        private boolean removeFrame(@NonNull Runnable what) {
+            for (int i = 0, size = frames.size(); i < size; i++) {
+                if (frames.get(i).what == what) {
+                    frames.remove(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Frame {
+
+        final Runnable what;
+        final long when;
+
+        Frame(@NonNull Runnable what, long when) {
+            this.what = what;
+            this.when = when;
         }
     }
 }
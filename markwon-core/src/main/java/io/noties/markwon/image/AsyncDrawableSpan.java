@@ -147,6 +147,23 @@ public class AsyncDrawableSpan extends ReplacementSpan {
         return drawable;
     }
 
+    /**
+     * Creates a new span with a new {@link AsyncDrawable} for the same destination. As an AsyncDrawable
+     * can be displayed by a single view only, the same rendered markdown that is displayed multiple
+     * times must have own drawables (see {@link io.noties.markwon.MarkwonRenderCache}).
+     *
+     * @return a copy or null if this span or its drawable is a subclass (which cannot be copied)
+     * @since $SNAPSHOT;
+     */
+    @Nullable
+    public AsyncDrawableSpan copy() {
+        if (getClass() != AsyncDrawableSpan.class
+                || drawable.getClass() != AsyncDrawable.class) {
+            return null;
+        }
+        return new AsyncDrawableSpan(theme, drawable.copy(), alignment, replacementTextIsLink);
+    }
+
     private static float textCenterY(int top, int bottom, @NonNull Paint paint) {
         // @since 1.1.1 it's `top +` and not `bottom -`
         return (int) (top + ((bottom - top) / 2) - ((paint.descent() + paint.ascent()) / 2.F + .5F));
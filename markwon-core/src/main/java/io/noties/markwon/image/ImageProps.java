@@ -1,5 +1,6 @@
 package io.noties.markwon.image;
 
+import io.noties.markwon.BooleanProp;
 import io.noties.markwon.Prop;
 
 /**
@@ -9,8 +10,15 @@ public abstract class ImageProps {
 
     public static final Prop<String> DESTINATION = Prop.of("image-destination");
 
-    public static final Prop<Boolean> REPLACEMENT_TEXT_IS_LINK =
-            Prop.of("image-replacement-text-is-link");
+    /**
+     * Same prop as {@link #REPLACEMENT_TEXT_IS_LINK} with unboxed accessors
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final BooleanProp REPLACEMENT_TEXT_IS_LINK_BOOLEAN =
+            Prop.ofBoolean("image-replacement-text-is-link");
+
+    public static final Prop<Boolean> REPLACEMENT_TEXT_IS_LINK = REPLACEMENT_TEXT_IS_LINK_BOOLEAN;
 
     public static final Prop<ImageSize> IMAGE_SIZE = Prop.of("image-size");
 
@@ -20,7 +20,7 @@ public class ImageSpanFactory implements SpanFactory {
                         ImageProps.IMAGE_SIZE.get(props)
                 ),
                 AsyncDrawableSpan.ALIGN_BOTTOM,
-                ImageProps.REPLACEMENT_TEXT_IS_LINK.get(props, false)
+                ImageProps.REPLACEMENT_TEXT_IS_LINK_BOOLEAN.getBoolean(props, false)
         );
     }
 }
@@ -0,0 +1,242 @@
+package io.noties.markwon.utils;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.noties.markwon.R;
+
+/**
+ * Shared (one per TextView) scheduler of TextView relayout (re-setting its text, so spans
+ * are measured again). All requests that are received until the next frame are combined
+ * and at most one relayout is executed per {@link Choreographer} frame. Requests that
+ * are submitted with a {@link Request} are checked before relayout and if none of them
+ * (anymore) affect layout, relayout is skipped (for example an image bounds changed and then
+ * changed back before the frame).
+ * <p>
+ * Can be used by any span that must trigger relayout when its size changes
+ * (images, tables, etc), so relayouts of different spans are combined also.
+ * A scheduler is obtained via {@link #obtain(TextView)}. Requests can be made from any thread.
+ * Relayout is not executed while TextView is detached from a window and a pending relayout
+ * is executed in the first frame after TextView is attached again.
+ *
+ * @since $SNAPSHOT;
+ */
+public class RelayoutScheduler {
+
+    /**
+     * A relayout request that can check if it still affects layout of TextView
+     */
+    public interface Request {
+
+        /**
+         * Called on the main thread before relayout is executed
+         *
+         * @return true if layout that was computed before this request was made
+         * is no longer valid (a size of a span has changed)
+         */
+        boolean affectsLayout();
+
+        /**
+         * Called on the main thread when relayout is executed (including relayouts requested by others)
+         */
+        void onRelayout();
+    }
+
+    /**
+     * Must be called on the main thread
+     */
+    @NonNull
+    public static RelayoutScheduler obtain(@NonNull TextView textView) {
+        RelayoutScheduler scheduler = (RelayoutScheduler) textView.getTag(R.id.markwon_relayout_scheduler);
+        if (scheduler == null) {
+            scheduler = new RelayoutScheduler(textView);
+            textView.addOnAttachStateChangeListener(scheduler.attachStateListener);
+            textView.setTag(R.id.markwon_relayout_scheduler, scheduler);
+        }
+        return scheduler;
+    }
+
+    private final TextView textView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final List<Request> requests = new ArrayList<>(2);
+
+    // a request without Request object that must always be executed
+    private boolean unconditional;
+
+    // frame callback is posted
+    private boolean scheduled;
+
+    // relayout is requested whilst TextView is detached (frame callback is not posted
+    //  or was removed), it is scheduled when TextView is attached
+    private boolean postponed;
+
+    private volatile int requestedCount;
+    private volatile int executedCount;
+    private volatile int skippedCount;
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            scheduled = false;
+            relayout();
+        }
+    };
+
+    private final View.OnAttachStateChangeListener attachStateListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (postponed) {
+                postponed = false;
+                schedule();
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (scheduled) {
+                scheduled = false;
+                postponed = true;
+                Choreographer.getInstance().removeFrameCallback(frameCallback);
+            }
+        }
+    };
+
+    private RelayoutScheduler(@NonNull TextView textView) {
+        this.textView = textView;
+    }
+
+    /**
+     * Requests relayout that is always executed (in the next frame)
+     */
+    public void requestRelayout() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    requestRelayout();
+                }
+            });
+            return;
+        }
+        requestedCount += 1;
+        unconditional = true;
+        schedule();
+    }
+
+    /**
+     * Requests relayout that is executed (in the next frame) only if at least one of
+     * pending requests {@link Request#affectsLayout()}. The same request can be submitted multiple
+     * times, it is checked once.
+     */
+    public void requestRelayout(@NonNull final Request request) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    requestRelayout(request);
+                }
+            });
+            return;
+        }
+        requestedCount += 1;
+        if (!contains(requests, request)) {
+            requests.add(request);
+        }
+        schedule();
+    }
+
+    /**
+     * @return number of received relayout requests
+     */
+    public int requestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * @return number of executed relayouts
+     */
+    public int executedCount() {
+        return executedCount;
+    }
+
+    /**
+     * @return number of relayouts that were skipped because no pending request affected layout
+     */
+    public int skippedCount() {
+        return skippedCount;
+    }
+
+    private void schedule() {
+        if (scheduled || postponed) {
+            return;
+        }
+        if (!isAttachedToWindow(textView)) {
+            postponed = true;
+            return;
+        }
+        // must be set before posting, callback can be executed immediately
+        scheduled = true;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    private void relayout() {
+
+        boolean affectsLayout = unconditional;
+
+        final List<Request> requests = this.requests;
+
+        if (!affectsLayout) {
+            for (int i = 0, size = requests.size(); i < size; i++) {
+                if (requests.get(i).affectsLayout()) {
+                    affectsLayout = true;
+                    break;
+                }
+            }
+        }
+
+        final Request[] pending = requests.toArray(new Request[0]);
+
+        unconditional = false;
+        requests.clear();
+
+        if (!affectsLayout) {
+            skippedCount += 1;
+            return;
+        }
+
+        executedCount += 1;
+
+        // notify before relayout, so requests made during it are compared with current state
+        for (Request request : pending) {
+            request.onRelayout();
+        }
+
+        textView.setText(textView.getText());
+    }
+
+    private static boolean isAttachedToWindow(@NonNull View view) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return view.isAttachedToWindow();
+        }
+        return view.getWindowToken() != null;
+    }
+
+    private static boolean contains(@NonNull List<Request> requests, @NonNull Request request) {
+        for (int i = 0, size = requests.size(); i < size; i++) {
+            if (requests.get(i) == request) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
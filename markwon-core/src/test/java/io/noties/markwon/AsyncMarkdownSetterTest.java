@@ -0,0 +1,198 @@
+package io.noties.markwon;
+
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class AsyncMarkdownSetterTest {
+
+    private QueueExecutor executor;
+    private CountingPlugin plugin;
+    private Markwon markwon;
+    private TextView textView;
+
+    @Before
+    public void before() {
+        executor = new QueueExecutor();
+        plugin = new CountingPlugin();
+        markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(plugin)
+                .asyncExecutor(executor)
+                .build();
+        textView = new TextView(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void default_implementation() {
+        // a Markwon subclass that does not override asynchronous variant, sets markdown synchronously
+        final Markwon markwon = mock(Markwon.class, CALLS_REAL_METHODS);
+        markwon.setMarkdownAsync(textView, "**bold**");
+        verify(markwon).setMarkdown(textView, "**bold**");
+
+        final Markwon.Builder builder = mock(Markwon.Builder.class, CALLS_REAL_METHODS);
+        assertSame(builder, builder.asyncExecutor(executor));
+    }
+
+    @Test
+    public void rendered_on_executor() {
+
+        markwon.setMarkdownAsync(textView, "**bold**");
+
+        // nothing is rendered until executor runs
+        assertEquals(0, plugin.processed);
+        assertEquals("", textView.getText().toString());
+
+        executor.runAll();
+
+        assertEquals(1, plugin.processed);
+        assertEquals("bold", textView.getText().toString());
+    }
+
+    @Test
+    public void rebound_drops_stale() {
+
+        markwon.setMarkdownAsync(textView, "first");
+        markwon.setMarkdownAsync(textView, "second");
+
+        executor.runAll();
+
+        // stale request is not rendered
+        assertEquals(1, plugin.processed);
+        assertEquals("second", textView.getText().toString());
+    }
+
+    @Test
+    public void stale_result_not_set() {
+
+        markwon.setMarkdownAsync(textView, "first");
+
+        // request is being rendered when another one is made
+        final Runnable first = executor.next();
+        markwon.setMarkdownAsync(textView, "second");
+        executor.runAll();
+        first.run();
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("second", textView.getText().toString());
+    }
+
+    @Test
+    public void set_markdown_cancels_pending() {
+
+        markwon.setMarkdownAsync(textView, "async");
+        markwon.setMarkdown(textView, "sync");
+
+        executor.runAll();
+
+        assertEquals(1, plugin.processed);
+        assertEquals("sync", textView.getText().toString());
+    }
+
+    @Test
+    public void detach_drops_attach_restarts() {
+
+        markwon.setMarkdownAsync(textView, "detached");
+
+        final View.OnAttachStateChangeListener listener =
+                (View.OnAttachStateChangeListener) textView.getTag(R.id.markwon_set_markdown_async);
+
+        listener.onViewDetachedFromWindow(textView);
+        executor.runAll();
+
+        assertEquals(0, plugin.processed);
+        assertEquals("", textView.getText().toString());
+
+        listener.onViewAttachedToWindow(textView);
+        executor.runAll();
+
+        assertEquals(1, plugin.processed);
+        assertEquals("detached", textView.getText().toString());
+
+        // already delivered, nothing is submitted again
+        listener.onViewDetachedFromWindow(textView);
+        listener.onViewAttachedToWindow(textView);
+        assertTrue(executor.queue.isEmpty());
+    }
+
+    @Test
+    public void error_thrown_on_main_thread() {
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @NonNull
+                    @Override
+                    public String processMarkdown(@NonNull String markdown) {
+                        throw new IllegalStateException("process-markdown");
+                    }
+                })
+                .asyncExecutor(executor)
+                .build();
+
+        markwon.setMarkdownAsync(textView, "error");
+
+        try {
+            executor.runAll();
+            ShadowLooper.idleMainLooper();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("process-markdown", e.getMessage());
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+
+        final List<Runnable> queue = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            queue.add(command);
+        }
+
+        @NonNull
+        Runnable next() {
+            return queue.remove(0);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) {
+                next().run();
+            }
+            ShadowLooper.idleMainLooper();
+        }
+    }
+
+    private static class CountingPlugin extends AbstractMarkwonPlugin {
+
+        int processed;
+
+        @NonNull
+        @Override
+        public String processMarkdown(@NonNull String markdown) {
+            processed += 1;
+            return markdown;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.noties.markwon;
+
+import android.text.SpannableString;
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class IncrementalResultTest {
+
+    private Markwon markwon;
+
+    @Before
+    public void before() {
+        markwon = Markwon.create(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void no_previous() {
+        final String input = "# Head\n\nparagraph **bold**\n\n* one\n* two";
+        final IncrementalResult result = markwon.renderIncremental(null, input);
+        assertEquals(3, result.blocks());
+        assertEquals(0, result.reusedBlocks());
+        assertSpannedEquals(markwon.toMarkdown(input), result.spanned());
+    }
+
+    @Test
+    public void unchanged_prefix_reused() {
+        final String first = "# Head\n\nparagraph **bold**\n\n1. one\n2. two\n\nlast";
+        final String second = first + " and _more_\n\n> quote";
+
+        final IncrementalResult previous = markwon.renderIncremental(null, first);
+        final IncrementalResult result = markwon.renderIncremental(previous, second);
+
+        // heading, paragraph and ordered list
+        assertEquals(3, result.reusedBlocks());
+        assertSpannedEquals(markwon.toMarkdown(second), result.spanned());
+    }
+
+    @Test
+    public void last_block_not_reused() {
+        // last block has no trailing new lines, so it cannot be reused even if unchanged
+        final String first = "first\n\nsecond";
+        final String second = first + "\n\nthird";
+
+        final IncrementalResult previous = markwon.renderIncremental(null, first);
+        final IncrementalResult result = markwon.renderIncremental(previous, second);
+
+        assertEquals(1, result.reusedBlocks());
+        assertSpannedEquals(markwon.toMarkdown(second), result.spanned());
+    }
+
+    @Test
+    public void changed_block_stops_reuse() {
+        final String first = "first\n\nsecond\n\nthird\n\nfourth";
+        final String second = "first\n\nsecond changed\n\nthird\n\nfourth";
+
+        final IncrementalResult previous = markwon.renderIncremental(null, first);
+        final IncrementalResult result = markwon.renderIncremental(previous, second);
+
+        assertEquals(1, result.reusedBlocks());
+        assertSpannedEquals(markwon.toMarkdown(second), result.spanned());
+    }
+
+    @Test
+    public void different_markwon_not_reused() {
+        final String input = "first\n\nsecond\n\nthird";
+
+        final IncrementalResult previous = Markwon.create(RuntimeEnvironment.application)
+                .renderIncremental(null, input);
+        final IncrementalResult result = markwon.renderIncremental(previous, input);
+
+        assertEquals(0, result.reusedBlocks());
+        assertSpannedEquals(markwon.toMarkdown(input), result.spanned());
+    }
+
+    @Test
+    public void default_implementation() {
+        // a Markwon subclass that does not override incremental render, renders full markdown
+        final Markwon markwon = mock(Markwon.class, CALLS_REAL_METHODS);
+        final Spanned spanned = new SpannableString("rendered");
+        doReturn(spanned).when(markwon).toMarkdown("first\n\nsecond");
+
+        final IncrementalResult previous = markwon.renderIncremental(null, "first\n\nsecond");
+        final IncrementalResult result = markwon.renderIncremental(previous, "first\n\nsecond");
+
+        assertSame(spanned, result.spanned());
+        assertEquals(0, result.blocks());
+        assertEquals(0, result.reusedBlocks());
+        verify(markwon, times(2)).toMarkdown("first\n\nsecond");
+    }
+
+    private static void assertSpannedEquals(@NonNull Spanned expected, @NonNull Spanned actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(spans(expected), spans(actual));
+    }
+
+    @NonNull
+    private static List<String> spans(@NonNull Spanned spanned) {
+        final Object[] spans = spanned.getSpans(0, spanned.length(), Object.class);
+        final List<String> list = new ArrayList<>(spans.length);
+        for (Object span : spans) {
+            list.add(String.format(Locale.ROOT, "%s(%d,%d,%d)",
+                    span.getClass().getName(),
+                    spanned.getSpanStart(span),
+                    spanned.getSpanEnd(span),
+                    spanned.getSpanFlags(span)));
+        }
+        return list;
+    }
+}
@@ -14,10 +14,12 @@ import org.robolectric.annotation.Config;
 import io.noties.markwon.core.MarkwonTheme;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,6 +28,13 @@ import static org.mockito.Mockito.verify;
 @Config(manifest = Config.NONE)
 public class MarkwonBuilderImplTest {
 
+    @Test
+    public void reuse_render_workspace_default_implementation() {
+        // a Builder implementation that does not support workspace reuse, ignores it
+        final Markwon.Builder builder = mock(Markwon.Builder.class, CALLS_REAL_METHODS);
+        assertSame(builder, builder.reuseRenderWorkspace(1024));
+    }
+
     @Test
     public void no_plugins_added_throws() {
         // there is no sense in having an instance with no plugins registered
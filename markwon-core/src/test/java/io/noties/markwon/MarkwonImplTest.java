@@ -27,6 +27,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_MOCKS;
@@ -52,7 +53,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 Collections.singletonList(plugin),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         impl.parse("whatever");
@@ -78,7 +82,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 Arrays.asList(first, second),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         impl.parse("zero");
@@ -108,10 +115,13 @@ public class MarkwonImplTest {
                 visitorFactory,
                 mock(MarkwonConfiguration.class),
                 Collections.singletonList(plugin),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
-        when(visitorFactory.create()).thenReturn(visitor);
+        when(visitorFactory.create(anyInt())).thenReturn(visitor);
         when(visitor.builder()).thenReturn(builder);
 
         final Node node = mock(Node.class);
@@ -148,7 +158,7 @@ public class MarkwonImplTest {
         final MarkwonVisitorFactory visitorFactory = mock(MarkwonVisitorFactory.class);
         final MarkwonVisitor visitor = mock(MarkwonVisitor.class, RETURNS_MOCKS);
 
-        when(visitorFactory.create()).thenReturn(visitor);
+        when(visitorFactory.create(anyInt())).thenReturn(visitor);
 
         final MarkwonImpl impl = new MarkwonImpl(
                 TextView.BufferType.SPANNABLE,
@@ -157,7 +167,10 @@ public class MarkwonImplTest {
                 visitorFactory,
                 mock(MarkwonConfiguration.class),
                 Collections.<MarkwonPlugin>emptyList(),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         impl.render(mock(Node.class));
@@ -183,7 +196,7 @@ public class MarkwonImplTest {
             }
         }).when(visitor).clear();
 
-        when(visitorFactory.create()).thenReturn(visitor);
+        when(visitorFactory.create(anyInt())).thenReturn(visitor);
         when(visitor.renderProps()).thenReturn(renderProps);
 
         final MarkwonPlugin plugin = mock(MarkwonPlugin.class);
@@ -195,7 +208,10 @@ public class MarkwonImplTest {
                 visitorFactory,
                 mock(MarkwonConfiguration.class),
                 Collections.singletonList(plugin),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         final AtomicBoolean flag = new AtomicBoolean(false);
@@ -236,7 +252,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class, RETURNS_MOCKS),
                 mock(MarkwonConfiguration.class),
                 Collections.singletonList(plugin),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         final TextView textView = mock(TextView.class);
@@ -286,7 +305,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 plugins,
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         assertTrue("First", impl.hasPlugin(First.class));
@@ -311,7 +333,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 Collections.singletonList(plugin),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         final TextView textView = mock(TextView.class);
@@ -357,7 +382,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 plugins,
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         // should be returned
@@ -390,7 +418,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class),
                 mock(MarkwonConfiguration.class),
                 plugins,
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         final List<? extends MarkwonPlugin> list = impl.getPlugins();
@@ -419,7 +450,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class, RETURNS_MOCKS),
                 mock(MarkwonConfiguration.class),
                 Collections.<MarkwonPlugin>emptyList(),
-                true
+                true,
+                null,
+                null,
+                null
         );
 
         final Spanned spanned = impl.toMarkdown(md);
@@ -438,7 +472,10 @@ public class MarkwonImplTest {
                 mock(MarkwonVisitorFactory.class, RETURNS_MOCKS),
                 mock(MarkwonConfiguration.class),
                 Collections.<MarkwonPlugin>emptyList(),
-                false
+                false,
+                null,
+                null,
+                null
         );
 
         final Spanned spanned = impl.toMarkdown(md);
@@ -0,0 +1,248 @@
+package io.noties.markwon;
+
+import android.text.Spannable;
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.node.Image;
+import org.commonmark.node.StrongEmphasis;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import io.noties.markwon.core.spans.OrderedListItemSpan;
+import io.noties.markwon.core.spans.StrongEmphasisSpan;
+import io.noties.markwon.image.AsyncDrawableSpan;
+import io.noties.markwon.image.ImageSpanFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MarkwonRenderCacheTest {
+
+    @Test
+    public void builder_default_implementation() {
+        // a Builder implementation that does not support caching, ignores it
+        final Markwon.Builder builder = mock(Markwon.Builder.class, CALLS_REAL_METHODS);
+        assertSame(builder, builder.renderCache(MarkwonRenderCache.create(1024)));
+    }
+
+    @Test
+    public void hit() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = markwon(cache);
+
+        final Spanned first = markwon.toMarkdown("**bold**");
+        final Spanned second = markwon.toMarkdown("**bold**");
+
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.size());
+
+        // a new spanned with the same spans
+        assertNotSame(first, second);
+        assertEquals(first.toString(), second.toString());
+
+        final StrongEmphasisSpan[] firstSpans = first.getSpans(0, first.length(), StrongEmphasisSpan.class);
+        final StrongEmphasisSpan[] secondSpans = second.getSpans(0, second.length(), StrongEmphasisSpan.class);
+        assertEquals(1, firstSpans.length);
+        assertEquals(1, secondSpans.length);
+        assertSame(firstSpans[0], secondSpans[0]);
+    }
+
+    @Test
+    public void result_modification_not_cached() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = markwon(cache);
+
+        final Spanned first = markwon.toMarkdown("text");
+        ((Spannable) first).setSpan(new Object(), 0, 1, 0);
+
+        final Spanned second = markwon.toMarkdown("text");
+        assertEquals(0, second.getSpans(0, second.length(), Object.class).length);
+    }
+
+    @Test
+    public void different_instances_not_shared() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon first = markwon(cache);
+        final Markwon second = markwon(cache);
+
+        first.toMarkdown("text");
+        second.toMarkdown("text");
+
+        assertEquals(2, cache.missCount());
+        assertEquals(0, cache.hitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void evicted_by_weight() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024);
+        final Markwon markwon = markwon(cache);
+
+        for (int i = 0; i < 20; i++) {
+            markwon.toMarkdown("# Header " + i + "\n\n**bold** _italic_ `code`");
+            assertTrue(cache.toString(), cache.weight() <= cache.maxWeight());
+        }
+
+        assertTrue(cache.toString(), cache.evictionCount() > 0);
+        assertTrue(cache.toString(), cache.size() < 20);
+
+        // least recently used is evicted
+        markwon.toMarkdown("# Header 19\n\n**bold** _italic_ `code`");
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void too_big_not_cached() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(64);
+        final Markwon markwon = markwon(cache);
+
+        markwon.toMarkdown("some text that is too big to be cached");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void invalidate() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon first = markwon(cache);
+        final Markwon second = markwon(cache);
+
+        first.toMarkdown("a");
+        first.toMarkdown("b");
+        second.toMarkdown("a");
+        assertEquals(3, cache.size());
+
+        cache.invalidate(first, "a");
+        assertEquals(2, cache.size());
+
+        cache.invalidate(first);
+        assertEquals(1, cache.size());
+
+        second.toMarkdown("a");
+        assertEquals(1, cache.hitCount());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void raw_input_cached() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = markwon(cache);
+
+        // renders empty (link reference definition)
+        final String input = "[a]: https://noties.io";
+        assertEquals(input, markwon.toMarkdown(input).toString());
+        assertEquals(input, markwon.toMarkdown(input).toString());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void async_drawables_copied() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @Override
+                    public void configureSpansFactory(@NonNull MarkwonSpansFactory.Builder builder) {
+                        builder.setFactory(Image.class, new ImageSpanFactory());
+                    }
+                })
+                .renderCache(cache)
+                .build();
+
+        final String input = "![image](https://noties.io/image.png)";
+
+        final AsyncDrawableSpan first = drawableSpan(markwon.toMarkdown(input));
+        final AsyncDrawableSpan second = drawableSpan(markwon.toMarkdown(input));
+
+        assertEquals(1, cache.hitCount());
+        assertNotSame(first, second);
+        assertNotSame(first.getDrawable(), second.getDrawable());
+        assertEquals(first.getDrawable().getDestination(), second.getDrawable().getDestination());
+    }
+
+    @Test
+    public void unknown_span_not_cached() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @Override
+                    public void configureSpansFactory(@NonNull MarkwonSpansFactory.Builder builder) {
+                        builder.setFactory(StrongEmphasis.class, new SpanFactory() {
+                            @Override
+                            public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                // can have own state
+                                return new Object();
+                            }
+                        });
+                    }
+                })
+                .renderCache(cache)
+                .build();
+
+        final Spanned first = markwon.toMarkdown("**bold**");
+        final Spanned second = markwon.toMarkdown("**bold**");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hitCount());
+        assertNotSame(
+                first.getSpans(0, first.length(), Object.class)[0],
+                second.getSpans(0, second.length(), Object.class)[0]);
+    }
+
+    @Test
+    public void ordered_list_items_copied() {
+
+        final MarkwonRenderCache cache = MarkwonRenderCache.create(1024 * 1024);
+        final Markwon markwon = markwon(cache);
+
+        final Spanned first = markwon.toMarkdown("1. first");
+        final Spanned second = markwon.toMarkdown("1. first");
+
+        assertEquals(1, cache.hitCount());
+
+        final OrderedListItemSpan[] firstSpans = first.getSpans(0, first.length(), OrderedListItemSpan.class);
+        final OrderedListItemSpan[] secondSpans = second.getSpans(0, second.length(), OrderedListItemSpan.class);
+        assertEquals(1, firstSpans.length);
+        assertEquals(1, secondSpans.length);
+        assertNotSame(firstSpans[0], secondSpans[0]);
+    }
+
+    @NonNull
+    private static Markwon markwon(@NonNull MarkwonRenderCache cache) {
+        return Markwon.builder(RuntimeEnvironment.application)
+                .renderCache(cache)
+                .build();
+    }
+
+    @NonNull
+    private static AsyncDrawableSpan drawableSpan(@NonNull Spanned spanned) {
+        final AsyncDrawableSpan[] spans = spanned.getSpans(0, spanned.length(), AsyncDrawableSpan.class);
+        assertEquals(1, spans.length);
+        assertNotNull(spans[0]);
+        return spans[0];
+    }
+}
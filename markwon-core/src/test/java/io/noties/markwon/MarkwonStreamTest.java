@@ -0,0 +1,161 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import io.noties.markwon.core.CorePlugin;
+import io.noties.markwon.core.spans.EmphasisSpan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MarkwonStreamTest {
+
+    private Markwon markwon;
+
+    @Before
+    public void before() {
+        markwon = Markwon.create(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void chunks_same_as_full_render() {
+        final String input = "# Title\n\n" +
+                "First paragraph with **bold** and _italic_\n" +
+                "continued on the next line\n\n" +
+                "* one\n" +
+                "* two\n\n" +
+                "Text before code\n\n" +
+                "```java\n" +
+                "final int a = 0;\n\n" +
+                "after blank line inside code\n" +
+                "```\n\n" +
+                "1. first\n" +
+                "2. second\n\n" +
+                "> quote\n\n" +
+                "Last paragraph `code`\n";
+
+        for (int size : new int[]{1, 3, 7, 16}) {
+            final MarkwonStream stream = markwon.stream();
+            int index = 0;
+            while (index < input.length()) {
+                final int end = Math.min(input.length(), index + size);
+                final Spanned spanned = stream.append(input.substring(index, end));
+                assertSpannedEquals(markwon.toMarkdown(input.substring(0, end)), spanned);
+                index = end;
+            }
+            // some of the blocks must be frozen
+            assertTrue(stream.frozenLength() > 0);
+        }
+    }
+
+    @Test
+    public void same_instance() {
+        final MarkwonStream stream = markwon.stream();
+        final Spanned first = stream.append("first\n\n");
+        final Spanned second = stream.append("second");
+        assertSame(first, second);
+        assertSame(first, stream.spanned());
+        assertEquals("first\n\nsecond", stream.input());
+    }
+
+    @Test
+    public void frozen_not_modified() {
+        final MarkwonStream stream = markwon.stream();
+        stream.append("first **paragraph**\n\nsecond\n\nthird");
+
+        final int frozen = stream.frozenLength();
+        assertTrue(frozen > 0);
+
+        final String before = stream.spanned().subSequence(0, frozen).toString();
+
+        stream.append(" paragraph");
+
+        assertEquals(before, stream.spanned().subSequence(0, frozen).toString());
+        assertSpannedEquals(markwon.toMarkdown(stream.input()), stream.spanned());
+    }
+
+    @Test
+    public void link_reference_definition() {
+        // definition that comes after a reference must be applied to already rendered content
+        final MarkwonStream stream = markwon.stream();
+        stream.append("[link]\n\nsecond\n\nthird\n\n");
+        stream.append("[link]: https://noties.io\n");
+        assertSpannedEquals(markwon.toMarkdown(stream.input()), stream.spanned());
+        assertEquals(0, stream.frozenLength());
+    }
+
+    @Test
+    public void fallback_to_raw_input() {
+        final MarkwonStream stream = markwon.stream();
+        assertEquals("*", stream.append("*").toString());
+        assertSpannedEquals(markwon.toMarkdown("* item"), stream.append(" item"));
+    }
+
+    @Test
+    public void flyweight_spans_not_shared_across_freeze() {
+        final Markwon markwon = Markwon.builderNoCore(RuntimeEnvironment.application)
+                .usePlugin(CorePlugin.create().flyweightSpans(true))
+                .build();
+
+        final MarkwonStream stream = markwon.stream();
+        stream.append("first _emphasis_\n\n");
+        stream.append("second _emphasis_\n\nthird");
+
+        final int frozen = stream.frozenLength();
+        assertTrue(frozen > 0);
+
+        stream.append(" _emphasis_");
+
+        final Spanned spanned = stream.spanned();
+        final EmphasisSpan[] spans = spanned.getSpans(0, spanned.length(), EmphasisSpan.class);
+        assertEquals(3, spans.length);
+
+        // on both sides of the freeze point
+        int before = 0;
+        for (EmphasisSpan span : spans) {
+            if (spanned.getSpanEnd(span) <= frozen) {
+                before += 1;
+            }
+        }
+        assertEquals(1, before);
+
+        assertSpannedEquals(markwon.toMarkdown(stream.input()), spanned);
+    }
+
+    private static void assertSpannedEquals(@NonNull Spanned expected, @NonNull Spanned actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(spans(expected), spans(actual));
+    }
+
+    @NonNull
+    private static List<String> spans(@NonNull Spanned spanned) {
+        final Object[] spans = spanned.getSpans(0, spanned.length(), Object.class);
+        final List<String> list = new ArrayList<>(spans.length);
+        for (Object span : spans) {
+            list.add(String.format(Locale.ROOT, "%s(%d,%d)",
+                    span.getClass().getName(),
+                    spanned.getSpanStart(span),
+                    spanned.getSpanEnd(span)));
+        }
+        // order of spans from different blocks can differ, but must be the same inside a block
+        Collections.sort(list);
+        return list;
+    }
+}
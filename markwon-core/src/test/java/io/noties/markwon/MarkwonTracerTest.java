@@ -0,0 +1,199 @@
+package io.noties.markwon;
+
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.StrongEmphasis;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.noties.markwon.core.CorePlugin;
+
+import static io.noties.markwon.MarkwonTracer.Stage.AFTER_RENDER;
+import static io.noties.markwon.MarkwonTracer.Stage.AFTER_SET_TEXT;
+import static io.noties.markwon.MarkwonTracer.Stage.BEFORE_RENDER;
+import static io.noties.markwon.MarkwonTracer.Stage.BEFORE_SET_TEXT;
+import static io.noties.markwon.MarkwonTracer.Stage.PARSE;
+import static io.noties.markwon.MarkwonTracer.Stage.PROCESS_MARKDOWN;
+import static io.noties.markwon.MarkwonTracer.Stage.VISIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MarkwonTracerTest {
+
+    @Test
+    public void builder_default_implementation() {
+        // a Builder implementation that does not support tracing, ignores it
+        final Markwon.Builder builder = mock(Markwon.Builder.class, CALLS_REAL_METHODS);
+        assertSame(builder, builder.tracer(mock(MarkwonTracer.class)));
+    }
+
+    @Test
+    public void stages() {
+
+        final RecordingTracer tracer = new RecordingTracer();
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .tracer(tracer)
+                .build();
+
+        markwon.setMarkdown(new TextView(RuntimeEnvironment.application), "**bold**");
+
+        final List<String> expected = Arrays.asList(
+                "begin PROCESS_MARKDOWN CorePlugin",
+                "end PROCESS_MARKDOWN CorePlugin",
+                "begin PARSE Parser",
+                "end PARSE Parser",
+                "begin BEFORE_RENDER CorePlugin",
+                "end BEFORE_RENDER CorePlugin",
+                // document has no visitor registered
+                "begin VISIT Paragraph",
+                "begin VISIT StrongEmphasis",
+                "begin VISIT Text",
+                "end VISIT Text",
+                "end VISIT StrongEmphasis",
+                "end VISIT Paragraph",
+                "begin AFTER_RENDER CorePlugin",
+                "end AFTER_RENDER CorePlugin",
+                "begin BEFORE_SET_TEXT CorePlugin",
+                "end BEFORE_SET_TEXT CorePlugin",
+                "begin AFTER_SET_TEXT CorePlugin",
+                "end AFTER_SET_TEXT CorePlugin"
+        );
+
+        assertEquals(expected, tracer.events);
+    }
+
+    @Test
+    public void ended_when_thrown() {
+
+        final RecordingTracer tracer = new RecordingTracer();
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @Override
+                    public void beforeRender(@NonNull org.commonmark.node.Node node) {
+                        throw new IllegalStateException();
+                    }
+                })
+                .tracer(tracer)
+                .build();
+
+        try {
+            markwon.toMarkdown("text");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        final String last = tracer.events.get(tracer.events.size() - 1);
+        assertTrue(last, last.startsWith("end BEFORE_RENDER"));
+    }
+
+    @Test
+    public void histogram() {
+
+        final HistogramTracer tracer = HistogramTracer.create();
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .tracer(tracer)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            markwon.toMarkdown("# Header\n\n**bold** _italic_");
+        }
+
+        final HistogramTracer.Entry paragraph = entry(tracer, VISIT, Paragraph.class);
+        final HistogramTracer.Entry strongEmphasis = entry(tracer, VISIT, StrongEmphasis.class);
+        final HistogramTracer.Entry text = entry(tracer, VISIT, Text.class);
+
+        assertEquals(10, paragraph.count());
+        assertEquals(10, strongEmphasis.count());
+        assertEquals(40, text.count());
+
+        // children time is not included in self time
+        assertTrue(paragraph.totalNanos() >= strongEmphasis.totalNanos());
+        assertTrue(paragraph.selfNanos() <= paragraph.totalNanos() - strongEmphasis.totalNanos());
+
+        long buckets = 0L;
+        for (long bucket : text.buckets()) {
+            buckets += bucket;
+        }
+        assertEquals(text.count(), buckets);
+        assertTrue(text.percentileNanos(50) <= text.percentileNanos(100));
+
+        assertEquals(10, entry(tracer, PROCESS_MARKDOWN, CorePlugin.class).count());
+        assertEquals(10, entry(tracer, PARSE, Parser.class).count());
+        assertEquals(10, entry(tracer, BEFORE_RENDER, CorePlugin.class).count());
+        assertEquals(10, entry(tracer, AFTER_RENDER, CorePlugin.class).count());
+
+        // ordered by self time
+        final List<HistogramTracer.Entry> entries = tracer.entries();
+        for (int i = 1, size = entries.size(); i < size; i++) {
+            assertTrue(entries.get(i - 1).selfNanos() >= entries.get(i).selfNanos());
+        }
+
+        tracer.reset();
+        assertTrue(tracer.entries().isEmpty());
+    }
+
+    @Test
+    public void histogram_set_text() {
+
+        final HistogramTracer tracer = HistogramTracer.create();
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .tracer(tracer)
+                .build();
+
+        markwon.setMarkdown(new TextView(RuntimeEnvironment.application), "text");
+
+        assertEquals(1, entry(tracer, BEFORE_SET_TEXT, CorePlugin.class).count());
+        assertEquals(1, entry(tracer, AFTER_SET_TEXT, CorePlugin.class).count());
+    }
+
+    @NonNull
+    private static HistogramTracer.Entry entry(
+            @NonNull HistogramTracer tracer,
+            @NonNull MarkwonTracer.Stage stage,
+            @NonNull Class<?> subject) {
+        for (HistogramTracer.Entry entry : tracer.entries()) {
+            if (stage == entry.stage() && subject == entry.subject()) {
+                return entry;
+            }
+        }
+        throw new AssertionError("No entry for " + stage + " " + subject.getName());
+    }
+
+    private static class RecordingTracer extends MarkwonTracer {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void begin(@NonNull Stage stage, @NonNull Class<?> subject) {
+            events.add("begin " + stage + " " + subject.getSimpleName());
+        }
+
+        @Override
+        public void end(@NonNull Stage stage, @NonNull Class<?> subject) {
+            events.add("end " + stage + " " + subject.getSimpleName());
+        }
+    }
+}
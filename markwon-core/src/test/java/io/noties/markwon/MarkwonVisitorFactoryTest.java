@@ -0,0 +1,158 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.noties.markwon.core.spans.StrongEmphasisSpan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MarkwonVisitorFactoryTest {
+
+    @Test
+    public void not_reused_by_default() {
+
+        final MarkwonVisitorFactory factory = MarkwonVisitorFactory.create(
+                new MarkwonVisitorImpl.BuilderImpl(),
+                mock(MarkwonConfiguration.class));
+
+        final MarkwonVisitor first = factory.create(0);
+        factory.release(first);
+
+        assertNotSame(first, factory.create(0));
+    }
+
+    @Test
+    public void pre_sized() {
+
+        final MarkwonVisitorFactory factory = MarkwonVisitorFactory.create(
+                new MarkwonVisitorImpl.BuilderImpl(),
+                mock(MarkwonConfiguration.class));
+
+        assertTrue(factory.create(1000).builder().capacity() >= 1000);
+    }
+
+    @Test
+    public void reused_and_cleared() {
+
+        final MarkwonVisitorFactory factory = reusable(1024);
+        final Prop<String> prop = Prop.of("reused-and-cleared");
+
+        final MarkwonVisitor first = factory.create(0);
+        first.builder().append("text", new Object());
+        prop.set(first.renderProps(), "value");
+
+        factory.release(first);
+
+        final MarkwonVisitor second = factory.create(0);
+        assertSame(first, second);
+        assertEquals(0, second.length());
+        assertTrue(second.builder().getSpans(0, 0).isEmpty());
+        assertNull(prop.get(second.renderProps()));
+    }
+
+    @Test
+    public void nested_not_reused() {
+
+        final MarkwonVisitorFactory factory = reusable(1024);
+
+        final MarkwonVisitor outer = factory.create(0);
+        final MarkwonVisitor nested = factory.create(0);
+        assertNotSame(outer, nested);
+
+        // releasing nested visitor does not affect outer one
+        outer.builder().append("outer");
+        factory.release(nested);
+        assertEquals("outer", outer.builder().toString());
+
+        factory.release(outer);
+        assertSame(outer, factory.create(0));
+    }
+
+    @Test
+    public void dropped_when_exceeds_max_retained_length() {
+
+        final MarkwonVisitorFactory factory = reusable(64);
+
+        final MarkwonVisitor small = factory.create(32);
+        factory.release(small);
+        assertSame(small, factory.create(0));
+        factory.release(small);
+
+        final MarkwonVisitor big = factory.create(128);
+        assertSame(small, big);
+        factory.release(big);
+
+        assertNotSame(big, factory.create(0));
+    }
+
+    @Test
+    public void not_shared_between_threads() throws InterruptedException {
+
+        final MarkwonVisitorFactory factory = reusable(1024);
+
+        final MarkwonVisitor visitor = factory.create(0);
+        factory.release(visitor);
+
+        final AtomicReference<MarkwonVisitor> other = new AtomicReference<>();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.set(factory.create(0));
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNotNull(other.get());
+        assertNotSame(visitor, other.get());
+    }
+
+    @Test
+    public void markwon_results_independent() {
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .reuseRenderWorkspace(1024)
+                .build();
+
+        final Spanned first = markwon.toMarkdown("**first** text");
+        final Spanned second = markwon.toMarkdown("**second**");
+
+        assertEquals("first text", first.toString());
+        assertEquals("second", second.toString());
+
+        final StrongEmphasisSpan[] firstSpans = first.getSpans(0, first.length(), StrongEmphasisSpan.class);
+        assertEquals(1, firstSpans.length);
+        assertEquals(0, first.getSpanStart(firstSpans[0]));
+        assertEquals(5, first.getSpanEnd(firstSpans[0]));
+
+        final StrongEmphasisSpan[] secondSpans = second.getSpans(0, second.length(), StrongEmphasisSpan.class);
+        assertEquals(1, secondSpans.length);
+        assertEquals(6, second.getSpanEnd(secondSpans[0]));
+    }
+
+    @NonNull
+    private static MarkwonVisitorFactory reusable(int maxRetainedLength) {
+        return MarkwonVisitorFactory.createReusable(
+                new MarkwonVisitorImpl.BuilderImpl(),
+                mock(MarkwonConfiguration.class),
+                maxRetainedLength);
+    }
+}
@@ -0,0 +1,198 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.noties.markwon.core.CorePlugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PlainTextFastPathTest {
+
+    private static final List<String> PLAIN = Arrays.asList(
+            "text",
+            "Hello, world! How are you? (fine)",
+            "a - b + c = d # 1 > 0",
+            "multiple   spaces\tand tab",
+            "юникод 中文 ✓");
+
+    private static final List<String> NOT_PLAIN = Arrays.asList(
+            "",
+            " leading",
+            "trailing ",
+            "two\nlines",
+            "carriage\rreturn",
+            "# heading",
+            "> quote",
+            "- item",
+            "+ item",
+            "* item",
+            "1. item",
+            "2) item",
+            "===",
+            "~~~",
+            "<div>",
+            "**bold**",
+            "_italic_",
+            "snake_case",
+            "`code`",
+            "[link](url)",
+            "![image](url)",
+            "a & b",
+            "a &amp; b",
+            "a < b",
+            "escaped \\*",
+            "null \u0000 char");
+
+    @Test
+    public void plain_text() {
+
+        final PlainTextFastPath fastPath = PlainTextFastPath.create(Collections.singletonList(CorePlugin.create()));
+        assertNotNull(fastPath);
+
+        for (String input : PLAIN) {
+            assertTrue(input, fastPath.isPlainText(input));
+        }
+
+        for (String input : NOT_PLAIN) {
+            assertFalse(input, fastPath.isPlainText(input));
+        }
+    }
+
+    @Test
+    public void same_as_full_render() {
+
+        final Markwon markwon = Markwon.create(RuntimeEnvironment.application);
+
+        for (String input : PLAIN) {
+
+            final Spanned expected = markwon.render(markwon.parse(input));
+            final Spanned actual = markwon.toMarkdown(input);
+
+            assertEquals(input, expected.toString());
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(0, actual.getSpans(0, actual.length(), Object.class).length);
+        }
+    }
+
+    @Test
+    public void not_aware_plugin() {
+
+        assertNull(PlainTextFastPath.create(Arrays.asList(
+                CorePlugin.create(),
+                mock(MarkwonPlugin.class))));
+
+        // processMarkdown of a plugin that is not aware of plain text is called
+        final boolean[] called = {false};
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @NonNull
+                    @Override
+                    public String processMarkdown(@NonNull String markdown) {
+                        called[0] = true;
+                        return "**" + markdown + "**";
+                    }
+                })
+                .build();
+
+        final Spanned spanned = markwon.toMarkdown("text");
+        assertTrue(called[0]);
+        assertEquals(1, spanned.getSpans(0, spanned.length(), Object.class).length);
+    }
+
+    @Test
+    public void no_core_plugin() {
+        assertNull(PlainTextFastPath.create(Collections.singletonList(new AwarePlugin(""))));
+    }
+
+    @Test
+    public void plugin_special_characters() {
+
+        final PlainTextFastPath fastPath = PlainTextFastPath.create(Arrays.asList(
+                CorePlugin.create(),
+                new AwarePlugin("@:")));
+        assertNotNull(fastPath);
+
+        assertTrue(fastPath.isPlainText("text"));
+        assertFalse(fastPath.isPlainText("@mention"));
+        assertFalse(fastPath.isPlainText("emoji :smile:"));
+
+        assertNull(PlainTextFastPath.create(Arrays.asList(
+                CorePlugin.create(),
+                new AwarePlugin(null))));
+    }
+
+    @Test
+    public void core_plugin_listeners() {
+
+        final CorePlugin notAware = CorePlugin.create();
+        notAware.addOnTextAddedListener(mock(CorePlugin.OnTextAddedListener.class));
+        assertNull(notAware.specialCharacters());
+        assertNull(PlainTextFastPath.create(Collections.singletonList(notAware)));
+
+        final CorePlugin aware = CorePlugin.create();
+        aware.addOnTextAddedListener(new AwareListener("#"));
+        aware.addOnTextAddedListener(new AwareListener("$"));
+        assertEquals("#$", aware.specialCharacters());
+
+        final PlainTextFastPath fastPath = PlainTextFastPath.create(Collections.singletonList(aware));
+        assertNotNull(fastPath);
+        assertFalse(fastPath.isPlainText("costs 5$"));
+        assertFalse(fastPath.isPlainText("issue #42"));
+        assertTrue(fastPath.isPlainText("text"));
+    }
+
+    private static class AwarePlugin extends AbstractMarkwonPlugin implements PlainTextAware {
+
+        private final String specialCharacters;
+
+        AwarePlugin(@Nullable String specialCharacters) {
+            this.specialCharacters = specialCharacters;
+        }
+
+        @Nullable
+        @Override
+        public String specialCharacters() {
+            return specialCharacters;
+        }
+    }
+
+    private static class AwareListener implements CorePlugin.OnTextAddedListener, PlainTextAware {
+
+        private final String specialCharacters;
+
+        AwareListener(@NonNull String specialCharacters) {
+            this.specialCharacters = specialCharacters;
+        }
+
+        @Override
+        public void onTextAdded(@NonNull MarkwonVisitor visitor, @NonNull String text, int start) {
+        }
+
+        @Nullable
+        @Override
+        public String specialCharacters() {
+            return specialCharacters;
+        }
+    }
+}
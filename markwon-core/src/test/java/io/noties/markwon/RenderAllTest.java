@@ -0,0 +1,156 @@
+package io.noties.markwon;
+
+import android.text.SpannableString;
+
+import androidx.annotation.NonNull;
+
+import org.commonmark.node.Node;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RenderAllTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void empty() {
+        final Markwon markwon = Markwon.create(RuntimeEnvironment.application);
+        assertTrue(markwon.renderAll(Collections.<String>emptyList(), executor).isEmpty());
+    }
+
+    @Test
+    public void results_in_order() {
+
+        final Markwon markwon = Markwon.create(RuntimeEnvironment.application);
+
+        final List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            inputs.add("# Document " + i + "\n\n**bold** _italic_ `code` " + i);
+        }
+
+        final List<RenderResult> results = markwon.renderAll(inputs, executor);
+
+        assertEquals(inputs.size(), results.size());
+
+        for (int i = 0; i < inputs.size(); i++) {
+            final RenderResult result = results.get(i);
+            assertEquals(i, result.index());
+            assertTrue(result.isSuccess());
+            assertNull(result.error());
+            assertEquals(markwon.toMarkdown(inputs.get(i)).toString(), result.requireSpanned().toString());
+        }
+    }
+
+    @Test
+    public void failure_does_not_abort() {
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @NonNull
+                    @Override
+                    public String processMarkdown(@NonNull String markdown) {
+                        if (markdown.contains("fail")) {
+                            throw new IllegalStateException(markdown);
+                        }
+                        return markdown;
+                    }
+                })
+                .build();
+
+        final List<String> inputs = new ArrayList<>();
+        inputs.add("first");
+        inputs.add("fail");
+        inputs.add("third");
+
+        final List<RenderResult> results = markwon.renderAll(inputs, executor);
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).error() instanceof IllegalStateException);
+        assertNull(results.get(1).spanned());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals("third", results.get(2).requireSpanned().toString());
+
+        try {
+            results.get(1).requireSpanned();
+            throw new AssertionError();
+        } catch (IllegalStateException e) {
+            MarkwonAssert.assertMessageContains(e, "index 1");
+        }
+    }
+
+    @Test
+    public void rejecting_executor() {
+        // calling thread renders all documents if executor rejects workers
+        final Markwon markwon = Markwon.create(RuntimeEnvironment.application);
+
+        final List<Node> nodes = new ArrayList<>();
+        nodes.add(markwon.parse("first"));
+        nodes.add(markwon.parse("second"));
+
+        final List<RenderResult> results = markwon.renderAllNodes(nodes, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+
+        assertEquals("first", results.get(0).requireSpanned().toString());
+        assertEquals("second", results.get(1).requireSpanned().toString());
+    }
+
+    @Test
+    public void default_implementation() {
+        // a Markwon subclass that does not override batch rendering, renders via `toMarkdown`
+        final Markwon markwon = mock(Markwon.class, CALLS_REAL_METHODS);
+        doReturn(new SpannableString("rendered first")).when(markwon).toMarkdown("first");
+        doReturn(new SpannableString("rendered second")).when(markwon).toMarkdown("second");
+
+        final List<String> inputs = new ArrayList<>();
+        inputs.add("first");
+        inputs.add("second");
+
+        final List<RenderResult> results = markwon.renderAll(inputs, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+
+        assertEquals("rendered first", results.get(0).requireSpanned().toString());
+        assertEquals("rendered second", results.get(1).requireSpanned().toString());
+    }
+}
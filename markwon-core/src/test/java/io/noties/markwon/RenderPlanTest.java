@@ -0,0 +1,248 @@
+package io.noties.markwon;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.commonmark.node.BlockQuote;
+import org.commonmark.node.CustomNode;
+import org.commonmark.node.Emphasis;
+import org.commonmark.node.Node;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.StrongEmphasis;
+import org.commonmark.node.Text;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RenderPlanTest {
+
+    @Test
+    public void resolves_visitors_and_factories() {
+
+        final MarkwonVisitor.NodeVisitor<Text> textVisitor = visitor();
+        final MarkwonVisitor.NodeVisitor<MyNode> customVisitor = visitor();
+        final SpanFactory emphasisFactory = mock(SpanFactory.class);
+        final SpanFactory customFactory = mock(SpanFactory.class);
+
+        final Map<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>> visitors = new HashMap<>();
+        visitors.put(Text.class, textVisitor);
+        visitors.put(MyNode.class, customVisitor);
+
+        final MarkwonSpansFactory spansFactory = new MarkwonSpansFactoryImpl.BuilderImpl()
+                .setFactory(Emphasis.class, emphasisFactory)
+                .setFactory(MyNode.class, customFactory)
+                .build();
+
+        final RenderPlan plan = RenderPlan.create(visitors, spansFactory);
+        assertTrue(plan.isFor(spansFactory));
+
+        final RenderPlan.Entry text = plan.get(Text.class);
+        assertNotNull(text);
+        assertSame(textVisitor, text.visitor);
+        assertNull(text.factories);
+
+        final RenderPlan.Entry emphasis = plan.get(Emphasis.class);
+        assertNotNull(emphasis);
+        assertNull(emphasis.visitor);
+        assertArrayEquals(new SpanFactory[]{emphasisFactory}, emphasis.factories);
+
+        final RenderPlan.Entry custom = plan.get(MyNode.class);
+        assertNotNull(custom);
+        assertSame(customVisitor, custom.visitor);
+        assertArrayEquals(new SpanFactory[]{customFactory}, custom.factories);
+
+        // exact class is resolved (not a super type)
+        assertNull(plan.get(CustomNode.class));
+        assertNull(plan.get(BlockQuote.class));
+    }
+
+    @Test
+    public void many_types() {
+
+        // more types than initial capacity of the table
+        final List<Class<? extends Node>> types = Arrays.<Class<? extends Node>>asList(
+                Text.class, Emphasis.class, StrongEmphasis.class, Paragraph.class,
+                BlockQuote.class, CustomNode.class, MyNode.class, Node.class,
+                org.commonmark.node.Code.class, org.commonmark.node.Heading.class,
+                org.commonmark.node.Link.class, org.commonmark.node.Image.class);
+
+        final Map<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>> visitors = new HashMap<>();
+        for (Class<? extends Node> type : types) {
+            visitors.put(type, visitor());
+        }
+
+        final RenderPlan plan = RenderPlan.create(visitors, null);
+
+        for (Class<? extends Node> type : types) {
+            final RenderPlan.Entry entry = plan.get(type);
+            assertNotNull(type.getName(), entry);
+            assertSame(type.getName(), visitors.get(type), entry.visitor);
+            assertNull(entry.factories);
+        }
+
+        assertNull(plan.get(org.commonmark.node.Document.class));
+    }
+
+    @Test
+    public void composite_flattened() {
+
+        final SpanFactory first = mock(SpanFactory.class);
+        final SpanFactory second = mock(SpanFactory.class);
+        final SpanFactory third = mock(SpanFactory.class);
+
+        final MarkwonSpansFactory spansFactory = new MarkwonSpansFactoryImpl.BuilderImpl()
+                .setFactory(Emphasis.class, second)
+                .prependFactory(Emphasis.class, third)
+                .appendFactory(Emphasis.class, first)
+                .build();
+
+        final RenderPlan plan = RenderPlan.create(
+                Collections.<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>>emptyMap(),
+                spansFactory);
+
+        final RenderPlan.Entry entry = plan.get(Emphasis.class);
+        assertNotNull(entry);
+        assertArrayEquals(new SpanFactory[]{first, second, third}, entry.factories);
+    }
+
+    @Test
+    public void not_resolved_for_custom_spans_factory() {
+
+        final Map<Class<? extends Node>, MarkwonVisitor.NodeVisitor<? extends Node>> visitors = new HashMap<>();
+        visitors.put(Text.class, visitor());
+
+        final MarkwonSpansFactory spansFactory = mock(MarkwonSpansFactory.class);
+        final RenderPlan plan = RenderPlan.create(visitors, spansFactory);
+
+        final RenderPlan.Entry entry = plan.get(Text.class);
+        assertNotNull(entry);
+        assertNull(entry.factories);
+        assertNull(plan.get(Emphasis.class));
+    }
+
+    @Test
+    public void composite_spans_applied_in_order() {
+        // flattened factories must produce the same spans (and in the same order) as composite one
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(new AbstractMarkwonPlugin() {
+                    @Override
+                    public void configureSpansFactory(@NonNull MarkwonSpansFactory.Builder builder) {
+                        builder
+                                .appendFactory(Emphasis.class, new NamedSpanFactory("appended"))
+                                .prependFactory(Emphasis.class, new NamedSpanFactory("prepended"))
+                                .appendFactory(Emphasis.class, new SpanFactory() {
+                                    @Override
+                                    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                        return new Object[]{new Named("array-1"), null, new Named("array-2")};
+                                    }
+                                })
+                                .appendFactory(Emphasis.class, new SpanFactory() {
+                                    @Nullable
+                                    @Override
+                                    public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+                                        return null;
+                                    }
+                                });
+                    }
+                })
+                .build();
+
+        final Spanned spanned = markwon.toMarkdown("_italic_");
+
+        final Object composite = markwon.configuration().spansFactory()
+                .require(Emphasis.class)
+                .getSpans(markwon.configuration(), mock(RenderProps.class));
+
+        assertEquals(names(flatten(composite)), names(spanned.getSpans(0, spanned.length(), Named.class)));
+    }
+
+    @NonNull
+    private static <N extends Node> MarkwonVisitor.NodeVisitor<N> visitor() {
+        //noinspection unchecked
+        return mock(MarkwonVisitor.NodeVisitor.class);
+    }
+
+    @NonNull
+    private static List<Object> flatten(@Nullable Object spans) {
+        final List<Object> out = new ArrayList<>();
+        flatten(spans, out);
+        return out;
+    }
+
+    private static void flatten(@Nullable Object spans, @NonNull List<Object> out) {
+        if (spans instanceof Object[]) {
+            for (Object o : (Object[]) spans) {
+                flatten(o, out);
+            }
+        } else if (spans instanceof Named) {
+            out.add(spans);
+        }
+    }
+
+    @NonNull
+    private static List<String> names(@NonNull List<Object> spans) {
+        final List<String> out = new ArrayList<>(spans.size());
+        for (Object span : spans) {
+            out.add(((Named) span).name);
+        }
+        return out;
+    }
+
+    @NonNull
+    private static List<String> names(@NonNull Named[] spans) {
+        // spans are returned in reversed order of addition
+        final List<String> out = new ArrayList<>(spans.length);
+        for (int i = spans.length - 1; i >= 0; i--) {
+            out.add(spans[i].name);
+        }
+        return out;
+    }
+
+    private static class MyNode extends CustomNode {
+    }
+
+    private static class Named {
+
+        final String name;
+
+        Named(@NonNull String name) {
+            this.name = name;
+        }
+    }
+
+    private static class NamedSpanFactory implements SpanFactory {
+
+        private final String name;
+
+        NamedSpanFactory(@NonNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object getSpans(@NonNull MarkwonConfiguration configuration, @NonNull RenderProps props) {
+            return new Named(name);
+        }
+    }
+}
@@ -9,9 +9,16 @@ import org.robolectric.annotation.Config;
 import java.util.Arrays;
 import java.util.List;
 
+import io.noties.markwon.core.CoreProps;
+import io.noties.markwon.image.ImageProps;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -116,4 +123,196 @@ public class RenderPropsImplTest {
             assertNull(props.get(prop));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void int_prop() {
+
+        final IntProp intProp = Prop.ofInt("an int prop");
+
+        assertNull(props.get(intProp));
+        assertEquals(-1, intProp.getInt(props, -1));
+
+        intProp.setInt(props, 42);
+        assertEquals(42, intProp.getInt(props, -1));
+        assertEquals(42, intProp.requireInt(props));
+
+        // generic access
+        assertEquals(Integer.valueOf(42), props.get(intProp));
+        assertEquals(Integer.valueOf(42), intProp.require(props));
+
+        // value set via generic method
+        props.set(intProp, 13);
+        assertEquals(13, intProp.getInt(props, -1));
+
+        intProp.setInt(props, 0);
+        assertEquals(Integer.valueOf(0), props.get(intProp));
+    }
+
+    @Test
+    public void int_prop_require() {
+
+        final IntProp intProp = Prop.ofInt("an int prop to require");
+
+        try {
+            intProp.requireInt(props);
+            fail();
+        } catch (NullPointerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(intProp.name()));
+        }
+
+        intProp.setInt(props, 1);
+        intProp.clear(props);
+
+        try {
+            intProp.requireInt(props);
+            fail();
+        } catch (NullPointerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(intProp.name()));
+        }
+    }
+
+    @Test
+    public void int_prop_clear_all() {
+
+        final IntProp intProp = Prop.ofInt("an int prop to clear");
+
+        intProp.setInt(props, 7);
+        props.set(prop, "value");
+
+        props.clearAll();
+
+        assertNull(props.get(intProp));
+        assertNull(props.get(prop));
+        assertEquals(-1, intProp.getInt(props, -1));
+
+        // replaced by a generic value
+        intProp.setInt(props, 7);
+        props.set(intProp, 8);
+        assertEquals(Integer.valueOf(8), props.get(intProp));
+    }
+
+    @Test
+    public void boolean_prop() {
+
+        final BooleanProp booleanProp = Prop.ofBoolean("a boolean prop");
+
+        assertNull(props.get(booleanProp));
+        assertTrue(booleanProp.getBoolean(props, true));
+
+        booleanProp.setBoolean(props, false);
+        assertFalse(booleanProp.getBoolean(props, true));
+        assertFalse(booleanProp.requireBoolean(props));
+
+        // cached instance is returned
+        booleanProp.setBoolean(props, true);
+        assertSame(Boolean.TRUE, props.get(booleanProp));
+    }
+
+    @Test
+    public void boolean_prop_generic() {
+
+        final BooleanProp booleanProp = Prop.ofBoolean("a boolean prop shared with generic access");
+
+        // set via generic method
+        props.set(booleanProp, true);
+        assertTrue(booleanProp.getBoolean(props, false));
+        assertTrue(booleanProp.requireBoolean(props));
+
+        // replaced by unboxed value
+        booleanProp.setBoolean(props, false);
+        assertEquals(Boolean.FALSE, props.get(booleanProp));
+
+        booleanProp.clear(props);
+        assertNull(props.get(booleanProp));
+
+        try {
+            booleanProp.requireBoolean(props);
+            fail();
+        } catch (NullPointerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(booleanProp.name()));
+        }
+    }
+
+    @Test
+    public void boolean_and_int_props() {
+
+        // both are stored in the same int array
+        final BooleanProp booleanProp = Prop.ofBoolean("a boolean prop next to an int prop");
+        final IntProp intProp = Prop.ofInt("an int prop next to a boolean prop");
+
+        booleanProp.setBoolean(props, true);
+        intProp.setInt(props, 42);
+
+        assertTrue(booleanProp.getBoolean(props, false));
+        assertEquals(42, intProp.getInt(props, 0));
+        assertEquals(Boolean.TRUE, props.get(booleanProp));
+        assertEquals(Integer.valueOf(42), props.get(intProp));
+
+        props.clearAll();
+
+        assertFalse(booleanProp.getBoolean(props, false));
+        assertEquals(0, intProp.getInt(props, 0));
+    }
+
+    @Test
+    public void same_name_same_value() {
+
+        // props are equal by name, so they share the value
+        final Prop<String> first = Prop.of("same-name");
+        final Prop<String> second = Prop.of("same-name");
+
+        props.set(first, "value");
+        assertEquals("value", props.get(second));
+
+        props.clear(second);
+        assertNull(props.get(first));
+    }
+
+    @Test
+    public void many_props() {
+
+        // more props than initial capacity
+        final int count = 100;
+
+        final IntProp[] intProps = new IntProp[count];
+        final Prop<String>[] stringProps = newArray(count);
+
+        for (int i = 0; i < count; i++) {
+            intProps[i] = Prop.ofInt("many-props-int-" + i);
+            stringProps[i] = Prop.of("many-props-string-" + i);
+            intProps[i].setInt(props, i);
+            props.set(stringProps[i], String.valueOf(i));
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, intProps[i].requireInt(props));
+            assertEquals(String.valueOf(i), props.get(stringProps[i]));
+        }
+    }
+
+    @Test
+    public void core_props_share_values() {
+
+        // existing fields keep their generic type and are backed by the same slots
+        final Prop<Integer> level = CoreProps.HEADING_LEVEL;
+        assertSame(CoreProps.HEADING_LEVEL_INT, level);
+
+        CoreProps.HEADING_LEVEL_INT.setInt(props, 3);
+        assertEquals(Integer.valueOf(3), CoreProps.HEADING_LEVEL.require(props));
+
+        CoreProps.ORDERED_LIST_ITEM_NUMBER.set(props, 7);
+        assertEquals(7, CoreProps.ORDERED_LIST_ITEM_NUMBER_INT.requireInt(props));
+
+        final Prop<Boolean> link = ImageProps.REPLACEMENT_TEXT_IS_LINK;
+        ImageProps.REPLACEMENT_TEXT_IS_LINK_BOOLEAN.setBoolean(props, true);
+        assertTrue(link.require(props));
+
+        CoreProps.PARAGRAPH_IS_IN_TIGHT_LIST.set(props, false);
+        assertFalse(CoreProps.PARAGRAPH_IS_IN_TIGHT_LIST_BOOLEAN.getBoolean(props, true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Prop<String>[] newArray(int length) {
+        return (Prop<String>[]) new Prop[length];
+    }
+}
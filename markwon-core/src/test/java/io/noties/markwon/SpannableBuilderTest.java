@@ -1,6 +1,7 @@
 package io.noties.markwon;
 
 import androidx.annotation.NonNull;
+import android.text.Spannable;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 
@@ -16,8 +17,10 @@ import java.util.List;
 import ix.Ix;
 import ix.IxFunction;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static io.noties.markwon.SpannableBuilder.isPositionValid;
 import static io.noties.markwon.SpannableBuilder.setSpans;
@@ -151,6 +154,154 @@ public class SpannableBuilderTest {
         );
     }
 
+    @Test
+    public void get_spans_not_ordered_by_end() {
+        // spans can be added in any order, index must not skip spans that end after requested range
+
+        for (int i = 0; i < 10; i++) {
+            builder.append(String.valueOf(i));
+        }
+
+        builder.setSpan("0-10", 0, 10);
+        builder.setSpan("1-2", 1, 2);
+        builder.setSpan("8-9", 8, 9);
+        builder.setSpan("2-3", 2, 3);
+        builder.setSpan("0-1", 0, 1);
+
+        assertEquals(
+                "2-4",
+                Arrays.asList("0-10", "2-3"),
+                getSpans(2, 4)
+        );
+
+        assertEquals(
+                "0-2",
+                Arrays.asList("0-10", "1-2", "0-1"),
+                getSpans(0, 2)
+        );
+
+        assertEquals(
+                "7-10",
+                Arrays.asList("0-10", "8-9"),
+                getSpans(7, 10)
+        );
+    }
+
+    @Test
+    public void remove_from_end() {
+
+        builder.append("01", "0-2");
+        final int length = builder.length();
+        builder.append("23", "2-4");
+        builder.append("45", "4-6");
+        builder.setSpan("0-6", 0);
+        builder.setSpan("1-3", 1, 3);
+
+        final Spanned removed = (Spanned) builder.removeFromEnd(length);
+
+        assertEquals("2345", removed.toString());
+        // the same order as we would have in the rendered result
+        assertArrayEquals(new Object[]{"4-6", "2-4"}, removed.getSpans(0, removed.length(), Object.class));
+        assertEquals(2, removed.getSpanStart("4-6"));
+        assertEquals(4, removed.getSpanEnd("4-6"));
+
+        // spans that cross removed range are kept
+        assertEquals("01", builder.toString());
+        assertEquals(Arrays.asList("0-2", "0-6", "1-3"), getSpans(0, 2));
+
+        // builder can be used after removal
+        builder.append("23", "2-4 (new)");
+        assertEquals(Arrays.asList("0-6", "1-3", "2-4 (new)"), getSpans(2, 4));
+    }
+
+    @Test
+    public void get_spans_live() {
+
+        builder.append("0123456789");
+        builder.setSpan("0-2", 0, 2);
+        builder.setSpan("2-4", 2, 4);
+
+        final SpannableBuilder.Span span = builder.getSpans(0, 2).get(0);
+        assertEquals("0-2", span.what);
+
+        // the same instance is returned
+        assertSame(span, builder.getSpans(0, 10).get(0));
+
+        // modification is reflected in the builder
+        span.start = 6;
+        span.end = 8;
+
+        assertEquals(Arrays.asList("2-4"), getSpans(0, 4));
+        assertEquals(Arrays.asList("0-2"), getSpans(7, 8));
+
+        final Spanned spanned = builder.spannable();
+        assertEquals(6, spanned.getSpanStart("0-2"));
+        assertEquals(8, spanned.getSpanEnd("0-2"));
+
+        final Spanned subSequence = (Spanned) builder.subSequence(6, 10);
+        assertEquals(0, subSequence.getSpanStart("0-2"));
+        assertEquals(2, subSequence.getSpanEnd("0-2"));
+    }
+
+    @Test
+    public void get_spans_zero_length_at_start() {
+
+        builder.append("01234");
+        builder.setSpan("0-0", 0, 0);
+
+        assertEquals(Arrays.asList("0-0"), getSpans(0, 5));
+
+        builder.setSpan("2-2", 2, 2);
+        builder.setSpan("0-1", 0, 1);
+
+        assertEquals(Arrays.asList("2-2"), getSpans(2, 4));
+
+        final Spanned subSequence = (Spanned) builder.subSequence(2, 4);
+        assertArrayEquals(new Object[]{"2-2"}, subSequence.getSpans(0, subSequence.length(), Object.class));
+    }
+
+    @Test
+    public void get_spans_live_extended() {
+
+        builder.append("0123456789");
+        builder.setSpan("0-1", 0, 1);
+        builder.setSpan("5-6", 5, 6);
+
+        final SpannableBuilder.Span span = builder.getSpans(0, 1).get(0);
+
+        // span that was skipped by index before modification
+        span.end = 8;
+
+        assertEquals(Arrays.asList("0-1"), getSpans(6, 7));
+        assertEquals(Arrays.asList("0-1", "5-6"), getSpans(5, 6));
+
+        final Spanned removed = (Spanned) builder.removeFromEnd(4);
+        assertArrayEquals(new Object[]{"5-6"}, removed.getSpans(0, removed.length(), Object.class));
+        assertEquals(Arrays.asList("0-1"), getSpans(0, 4));
+    }
+
+    @Test
+    public void get_spans_live_remove_from_end() {
+
+        builder.append("0123");
+        builder.setSpan("0-2", 0, 2);
+        builder.setSpan("2-4", 2, 4);
+        builder.setSpan("0-4", 0, 4);
+
+        final List<SpannableBuilder.Span> spans = builder.getSpans(0, 4);
+
+        // moved into removed range
+        spans.get(0).start = 2;
+        spans.get(0).end = 3;
+
+        final Spanned removed = (Spanned) builder.removeFromEnd(2);
+        assertArrayEquals(new Object[]{"2-4", "0-2"}, removed.getSpans(0, removed.length(), Object.class));
+
+        // remaining span keeps its instance
+        assertEquals("01", builder.toString());
+        assertSame(spans.get(2), builder.getSpans(0, 2).get(0));
+    }
+
     @NonNull
     private List<String> getSpans(int start, int end) {
         return Ix.from(builder.getSpans(start, end))
@@ -338,6 +489,109 @@ public class SpannableBuilderTest {
         }
     }
 
+    @Test
+    public void spannable_same_as_spannable_string_builder() {
+
+        builder.append("0123456789");
+        builder.setSpan("a", 0, 10);
+        builder.setSpan("b", 2, 4);
+        builder.setSpan("c", 4, 8);
+        builder.setSpan("d", 4, 8, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE | (3 << Spanned.SPAN_PRIORITY_SHIFT));
+        builder.setSpan(1, 5, 5, Spanned.SPAN_INCLUSIVE_INCLUSIVE);
+        builder.setSpan(2, 9, 10);
+
+        final SpannableStringBuilder expected = builder.spannableStringBuilder();
+        final Spannable actual = builder.spannable();
+
+        assertEquals(expected.toString(), actual.toString());
+
+        for (int start = 0; start <= 10; start++) {
+            for (int end = start; end <= 10; end++) {
+                assertArrayEquals(
+                        expected.getSpans(start, end, Object.class),
+                        actual.getSpans(start, end, Object.class));
+                assertArrayEquals(
+                        expected.getSpans(start, end, String.class),
+                        actual.getSpans(start, end, String.class));
+                assertEquals(
+                        expected.nextSpanTransition(start, 10, Object.class),
+                        actual.nextSpanTransition(start, 10, Object.class));
+            }
+        }
+
+        for (Object span : expected.getSpans(0, 10, Object.class)) {
+            assertEquals(expected.getSpanStart(span), actual.getSpanStart(span));
+            assertEquals(expected.getSpanEnd(span), actual.getSpanEnd(span));
+            assertEquals(expected.getSpanFlags(span), actual.getSpanFlags(span));
+        }
+
+        assertEquals(-1, actual.getSpanStart("not-present"));
+        assertEquals(-1, actual.getSpanEnd("not-present"));
+        assertEquals(0, actual.getSpanFlags("not-present"));
+    }
+
+    @Test
+    public void spannable_not_affected_by_builder() {
+
+        builder.append("abc", "span");
+
+        final Spannable spannable = builder.spannable();
+
+        builder.clear();
+        builder.append("def", "other");
+
+        assertEquals("abc", spannable.toString());
+        assertArrayEquals(new Object[]{"span"}, spannable.getSpans(0, 3, Object.class));
+    }
+
+    @Test
+    public void spannable_set_remove_span() {
+
+        builder.append("0123", "first");
+
+        final Spannable spannable = builder.spannable();
+
+        // new span is added last
+        spannable.setSpan("second", 1, 2, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        assertArrayEquals(new Object[]{"first", "second"}, spannable.getSpans(0, 4, Object.class));
+
+        // existing span keeps its position in order
+        spannable.setSpan("first", 2, 3, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        assertArrayEquals(new Object[]{"first", "second"}, spannable.getSpans(0, 4, Object.class));
+        assertEquals(2, spannable.getSpanStart("first"));
+        assertEquals(3, spannable.getSpanEnd("first"));
+
+        spannable.removeSpan("first");
+        assertArrayEquals(new Object[]{"second"}, spannable.getSpans(0, 4, Object.class));
+        assertEquals(-1, spannable.getSpanStart("first"));
+
+        try {
+            spannable.setSpan("third", 0, 5, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            throw new AssertionError();
+        } catch (IndexOutOfBoundsException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("length 4"));
+        }
+    }
+
+    @Test
+    public void append_spannable() {
+        // spannable has the same order as SpannableStringBuilderReversed -> spans should be added as-are
+
+        final SpannableBuilder spannableBuilder = new SpannableBuilder();
+        for (int i = 0; i < 3; i++) {
+            spannableBuilder.append(String.valueOf(i), i);
+        }
+
+        builder.append(spannableBuilder.spannable());
+
+        final Object[] spans = builder.spannable().getSpans(0, builder.length(), Object.class);
+        assertEquals(3, spans.length);
+
+        for (int i = 0, length = spans.length; i < length; i++) {
+            assertEquals(length - 1 - i, spans[i]);
+        }
+    }
+
     private static class Position {
 
         @NonNull
@@ -0,0 +1,238 @@
+package io.noties.markwon.core.factory;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.noties.markwon.IncrementalResult;
+import io.noties.markwon.Markwon;
+import io.noties.markwon.MarkwonConfiguration;
+import io.noties.markwon.Prop;
+import io.noties.markwon.RenderProps;
+import io.noties.markwon.core.CorePlugin;
+import io.noties.markwon.core.spans.EmphasisSpan;
+import io.noties.markwon.core.spans.HeadingSpan;
+import io.noties.markwon.core.spans.OrderedListItemSpan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class FlyweightSpanFactoryTest {
+
+    @Test
+    public void not_shared_by_default() {
+
+        final Markwon markwon = Markwon.create(RuntimeEnvironment.application);
+
+        final EmphasisSpan first = single(markwon.toMarkdown("_a_"), EmphasisSpan.class);
+        final EmphasisSpan second = single(markwon.toMarkdown("_a_"), EmphasisSpan.class);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shared_between_documents() {
+
+        final Markwon markwon = flyweight();
+
+        final EmphasisSpan first = single(markwon.toMarkdown("_a_"), EmphasisSpan.class);
+        final EmphasisSpan second = single(markwon.toMarkdown("_b_ text"), EmphasisSpan.class);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void unique_in_document() {
+
+        final Markwon markwon = flyweight();
+
+        final String input = "_a_ _b_ **c** **d**\n\n# 1\n\n# 2\n\n## 3\n\n" +
+                "* one\n* two\n  * three\n\n1. one\n2. two\n\n> quote\n\n> quote\n\n`code` `code`";
+
+        final Spanned first = markwon.toMarkdown(input);
+        final Spanned second = markwon.toMarkdown(input);
+
+        assertUnique(first);
+        assertUnique(second);
+
+        // the same instances are used by both documents
+        final Object[] firstSpans = first.getSpans(0, first.length(), Object.class);
+        final Object[] secondSpans = second.getSpans(0, second.length(), Object.class);
+        assertEquals(firstSpans.length, secondSpans.length);
+
+        int shared = 0;
+        for (int i = 0; i < firstSpans.length; i++) {
+            if (firstSpans[i] == secondSpans[i]) {
+                shared += 1;
+            }
+        }
+        assertTrue(shared > 0);
+
+        // ordered list item spans are modified when displayed, so they are never shared
+        final OrderedListItemSpan[] firstOrdered = first.getSpans(0, first.length(), OrderedListItemSpan.class);
+        final OrderedListItemSpan[] secondOrdered = second.getSpans(0, second.length(), OrderedListItemSpan.class);
+        assertEquals(2, firstOrdered.length);
+        for (int i = 0; i < firstOrdered.length; i++) {
+            assertNotSame(firstOrdered[i], secondOrdered[i]);
+        }
+    }
+
+    @Test
+    public void heading_levels_not_mixed() {
+
+        final Markwon markwon = flyweight();
+
+        final HeadingSpan first = single(markwon.toMarkdown("# a"), HeadingSpan.class);
+        final HeadingSpan second = single(markwon.toMarkdown("## a"), HeadingSpan.class);
+        final HeadingSpan third = single(markwon.toMarkdown("## b"), HeadingSpan.class);
+
+        assertEquals(1, first.getLevel());
+        assertEquals(2, second.getLevel());
+        assertNotSame(first, second);
+        assertSame(second, third);
+    }
+
+    @Test
+    public void max_shared_instances() {
+
+        final EmphasisSpanFactory factory = new EmphasisSpanFactory(2);
+        assertTrue(factory.isFlyweight());
+
+        final MarkwonConfiguration configuration = mock(MarkwonConfiguration.class);
+
+        final Object[] first = spans(factory, configuration, 3);
+        final Object[] second = spans(factory, configuration, 3);
+
+        assertSame(first[0], second[0]);
+        assertSame(first[1], second[1]);
+        assertNotSame(first[2], second[2]);
+    }
+
+    @Test
+    public void not_shared_between_configurations() {
+
+        final EmphasisSpanFactory factory = new EmphasisSpanFactory(8);
+
+        final Object first = spans(factory, mock(MarkwonConfiguration.class), 1)[0];
+        final Object second = spans(factory, mock(MarkwonConfiguration.class), 1)[0];
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void disabled() {
+
+        final EmphasisSpanFactory factory = new EmphasisSpanFactory(8);
+        final MarkwonConfiguration configuration = mock(MarkwonConfiguration.class);
+
+        final Object shared = spans(factory, configuration, 1)[0];
+
+        final RenderProps props = new Props();
+        FlyweightSpanFactory.disable(props);
+        assertNotSame(shared, factory.getSpans(configuration, props));
+    }
+
+    @Test
+    public void not_shared_with_reused_blocks() {
+
+        final Markwon markwon = flyweight();
+
+        final IncrementalResult first = markwon.renderIncremental(null, "_a_\n\n_b_");
+        final IncrementalResult second = markwon.renderIncremental(first, "_a_\n\n_b_\n\n_c_");
+
+        assertEquals(2, second.reusedBlocks());
+        assertUnique(second.spanned());
+
+        final EmphasisSpan[] spans = second.spanned().getSpans(0, second.spanned().length(), EmphasisSpan.class);
+        assertEquals(3, spans.length);
+    }
+
+    @NonNull
+    private static Markwon flyweight() {
+        return Markwon.builderNoCore(RuntimeEnvironment.application)
+                .usePlugin(CorePlugin.create().flyweightSpans(true))
+                .build();
+    }
+
+    @NonNull
+    private static Object[] spans(
+            @NonNull FlyweightSpanFactory factory,
+            @NonNull MarkwonConfiguration configuration,
+            int count) {
+        final RenderProps props = new Props();
+        final Object[] out = new Object[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = factory.getSpans(configuration, props);
+        }
+        return out;
+    }
+
+    @NonNull
+    private static <T> T single(@NonNull Spanned spanned, @NonNull Class<T> type) {
+        final T[] spans = spanned.getSpans(0, spanned.length(), type);
+        assertEquals(1, spans.length);
+        return spans[0];
+    }
+
+    private static void assertUnique(@NonNull Spanned spanned) {
+        final Set<Object> set = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (Object span : spanned.getSpans(0, spanned.length(), Object.class)) {
+            assertFalse(String.valueOf(span), set.contains(span));
+            set.add(span);
+        }
+        assertFalse(set.isEmpty());
+    }
+
+    private static class Props implements RenderProps {
+
+        private final Map<Prop, Object> values = new HashMap<>();
+
+        @Nullable
+        @Override
+        public <T> T get(@NonNull Prop<T> prop) {
+            //noinspection unchecked
+            return (T) values.get(prop);
+        }
+
+        @NonNull
+        @Override
+        public <T> T get(@NonNull Prop<T> prop, @NonNull T defValue) {
+            final T value = get(prop);
+            return value != null ? value : defValue;
+        }
+
+        @Override
+        public <T> void set(@NonNull Prop<T> prop, @Nullable T value) {
+            values.put(prop, value);
+        }
+
+        @Override
+        public <T> void clear(@NonNull Prop<T> prop) {
+            values.remove(prop);
+        }
+
+        @Override
+        public void clearAll() {
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.noties.markwon.image;
+
+import android.app.Activity;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.markwon.core.MarkwonTheme;
+import io.noties.markwon.utils.RelayoutScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class AsyncDrawableSchedulerTest {
+
+    private TextView textView;
+    private AsyncDrawable first;
+    private AsyncDrawable second;
+
+    private final List<String> executed = new ArrayList<>();
+
+    @Before
+    public void before() {
+
+        first = drawable("first");
+        second = drawable("second");
+
+        final MarkwonTheme theme = MarkwonTheme.create(RuntimeEnvironment.application);
+
+        final SpannableStringBuilder builder = new SpannableStringBuilder("ab");
+        builder.setSpan(new AsyncDrawableSpan(theme, first, AsyncDrawableSpan.ALIGN_BOTTOM, false), 0, 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        builder.setSpan(new AsyncDrawableSpan(theme, second, AsyncDrawableSpan.ALIGN_BOTTOM, false), 1, 2, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        // must be attached, a detached view does not post runnables to the main looper
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        textView = new TextView(activity);
+        activity.setContentView(textView);
+        textView.setText(builder);
+
+        ShadowLooper.pauseMainLooper();
+
+        AsyncDrawableScheduler.schedule(textView);
+
+        // execute everything that is posted before frames are scheduled
+        Robolectric.getForegroundThreadScheduler().advanceToLastPostedRunnable();
+    }
+
+    @After
+    public void after() {
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void single_ticker() {
+
+        final long now = SystemClock.uptimeMillis();
+
+        first.scheduleSelf(frame("first-1"), now + 100);
+        second.scheduleSelf(frame("second-1"), now + 50);
+        first.scheduleSelf(frame("first-2"), now + 150);
+
+        // a single runnable for all frames
+        assertEquals(1, pending());
+
+        advance(50);
+        assertEquals(list("second-1"), executed);
+        assertEquals(1, pending());
+
+        advance(50);
+        assertEquals(list("second-1", "first-1"), executed);
+        assertEquals(1, pending());
+
+        advance(50);
+        assertEquals(list("second-1", "first-1", "first-2"), executed);
+        assertEquals(0, pending());
+    }
+
+    @Test
+    public void same_frames_executed_together() {
+
+        final long now = SystemClock.uptimeMillis();
+
+        first.scheduleSelf(frame("first"), now + 16);
+        second.scheduleSelf(frame("second"), now + 16);
+
+        assertEquals(1, pending());
+
+        advance(16);
+        assertEquals(list("first", "second"), executed);
+        assertEquals(0, pending());
+    }
+
+    @Test
+    public void rescheduled_frame_replaced() {
+
+        final long now = SystemClock.uptimeMillis();
+
+        final Runnable frame = frame("first");
+        first.scheduleSelf(frame, now + 50);
+        first.scheduleSelf(frame, now + 100);
+
+        advance(50);
+        assertEquals(0, executed.size());
+
+        advance(50);
+        assertEquals(list("first"), executed);
+    }
+
+    @Test
+    public void unscheduled() {
+
+        final long now = SystemClock.uptimeMillis();
+
+        final Runnable frame = frame("first");
+        first.scheduleSelf(frame, now + 50);
+        second.scheduleSelf(frame("second"), now + 100);
+
+        first.unscheduleSelf(frame);
+        assertEquals(1, pending());
+
+        advance(100);
+        assertEquals(list("second"), executed);
+        assertEquals(0, pending());
+    }
+
+    @Test
+    public void unschedule_clears_frames() {
+
+        first.scheduleSelf(frame("first"), SystemClock.uptimeMillis() + 50);
+
+        AsyncDrawableScheduler.unschedule(textView);
+
+        advance(50);
+        assertEquals(0, executed.size());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    public void repeated_schedule_keeps_callbacks() {
+
+        final Drawable.Callback callback = first.getCallback();
+        assertNotNull(callback);
+
+        // for example, multiple plugins schedule drawables for the same text
+        AsyncDrawableScheduler.schedule(textView);
+        AsyncDrawableScheduler.schedule(textView);
+
+        assertSame(callback, first.getCallback());
+    }
+
+    @Test
+    public void relayout_keeps_callbacks() {
+
+        final CharSequence text = textView.getText();
+        final Drawable.Callback callback = first.getCallback();
+
+        final RelayoutScheduler relayoutScheduler = RelayoutScheduler.obtain(textView);
+        relayoutScheduler.requestRelayout();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals(1, relayoutScheduler.executedCount());
+
+        // text is set again, TextView keeps the same instance (no movement method)
+        assertSame(text, textView.getText());
+
+        AsyncDrawableScheduler.schedule(textView);
+
+        assertSame(callback, first.getCallback());
+    }
+
+    @NonNull
+    private Runnable frame(@NonNull final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                executed.add(name);
+            }
+        };
+    }
+
+    @NonNull
+    private static AsyncDrawable drawable(@NonNull String destination) {
+        return new AsyncDrawable(
+                destination,
+                mock(AsyncDrawableLoader.class),
+                new ImageSizeResolverDef(),
+                null);
+    }
+
+    private static int pending() {
+        return Robolectric.getForegroundThreadScheduler().size();
+    }
+
+    private static void advance(long millis) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
+    }
+
+    @NonNull
+    private static List<String> list(@NonNull String... items) {
+        final List<String> list = new ArrayList<>(items.length);
+        for (String item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+}
@@ -201,6 +201,31 @@ public class AsyncDrawableTest {
         assertTrue(drawable.getBounds().isEmpty());
     }
 
+    @Test
+    public void visibility_applied_to_result() {
+
+        final AsyncDrawable drawable = new AsyncDrawable(
+                "",
+                mock(AsyncDrawableLoader.class),
+                imageSizeResolver,
+                null
+        );
+
+        final Drawable result1 = new AbstractDrawable();
+        drawable.setResult(result1);
+
+        drawable.setVisible(false, false);
+        assertFalse(result1.isVisible());
+
+        // new result receives current visibility
+        final Drawable result2 = new AbstractDrawable();
+        drawable.setResult(result2);
+        assertFalse(result2.isVisible());
+
+        drawable.setVisible(true, false);
+        assertTrue(result2.isVisible());
+    }
+
     private static class AbstractDrawable extends Drawable {
 
         @Override
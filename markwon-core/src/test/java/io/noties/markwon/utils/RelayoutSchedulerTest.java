@@ -0,0 +1,220 @@
+package io.noties.markwon.utils;
+
+import android.app.Activity;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RelayoutSchedulerTest {
+
+    private FrameLayout parent;
+    private TextView textView;
+    private int relayouts;
+    private RelayoutScheduler scheduler;
+
+    @Before
+    public void before() {
+        // relayout is executed only for attached TextView
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        parent = new FrameLayout(activity);
+        activity.setContentView(parent);
+        textView = new TextView(activity);
+        parent.addView(textView);
+        ShadowLooper.pauseMainLooper();
+        textView.setText("text");
+        textView.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                relayouts += 1;
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        });
+        scheduler = RelayoutScheduler.obtain(textView);
+    }
+
+    @After
+    public void after() {
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void same_instance() {
+        assertSame(scheduler, RelayoutScheduler.obtain(textView));
+    }
+
+    @Test
+    public void combined() {
+
+        scheduler.requestRelayout();
+        scheduler.requestRelayout();
+        scheduler.requestRelayout();
+
+        // nothing is executed until next frame
+        assertEquals(0, relayouts);
+
+        frame();
+
+        assertEquals(1, relayouts);
+        assertEquals(3, scheduler.requestedCount());
+        assertEquals(1, scheduler.executedCount());
+        assertEquals(0, scheduler.skippedCount());
+
+        // next request is executed in the next frame
+        scheduler.requestRelayout();
+        frame();
+
+        assertEquals(2, relayouts);
+        assertEquals(2, scheduler.executedCount());
+    }
+
+    @Test
+    public void skipped_when_layout_not_affected() {
+
+        final TestRequest request = new TestRequest(false);
+        scheduler.requestRelayout(request);
+        scheduler.requestRelayout(request);
+
+        frame();
+
+        assertEquals(0, relayouts);
+        assertEquals(0, request.relayouts);
+        assertEquals(2, scheduler.requestedCount());
+        assertEquals(0, scheduler.executedCount());
+        assertEquals(1, scheduler.skippedCount());
+    }
+
+    @Test
+    public void executed_when_one_affects_layout() {
+
+        final TestRequest first = new TestRequest(false);
+        final TestRequest second = new TestRequest(true);
+        scheduler.requestRelayout(first);
+        scheduler.requestRelayout(second);
+        scheduler.requestRelayout(second);
+
+        frame();
+
+        assertEquals(1, relayouts);
+        assertEquals(1, scheduler.executedCount());
+
+        // all pending requests are notified (once)
+        assertEquals(1, first.relayouts);
+        assertEquals(1, second.relayouts);
+    }
+
+    @Test
+    public void unconditional_not_skipped() {
+
+        final TestRequest request = new TestRequest(false);
+        scheduler.requestRelayout(request);
+        scheduler.requestRelayout();
+
+        frame();
+
+        assertEquals(1, relayouts);
+        assertEquals(1, request.relayouts);
+        assertEquals(0, scheduler.skippedCount());
+    }
+
+    @Test
+    public void background_thread() throws InterruptedException {
+
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                scheduler.requestRelayout();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        frame();
+
+        assertEquals(1, relayouts);
+        assertEquals(1, scheduler.requestedCount());
+        assertEquals(1, scheduler.executedCount());
+    }
+
+    @Test
+    public void detached_postponed() {
+
+        parent.removeView(textView);
+
+        scheduler.requestRelayout();
+        frame();
+
+        assertEquals(0, relayouts);
+        assertEquals(0, scheduler.executedCount());
+
+        parent.addView(textView);
+        frame();
+
+        assertEquals(1, relayouts);
+        assertEquals(1, scheduler.executedCount());
+    }
+
+    @Test
+    public void detached_after_request() {
+
+        scheduler.requestRelayout();
+
+        parent.removeView(textView);
+        frame();
+
+        assertEquals(0, relayouts);
+
+        parent.addView(textView);
+        frame();
+
+        assertEquals(1, relayouts);
+    }
+
+    private static void frame() {
+        // first run delivers requests posted from other threads, second one a frame callback that they posted
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    private static class TestRequest implements RelayoutScheduler.Request {
+
+        private final boolean affectsLayout;
+
+        int relayouts;
+
+        TestRequest(boolean affectsLayout) {
+            this.affectsLayout = affectsLayout;
+        }
+
+        @Override
+        public boolean affectsLayout() {
+            return affectsLayout;
+        }
+
+        @Override
+        public void onRelayout() {
+            relayouts += 1;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.noties.markwon.ext.strikethrough;
 import android.text.style.StrikethroughSpan;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.commonmark.ext.gfm.strikethrough.Strikethrough;
 import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
@@ -14,6 +15,7 @@ import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonSpansFactory;
 import io.noties.markwon.MarkwonVisitor;
+import io.noties.markwon.PlainTextAware;
 import io.noties.markwon.RenderProps;
 import io.noties.markwon.SpanFactory;
 
@@ -25,13 +27,22 @@ import io.noties.markwon.SpanFactory;
  * @see #create()
  * @since 3.0.0
  */
-public class StrikethroughPlugin extends AbstractMarkwonPlugin {
+public class StrikethroughPlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     @NonNull
     public static StrikethroughPlugin create() {
         return new StrikethroughPlugin();
     }
 
+    /**
+     * @since $SNAPSHOT;
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        return "~";
+    }
+
     @Override
     public void configureParser(@NonNull Parser.Builder builder) {
         builder.extensions(Collections.singleton(StrikethroughExtension.create()));
@@ -21,6 +21,8 @@ import java.util.List;
 
 import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonVisitor;
+import io.noties.markwon.Prop;
+import io.noties.markwon.RenderProps;
 import io.noties.markwon.SpannableBuilder;
 
 /**
@@ -80,12 +82,6 @@ public class TablePlugin extends AbstractMarkwonPlugin {
         visitor.configure(builder);
     }
 
-    @Override
-    public void beforeRender(@NonNull Node node) {
-        // clear before rendering (as visitor has some internal mutable state)
-        visitor.clear();
-    }
-
     @Override
     public void beforeSetText(@NonNull TextView textView, @NonNull Spanned markdown) {
         TableRowsScheduler.unschedule(textView);
@@ -98,20 +94,25 @@ public class TablePlugin extends AbstractMarkwonPlugin {
 
     private static class TableVisitor {
 
-        private final TableTheme tableTheme;
+        // @since $SNAPSHOT; mutable state is stored in render-props (which are created for each render),
+        //  so a single Markwon instance can render concurrently
+        private static final Prop<TableState> TABLE_STATE = Prop.of("table-state");
 
-        private List<TableRowSpan.Cell> pendingTableRow;
-        private boolean tableRowIsHeader;
-        private int tableRows;
+        private final TableTheme tableTheme;
 
         TableVisitor(@NonNull TableTheme tableTheme) {
             this.tableTheme = tableTheme;
         }
 
-        void clear() {
-            pendingTableRow = null;
-            tableRowIsHeader = false;
-            tableRows = 0;
+        @NonNull
+        private static TableState state(@NonNull MarkwonVisitor visitor) {
+            final RenderProps renderProps = visitor.renderProps();
+            TableState state = TABLE_STATE.get(renderProps);
+            if (state == null) {
+                state = new TableState();
+                TABLE_STATE.set(renderProps, state);
+            }
+            return state;
         }
 
         void configure(@NonNull MarkwonVisitor.Builder builder) {
@@ -137,7 +138,7 @@ public class TablePlugin extends AbstractMarkwonPlugin {
                         @Override
                         public void visit(@NonNull MarkwonVisitor visitor, @NonNull TableBody tableBody) {
                             visitor.visitChildren(tableBody);
-                            tableRows = 0;
+                            state(visitor).tableRows = 0;
                         }
                     })
                     .on(TableRow.class, new MarkwonVisitor.NodeVisitor<TableRow>() {
@@ -160,16 +161,18 @@ public class TablePlugin extends AbstractMarkwonPlugin {
 
                             visitor.visitChildren(tableCell);
 
-                            if (pendingTableRow == null) {
-                                pendingTableRow = new ArrayList<>(2);
+                            final TableState state = state(visitor);
+
+                            if (state.pendingTableRow == null) {
+                                state.pendingTableRow = new ArrayList<>(2);
                             }
 
-                            pendingTableRow.add(new TableRowSpan.Cell(
+                            state.pendingTableRow.add(new TableRowSpan.Cell(
                                     tableCellAlignment(tableCell.getAlignment()),
                                     visitor.builder().removeFromEnd(length)
                             ));
 
-                            tableRowIsHeader = tableCell.isHeader();
+                            state.tableRowIsHeader = tableCell.isHeader();
                         }
                     });
         }
@@ -180,7 +183,9 @@ public class TablePlugin extends AbstractMarkwonPlugin {
 
             visitor.visitChildren(node);
 
-            if (pendingTableRow != null) {
+            final TableState state = state(visitor);
+
+            if (state.pendingTableRow != null) {
 
                 final SpannableBuilder builder = visitor.builder();
 
@@ -205,17 +210,17 @@ public class TablePlugin extends AbstractMarkwonPlugin {
 
                 final Object span = new TableRowSpan(
                         tableTheme,
-                        pendingTableRow,
-                        tableRowIsHeader,
-                        tableRows % 2 == 1);
+                        state.pendingTableRow,
+                        state.tableRowIsHeader,
+                        state.tableRows % 2 == 1);
 
-                tableRows = tableRowIsHeader
+                state.tableRows = state.tableRowIsHeader
                         ? 0
-                        : tableRows + 1;
+                        : state.tableRows + 1;
 
                 visitor.setSpans(addNewLine ? length + 1 : length, span);
 
-                pendingTableRow = null;
+                state.pendingTableRow = null;
             }
         }
 
@@ -240,4 +245,10 @@ public class TablePlugin extends AbstractMarkwonPlugin {
             return out;
         }
     }
+
+    private static class TableState {
+        List<TableRowSpan.Cell> pendingTableRow;
+        boolean tableRowIsHeader;
+        int tableRows;
+    }
 }
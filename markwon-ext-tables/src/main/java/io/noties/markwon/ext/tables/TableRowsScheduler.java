@@ -8,6 +8,8 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import io.noties.markwon.utils.RelayoutScheduler;
+
 abstract class TableRowsScheduler {
 
     static void schedule(@NonNull final TextView view) {
@@ -33,23 +35,13 @@ abstract class TableRowsScheduler {
                 view.setTag(R.id.markwon_tables_scheduler, listener);
             }
 
+            // @since $SNAPSHOT; relayout is shared with other spans of this TextView (at most once per frame),
+            //  TableRowSpan requests it only when its height has changed
+            final RelayoutScheduler relayoutScheduler = RelayoutScheduler.obtain(view);
             final TableRowSpan.Invalidator invalidator = new TableRowSpan.Invalidator() {
-
-                // @since 4.1.0
-                // let's stack-up invalidation calls (so invalidation happens,
-                // but not with each table-row-span draw call)
-                final Runnable runnable = new Runnable() {
-                    @Override
-                    public void run() {
-                        view.setText(view.getText());
-                    }
-                };
-
                 @Override
                 public void invalidate() {
-                    // @since 4.1.0 post invalidation (combine multiple calls)
-                    view.removeCallbacks(runnable);
-                    view.post(runnable);
+                    relayoutScheduler.requestRelayout();
                 }
             };
 
@@ -10,6 +10,9 @@ import org.commonmark.node.Node;
 import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonVisitor;
+import io.noties.markwon.PlainTextAware;
+import io.noties.markwon.Prop;
+import io.noties.markwon.RenderProps;
 import io.noties.markwon.html.tag.BlockquoteHandler;
 import io.noties.markwon.html.tag.EmphasisHandler;
 import io.noties.markwon.html.tag.HeadingHandler;
@@ -25,7 +28,7 @@ import io.noties.markwon.html.tag.UnderlineHandler;
 /**
  * @since 3.0.0
  */
-public class HtmlPlugin extends AbstractMarkwonPlugin {
+public class HtmlPlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     /**
      * @see #create(HtmlConfigure)
@@ -54,7 +57,10 @@ public class HtmlPlugin extends AbstractMarkwonPlugin {
 
     private final MarkwonHtmlRendererImpl.Builder builder;
 
-    private MarkwonHtmlParser htmlParser;
+    // @since $SNAPSHOT; html-parser is created for each render (stored in render-props),
+    //  so a single Markwon instance can render concurrently
+    private static final Prop<MarkwonHtmlParser> HTML_PARSER = Prop.of("html-parser");
+
     private MarkwonHtmlRenderer htmlRenderer;
 
     // @since 4.4.0
@@ -117,6 +123,15 @@ public class HtmlPlugin extends AbstractMarkwonPlugin {
         return this;
     }
 
+    /**
+     * @since $SNAPSHOT; HTML content starts with a tag, an entity can be used in HTML also
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        return "<&";
+    }
+
     @Override
     public void configureConfiguration(@NonNull MarkwonConfiguration.Builder configurationBuilder) {
 
@@ -141,7 +156,6 @@ public class HtmlPlugin extends AbstractMarkwonPlugin {
             builder.addDefaultTagHandler(new HeadingHandler());
         }
 
-        htmlParser = MarkwonHtmlParserImpl.create(emptyTagReplacement);
         htmlRenderer = builder.build();
     }
 
@@ -149,7 +163,13 @@ public class HtmlPlugin extends AbstractMarkwonPlugin {
     public void afterRender(@NonNull Node node, @NonNull MarkwonVisitor visitor) {
         final MarkwonHtmlRenderer htmlRenderer = this.htmlRenderer;
         if (htmlRenderer != null) {
-            htmlRenderer.render(visitor, htmlParser);
+            // @since $SNAPSHOT; parser is present only if there was HTML content
+            final RenderProps renderProps = visitor.renderProps();
+            final MarkwonHtmlParser htmlParser = HTML_PARSER.get(renderProps);
+            if (htmlParser != null) {
+                htmlRenderer.render(visitor, htmlParser);
+                HTML_PARSER.clear(renderProps);
+            }
         } else {
             throw new IllegalStateException("Unexpected state, html-renderer is not defined");
         }
@@ -174,6 +194,12 @@ public class HtmlPlugin extends AbstractMarkwonPlugin {
 
     private void visitHtml(@NonNull MarkwonVisitor visitor, @Nullable String html) {
         if (html != null) {
+            final RenderProps renderProps = visitor.renderProps();
+            MarkwonHtmlParser htmlParser = HTML_PARSER.get(renderProps);
+            if (htmlParser == null) {
+                htmlParser = MarkwonHtmlParserImpl.create(emptyTagReplacement);
+                HTML_PARSER.set(renderProps, htmlParser);
+            }
             htmlParser.processFragment(visitor.builder(), html);
         }
     }
@@ -40,7 +40,7 @@ public class HeadingHandler extends SimpleTagHandler {
             return null;
         }
 
-        CoreProps.HEADING_LEVEL.set(renderProps, level);
+        CoreProps.HEADING_LEVEL_INT.setInt(renderProps, level);
 
         return factory.getSpans(configuration, renderProps);
     }
@@ -73,7 +73,7 @@ public class ImageHandler extends SimpleTagHandler {
 
         ImageProps.DESTINATION.set(renderProps, destination);
         ImageProps.IMAGE_SIZE.set(renderProps, imageSize);
-        ImageProps.REPLACEMENT_TEXT_IS_LINK.set(renderProps, false);
+        ImageProps.REPLACEMENT_TEXT_IS_LINK_BOOLEAN.setBoolean(renderProps, false);
 
         return spanFactory.getSpans(configuration, renderProps);
     }
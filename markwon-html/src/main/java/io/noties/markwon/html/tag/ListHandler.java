@@ -53,10 +53,10 @@ public class ListHandler extends TagHandler {
                 // insert list item here
                 if (ol) {
                     CoreProps.LIST_ITEM_TYPE.set(renderProps, CoreProps.ListItemType.ORDERED);
-                    CoreProps.ORDERED_LIST_ITEM_NUMBER.set(renderProps, number++);
+                    CoreProps.ORDERED_LIST_ITEM_NUMBER_INT.setInt(renderProps, number++);
                 } else {
                     CoreProps.LIST_ITEM_TYPE.set(renderProps, CoreProps.ListItemType.BULLET);
-                    CoreProps.BULLET_LIST_ITEM_LEVEL.set(renderProps, bulletLevel);
+                    CoreProps.BULLET_LIST_ITEM_LEVEL_INT.setInt(renderProps, bulletLevel);
                 }
 
                 SpannableBuilder.setSpans(
@@ -0,0 +1,73 @@
+package io.noties.markwon.html;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import io.noties.markwon.IncrementalResult;
+import io.noties.markwon.Markwon;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class HtmlIncrementalRenderTest {
+
+    private Markwon markwon;
+
+    @Before
+    public void before() {
+        markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(HtmlPlugin.create())
+                .build();
+    }
+
+    @Test
+    public void tag_across_blocks() {
+        final String first = "first\n\n<b>second\n\nthird</b> fourth\n\nfifth";
+        final String second = first + " changed\n\nsixth";
+
+        final IncrementalResult previous = markwon.renderIncremental(null, first);
+        final IncrementalResult result = markwon.renderIncremental(previous, second);
+
+        // only the block before HTML
+        assertEquals(1, result.reusedBlocks());
+        assertEquals(dump(markwon.toMarkdown(second)), dump(result.spanned()));
+    }
+
+    @Test
+    public void closing_tag_moved() {
+        final String first = "first\n\n<i>second\n\nthird\n\nfourth</i>\n\nfifth";
+        final String second = "first\n\n<i>second\n\nthird</i>\n\nfourth\n\nfifth";
+
+        final IncrementalResult previous = markwon.renderIncremental(null, first);
+        final IncrementalResult result = markwon.renderIncremental(previous, second);
+
+        assertEquals(dump(markwon.toMarkdown(second)), dump(result.spanned()));
+    }
+
+    @NonNull
+    private static String dump(@NonNull Spanned spanned) {
+        final List<String> spans = new ArrayList<>();
+        for (Object span : spanned.getSpans(0, spanned.length(), Object.class)) {
+            spans.add(String.format(Locale.ROOT, "%s(%d,%d)",
+                    span.getClass().getSimpleName(),
+                    spanned.getSpanStart(span),
+                    spanned.getSpanEnd(span)));
+        }
+        Collections.sort(spans);
+        return spanned.toString() + spans;
+    }
+}
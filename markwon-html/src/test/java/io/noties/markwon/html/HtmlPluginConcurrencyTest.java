@@ -0,0 +1,113 @@
+package io.noties.markwon.html;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.noties.markwon.Markwon;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class HtmlPluginConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 25;
+
+    @Test
+    public void concurrent_render_same_as_single_threaded() throws Exception {
+
+        final Markwon markwon = Markwon.builder(RuntimeEnvironment.application)
+                .usePlugin(HtmlPlugin.create())
+                .build();
+
+        final List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            inputs.add(document(i));
+        }
+
+        // single-threaded output
+        final List<String> expected = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            expected.add(dump(markwon.toMarkdown(input)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<String>>> futures = new ArrayList<>(THREADS);
+
+            for (int t = 0; t < THREADS; t++) {
+                final int offset = t;
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        start.await();
+                        final List<String> out = new ArrayList<>();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            final int index = (offset + i) % inputs.size();
+                            out.add(index + ":" + dump(markwon.toMarkdown(inputs.get(index))));
+                        }
+                        return out;
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            for (int t = 0; t < THREADS; t++) {
+                final List<String> out = futures.get(t).get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ITERATIONS; i++) {
+                    final int index = (t + i) % inputs.size();
+                    assertEquals(index + ":" + expected.get(index), out.get(i));
+                }
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @NonNull
+    private static String document(int index) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i <= index; i++) {
+            builder.append("<p>paragraph <b>bold ").append(i).append("</b> and <i>italic</i></p>\n\n")
+                    .append("Text with <u>underline</u>, <sup>sup</sup> and <del>strike</del> ")
+                    .append(i).append("\n\n")
+                    .append("<blockquote><em>quote</em> ").append(index).append("</blockquote>\n\n")
+                    .append("<ul><li>one</li><li><s>two</s></li></ul>\n\n");
+        }
+        return builder.toString();
+    }
+
+    @NonNull
+    private static String dump(@NonNull Spanned spanned) {
+        final StringBuilder builder = new StringBuilder(spanned.toString());
+        for (Object span : spanned.getSpans(0, spanned.length(), Object.class)) {
+            builder.append(String.format(Locale.ROOT, "|%s(%d,%d)",
+                    span.getClass().getSimpleName(),
+                    spanned.getSpanStart(span),
+                    spanned.getSpanEnd(span)));
+        }
+        return builder.toString();
+    }
+}
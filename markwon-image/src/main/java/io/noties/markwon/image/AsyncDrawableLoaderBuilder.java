@@ -3,10 +3,10 @@ package io.noties.markwon.image;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import io.noties.markwon.image.data.DataUriSchemeHandler;
 import io.noties.markwon.image.gif.GifMediaDecoder;
@@ -24,6 +24,17 @@ class AsyncDrawableLoaderBuilder {
     ImagesPlugin.PlaceholderProvider placeholderProvider;
     ImagesPlugin.ErrorHandler errorHandler;
 
+    // @since $SNAPSHOT;
+    long memoryCacheSize;
+    File diskCacheDirectory;
+    long diskCacheSize;
+    final ImageCacheStats cacheStats = new ImageCacheStats();
+    int ioThreads = 4;
+    int decodeThreads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    final ImageLoaderMetrics loaderMetrics = new ImageLoaderMetrics();
+    int dimensionsCacheSize;
+    File dimensionsCacheFile;
+
     boolean isBuilt;
 
     AsyncDrawableLoaderBuilder() {
@@ -96,6 +107,48 @@ class AsyncDrawableLoaderBuilder {
         this.errorHandler = errorHandler;
     }
 
+    /**
+     * @since $SNAPSHOT;
+     */
+    void memoryCache(long maxSizeInBytes) {
+        checkState();
+        this.memoryCacheSize = maxSizeInBytes;
+    }
+
+    /**
+     * @since $SNAPSHOT;
+     */
+    void diskCache(@NonNull File directory, long maxSizeInBytes) {
+        checkState();
+        this.diskCacheDirectory = directory;
+        this.diskCacheSize = maxSizeInBytes;
+    }
+
+    /**
+     * @since $SNAPSHOT;
+     */
+    void dimensionsCache(int maxEntries, @Nullable File file) {
+        checkState();
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Max entries must not be negative: " + maxEntries);
+        }
+        this.dimensionsCacheSize = maxEntries;
+        this.dimensionsCacheFile = file;
+    }
+
+    /**
+     * @since $SNAPSHOT;
+     */
+    void loaderThreads(int ioThreads, int decodeThreads) {
+        checkState();
+        if (ioThreads < 1 || decodeThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive, " +
+                    "io: " + ioThreads + ", decode: " + decodeThreads);
+        }
+        this.ioThreads = ioThreads;
+        this.decodeThreads = decodeThreads;
+    }
+
     @NonNull
     AsyncDrawableLoader build() {
 
@@ -103,8 +156,9 @@ class AsyncDrawableLoaderBuilder {
 
         isBuilt = true;
 
+        // @since $SNAPSHOT; bounded scheduler instead of a cached thread pool
         if (executorService == null) {
-            executorService = Executors.newCachedThreadPool();
+            executorService = new ImageLoadScheduler(ioThreads, decodeThreads, loaderMetrics);
         }
 
         return new AsyncDrawableLoaderImpl(this);
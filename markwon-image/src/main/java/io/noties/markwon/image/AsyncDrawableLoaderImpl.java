@@ -13,13 +13,29 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.noties.markwon.image.data.DataUriSchemeHandler;
+import io.noties.markwon.image.file.FileSchemeHandler;
 
 class AsyncDrawableLoaderImpl extends AsyncDrawableLoader {
 
+    // @since $SNAPSHOT; content of these schemes is already available locally
+    private static final Set<String> NOT_DISK_CACHEABLE_SCHEMES = new HashSet<>(Arrays.asList(
+            DataUriSchemeHandler.SCHEME,
+            FileSchemeHandler.SCHEME
+    ));
+
     private final ExecutorService executorService;
     private final Map<String, SchemeHandler> schemeHandlers;
     private final Map<String, MediaDecoder> mediaDecoders;
@@ -27,11 +43,20 @@ class AsyncDrawableLoaderImpl extends AsyncDrawableLoader {
     private final ImagesPlugin.PlaceholderProvider placeholderProvider;
     private final ImagesPlugin.ErrorHandler errorHandler;
 
+    // @since $SNAPSHOT; both are optional
+    private final ImageMemoryCache memoryCache;
+    private final ImageDiskCache diskCache;
+
+    // @since $SNAPSHOT; optional
+    private final ImageDimensionsCache dimensionsCache;
+
     private final Handler handler;
 
     // @since 4.0.0 use a hash-map with a AsyncDrawable as key for multiple requests
     //  for the same destination
-    private final Map<AsyncDrawable, Future<?>> requests = new HashMap<>(2);
+    // @since $SNAPSHOT; requests are keyed by destination, so AsyncDrawables with the same
+    //  destination share a single request
+    private final Map<String, Request> requests = new HashMap<>(2);
 
     AsyncDrawableLoaderImpl(@NonNull AsyncDrawableLoaderBuilder builder) {
         this(builder, new Handler(Looper.getMainLooper()));
@@ -46,23 +71,93 @@ class AsyncDrawableLoaderImpl extends AsyncDrawableLoader {
         this.defaultMediaDecoder = builder.defaultMediaDecoder;
         this.placeholderProvider = builder.placeholderProvider;
         this.errorHandler = builder.errorHandler;
+        this.memoryCache = builder.memoryCacheSize > 0
+                ? new ImageMemoryCache(builder.memoryCacheSize, builder.cacheStats)
+                : null;
+        this.diskCache = builder.diskCacheDirectory != null && builder.diskCacheSize > 0
+                ? new ImageDiskCache(builder.diskCacheDirectory, builder.diskCacheSize, builder.cacheStats)
+                : null;
+        this.dimensionsCache = builder.dimensionsCacheSize > 0
+                ? new ImageDimensionsCache(builder.dimensionsCacheSize, builder.dimensionsCacheFile, builder.cacheStats)
+                : null;
         this.handler = handler;
+
+        // @since $SNAPSHOT; persisted dimensions are read in background, until then
+        //  they are not known (placeholders do not wait for disk I/O)
+        if (dimensionsCache != null
+                && builder.dimensionsCacheFile != null) {
+            try {
+                executorService.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        dimensionsCache.load();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                Log.e("MARKWON-IMAGE", "Cannot load image dimensions cache", e);
+            }
+        }
     }
 
     @Override
     public void load(@NonNull final AsyncDrawable drawable) {
-        final Future<?> future = requests.get(drawable);
-        if (future == null) {
-            requests.put(drawable, execute(drawable));
+
+        final String destination = drawable.getDestination();
+
+        final Request request = requests.get(destination);
+        if (request != null) {
+            // @since $SNAPSHOT; wait for already started request
+            if (!request.drawables.contains(drawable)) {
+                request.drawables.add(drawable);
+            }
+            return;
         }
+
+        // @since $SNAPSHOT; deliver cached result synchronously
+        if (memoryCache != null) {
+            final Drawable cached = memoryCache.get(destination);
+            if (cached != null) {
+                applyIntrinsicBoundsIfEmpty(cached);
+                drawable.setResult(cached);
+                return;
+            }
+        }
+
+        final List<AsyncDrawable> drawables = new ArrayList<>(2);
+        drawables.add(drawable);
+        submit(destination, new Request(drawables));
     }
 
     @Override
     public void cancel(@NonNull final AsyncDrawable drawable) {
 
-        final Future<?> future = requests.remove(drawable);
-        if (future != null) {
-            future.cancel(true);
+        final String destination = drawable.getDestination();
+
+        // @since $SNAPSHOT; request is cancelled only when no drawables are waiting for it
+        final Request request = requests.get(destination);
+        if (request != null) {
+
+            request.drawables.remove(drawable);
+
+            if (request.drawables.isEmpty()) {
+
+                requests.remove(destination);
+
+                final Future<?> future = request.future;
+                if (future != null) {
+                    future.cancel(true);
+                }
+
+                handler.removeCallbacksAndMessages(request.owner);
+
+                if (request.owner == drawable) {
+                    return;
+                }
+
+            } else if (request.owner == drawable) {
+                // result for other drawables will be delivered with this token
+                return;
+            }
         }
 
         handler.removeCallbacksAndMessages(drawable);
@@ -71,109 +166,364 @@ class AsyncDrawableLoaderImpl extends AsyncDrawableLoader {
     @Nullable
     @Override
     public Drawable placeholder(@NonNull AsyncDrawable drawable) {
-        return placeholderProvider != null
+
+        final Drawable placeholder = placeholderProvider != null
                 ? placeholderProvider.providePlaceholder(drawable)
                 : null;
+
+        // @since $SNAPSHOT; placeholder with final dimensions, so no relayout is required when image is loaded
+        if (dimensionsCache != null) {
+
+            Rect dimensions = absoluteDimensions(drawable.getImageSize());
+            if (dimensions == null) {
+                dimensions = dimensionsCache.get(drawable.getDestination());
+            }
+
+            if (dimensions != null) {
+                return new DimensionsPlaceholder(dimensions.width(), dimensions.height(), placeholder);
+            }
+        }
+
+        return placeholder;
+    }
+
+    // @since $SNAPSHOT; dimensions specified in pixels (for example, HTML width and height attributes),
+    //  resolved image size does not depend on intrinsic dimensions, canvas width and text size
+    @Nullable
+    private static Rect absoluteDimensions(@Nullable ImageSize imageSize) {
+
+        if (imageSize == null
+                || !isAbsolute(imageSize.width)
+                || !isAbsolute(imageSize.height)) {
+            return null;
+        }
+
+        //noinspection ConstantConditions
+        final int width = (int) (imageSize.width.value + .5F);
+        //noinspection ConstantConditions
+        final int height = (int) (imageSize.height.value + .5F);
+
+        return width > 0 && height > 0
+                ? new Rect(0, 0, width, height)
+                : null;
+    }
+
+    private static boolean isAbsolute(@Nullable ImageSize.Dimension dimension) {
+        return dimension != null
+                && !"%".equals(dimension.unit)
+                && !"em".equals(dimension.unit);
+    }
+
+    private void submit(@NonNull String destination, @NonNull Request request) {
+        requests.put(destination, request);
+        request.future = execute(destination, request);
     }
 
     @NonNull
-    private Future<?> execute(@NonNull final AsyncDrawable asyncDrawable) {
+    private Future<?> execute(@NonNull final String destination, @NonNull final Request request) {
+
+        // @since $SNAPSHOT; default scheduler obtains and decodes images in separate stages
+        if (executorService instanceof ImageLoadScheduler) {
+            final ImageLoadScheduler scheduler = (ImageLoadScheduler) executorService;
+            return scheduler.submit(ImageLoadScheduler.STAGE_IO, new RequestTask(destination, request) {
+                @Override
+                public void run() {
+
+                    final ImageItem imageItem;
+                    try {
+                        imageItem = obtain(destination);
+                    } catch (Throwable t) {
+                        post(destination, request, handleError(destination, t));
+                        return;
+                    }
+
+                    if (!imageItem.hasDecodingNeeded()) {
+                        post(destination, request, decode(destination, imageItem));
+                        return;
+                    }
+
+                    try {
+                        request.future = scheduler.submit(ImageLoadScheduler.STAGE_DECODE, new RequestTask(destination, request) {
+                            @Override
+                            public void run() {
+                                post(destination, request, decode(destination, imageItem));
+                            }
+
+                            @Override
+                            public void dropped() {
+                                close(imageItem.getAsWithDecodingNeeded());
+                                super.dropped();
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        close(imageItem.getAsWithDecodingNeeded());
+                        post(destination, request, null);
+                    }
+                }
+            });
+        }
+
         return executorService.submit(new Runnable() {
             @Override
             public void run() {
 
-                final String destination = asyncDrawable.getDestination();
+                final ImageItem imageItem;
+                try {
+                    imageItem = obtain(destination);
+                } catch (Throwable t) {
+                    post(destination, request, handleError(destination, t));
+                    return;
+                }
 
-                final Uri uri = Uri.parse(destination);
+                post(destination, request, decode(destination, imageItem));
+            }
+        });
+    }
 
-                Drawable drawable = null;
+    // @since $SNAPSHOT; I/O stage
+    @NonNull
+    private ImageItem obtain(@NonNull String destination) throws Exception {
+
+        final Uri uri = Uri.parse(destination);
+
+        final String scheme = uri.getScheme();
+        if (scheme == null
+                || scheme.length() == 0) {
+            throw new IllegalStateException("No scheme is found: " + destination);
+        }
+
+        // obtain scheme handler
+        final SchemeHandler schemeHandler = schemeHandlers.get(scheme);
+        if (schemeHandler == null) {
+            // throw no scheme handler is available
+            throw new IllegalStateException("No scheme-handler is found: " + destination);
+        }
+
+        // @since $SNAPSHOT; raw bytes can be cached on disk
+        final boolean diskCacheable = diskCache != null
+                && !NOT_DISK_CACHEABLE_SCHEMES.contains(scheme);
+
+        ImageItem imageItem = diskCacheable
+                ? diskCache.get(destination)
+                : null;
 
+        if (imageItem == null) {
+            // handle scheme
+            imageItem = schemeHandler.handle(destination, uri);
+
+            if (diskCacheable
+                    && imageItem.hasDecodingNeeded()) {
+                imageItem = diskCache.put(destination, imageItem.getAsWithDecodingNeeded());
+            }
+        }
+
+        return imageItem;
+    }
+
+    // @since $SNAPSHOT; decode stage, returns error drawable (if any) in case of an error
+    @Nullable
+    private Drawable decode(@NonNull String destination, @NonNull ImageItem imageItem) {
+
+        Drawable drawable;
+
+        try {
+
+            // if resulting imageItem needs further decoding -> proceed
+            if (imageItem.hasDecodingNeeded()) {
+
+                final ImageItem.WithDecodingNeeded withDecodingNeeded = imageItem.getAsWithDecodingNeeded();
+
+                // @since $SNAPSHOT; close input stream
                 try {
+                    MediaDecoder mediaDecoder = mediaDecoders.get(withDecodingNeeded.contentType());
 
-                    final String scheme = uri.getScheme();
-                    if (scheme == null
-                            || scheme.length() == 0) {
-                        throw new IllegalStateException("No scheme is found: " + destination);
+                    if (mediaDecoder == null) {
+                        mediaDecoder = defaultMediaDecoder;
                     }
 
-                    // obtain scheme handler
-                    final SchemeHandler schemeHandler = schemeHandlers.get(scheme);
-                    if (schemeHandler != null) {
-
-                        // handle scheme
-                        final ImageItem imageItem = schemeHandler.handle(destination, uri);
-
-                        // if resulting imageItem needs further decoding -> proceed
-                        if (imageItem.hasDecodingNeeded()) {
-
-                            final ImageItem.WithDecodingNeeded withDecodingNeeded = imageItem.getAsWithDecodingNeeded();
-
-                            // @since $SNAPSHOT; close input stream
-                            try {
-                                MediaDecoder mediaDecoder = mediaDecoders.get(withDecodingNeeded.contentType());
-
-                                if (mediaDecoder == null) {
-                                    mediaDecoder = defaultMediaDecoder;
-                                }
-
-                                if (mediaDecoder != null) {
-                                    drawable = mediaDecoder.decode(withDecodingNeeded.contentType(), withDecodingNeeded.inputStream());
-                                } else {
-                                    // throw that no media decoder is found
-                                    throw new IllegalStateException("No media-decoder is found: " + destination);
-                                }
-                            } finally {
-                                try {
-                                    withDecodingNeeded.inputStream().close();
-                                } catch (IOException e) {
-                                    Log.e("MARKWON-IMAGE", "Error closing inputStream", e);
-                                }
-                            }
-                        } else {
-                            drawable = imageItem.getAsWithResult().result();
-                        }
+                    if (mediaDecoder != null) {
+                        drawable = mediaDecoder.decode(withDecodingNeeded.contentType(), withDecodingNeeded.inputStream());
                     } else {
-                        // throw no scheme handler is available
-                        throw new IllegalStateException("No scheme-handler is found: " + destination);
+                        // throw that no media decoder is found
+                        throw new IllegalStateException("No media-decoder is found: " + destination);
                     }
+                } finally {
+                    close(withDecodingNeeded);
+                }
+            } else {
+                drawable = imageItem.getAsWithResult().result();
+            }
 
-                } catch (Throwable t) {
-                    if (errorHandler != null) {
-                        drawable = errorHandler.handleError(destination, t);
-                    } else {
-                        // else simply log the error
-                        Log.e("MARKWON-IMAGE", "Error loading image: " + destination, t);
+            // @since $SNAPSHOT; only successfully loaded images are cached (not errors)
+            if (memoryCache != null
+                    && drawable != null) {
+                memoryCache.put(destination, drawable);
+            }
+
+            // @since $SNAPSHOT;
+            if (dimensionsCache != null
+                    && drawable != null) {
+                dimensionsCache.put(destination, drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+            }
+
+        } catch (Throwable t) {
+            drawable = handleError(destination, t);
+        }
+
+        return drawable;
+    }
+
+    @Nullable
+    private Drawable handleError(@NonNull String destination, @NonNull Throwable t) {
+        if (errorHandler != null) {
+            return errorHandler.handleError(destination, t);
+        }
+        // else simply log the error
+        Log.e("MARKWON-IMAGE", "Error loading image: " + destination, t);
+        return null;
+    }
+
+    private void post(@NonNull final String destination, @NonNull final Request request, @Nullable final Drawable out) {
+
+        // @since 4.0.0 apply intrinsic bounds (but only if they are empty)
+        if (out != null) {
+            applyIntrinsicBoundsIfEmpty(out);
+        }
+
+        handler.postAtTime(new Runnable() {
+            @Override
+            public void run() {
+                // validate that
+                // * request was not cancelled
+                // * out-result is present
+                // * async-drawable is attached
+                if (requests.get(destination) == request) {
+                    requests.remove(destination);
+                    if (out != null) {
+                        deliver(destination, request, out);
                     }
                 }
+            }
+        }, request.owner, SystemClock.uptimeMillis());
+    }
 
-                final Drawable out = drawable;
+    // @since $SNAPSHOT;
+    private void deliver(@NonNull String destination, @NonNull Request request, @NonNull Drawable result) {
 
-                // @since 4.0.0 apply intrinsic bounds (but only if they are empty)
-                if (out != null) {
-                    final Rect bounds = out.getBounds();
-                    //noinspection ConstantConditions
-                    if (bounds == null
-                            || bounds.isEmpty()) {
-                        DrawableUtils.applyIntrinsicBounds(out);
-                    }
+        Drawable.ConstantState state = null;
+        boolean delivered = false;
+        List<AsyncDrawable> pending = null;
+
+        for (AsyncDrawable drawable : request.drawables) {
+
+            if (!drawable.isAttached()) {
+                continue;
+            }
+
+            if (!delivered) {
+                drawable.setResult(result);
+                state = result.getConstantState();
+                delivered = true;
+            } else if (state != null) {
+                // each AsyncDrawable requires own drawable instance (bounds and callback)
+                final Drawable copy = state.newDrawable();
+                applyIntrinsicBoundsIfEmpty(copy);
+                drawable.setResult(copy);
+            } else {
+                if (pending == null) {
+                    pending = new ArrayList<>(request.drawables.size());
                 }
+                pending.add(drawable);
+            }
+        }
 
-                handler.postAtTime(new Runnable() {
-                    @Override
-                    public void run() {
-                        // validate that
-                        // * request was not cancelled
-                        // * out-result is present
-                        // * async-drawable is attached
-                        final Future<?> future = requests.remove(asyncDrawable);
-                        if (future != null
-                                && out != null
-                                && asyncDrawable.isAttached()) {
-                            asyncDrawable.setResult(out);
+        // result cannot be shared (for example, an animated GIF), load it again for the rest
+        if (pending != null) {
+            submit(destination, new Request(pending));
+        }
+    }
+
+    private static void close(@NonNull ImageItem.WithDecodingNeeded withDecodingNeeded) {
+        try {
+            withDecodingNeeded.inputStream().close();
+        } catch (IOException e) {
+            Log.e("MARKWON-IMAGE", "Error closing inputStream", e);
+        }
+    }
+
+    private static void applyIntrinsicBoundsIfEmpty(@NonNull Drawable drawable) {
+        final Rect bounds = drawable.getBounds();
+        //noinspection ConstantConditions
+        if (bounds == null
+                || bounds.isEmpty()) {
+            DrawableUtils.applyIntrinsicBounds(drawable);
+        }
+    }
+
+    // @since $SNAPSHOT;
+    private static class Request {
+
+        // token of posted result
+        final AsyncDrawable owner;
+
+        // drawables that wait for result (first one is owner), modified on main thread only,
+        //  but attached state is checked by the scheduler
+        final List<AsyncDrawable> drawables;
+
+        // can be changed by scheduler when request moves to decode stage
+        volatile Future<?> future;
+
+        Request(@NonNull List<AsyncDrawable> drawables) {
+            this.owner = drawables.get(0);
+            this.drawables = new CopyOnWriteArrayList<>(drawables);
+        }
+
+        boolean isAttached() {
+            for (AsyncDrawable drawable : drawables) {
+                if (drawable.isAttached()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // @since $SNAPSHOT; task of default scheduler
+    private abstract class RequestTask implements ImageLoadScheduler.Task {
+
+        final String destination;
+        final Request request;
+
+        RequestTask(@NonNull String destination, @NonNull Request request) {
+            this.destination = destination;
+            this.request = request;
+        }
+
+        @Override
+        public boolean isAttached() {
+            return request.isAttached();
+        }
+
+        @Override
+        public void dropped() {
+            handler.postAtTime(new Runnable() {
+                @Override
+                public void run() {
+                    if (requests.get(destination) == request) {
+                        requests.remove(destination);
+                        // a drawable could be attached again after task was dropped
+                        final List<AsyncDrawable> attached = new ArrayList<>(request.drawables.size());
+                        for (AsyncDrawable drawable : request.drawables) {
+                            if (drawable.isAttached()) {
+                                attached.add(drawable);
+                            }
+                        }
+                        if (!attached.isEmpty()) {
+                            submit(destination, new Request(attached));
                         }
                     }
-                }, asyncDrawable, SystemClock.uptimeMillis());
-            }
-        });
+                }
+            }, request.owner, SystemClock.uptimeMillis());
+        }
     }
 }
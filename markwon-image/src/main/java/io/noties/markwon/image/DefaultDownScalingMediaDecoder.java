@@ -5,19 +5,13 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -25,14 +19,40 @@ import java.util.Collections;
  * A {@link MediaDecoder} that additionally process media resource to optionally
  * scale it down to fit specified maximum values. Should be used to ensure that no exception is raised
  * whilst rendering ({@code Canvas: trying to draw too large(Xbytes) bitmap}) or {@code OutOfMemoryException} is thrown.
- *
- * <strong>NB</strong> this media decoder will create a temporary file for each incoming media resource,
- * which can have a performance penalty (IO)
+ * <p>
+ * Media resource is decoded directly from incoming stream. Bytes that are read when obtaining image
+ * dimensions are kept in memory and read again for actual decoding. Only when image header
+ * exceeds {@code spillThreshold} (see {@link #create(Resources, int, int, int, BitmapPool)})
+ * those bytes are written to a temporary file.
  *
  * @since $SNAPSHOT;
  */
 public class DefaultDownScalingMediaDecoder extends MediaDecoder {
 
+    /**
+     * Provides bitmaps that can be reused when decoding (see {@link BitmapFactory.Options#inBitmap}).
+     * Bitmaps are reused only on KitKat (API 19) and above
+     *
+     * @since $SNAPSHOT;
+     */
+    public interface BitmapPool {
+
+        /**
+         * @return a <em>mutable</em> bitmap with allocation size enough to hold an image
+         * of specified dimensions and config or null. Returned bitmap is no longer owned by this pool
+         * and will be used as decoding result
+         */
+        @Nullable
+        Bitmap get(int width, int height, @NonNull Bitmap.Config config);
+    }
+
+    /**
+     * Default maximum number of bytes that are kept in memory when obtaining image dimensions
+     *
+     * @since $SNAPSHOT;
+     */
+    public static final int DEFAULT_SPILL_THRESHOLD = 64 * 1024;
+
     /**
      * Values {@code <= 0} are ignored, a dimension is considered to be not restrained any limit in such case
      */
@@ -47,17 +67,47 @@ public class DefaultDownScalingMediaDecoder extends MediaDecoder {
             int maxWidth,
             int maxHeight
     ) {
-        return new DefaultDownScalingMediaDecoder(resources, maxWidth, maxHeight);
+        return create(resources, maxWidth, maxHeight, DEFAULT_SPILL_THRESHOLD, null);
+    }
+
+    /**
+     * @param spillThreshold maximum number of bytes that are kept in memory whilst obtaining
+     *                       image dimensions, if more bytes are required they will be written
+     *                       to a temporary file
+     * @param bitmapPool     optional {@link BitmapPool} to reuse bitmaps when decoding
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public static DefaultDownScalingMediaDecoder create(
+            @NonNull Resources resources,
+            int maxWidth,
+            int maxHeight,
+            int spillThreshold,
+            @Nullable BitmapPool bitmapPool
+    ) {
+        if (spillThreshold < 0) {
+            throw new IllegalArgumentException("Spill threshold must not be negative: " + spillThreshold);
+        }
+        return new DefaultDownScalingMediaDecoder(resources, maxWidth, maxHeight, spillThreshold, bitmapPool);
     }
 
     private final Resources resources;
     private final int maxWidth;
     private final int maxHeight;
+    private final int spillThreshold;
+    private final BitmapPool bitmapPool;
 
-    private DefaultDownScalingMediaDecoder(@NonNull Resources resources, int maxWidth, int maxHeight) {
+    private DefaultDownScalingMediaDecoder(
+            @NonNull Resources resources,
+            int maxWidth,
+            int maxHeight,
+            int spillThreshold,
+            @Nullable BitmapPool bitmapPool) {
         this.resources = resources;
         this.maxWidth = maxWidth;
         this.maxHeight = maxHeight;
+        this.spillThreshold = spillThreshold;
+        this.bitmapPool = bitmapPool;
     }
 
     // https://android.jlelse.eu/loading-large-bitmaps-efficiently-in-android-66826cd4ad53
@@ -65,85 +115,88 @@ public class DefaultDownScalingMediaDecoder extends MediaDecoder {
     @Override
     public Drawable decode(@Nullable String contentType, @NonNull InputStream inputStream) {
 
-        final File file = writeToTempFile(inputStream);
+        final RewindableInputStream stream = new RewindableInputStream(inputStream, spillThreshold);
         try {
 
             final BitmapFactory.Options options = new BitmapFactory.Options();
             options.inJustDecodeBounds = true;
 
             // initial result when obtaining bounds is discarded
-            decode(file, options);
+            BitmapFactory.decodeStream(stream, null, options);
 
             options.inSampleSize = calculateInSampleSize(options, maxWidth, maxHeight);
             options.inJustDecodeBounds = false;
 
-            final Bitmap bitmap = decode(file, options);
+            if (bitmapPool != null) {
+                applyInBitmap(bitmapPool, options);
+            }
 
-            return new BitmapDrawable(resources, bitmap);
-        } finally {
-            // we no longer need the temporary file
-            //noinspection ResultOfMethodCallIgnored
-            file.delete();
-        }
-    }
+            final Bitmap bitmap;
 
-    @NonNull
-    private static File writeToTempFile(@NonNull InputStream inputStream) {
-        final File file;
-        try {
-            file = File.createTempFile("markwon", null);
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+            if (options.inBitmap != null) {
 
-        final OutputStream outputStream;
-        try {
-            outputStream = new BufferedOutputStream(new FileOutputStream(file, false));
-        } catch (FileNotFoundException e) {
-            throw new IllegalStateException(e);
-        }
+                // read again bytes that were consumed when obtaining bounds, keep recording
+                //  so the stream can be decoded again if bitmap cannot be reused
+                stream.rewind(true);
 
-        final byte[] buffer = new byte[1024 * 8];
-        int length;
-        try {
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
+                Bitmap decoded;
+                try {
+                    decoded = BitmapFactory.decodeStream(stream, null, options);
+                } catch (IllegalArgumentException e) {
+                    // bitmap cannot be reused (for example, decoded config requires more bytes)
+                    options.inBitmap = null;
+                    options.inMutable = false;
+                    stream.rewind();
+                    decoded = BitmapFactory.decodeStream(stream, null, options);
+                }
+                bitmap = decoded;
+
+            } else {
+
+                // read again bytes that were consumed when obtaining bounds
+                stream.rewind();
+
+                bitmap = BitmapFactory.decodeStream(stream, null, options);
             }
+
+            return new BitmapDrawable(resources, bitmap);
+
         } catch (IOException e) {
             throw new IllegalStateException(e);
         } finally {
             try {
-                outputStream.close();
+                stream.close();
             } catch (IOException e) {
                 // ignored
             }
         }
-
-        return file;
     }
 
-    @Nullable
-    private static Bitmap decode(@NonNull File file, @NonNull BitmapFactory.Options options) {
-        final InputStream is = readFile(file);
-        // not yet, still min SDK is 16
-        try {
-            return BitmapFactory.decodeStream(is, null, options);
-        } finally {
-            try {
-                is.close();
-            } catch (IOException e) {
-                // ignored
-            }
+    private static void applyInBitmap(@NonNull BitmapPool bitmapPool, @NonNull BitmapFactory.Options options) {
+
+        // before KitKat reused bitmap must have exactly the same dimensions and
+        //  inSampleSize must be 1, so we do not bother
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT
+                || options.outWidth <= 0
+                || options.outHeight <= 0) {
+            return;
         }
-    }
 
+        // sampled dimension can be rounded up by decoder
+        final int width = (options.outWidth + options.inSampleSize - 1) / options.inSampleSize;
+        final int height = (options.outHeight + options.inSampleSize - 1) / options.inSampleSize;
 
-    @NonNull
-    private static InputStream readFile(@NonNull File file) {
-        try {
-            return new BufferedInputStream(new FileInputStream(file));
-        } catch (FileNotFoundException e) {
-            throw new IllegalStateException(e);
+        final Bitmap.Config config = Bitmap.Config.ARGB_8888;
+
+        final Bitmap bitmap = bitmapPool.get(width, height, config);
+
+        // 4 bytes per pixel for ARGB_8888 (the largest of decoded configs)
+        if (bitmap != null
+                && bitmap.isMutable()
+                && !bitmap.isRecycled()
+                && bitmap.getAllocationByteCount() >= width * height * 4) {
+            options.inBitmap = bitmap;
+            options.inMutable = true;
         }
     }
 
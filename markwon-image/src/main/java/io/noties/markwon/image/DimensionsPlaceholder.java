@@ -0,0 +1,124 @@
+package io.noties.markwon.image;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Transparent placeholder with intrinsic dimensions of an image that is not loaded yet, so
+ * text is laid out with final image size. Optional placeholder (from {@link ImagesPlugin.PlaceholderProvider})
+ * is drawn centered inside it (scaled down if it does not fit).
+ *
+ * @since $SNAPSHOT;
+ */
+class DimensionsPlaceholder extends Drawable implements Drawable.Callback {
+
+    private final int width;
+    private final int height;
+    private final Drawable placeholder;
+
+    DimensionsPlaceholder(int width, int height, @Nullable Drawable placeholder) {
+        this.width = width;
+        this.height = height;
+        this.placeholder = placeholder;
+
+        if (placeholder != null) {
+            placeholder.setCallback(this);
+        }
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+
+        if (placeholder == null) {
+            return;
+        }
+
+        final Rect rect = placeholder.getBounds().isEmpty()
+                ? new Rect(0, 0, placeholder.getIntrinsicWidth(), placeholder.getIntrinsicHeight())
+                : new Rect(placeholder.getBounds());
+
+        if (rect.isEmpty()) {
+            placeholder.setBounds(bounds);
+            return;
+        }
+
+        // keep aspect ratio of placeholder and fit into bounds
+        final float scale = Math.min(1.F, Math.min(
+                bounds.width() / (float) rect.width(),
+                bounds.height() / (float) rect.height()));
+        final int w = (int) (rect.width() * scale + .5F);
+        final int h = (int) (rect.height() * scale + .5F);
+        final int left = bounds.left + (bounds.width() - w) / 2;
+        final int top = bounds.top + (bounds.height() - h) / 2;
+
+        placeholder.setBounds(left, top, left + w, top + h);
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        if (placeholder != null) {
+            placeholder.draw(canvas);
+        }
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        if (placeholder != null) {
+            placeholder.setVisible(visible, restart);
+        }
+        return changed;
+    }
+
+    @Override
+    public void setAlpha(@IntRange(from = 0, to = 255) int alpha) {
+        if (placeholder != null) {
+            placeholder.setAlpha(alpha);
+        }
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        if (placeholder != null) {
+            placeholder.setColorFilter(colorFilter);
+        }
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return height;
+    }
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable who) {
+        invalidateSelf();
+    }
+
+    @Override
+    public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
+        scheduleSelf(what, when);
+    }
+
+    @Override
+    public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
+        unscheduleSelf(what);
+    }
+}
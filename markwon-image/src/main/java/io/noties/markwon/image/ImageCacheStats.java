@@ -0,0 +1,77 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of image caches that are configured via {@link ImagesPlugin#memoryCache(long)},
+ * {@link ImagesPlugin#diskCache(java.io.File, long)} and {@link ImagesPlugin#dimensionsCache(int, java.io.File)}. Values are updated as images are loaded,
+ * so an instance obtained via {@link ImagesPlugin#cacheStats()} always reflects current state.
+ *
+ * @since $SNAPSHOT;
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ImageCacheStats {
+
+    final AtomicLong memoryHits = new AtomicLong();
+    final AtomicLong memoryMisses = new AtomicLong();
+    final AtomicLong memoryEvictions = new AtomicLong();
+
+    final AtomicLong diskHits = new AtomicLong();
+    final AtomicLong diskMisses = new AtomicLong();
+    final AtomicLong diskEvictions = new AtomicLong();
+
+    final AtomicLong dimensionsHits = new AtomicLong();
+    final AtomicLong dimensionsMisses = new AtomicLong();
+
+    ImageCacheStats() {
+    }
+
+    public long memoryHitCount() {
+        return memoryHits.get();
+    }
+
+    public long memoryMissCount() {
+        return memoryMisses.get();
+    }
+
+    public long memoryEvictionCount() {
+        return memoryEvictions.get();
+    }
+
+    public long diskHitCount() {
+        return diskHits.get();
+    }
+
+    public long diskMissCount() {
+        return diskMisses.get();
+    }
+
+    public long diskEvictionCount() {
+        return diskEvictions.get();
+    }
+
+    public long dimensionsHitCount() {
+        return dimensionsHits.get();
+    }
+
+    public long dimensionsMissCount() {
+        return dimensionsMisses.get();
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "ImageCacheStats{" +
+                "memoryHits=" + memoryHits +
+                ", memoryMisses=" + memoryMisses +
+                ", memoryEvictions=" + memoryEvictions +
+                ", diskHits=" + diskHits +
+                ", diskMisses=" + diskMisses +
+                ", diskEvictions=" + diskEvictions +
+                ", dimensionsHits=" + dimensionsHits +
+                ", dimensionsMisses=" + dimensionsMisses +
+                '}';
+    }
+}
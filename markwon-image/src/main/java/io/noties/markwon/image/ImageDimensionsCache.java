@@ -0,0 +1,281 @@
+package io.noties.markwon.image;
+
+import android.graphics.Rect;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of intrinsic dimensions of loaded images (keyed by destination) that is bounded
+ * by number of entries. Optionally persisted in a file: each put is appended to the file
+ * (so it costs a single small write) and the file is compacted when it is loaded
+ * and contains replaced or evicted records, or when it grows beyond twice the number of entries.
+ * <p>
+ * Persisted dimensions are read by {@link #load()} that must be called on a background thread,
+ * until then only dimensions that were put during this session are known. File is accessed
+ * under own lock, so {@link #get(String)} (called on the main thread) never waits for disk I/O.
+ *
+ * @since $SNAPSHOT;
+ */
+class ImageDimensionsCache {
+
+    private static final String TAG = "MARKWON-IMAGE";
+
+    private static final int VERSION = 1;
+
+    // longer destinations (for example, data URIs) are not cached
+    private static final int MAX_DESTINATION_LENGTH = 2048;
+
+    private final int maxEntries;
+    private final File file;
+    private final ImageCacheStats stats;
+
+    // access-ordered, destination -> {width, height}, guarded by this
+    private final LinkedHashMap<String, int[]> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    // guarded by this
+    private boolean loaded;
+
+    // guards file access, can be obtained before this (but not after)
+    private final Object fileLock = new Object();
+
+    // number of records in file, file is compacted when it exceeds twice the max number of entries,
+    //  guarded by fileLock
+    private int fileRecords;
+
+    ImageDimensionsCache(int maxEntries, @Nullable File file, @NonNull ImageCacheStats stats) {
+        this.maxEntries = maxEntries;
+        this.file = file;
+        this.stats = stats;
+        this.loaded = file == null;
+    }
+
+    /**
+     * @return intrinsic bounds of an image or null if they are unknown (or not loaded yet)
+     */
+    @Nullable
+    synchronized Rect get(@NonNull String destination) {
+        final int[] dimensions = entries.get(destination);
+        if (dimensions == null) {
+            stats.dimensionsMisses.incrementAndGet();
+            return null;
+        }
+        stats.dimensionsHits.incrementAndGet();
+        return new Rect(0, 0, dimensions[0], dimensions[1]);
+    }
+
+    void put(@NonNull String destination, int width, int height) {
+
+        if (width <= 0
+                || height <= 0
+                || destination.length() > MAX_DESTINATION_LENGTH) {
+            return;
+        }
+
+        synchronized (this) {
+
+            final int[] previous = entries.put(destination, new int[]{width, height});
+            if (previous != null
+                    && previous[0] == width
+                    && previous[1] == height) {
+                // already persisted
+                return;
+            }
+
+            trim();
+        }
+
+        if (file != null) {
+            synchronized (fileLock) {
+                append(destination, width, height);
+            }
+        }
+    }
+
+    /**
+     * Reads persisted dimensions (blocking), entries that were put before are kept (as they are
+     * more recent). Must be called on a background thread. Subsequent calls have no effect.
+     */
+    void load() {
+
+        if (file == null) {
+            return;
+        }
+
+        synchronized (fileLock) {
+
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+            }
+
+            final LinkedHashMap<String, int[]> persisted = new LinkedHashMap<>(16, 0.75F, true);
+            final int records = file.exists()
+                    ? read(file, persisted)
+                    : 0;
+
+            final boolean rewrite;
+
+            synchronized (this) {
+
+                // entries that were put before loading are more recent
+                for (Map.Entry<String, int[]> entry : entries.entrySet()) {
+                    persisted.remove(entry.getKey());
+                    persisted.put(entry.getKey(), entry.getValue());
+                }
+
+                entries.clear();
+                entries.putAll(persisted);
+
+                trim();
+
+                loaded = true;
+
+                // rewrite when contains replaced or evicted records (or could not be read fully),
+                //  entries that were put before loading are already appended
+                rewrite = records != entries.size();
+            }
+
+            if (rewrite) {
+                write();
+            } else {
+                fileRecords = records;
+            }
+        }
+    }
+
+    // must be called with this lock
+    private void trim() {
+        final Iterator<Map.Entry<String, int[]>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // returns number of read records or -1 if file cannot be read fully
+    private static int read(@NonNull File file, @NonNull Map<String, int[]> out) {
+        int records = 0;
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readInt() != VERSION) {
+                    return -1;
+                }
+                while (true) {
+                    // check for the end of file, so it is not confused with a partially written record
+                    in.mark(1);
+                    if (in.read() == -1) {
+                        return records;
+                    }
+                    in.reset();
+
+                    final String destination = in.readUTF();
+                    final int width = in.readInt();
+                    final int height = in.readInt();
+                    // re-insert, so order of latest records is kept
+                    out.remove(destination);
+                    out.put(destination, new int[]{width, height});
+                    records += 1;
+                }
+            } finally {
+                in.close();
+            }
+        } catch (EOFException e) {
+            // partially written last record
+            return -1;
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot read image dimensions cache: " + file, e);
+            return -1;
+        }
+    }
+
+    // must be called with fileLock
+    private void write() {
+
+        final List<Map.Entry<String, int[]>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<Map.Entry<String, int[]>>(entries.entrySet());
+        }
+
+        final File parent = file.getParentFile();
+        if (parent != null) {
+            //noinspection ResultOfMethodCallIgnored
+            parent.mkdirs();
+        }
+
+        // write to a temporary file first, so a partially written file is never read
+        final File temporary = new File(file.getPath() + ".tmp");
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+            try {
+                out.writeInt(VERSION);
+                for (Map.Entry<String, int[]> entry : snapshot) {
+                    writeRecord(out, entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+                }
+                fileRecords = snapshot.size();
+            } finally {
+                out.close();
+            }
+            if (!temporary.renameTo(file)) {
+                throw new IOException("Cannot move image dimensions cache to: " + file);
+            }
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            fileRecords = 0;
+            Log.e(TAG, "Cannot write image dimensions cache: " + file, e);
+        }
+    }
+
+    // must be called with fileLock
+    private void append(@NonNull String destination, int width, int height) {
+
+        if (!file.exists()
+                || fileRecords >= maxEntries * 2) {
+            write();
+            return;
+        }
+
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            try {
+                writeRecord(out, destination, width, height);
+            } finally {
+                out.close();
+            }
+            fileRecords += 1;
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot write image dimensions cache: " + file, e);
+        }
+    }
+
+    private static void writeRecord(
+            @NonNull DataOutputStream out,
+            @NonNull String destination,
+            int width,
+            int height) throws IOException {
+        out.writeUTF(destination);
+        out.writeInt(width);
+        out.writeInt(height);
+    }
+}
@@ -0,0 +1,430 @@
+package io.noties.markwon.image;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Disk cache of raw (not decoded) image bytes that is bounded by size in bytes. Each entry
+ * is stored in own file which starts with content-type of an image. Least recently used
+ * entries are removed first (order is persisted via last-modified time of a file).
+ *
+ * @since $SNAPSHOT;
+ */
+class ImageDiskCache {
+
+    private static final String TAG = "MARKWON-IMAGE";
+    private static final String SUFFIX = ".img";
+
+    private final File directory;
+    private final long maxSize;
+    private final ImageCacheStats stats;
+
+    // access-ordered, file name -> file size, lazily initialized from directory contents
+    private LinkedHashMap<String, Long> entries;
+    private long size;
+
+    ImageDiskCache(@NonNull File directory, long maxSize, @NonNull ImageCacheStats stats) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.stats = stats;
+    }
+
+    @Nullable
+    ImageItem.WithDecodingNeeded get(@NonNull String key) {
+
+        final String name = name(key);
+
+        synchronized (this) {
+            if (!entries().containsKey(name)) {
+                stats.diskMisses.incrementAndGet();
+                return null;
+            }
+        }
+
+        final File file = new File(directory, name);
+        final ImageItem.WithDecodingNeeded item = open(file);
+
+        synchronized (this) {
+            if (item == null) {
+                // file was removed externally (or evicted) or cannot be read
+                remove(name);
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                stats.diskMisses.incrementAndGet();
+                return null;
+            }
+            // update access order
+            entries().get(name);
+        }
+
+        stats.diskHits.incrementAndGet();
+
+        //noinspection ResultOfMethodCallIgnored
+        file.setLastModified(System.currentTimeMillis());
+
+        return item;
+    }
+
+    /**
+     * Stores supplied item and returns an item that reads cached bytes. Bytes are read from
+     * a file descriptor that is opened before anything is written, so the returned item can be
+     * read even if the entry is evicted later. If an entry is larger than maximum cache size
+     * or cache file cannot be created or written, the entry is not cached and returned item
+     * reads (remaining) bytes of the source stream. The source stream is closed otherwise.
+     *
+     * @throws IOException if source stream cannot be read
+     */
+    @NonNull
+    ImageItem.WithDecodingNeeded put(@NonNull String key, @NonNull ImageItem.WithDecodingNeeded item) throws IOException {
+
+        final String name = name(key);
+        final File file = new File(directory, name);
+
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        // initialize entries before a temporary file is created (initialization removes leftovers)
+        synchronized (this) {
+            entries();
+        }
+
+        final String contentType = item.contentType();
+        final InputStream source = item.inputStream();
+
+        // write to a temporary file first, so a partially written file is never read
+        final File temporary;
+        final FileOutputStream out;
+        final FileInputStream in;
+        final int header;
+        try {
+            temporary = File.createTempFile(name, ".tmp", directory);
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot create cached image in: " + directory, e);
+            return item;
+        }
+        try {
+            out = new FileOutputStream(temporary);
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            Log.e(TAG, "Cannot write cached image: " + temporary, e);
+            return item;
+        }
+        try {
+            in = new FileInputStream(temporary);
+        } catch (IOException e) {
+            close(out);
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            Log.e(TAG, "Cannot read cached image: " + temporary, e);
+            return item;
+        }
+        try {
+            // single write (DataOutputStream is not buffered)
+            final DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeUTF(contentType != null ? contentType : "");
+            header = dataOut.size();
+        } catch (IOException e) {
+            close(out);
+            close(in);
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            Log.e(TAG, "Cannot write cached image: " + temporary, e);
+            return item;
+        }
+
+        final byte[] buffer = new byte[8192];
+        long written = 0L;
+        int read;
+
+        try {
+            while ((read = source.read(buffer)) != -1) {
+
+                // an entry that is larger than cache is not stored (it would evict all other
+                //  entries and then itself), so writing stops before the limit is exceeded
+                if (header + written + read > maxSize) {
+                    return notCached(contentType, temporary, out, in, header, written, buffer, read, source);
+                }
+
+                try {
+                    out.write(buffer, 0, read);
+                } catch (IOException e) {
+                    Log.e(TAG, "Cannot write cached image: " + temporary, e);
+                    return notCached(contentType, temporary, out, in, header, written, buffer, read, source);
+                }
+
+                written += read;
+            }
+        } catch (IOException e) {
+            close(out);
+            close(in);
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            close(source);
+            throw e;
+        }
+
+        close(source);
+
+        boolean cached = false;
+
+        try {
+            out.close();
+
+            final long length = header + written;
+
+            synchronized (this) {
+                if (temporary.renameTo(file)) {
+                    final Long previous = entries().put(name, length);
+                    if (previous != null) {
+                        size -= previous;
+                    }
+                    size += length;
+                    // stored entry is the most recently used one and is not larger than cache,
+                    //  so it is never evicted here
+                    trim();
+                    cached = true;
+                } else {
+                    Log.e(TAG, "Cannot move cached image to: " + file);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot write cached image: " + temporary, e);
+        }
+
+        if (!cached) {
+            // bytes are still readable with opened descriptor
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+        }
+
+        return ImageItem.withDecodingNeeded(contentType, new BufferedInputStream(skip(in, header)))
+                .getAsWithDecodingNeeded();
+    }
+
+    // stops caching, returned item reads already written bytes, bytes that were read but not
+    //  written and the rest of source stream
+    @NonNull
+    private static ImageItem.WithDecodingNeeded notCached(
+            @Nullable String contentType,
+            @NonNull File temporary,
+            @NonNull FileOutputStream out,
+            @NonNull FileInputStream in,
+            int header,
+            long written,
+            @NonNull byte[] buffer,
+            int read,
+            @NonNull InputStream source) throws IOException {
+
+        close(out);
+
+        // bytes are still readable with opened descriptor
+        //noinspection ResultOfMethodCallIgnored
+        temporary.delete();
+
+        final InputStream cached = new SequenceInputStream(
+                new BoundedInputStream(new BufferedInputStream(skip(in, header)), written),
+                new ByteArrayInputStream(Arrays.copyOf(buffer, read)));
+
+        return ImageItem.withDecodingNeeded(contentType, new SequenceInputStream(cached, source))
+                .getAsWithDecodingNeeded();
+    }
+
+    private void remove(@NonNull String name) {
+        final Long length = entries().remove(name);
+        if (length != null) {
+            size -= length;
+        }
+    }
+
+    private void trim() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries().entrySet().iterator();
+        Map.Entry<String, Long> entry;
+        while (size > maxSize && iterator.hasNext()) {
+            entry = iterator.next();
+            size -= entry.getValue();
+            iterator.remove();
+            //noinspection ResultOfMethodCallIgnored
+            new File(directory, entry.getKey()).delete();
+            stats.diskEvictions.incrementAndGet();
+        }
+    }
+
+    @NonNull
+    private LinkedHashMap<String, Long> entries() {
+
+        LinkedHashMap<String, Long> entries = this.entries;
+
+        if (entries == null) {
+
+            entries = this.entries = new LinkedHashMap<>(16, 0.75F, true);
+
+            final File[] files = directory.listFiles();
+            if (files != null) {
+
+                // least recently used first
+                Arrays.sort(files, new Comparator<File>() {
+                    @Override
+                    public int compare(File o1, File o2) {
+                        final long l1 = o1.lastModified();
+                        final long l2 = o2.lastModified();
+                        return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+                    }
+                });
+
+                for (File file : files) {
+                    final String name = file.getName();
+                    if (name.endsWith(SUFFIX)) {
+                        entries.put(name, file.length());
+                        size += file.length();
+                    } else if (name.endsWith(".tmp")) {
+                        // leftover from a write that was interrupted
+                        //noinspection ResultOfMethodCallIgnored
+                        file.delete();
+                    }
+                }
+            }
+
+            trim();
+        }
+
+        return entries;
+    }
+
+    @Nullable
+    private static ImageItem.WithDecodingNeeded open(@NonNull File file) {
+        final InputStream inputStream;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            final String contentType = new DataInputStream(inputStream).readUTF();
+            return ImageItem.withDecodingNeeded(
+                    contentType.length() > 0 ? contentType : null,
+                    inputStream).getAsWithDecodingNeeded();
+        } catch (IOException e) {
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
+            }
+            return null;
+        }
+    }
+
+    @NonNull
+    private static InputStream skip(@NonNull InputStream in, long count) throws IOException {
+        long remaining = count;
+        long skipped;
+        while (remaining > 0) {
+            skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+        return in;
+    }
+
+    private static void close(@NonNull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Error closing stream", e);
+        }
+    }
+
+    @NonNull
+    private static String name(@NonNull String key) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final byte[] bytes = digest.digest(key.getBytes("UTF-8"));
+            final StringBuilder builder = new StringBuilder(bytes.length * 2 + SUFFIX.length());
+            for (byte b : bytes) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.append(SUFFIX).toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // reads at most specified number of bytes
+    private static class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(@NonNull InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int b = super.read();
+            if (b != -1) {
+                remaining -= 1;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, remaining));
+            if (skipped > 0) {
+                remaining -= skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
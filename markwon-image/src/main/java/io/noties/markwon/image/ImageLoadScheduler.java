@@ -0,0 +1,337 @@
+package io.noties.markwon.image;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default executor of {@link AsyncDrawableLoaderImpl}. Has 2 stages (each with bounded
+ * number of threads): I/O (obtaining image bytes) and decoding. Only tasks that are waited
+ * by an attached {@link AsyncDrawable} are executed, tasks for drawables that were detached while
+ * waiting in queue are dropped, so images that are displayed are not delayed by images that
+ * are not displayed anymore. Threads are started on demand and stopped after being idle for some time.
+ * <p>
+ * Can be used as a regular ExecutorService, in this case all tasks are executed in I/O stage.
+ *
+ * @since $SNAPSHOT;
+ */
+class ImageLoadScheduler extends AbstractExecutorService {
+
+    static final int STAGE_IO = 0;
+    static final int STAGE_DECODE = 1;
+
+    interface Task extends Runnable {
+
+        /**
+         * @return true if result of this task is waited by an attached drawable
+         */
+        boolean isAttached();
+
+        /**
+         * Called when this task is removed from queue without execution (task was cancelled
+         * or is not attached anymore). Can be used to release resources
+         */
+        void dropped();
+    }
+
+    private static final long KEEP_ALIVE_MILLIS = 30_000L;
+
+    private final Object lock = new Object();
+
+    private final Stage[] stages;
+    private final ImageLoaderMetrics metrics;
+
+    private boolean isShutdown;
+
+    ImageLoadScheduler(int ioThreads, int decodeThreads, @NonNull ImageLoaderMetrics metrics) {
+        this.stages = new Stage[]{
+                new Stage(STAGE_IO, "markwon-image-io", ioThreads),
+                new Stage(STAGE_DECODE, "markwon-image-decode", decodeThreads)
+        };
+        this.metrics = metrics;
+    }
+
+    @NonNull
+    Future<?> submit(int stage, @NonNull Task task) {
+        final Entry entry = new Entry(task);
+        enqueue(stages[stage], entry);
+        return entry;
+    }
+
+    @NonNull
+    @Override
+    public Future<?> submit(@NonNull Runnable task) {
+        return submit(STAGE_IO, task);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        submit(STAGE_IO, command);
+    }
+
+    @NonNull
+    private Future<?> submit(int stage, @NonNull Runnable runnable) {
+        final Entry entry = runnable instanceof Entry
+                ? (Entry) runnable
+                : new Entry(runnable);
+        enqueue(stages[stage], entry);
+        return entry;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lock) {
+            isShutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> list = new ArrayList<>();
+        synchronized (lock) {
+            isShutdown = true;
+            for (Stage stage : stages) {
+                list.addAll(stage.queue);
+                stage.queue.clear();
+                metrics.queueDepth(stage.id, 0);
+                for (Thread thread : stage.threads) {
+                    thread.interrupt();
+                }
+            }
+            lock.notifyAll();
+        }
+        return list;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return isShutdown;
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return isShutdown && threads() == 0;
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        final long end = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            long wait;
+            while (!(isShutdown && threads() == 0)) {
+                wait = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+                if (wait <= 0) {
+                    return false;
+                }
+                lock.wait(wait);
+            }
+            return true;
+        }
+    }
+
+    private void enqueue(@NonNull Stage stage, @NonNull Entry entry) {
+        synchronized (lock) {
+
+            if (isShutdown) {
+                throw new RejectedExecutionException("ImageLoadScheduler has been shut down");
+            }
+
+            entry.enqueued = System.nanoTime();
+            stage.queue.add(entry);
+            metrics.queueDepth(stage.id, stage.queue.size());
+
+            if (stage.idle > 0) {
+                lock.notifyAll();
+            } else if (stage.threads.size() < stage.maxThreads) {
+                final Thread thread = new Thread(new Worker(stage), stage.name);
+                stage.threads.add(thread);
+                thread.start();
+            }
+        }
+    }
+
+    // must be called with lock held
+    private int threads() {
+        int count = 0;
+        for (Stage stage : stages) {
+            count += stage.threads.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return next entry to execute or null if worker must stop. Dropped entries are added to
+     * supplied list (they must be processed outside of lock)
+     */
+    @Nullable
+    private Entry next(@NonNull Stage stage, @NonNull List<Entry> dropped) throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+
+                final Iterator<Entry> iterator = stage.queue.iterator();
+                Entry entry;
+                while (iterator.hasNext()) {
+                    entry = iterator.next();
+                    if (entry.isCancelled() || !entry.isAttached()) {
+                        iterator.remove();
+                        dropped.add(entry);
+                    } else {
+                        iterator.remove();
+                        metrics.queueDepth(stage.id, stage.queue.size());
+                        return entry;
+                    }
+                }
+
+                metrics.queueDepth(stage.id, 0);
+
+                // let dropped entries be processed before waiting
+                if (isShutdown || !dropped.isEmpty()) {
+                    return null;
+                }
+
+                stage.idle += 1;
+                final long start = System.nanoTime();
+                try {
+                    lock.wait(KEEP_ALIVE_MILLIS);
+                } finally {
+                    stage.idle -= 1;
+                }
+
+                if (stage.queue.isEmpty()
+                        && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= KEEP_ALIVE_MILLIS) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final Stage stage;
+
+        Worker(@NonNull Stage stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public void run() {
+
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+            final Thread thread = Thread.currentThread();
+            final List<Entry> dropped = new ArrayList<>(2);
+
+            boolean removed = false;
+
+            try {
+                while (true) {
+
+                    Entry entry;
+                    try {
+                        entry = next(stage, dropped);
+                    } catch (InterruptedException e) {
+                        entry = null;
+                    }
+
+                    if (!dropped.isEmpty()) {
+                        for (Entry e : dropped) {
+                            e.dropped();
+                        }
+                        metrics.dropped(dropped.size());
+                        dropped.clear();
+                    }
+
+                    if (entry == null) {
+                        // decision to stop and removal must happen atomically, otherwise
+                        //  a new task can be enqueued without a thread to execute it
+                        synchronized (lock) {
+                            if (isShutdown || stage.queue.isEmpty()) {
+                                stage.threads.remove(thread);
+                                removed = true;
+                                lock.notifyAll();
+                                break;
+                            }
+                        }
+                        continue;
+                    }
+
+                    final long start = System.nanoTime();
+                    entry.run();
+                    final long end = System.nanoTime();
+
+                    metrics.executed(stage.id, start - entry.enqueued, end - start);
+
+                    // clear interrupted flag (if task was cancelled during execution)
+                    //noinspection ResultOfMethodCallIgnored
+                    Thread.interrupted();
+                }
+            } finally {
+                if (!removed) {
+                    synchronized (lock) {
+                        stage.threads.remove(thread);
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Stage {
+
+        final int id;
+        final String name;
+        final int maxThreads;
+
+        final LinkedList<Entry> queue = new LinkedList<>();
+        final List<Thread> threads = new ArrayList<>(2);
+
+        // number of threads that wait for a task
+        int idle;
+
+        Stage(int id, @NonNull String name, int maxThreads) {
+            this.id = id;
+            this.name = name;
+            this.maxThreads = Math.max(1, maxThreads);
+        }
+    }
+
+    private static class Entry extends FutureTask<Void> {
+
+        private final Runnable runnable;
+
+        long enqueued;
+
+        Entry(@NonNull Runnable runnable) {
+            super(runnable, null);
+            this.runnable = runnable;
+        }
+
+        boolean isAttached() {
+            return !(runnable instanceof Task)
+                    || ((Task) runnable).isAttached();
+        }
+
+        void dropped() {
+            if (runnable instanceof Task) {
+                ((Task) runnable).dropped();
+            }
+        }
+    }
+}
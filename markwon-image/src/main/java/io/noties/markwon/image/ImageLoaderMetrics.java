@@ -0,0 +1,117 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of default image loading executor (used when no executor is specified
+ * via {@link ImagesPlugin#executorService(java.util.concurrent.ExecutorService)}). Loading has
+ * 2 stages: I/O (obtaining image bytes, for example from network) and decoding.
+ * Values are updated as images are loaded, so an instance obtained via
+ * {@link ImagesPlugin#loaderMetrics()} always reflects current state.
+ *
+ * @since $SNAPSHOT;
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ImageLoaderMetrics {
+
+    private final AtomicInteger[] queueDepth = {new AtomicInteger(), new AtomicInteger()};
+    private final AtomicLong[] executed = {new AtomicLong(), new AtomicLong()};
+    private final AtomicLong[] waitNanos = {new AtomicLong(), new AtomicLong()};
+    private final AtomicLong[] executionNanos = {new AtomicLong(), new AtomicLong()};
+    private final AtomicLong dropped = new AtomicLong();
+
+    ImageLoaderMetrics() {
+    }
+
+    /**
+     * @return number of requests that are waiting in queue (both stages)
+     */
+    public int queueDepth() {
+        return ioQueueDepth() + decodeQueueDepth();
+    }
+
+    public int ioQueueDepth() {
+        return queueDepth[ImageLoadScheduler.STAGE_IO].get();
+    }
+
+    public int decodeQueueDepth() {
+        return queueDepth[ImageLoadScheduler.STAGE_DECODE].get();
+    }
+
+    /**
+     * @return number of requests that were removed from queue without execution (request
+     * was cancelled or its drawables were detached)
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long ioCount() {
+        return executed[ImageLoadScheduler.STAGE_IO].get();
+    }
+
+    /**
+     * @return total time that executed I/O requests spent waiting in queue
+     */
+    public long ioWaitNanos() {
+        return waitNanos[ImageLoadScheduler.STAGE_IO].get();
+    }
+
+    /**
+     * @return total time of I/O stage execution
+     */
+    public long ioExecutionNanos() {
+        return executionNanos[ImageLoadScheduler.STAGE_IO].get();
+    }
+
+    public long decodeCount() {
+        return executed[ImageLoadScheduler.STAGE_DECODE].get();
+    }
+
+    /**
+     * @return total time that executed decode requests spent waiting in queue
+     */
+    public long decodeWaitNanos() {
+        return waitNanos[ImageLoadScheduler.STAGE_DECODE].get();
+    }
+
+    /**
+     * @return total time of decode stage execution
+     */
+    public long decodeExecutionNanos() {
+        return executionNanos[ImageLoadScheduler.STAGE_DECODE].get();
+    }
+
+    void queueDepth(int stage, int depth) {
+        queueDepth[stage].set(depth);
+    }
+
+    void executed(int stage, long waitNanos, long executionNanos) {
+        this.executed[stage].incrementAndGet();
+        this.waitNanos[stage].addAndGet(waitNanos);
+        this.executionNanos[stage].addAndGet(executionNanos);
+    }
+
+    void dropped(int count) {
+        dropped.addAndGet(count);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "ImageLoaderMetrics{" +
+                "ioQueueDepth=" + ioQueueDepth() +
+                ", decodeQueueDepth=" + decodeQueueDepth() +
+                ", dropped=" + droppedCount() +
+                ", ioCount=" + ioCount() +
+                ", ioWaitNanos=" + ioWaitNanos() +
+                ", ioExecutionNanos=" + ioExecutionNanos() +
+                ", decodeCount=" + decodeCount() +
+                ", decodeWaitNanos=" + decodeWaitNanos() +
+                ", decodeExecutionNanos=" + decodeExecutionNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+package io.noties.markwon.image;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory LRU cache of decoded images that is bounded by size in bytes. As a drawable
+ * cannot be shared between multiple AsyncDrawables (it has own bounds and callback), its
+ * {@link Drawable.ConstantState} is stored and each hit receives a new drawable instance.
+ * Drawables without constant state (for example, animated GIFs) are not cached.
+ * <p>
+ * Entries are keyed by destination only: a {@link MediaDecoder} does not receive a requested
+ * display size (a drawable is scaled when its bounds are resolved), so decoded size depends only on
+ * destination and media decoders of the loader that owns this cache (a cache is never shared
+ * between loaders).
+ *
+ * @since $SNAPSHOT;
+ */
+class ImageMemoryCache {
+
+    private final long maxSize;
+    private final ImageCacheStats stats;
+
+    // access-ordered
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long size;
+
+    ImageMemoryCache(long maxSize, @NonNull ImageCacheStats stats) {
+        this.maxSize = maxSize;
+        this.stats = stats;
+    }
+
+    @Nullable
+    synchronized Drawable get(@NonNull String key) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            stats.memoryMisses.incrementAndGet();
+            return null;
+        }
+        stats.memoryHits.incrementAndGet();
+        return entry.state.newDrawable();
+    }
+
+    synchronized void put(@NonNull String key, @NonNull Drawable drawable) {
+
+        final Drawable.ConstantState state = drawable.getConstantState();
+        if (state == null) {
+            return;
+        }
+
+        final long size = sizeOf(drawable);
+        if (size <= 0
+                || size > maxSize) {
+            return;
+        }
+
+        final Entry previous = entries.put(key, new Entry(state, size));
+        if (previous != null) {
+            this.size -= previous.size;
+        }
+        this.size += size;
+
+        trim();
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    private void trim() {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getValue().size;
+            iterator.remove();
+            stats.memoryEvictions.incrementAndGet();
+        }
+    }
+
+    private static long sizeOf(@NonNull Drawable drawable) {
+
+        if (drawable instanceof BitmapDrawable) {
+            final Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+            return bitmap != null
+                    ? bitmap.getByteCount()
+                    : 0L;
+        }
+
+        // an estimate for drawables that are drawn on a canvas (ARGB_8888)
+        final int width = drawable.getIntrinsicWidth();
+        final int height = drawable.getIntrinsicHeight();
+        return width > 0 && height > 0
+                ? 4L * width * height
+                : 0L;
+    }
+
+    private static class Entry {
+
+        final Drawable.ConstantState state;
+        final long size;
+
+        Entry(@NonNull Drawable.ConstantState state, long size) {
+            this.state = state;
+            this.size = size;
+        }
+    }
+}
@@ -10,12 +10,14 @@ import androidx.annotation.VisibleForTesting;
 
 import org.commonmark.node.Image;
 
+import java.io.File;
 import java.util.concurrent.ExecutorService;
 
 import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonPlugin;
 import io.noties.markwon.MarkwonSpansFactory;
+import io.noties.markwon.PlainTextAware;
 import io.noties.markwon.image.data.DataUriSchemeHandler;
 import io.noties.markwon.image.file.FileSchemeHandler;
 import io.noties.markwon.image.gif.GifMediaDecoder;
@@ -24,7 +26,7 @@ import io.noties.markwon.image.network.OkHttpNetworkSchemeHandler;
 import io.noties.markwon.image.svg.SvgMediaDecoder;
 
 @SuppressWarnings({"UnusedReturnValue", "WeakerAccess"})
-public class ImagesPlugin extends AbstractMarkwonPlugin {
+public class ImagesPlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     /**
      * @since 4.0.0
@@ -86,7 +88,8 @@ public class ImagesPlugin extends AbstractMarkwonPlugin {
     }
 
     /**
-     * Optional (by default new cached thread executor will be used)
+     * Optional (by default a scheduler with bounded number of threads will be used,
+     * see {@link #loaderThreads(int, int)})
      *
      * @since 4.0.0
      */
@@ -96,6 +99,34 @@ public class ImagesPlugin extends AbstractMarkwonPlugin {
         return this;
     }
 
+    /**
+     * Number of threads of default image loading scheduler (used if no executor is specified
+     * via {@link #executorService(ExecutorService)}). Images are obtained (for example, from network)
+     * on I/O threads and decoded on decode threads. Only images of attached drawables are loaded,
+     * requests of drawables that were detached while waiting in queue are dropped.
+     *
+     * @param ioThreads     maximum number of threads that obtain images, default is 4
+     * @param decodeThreads maximum number of threads that decode images, default is
+     *                      1 or 2 (depends on number of processors)
+     * @see #loaderMetrics()
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImagesPlugin loaderThreads(int ioThreads, int decodeThreads) {
+        builder.loaderThreads(ioThreads, decodeThreads);
+        return this;
+    }
+
+    /**
+     * @return queue depth and timings of default image loading scheduler
+     * @see #loaderThreads(int, int)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImageLoaderMetrics loaderMetrics() {
+        return builder.loaderMetrics;
+    }
+
     /**
      * @see SchemeHandler
      * @see DataUriSchemeHandler
@@ -172,6 +203,81 @@ public class ImagesPlugin extends AbstractMarkwonPlugin {
         return this;
     }
 
+    /**
+     * Enables in-memory LRU cache of decoded images. When an image is cached it is delivered
+     * synchronously (for example, when the same markdown is rendered again or a RecyclerView row
+     * is re-bound). Only images that can create own copies are cached
+     * (via {@link Drawable#getConstantState()}), so for example animated GIFs are not cached.
+     *
+     * @param maxSizeInBytes maximum size of decoded images in cache, 0 disables cache (default)
+     * @see #cacheStats()
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImagesPlugin memoryCache(long maxSizeInBytes) {
+        builder.memoryCache(maxSizeInBytes);
+        return this;
+    }
+
+    /**
+     * Enables disk cache of raw image bytes (before decoding). Images that are referenced
+     * via {@code data} and {@code file} schemes are not cached as they are already available locally.
+     *
+     * @param directory      directory to store cached images, it must be used exclusively by this cache
+     *                       (for example, {@code new File(context.getCacheDir(), "markwon-images")})
+     * @param maxSizeInBytes maximum size of all cached files
+     * @see #cacheStats()
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImagesPlugin diskCache(@NonNull File directory, long maxSizeInBytes) {
+        builder.diskCache(directory, maxSizeInBytes);
+        return this;
+    }
+
+    /**
+     * Enables cache of intrinsic dimensions of loaded images. When dimensions of an image are known
+     * (it was loaded before) its {@link AsyncDrawable} receives a transparent placeholder of these
+     * dimensions when it is created (a placeholder from {@link PlaceholderProvider} is drawn
+     * centered inside it), so text is laid out with final image size and no relayout is required
+     * when image is loaded. HTML {@code width} and {@code height} attributes (or style) that specify
+     * final size regardless of image dimensions are used in the same way, even if image was not loaded before.
+     *
+     * @param maxEntries maximum number of cached dimensions, 0 disables cache (default)
+     * @param file       file to persist cache between application launches (for example,
+     *                   {@code new File(context.getCacheDir(), "markwon-image-dimensions")}), null to keep
+     *                   cache in memory only. It is read in background (with {@link #executorService(ExecutorService)})
+     *                   when {@link io.noties.markwon.Markwon} instance is created, until then persisted dimensions are not known
+     * @see #cacheStats()
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImagesPlugin dimensionsCache(int maxEntries, @Nullable File file) {
+        builder.dimensionsCache(maxEntries, file);
+        return this;
+    }
+
+    /**
+     * @return hit, miss and eviction counters of memory and disk caches, hit and miss counters of dimensions cache
+     * @see #memoryCache(long)
+     * @see #diskCache(File, long)
+     * @see #dimensionsCache(int, File)
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public ImageCacheStats cacheStats() {
+        return builder.cacheStats;
+    }
+
+    /**
+     * @since $SNAPSHOT; images are rendered only for image nodes (`![` is already special)
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        return "";
+    }
+
     @Override
     public void configureConfiguration(@NonNull MarkwonConfiguration.Builder builder) {
         builder.asyncDrawableLoader(this.builder.build());
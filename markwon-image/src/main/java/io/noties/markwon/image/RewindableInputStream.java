@@ -0,0 +1,196 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * InputStream that records bytes that are read from source until {@link #rewind()} is called.
+ * After rewind recorded bytes are read again followed by the rest of source. Recorded bytes are
+ * kept in memory until {@code spillThreshold} is reached, after that they are written to
+ * a temporary file (which is deleted when this stream is closed).
+ * <p>
+ * Unlike {@link InputStream#mark(int)} there is no read limit, so it can be used
+ * when it is not known how many bytes will be read before rewinding
+ * (for example, when reading image dimensions with {@code BitmapFactory}).
+ *
+ * @since $SNAPSHOT;
+ */
+class RewindableInputStream extends InputStream {
+
+    private final InputStream source;
+    private final int spillThreshold;
+
+    private byte[] buffer = new byte[4096];
+    private int count;
+
+    private File spill;
+    private OutputStream spillOutputStream;
+
+    private boolean recording = true;
+    private InputStream replay;
+
+    RewindableInputStream(@NonNull InputStream source, int spillThreshold) {
+        this.source = source;
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * @return true if recorded bytes were written to a temporary file
+     */
+    boolean hasSpilled() {
+        return spill != null;
+    }
+
+    /**
+     * Stops recording, subsequent reads return recorded bytes first. Can be called only once
+     */
+    void rewind() throws IOException {
+        rewind(false);
+    }
+
+    /**
+     * Subsequent reads return recorded bytes first.
+     *
+     * @param keepRecording if bytes that are read after this call should be recorded also,
+     *                      so this stream can be rewound again (to the very start)
+     */
+    void rewind(boolean keepRecording) throws IOException {
+
+        if (!recording) {
+            throw new IllegalStateException("Stream has already been rewound");
+        }
+
+        recording = keepRecording;
+
+        // previous replay could have been read partially
+        if (replay != null) {
+            replay.close();
+            replay = null;
+        }
+
+        if (spillOutputStream != null) {
+            if (keepRecording) {
+                // replay is read to the end before anything is appended
+                spillOutputStream.flush();
+            } else {
+                spillOutputStream.close();
+                spillOutputStream = null;
+            }
+            replay = new BufferedInputStream(new FileInputStream(spill));
+        } else {
+            // recorded bytes are not modified if buffer is grown (or spilled) whilst replaying
+            replay = new ByteArrayInputStream(buffer, 0, count);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        if (replay != null) {
+            final int value = replay.read();
+            if (value != -1) {
+                return value;
+            }
+            releaseReplay();
+        }
+
+        final int value = source.read();
+        if (value != -1 && recording) {
+            record(new byte[]{(byte) value}, 0, 1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (replay != null) {
+            final int read = replay.read(b, off, len);
+            if (read > 0) {
+                return read;
+            }
+            releaseReplay();
+        }
+
+        final int read = source.read(b, off, len);
+        if (read > 0 && recording) {
+            record(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (replay != null ? replay.available() : 0) + source.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            source.close();
+        } finally {
+            if (replay != null) {
+                releaseReplay();
+            }
+            if (spillOutputStream != null) {
+                spillOutputStream.close();
+                spillOutputStream = null;
+            }
+            if (spill != null) {
+                //noinspection ResultOfMethodCallIgnored
+                spill.delete();
+            }
+        }
+    }
+
+    private void record(@NonNull byte[] b, int off, int len) throws IOException {
+
+        if (spillOutputStream != null) {
+            spillOutputStream.write(b, off, len);
+            return;
+        }
+
+        final int required = count + len;
+
+        if (required > spillThreshold) {
+            spill = File.createTempFile("markwon", null);
+            spillOutputStream = new BufferedOutputStream(new FileOutputStream(spill));
+            spillOutputStream.write(buffer, 0, count);
+            spillOutputStream.write(b, off, len);
+            buffer = null;
+            count = 0;
+            return;
+        }
+
+        if (required > buffer.length) {
+            final byte[] grown = new byte[Math.min(spillThreshold, Math.max(required, buffer.length * 2))];
+            System.arraycopy(buffer, 0, grown, 0, count);
+            buffer = grown;
+        }
+
+        System.arraycopy(b, off, buffer, count, len);
+        count = required;
+    }
+
+    private void releaseReplay() throws IOException {
+        final InputStream replay = this.replay;
+        this.replay = null;
+        if (!recording) {
+            buffer = null;
+        }
+        replay.close();
+    }
+}
@@ -37,10 +37,31 @@ public class GifMediaDecoder extends MediaDecoder {
         return new GifMediaDecoder(autoPlayGif);
     }
 
+    /**
+     * @param shareFrames if decoded GIF should be returned as {@link SharedGifDrawable},
+     *                    so the same GIF displayed multiple times is decoded once (all occurrences
+     *                    display the same frame), or as {@link GifDrawable} (decoded for each display,
+     *                    the same as {@link #create(boolean)})
+     * @since $SNAPSHOT;
+     */
+    @NonNull
+    public static GifMediaDecoder create(boolean autoPlayGif, boolean shareFrames) {
+        return new GifMediaDecoder(autoPlayGif, shareFrames);
+    }
+
     private final boolean autoPlayGif;
+    private final boolean shareFrames; // @since $SNAPSHOT;
 
     protected GifMediaDecoder(boolean autoPlayGif) {
+        this(autoPlayGif, false);
+    }
+
+    /**
+     * @since $SNAPSHOT;
+     */
+    protected GifMediaDecoder(boolean autoPlayGif, boolean shareFrames) {
         this.autoPlayGif = autoPlayGif;
+        this.shareFrames = shareFrames;
 
         // @since 4.0.0
         validate();
@@ -68,6 +89,11 @@ public class GifMediaDecoder extends MediaDecoder {
             drawable.pause();
         }
 
+        // @since $SNAPSHOT;
+        if (shareFrames) {
+            return SharedGifDrawable.create(drawable);
+        }
+
         return drawable;
     }
 
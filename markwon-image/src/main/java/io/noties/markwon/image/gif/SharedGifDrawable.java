@@ -0,0 +1,278 @@
+package io.noties.markwon.image.gif;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Rect;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import pl.droidsonroids.gif.GifDrawable;
+
+/**
+ * Drawable that shares a single {@link GifDrawable} (decoder and frame buffer) between all
+ * drawables that are created from its {@link #getConstantState()}, so the same GIF displayed
+ * multiple times (or obtained from memory cache) is decoded once. As frames are shared, all drawables
+ * display the same frame.
+ * <p>
+ * Shared animation runs while at least one of drawables is running ({@link #start()}, {@link #stop()})
+ * and visible ({@link #setVisible(boolean, boolean)}), for example it is paused when all of them
+ * are scrolled out of visible area or detached. Alpha and color filter are kept by each drawable
+ * and applied to shared {@link GifDrawable} when it is drawn.
+ *
+ * @since $SNAPSHOT;
+ */
+public class SharedGifDrawable extends Drawable implements Animatable {
+
+    @NonNull
+    public static SharedGifDrawable create(@NonNull GifDrawable gifDrawable) {
+        return new SharedGifDrawable(new SharedState(gifDrawable));
+    }
+
+    private final SharedState state;
+
+    private boolean running;
+
+    private int alpha = 255;
+    private ColorFilter colorFilter;
+
+    SharedGifDrawable(@NonNull SharedState state) {
+        this.state = state;
+        this.running = state.autoPlay;
+        state.update(this);
+    }
+
+    /**
+     * @return shared {@link GifDrawable}
+     */
+    @NonNull
+    public GifDrawable gifDrawable() {
+        return state.gifDrawable;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+
+        final Rect bounds = getBounds();
+        final GifDrawable gifDrawable = state.gifDrawable;
+        final int width = gifDrawable.getIntrinsicWidth();
+        final int height = gifDrawable.getIntrinsicHeight();
+
+        if (bounds.isEmpty()
+                || width <= 0
+                || height <= 0) {
+            return;
+        }
+
+        // shared drawable keeps its intrinsic bounds, so it is scaled to bounds of this drawable
+        final int save = canvas.save();
+        try {
+            canvas.translate(bounds.left, bounds.top);
+            canvas.scale(bounds.width() / (float) width, bounds.height() / (float) height);
+            state.draw(canvas, alpha, colorFilter);
+        } finally {
+            canvas.restoreToCount(save);
+        }
+    }
+
+    @Override
+    public void setAlpha(@IntRange(from = 0, to = 255) int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        if (this.colorFilter != colorFilter) {
+            this.colorFilter = colorFilter;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getOpacity() {
+        return state.gifDrawable.getOpacity();
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return state.gifDrawable.getIntrinsicWidth();
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return state.gifDrawable.getIntrinsicHeight();
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        state.update(this);
+        return changed;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        state.update(this);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        state.update(this);
+    }
+
+    /**
+     * @return if this drawable is running (shared animation can still be paused if this drawable
+     * is not visible)
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @NonNull
+    @Override
+    public ConstantState getConstantState() {
+        return state;
+    }
+
+    boolean isActive() {
+        return running && isVisible();
+    }
+
+    static class SharedState extends ConstantState implements Callback {
+
+        final GifDrawable gifDrawable;
+
+        // if GifDrawable was running when shared, new drawables are running also
+        final boolean autoPlay;
+
+        // drawables that are running and visible
+        private final List<SharedGifDrawable> active = new ArrayList<>(2);
+
+        // alpha and color filter that are applied to shared GifDrawable (main thread only)
+        private int appliedAlpha = 255;
+        private ColorFilter appliedColorFilter;
+
+        // GifDrawable invalidates itself when alpha or color filter is changed,
+        //  such invalidations are not forwarded (they are caused by drawing)
+        private boolean applying;
+
+        SharedState(@NonNull GifDrawable gifDrawable) {
+            this.gifDrawable = gifDrawable;
+            this.autoPlay = gifDrawable.isRunning();
+
+            gifDrawable.setBounds(0, 0, gifDrawable.getIntrinsicWidth(), gifDrawable.getIntrinsicHeight());
+            gifDrawable.setCallback(this);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new SharedGifDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+
+        synchronized void update(@NonNull SharedGifDrawable drawable) {
+
+            final boolean isActive = drawable.isActive();
+            final int index = indexOf(drawable);
+
+            if (isActive && index < 0) {
+                active.add(drawable);
+            } else if (!isActive && index >= 0) {
+                active.remove(index);
+            }
+
+            final boolean isRunning = gifDrawable.isRunning();
+
+            if (active.isEmpty()) {
+                if (isRunning) {
+                    gifDrawable.stop();
+                }
+            } else if (!isRunning) {
+                gifDrawable.start();
+            }
+        }
+
+        void draw(@NonNull Canvas canvas, int alpha, @Nullable ColorFilter colorFilter) {
+
+            if (alpha != appliedAlpha
+                    || colorFilter != appliedColorFilter) {
+                applying = true;
+                try {
+                    if (alpha != appliedAlpha) {
+                        gifDrawable.setAlpha(alpha);
+                        appliedAlpha = alpha;
+                    }
+                    if (colorFilter != appliedColorFilter) {
+                        gifDrawable.setColorFilter(colorFilter);
+                        appliedColorFilter = colorFilter;
+                    }
+                } finally {
+                    applying = false;
+                }
+            }
+
+            gifDrawable.draw(canvas);
+        }
+
+        @Override
+        public void invalidateDrawable(@NonNull Drawable who) {
+            if (applying) {
+                return;
+            }
+            for (SharedGifDrawable drawable : snapshot()) {
+                drawable.invalidateSelf();
+            }
+        }
+
+        @Override
+        public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
+            final SharedGifDrawable[] drawables = snapshot();
+            if (drawables.length > 0) {
+                drawables[0].scheduleSelf(what, when);
+            }
+        }
+
+        @Override
+        public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
+            for (SharedGifDrawable drawable : snapshot()) {
+                drawable.unscheduleSelf(what);
+            }
+        }
+
+        @NonNull
+        private synchronized SharedGifDrawable[] snapshot() {
+            return active.toArray(new SharedGifDrawable[0]);
+        }
+
+        private int indexOf(@NonNull SharedGifDrawable drawable) {
+            for (int i = 0, size = active.size(); i < size; i++) {
+                if (active.get(i) == drawable) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
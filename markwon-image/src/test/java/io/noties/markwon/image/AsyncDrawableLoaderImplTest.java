@@ -1,5 +1,7 @@
 package io.noties.markwon.image;
 
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Handler;
@@ -13,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
 import java.io.InputStream;
@@ -24,6 +27,11 @@ import java.util.concurrent.Future;
 import io.noties.markwon.image.ImagesPlugin.ErrorHandler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -473,6 +481,256 @@ public class AsyncDrawableLoaderImplTest {
                 .decode(eq("fa/ke"), any(InputStream.class));
     }
 
+    @Test
+    public void memory_cache_delivers_synchronously() {
+
+        final SchemeHandler schemeHandler = mock(SchemeHandler.class);
+        {
+            when(schemeHandler.supportedSchemes())
+                    .thenReturn(Collections.singleton("cache"));
+            when(schemeHandler.handle(any(String.class), any(Uri.class)))
+                    .thenReturn(ImageItem.withResult(new BitmapDrawable(
+                            RuntimeEnvironment.application.getResources(),
+                            Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888))));
+        }
+
+        final ExecutorService executorService = immediateExecutorService(mock(Future.class));
+
+        builder._builder.memoryCache(1024 * 1024);
+
+        impl = builder
+                .executorService(executorService)
+                .addSchemeHandler(schemeHandler)
+                .build();
+
+        final String destination = "cache://image";
+
+        final AsyncDrawable first = asyncDrawable(destination);
+        impl.load(first);
+
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(builder._handler, times(1))
+                .postAtTime(captor.capture(), eq(first), anyLong());
+        captor.getValue().run();
+
+        final ArgumentCaptor<Drawable> firstResult = ArgumentCaptor.forClass(Drawable.class);
+        verify(first, times(1)).setResult(firstResult.capture());
+
+        // second drawable with the same destination receives result without loading
+        final AsyncDrawable second = asyncDrawable(destination);
+        impl.load(second);
+
+        final ArgumentCaptor<Drawable> secondResult = ArgumentCaptor.forClass(Drawable.class);
+        verify(second, times(1)).setResult(secondResult.capture());
+
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        verify(schemeHandler, times(1)).handle(any(String.class), any(Uri.class));
+
+        // a drawable cannot be shared, but bitmap can
+        assertNotSame(firstResult.getValue(), secondResult.getValue());
+        assertSame(
+                ((BitmapDrawable) firstResult.getValue()).getBitmap(),
+                ((BitmapDrawable) secondResult.getValue()).getBitmap());
+        assertFalse(secondResult.getValue().getBounds().isEmpty());
+
+        final ImageCacheStats stats = builder._builder.cacheStats;
+        assertEquals(1, stats.memoryHitCount());
+        assertEquals(1, stats.memoryMissCount());
+        assertEquals(0, stats.memoryEvictionCount());
+    }
+
+    @Test
+    public void memory_cache_does_not_store_errors() {
+
+        final ErrorHandler errorHandler = mock(ErrorHandler.class);
+        {
+            when(errorHandler.handleError(any(String.class), any(Throwable.class)))
+                    .thenReturn(new BitmapDrawable(
+                            RuntimeEnvironment.application.getResources(),
+                            Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888)));
+        }
+
+        builder._builder.memoryCache(1024 * 1024);
+
+        final ExecutorService executorService = immediateExecutorService(mock(Future.class));
+
+        impl = builder
+                .executorService(executorService)
+                .errorHandler(errorHandler)
+                .build();
+
+        final String destination = "no-handler://image";
+
+        final AsyncDrawable first = asyncDrawable(destination);
+        impl.load(first);
+
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(builder._handler, times(1))
+                .postAtTime(captor.capture(), eq(first), anyLong());
+        captor.getValue().run();
+
+        impl.load(asyncDrawable(destination));
+
+        verify(executorService, times(2)).submit(any(Runnable.class));
+        assertEquals(0, builder._builder.cacheStats.memoryHitCount());
+    }
+
+    @Test
+    public void dimensions_cache_placeholder() {
+
+        final SchemeHandler schemeHandler = mock(SchemeHandler.class);
+        {
+            when(schemeHandler.supportedSchemes())
+                    .thenReturn(Collections.singleton("cache"));
+            when(schemeHandler.handle(any(String.class), any(Uri.class)))
+                    .thenReturn(ImageItem.withResult(new BitmapDrawable(
+                            RuntimeEnvironment.application.getResources(),
+                            Bitmap.createBitmap(16, 8, Bitmap.Config.ARGB_8888))));
+        }
+
+        builder._builder.dimensionsCache(16, null);
+
+        impl = builder
+                .executorService(immediateExecutorService(mock(Future.class)))
+                .addSchemeHandler(schemeHandler)
+                .build();
+
+        final String destination = "cache://image";
+
+        // not known before image is loaded
+        final AsyncDrawable first = asyncDrawable(destination);
+        assertNull(impl.placeholder(first));
+
+        impl.load(first);
+
+        final Drawable placeholder = impl.placeholder(asyncDrawable(destination));
+        assertNotNull(placeholder);
+        assertEquals(16, placeholder.getIntrinsicWidth());
+        assertEquals(8, placeholder.getIntrinsicHeight());
+
+        final ImageCacheStats stats = builder._builder.cacheStats;
+        assertEquals(1, stats.dimensionsHitCount());
+        assertEquals(1, stats.dimensionsMissCount());
+    }
+
+    @Test
+    public void dimensions_cache_absolute_image_size() {
+
+        builder._builder.dimensionsCache(16, null);
+        impl = builder.build();
+
+        final AsyncDrawable absolute = asyncDrawable("cache://absolute");
+        when(absolute.getImageSize()).thenReturn(new ImageSize(
+                new ImageSize.Dimension(100.F, "px"),
+                new ImageSize.Dimension(50.F, null)));
+
+        final Drawable placeholder = impl.placeholder(absolute);
+        assertNotNull(placeholder);
+        assertEquals(100, placeholder.getIntrinsicWidth());
+        assertEquals(50, placeholder.getIntrinsicHeight());
+
+        // relative dimensions depend on canvas width (or text size)
+        final AsyncDrawable relative = asyncDrawable("cache://relative");
+        when(relative.getImageSize()).thenReturn(new ImageSize(
+                new ImageSize.Dimension(100.F, "%"),
+                new ImageSize.Dimension(50.F, null)));
+        assertNull(impl.placeholder(relative));
+    }
+
+    @Test
+    public void same_destination_single_request() {
+
+        final SchemeHandler schemeHandler = mock(SchemeHandler.class);
+        {
+            when(schemeHandler.supportedSchemes())
+                    .thenReturn(Collections.singleton("same"));
+            when(schemeHandler.handle(any(String.class), any(Uri.class)))
+                    .thenReturn(ImageItem.withResult(new BitmapDrawable(
+                            RuntimeEnvironment.application.getResources(),
+                            Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888))));
+        }
+
+        final ExecutorService executorService = immediateExecutorService(mock(Future.class));
+
+        impl = builder
+                .executorService(executorService)
+                .addSchemeHandler(schemeHandler)
+                .build();
+
+        final String destination = "same://image";
+
+        final AsyncDrawable first = asyncDrawable(destination);
+        final AsyncDrawable second = asyncDrawable(destination);
+        final AsyncDrawable notAttached = asyncDrawable(destination);
+        when(notAttached.isAttached()).thenReturn(false);
+
+        impl.load(first);
+        impl.load(second);
+        impl.load(notAttached);
+
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        verify(schemeHandler, times(1)).handle(any(String.class), any(Uri.class));
+
+        // result is posted with the token of the first drawable
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(builder._handler, times(1))
+                .postAtTime(captor.capture(), eq(first), anyLong());
+        captor.getValue().run();
+
+        final ArgumentCaptor<Drawable> firstResult = ArgumentCaptor.forClass(Drawable.class);
+        verify(first, times(1)).setResult(firstResult.capture());
+
+        final ArgumentCaptor<Drawable> secondResult = ArgumentCaptor.forClass(Drawable.class);
+        verify(second, times(1)).setResult(secondResult.capture());
+
+        verify(notAttached, never()).setResult(any(Drawable.class));
+
+        // each drawable has own instance
+        assertNotSame(firstResult.getValue(), secondResult.getValue());
+    }
+
+    @Test
+    public void same_destination_cancel_reference_counted() {
+
+        final Future future = mock(Future.class);
+        final ExecutorService executorService = mock(ExecutorService.class);
+        {
+            //noinspection unchecked
+            when(executorService.submit(any(Runnable.class)))
+                    .thenReturn(future);
+        }
+
+        final Handler handler = mock(Handler.class);
+
+        impl = builder
+                .executorService(executorService)
+                .handler(handler)
+                .build();
+
+        final String destination = "same://image";
+        final AsyncDrawable first = asyncDrawable(destination);
+        final AsyncDrawable second = asyncDrawable(destination);
+
+        impl.load(first);
+        impl.load(second);
+
+        // first drawable is the token of the posted result, it must not be removed
+        //  while second drawable is waiting
+        impl.cancel(first);
+
+        verify(future, never()).cancel(anyBoolean());
+        verify(handler, never()).removeCallbacksAndMessages(any());
+
+        impl.cancel(second);
+
+        verify(future, times(1)).cancel(eq(true));
+        verify(handler, times(1)).removeCallbacksAndMessages(eq(first));
+
+        // new request is started after cancellation
+        impl.load(first);
+        verify(executorService, times(2)).submit(any(Runnable.class));
+    }
+
     private static class BuilderImpl {
 
         AsyncDrawableLoaderBuilder _builder = new AsyncDrawableLoaderBuilder();
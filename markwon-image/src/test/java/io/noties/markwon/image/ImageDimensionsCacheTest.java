@@ -0,0 +1,193 @@
+package io.noties.markwon.image;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ImageDimensionsCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private ImageCacheStats stats;
+
+    @Before
+    public void before() throws IOException {
+        file = new File(folder.newFolder(), "dimensions");
+        stats = new ImageCacheStats();
+    }
+
+    @Test
+    public void put_get() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, null, stats);
+
+        assertNull(cache.get("https://noties.io/image.png"));
+
+        cache.put("https://noties.io/image.png", 100, 50);
+        assertEquals(new Rect(0, 0, 100, 50), cache.get("https://noties.io/image.png"));
+
+        assertEquals(1, stats.dimensionsHitCount());
+        assertEquals(1, stats.dimensionsMissCount());
+    }
+
+    @Test
+    public void empty_dimensions_not_cached() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, null, stats);
+        cache.put("https://noties.io/empty.png", 0, 50);
+        cache.put("https://noties.io/no-intrinsic.png", -1, -1);
+
+        assertNull(cache.get("https://noties.io/empty.png"));
+        assertNull(cache.get("https://noties.io/no-intrinsic.png"));
+    }
+
+    @Test
+    public void least_recently_used_evicted() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(2, null, stats);
+        cache.put("1", 1, 1);
+        cache.put("2", 2, 2);
+
+        // access first, so second one is evicted
+        cache.get("1");
+        cache.put("3", 3, 3);
+
+        assertEquals(new Rect(0, 0, 1, 1), cache.get("1"));
+        assertNull(cache.get("2"));
+        assertEquals(new Rect(0, 0, 3, 3), cache.get("3"));
+    }
+
+    @Test
+    public void persisted() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, file, stats);
+        cache.put("1", 10, 20);
+        cache.put("2", 30, 40);
+        // replaced
+        cache.put("1", 50, 60);
+
+        final ImageDimensionsCache restored = loaded(16);
+        assertEquals(new Rect(0, 0, 50, 60), restored.get("1"));
+        assertEquals(new Rect(0, 0, 30, 40), restored.get("2"));
+        assertNull(restored.get("3"));
+    }
+
+    @Test
+    public void persisted_max_entries_applied() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, file, stats);
+        for (int i = 0; i < 8; i++) {
+            cache.put(String.valueOf(i), i + 1, i + 1);
+        }
+
+        // latest entries are kept
+        final ImageDimensionsCache restored = loaded(2);
+        assertNull(restored.get("5"));
+        assertEquals(new Rect(0, 0, 7, 7), restored.get("6"));
+        assertEquals(new Rect(0, 0, 8, 8), restored.get("7"));
+    }
+
+    @Test
+    public void partial_record_dropped() throws IOException {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, file, stats);
+        cache.put("1", 10, 20);
+
+        // interrupted write
+        final FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(new byte[]{0, 5, 'a'});
+        } finally {
+            out.close();
+        }
+
+        final ImageDimensionsCache restored = loaded(16);
+        assertEquals(new Rect(0, 0, 10, 20), restored.get("1"));
+
+        // file is rewritten, so new records are readable
+        restored.put("2", 30, 40);
+
+        final ImageDimensionsCache next = loaded(16);
+        assertEquals(new Rect(0, 0, 10, 20), next.get("1"));
+        assertEquals(new Rect(0, 0, 30, 40), next.get("2"));
+    }
+
+    @Test
+    public void not_readable_file_ignored() throws IOException {
+
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[]{1, 2});
+        } finally {
+            out.close();
+        }
+
+        final ImageDimensionsCache cache = loaded(16);
+        assertNull(cache.get("1"));
+
+        cache.put("1", 10, 20);
+        assertEquals(new Rect(0, 0, 10, 20), loaded(16).get("1"));
+    }
+
+    @Test
+    public void not_loaded_is_miss() {
+
+        new ImageDimensionsCache(16, file, stats).put("1", 10, 20);
+
+        // file is not read until loaded
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, file, stats);
+        assertNull(cache.get("1"));
+
+        cache.load();
+        assertEquals(new Rect(0, 0, 10, 20), cache.get("1"));
+    }
+
+    @Test
+    public void put_before_load_kept() {
+
+        final ImageDimensionsCache cache = new ImageDimensionsCache(16, file, stats);
+        cache.put("1", 10, 20);
+        cache.put("2", 30, 40);
+
+        final ImageDimensionsCache restored = new ImageDimensionsCache(16, file, stats);
+        // more recent than persisted one
+        restored.put("1", 50, 60);
+        restored.put("3", 70, 80);
+        restored.load();
+
+        assertEquals(new Rect(0, 0, 50, 60), restored.get("1"));
+        assertEquals(new Rect(0, 0, 30, 40), restored.get("2"));
+        assertEquals(new Rect(0, 0, 70, 80), restored.get("3"));
+
+        final ImageDimensionsCache next = loaded(16);
+        assertEquals(new Rect(0, 0, 50, 60), next.get("1"));
+        assertEquals(new Rect(0, 0, 30, 40), next.get("2"));
+        assertEquals(new Rect(0, 0, 70, 80), next.get("3"));
+    }
+
+    @NonNull
+    private ImageDimensionsCache loaded(int maxEntries) {
+        final ImageDimensionsCache cache = new ImageDimensionsCache(maxEntries, file, stats);
+        cache.load();
+        return cache;
+    }
+}
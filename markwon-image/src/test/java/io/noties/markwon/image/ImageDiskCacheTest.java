@@ -0,0 +1,189 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ImageDiskCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private ImageCacheStats stats;
+
+    @Before
+    public void before() throws IOException {
+        directory = folder.newFolder();
+        stats = new ImageCacheStats();
+    }
+
+    @Test
+    public void put_get() throws IOException {
+
+        final ImageDiskCache cache = new ImageDiskCache(directory, 1024, stats);
+
+        assertNull(cache.get("https://noties.io/image.png"));
+
+        final ImageItem.WithDecodingNeeded put = cache.put("https://noties.io/image.png", item("image/png", 16));
+        assertEquals("image/png", put.contentType());
+        assertEquals(16, read(put.inputStream()).length);
+
+        final ImageItem.WithDecodingNeeded get = cache.get("https://noties.io/image.png");
+        assertNotNull(get);
+        assertEquals("image/png", get.contentType());
+        assertEquals(16, read(get.inputStream()).length);
+
+        assertEquals(1, stats.diskHitCount());
+        assertEquals(1, stats.diskMissCount());
+    }
+
+    @Test
+    public void no_content_type() throws IOException {
+
+        final ImageDiskCache cache = new ImageDiskCache(directory, 1024, stats);
+        cache.put("key", item(null, 4));
+
+        final ImageItem.WithDecodingNeeded item = cache.get("key");
+        assertNotNull(item);
+        assertNull(item.contentType());
+        read(item.inputStream());
+    }
+
+    @Test
+    public void least_recently_used_evicted() throws IOException {
+
+        // each entry takes 100 bytes + content type header
+        final ImageDiskCache cache = new ImageDiskCache(directory, 250, stats);
+
+        read(cache.put("first", item("a", 100)).inputStream());
+        read(cache.put("second", item("a", 100)).inputStream());
+
+        // access first, so second is least recently used
+        read(cache.get("first").inputStream());
+
+        read(cache.put("third", item("a", 100)).inputStream());
+
+        assertEquals(1, stats.diskEvictionCount());
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("first"));
+        assertNotNull(cache.get("third"));
+    }
+
+    @Test
+    public void entries_restored() throws IOException {
+
+        read(new ImageDiskCache(directory, 1024, stats).put("key", item("a", 8)).inputStream());
+
+        // new instance for the same directory
+        final ImageItem.WithDecodingNeeded item = new ImageDiskCache(directory, 1024, stats).get("key");
+        assertNotNull(item);
+        assertEquals(8, read(item.inputStream()).length);
+    }
+
+    @Test
+    public void larger_than_cache_not_stored() throws IOException {
+
+        final ImageDiskCache cache = new ImageDiskCache(directory, 10 * 1024, stats);
+        read(cache.put("small", item("a", 100)).inputStream());
+
+        // partially written before the limit is reached
+        final byte[] bytes = bytes(20 * 1024);
+        final ImageItem.WithDecodingNeeded put = cache.put("large", item("a", bytes));
+        assertEquals("a", put.contentType());
+        assertArrayEquals(bytes, read(put.inputStream()));
+
+        assertNull(cache.get("large"));
+        assertNotNull(cache.get("small"));
+        assertEquals(0, stats.diskEvictionCount());
+
+        final String[] files = directory.list();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+    }
+
+    @Test
+    public void returned_entry_readable_after_eviction() throws IOException {
+
+        final ImageDiskCache cache = new ImageDiskCache(directory, 150, stats);
+
+        final byte[] bytes = bytes(100);
+        final ImageItem.WithDecodingNeeded first = cache.put("first", item("a", bytes));
+
+        // evicts first before it is read
+        read(cache.put("second", item("a", 100)).inputStream());
+        assertEquals(1, stats.diskEvictionCount());
+        assertNull(cache.get("first"));
+
+        assertArrayEquals(bytes, read(first.inputStream()));
+    }
+
+    @Test
+    public void not_writable_source_returned() throws IOException {
+
+        // a file instead of a directory
+        final File file = folder.newFile();
+        final ImageDiskCache cache = new ImageDiskCache(file, 1024, stats);
+
+        final byte[] bytes = bytes(100);
+        final ImageItem.WithDecodingNeeded put = cache.put("key", item("a", bytes));
+        assertEquals("a", put.contentType());
+        assertArrayEquals(bytes, read(put.inputStream()));
+
+        assertNull(cache.get("key"));
+    }
+
+    @NonNull
+    private static ImageItem.WithDecodingNeeded item(String contentType, int length) {
+        return item(contentType, new byte[length]);
+    }
+
+    @NonNull
+    private static ImageItem.WithDecodingNeeded item(String contentType, @NonNull byte[] bytes) {
+        return ImageItem.withDecodingNeeded(contentType, new ByteArrayInputStream(bytes))
+                .getAsWithDecodingNeeded();
+    }
+
+    @NonNull
+    private static byte[] bytes(int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @NonNull
+    private static byte[] read(@NonNull InputStream inputStream) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[64];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ImageLoadSchedulerTest {
+
+    private ImageLoaderMetrics metrics;
+    private ImageLoadScheduler scheduler;
+
+    @Before
+    public void before() {
+        metrics = new ImageLoaderMetrics();
+        scheduler = new ImageLoadScheduler(2, 1, metrics);
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void bounded_threads() throws Exception {
+
+        final int count = 10;
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            scheduler.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final int value = running.incrementAndGet();
+                    int current;
+                    while ((current = max.get()) < value) {
+                        max.compareAndSet(current, value);
+                    }
+                    await(release);
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // metrics are updated after task execution
+        final long end = System.currentTimeMillis() + 5000;
+        while (metrics.ioCount() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, max.get());
+        assertEquals(count, metrics.ioCount());
+        assertEquals(0, metrics.queueDepth());
+    }
+
+    @Test
+    public void detached_dropped() throws Exception {
+
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        // occupy both I/O threads
+        for (int i = 0; i < 2; i++) {
+            scheduler.submit(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    await(release);
+                }
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final TestTask detached = new TestTask(false);
+        final TestTask attached = new TestTask(true);
+        final TestTask cancelled = new TestTask(true);
+
+        scheduler.submit(ImageLoadScheduler.STAGE_IO, detached);
+        scheduler.submit(ImageLoadScheduler.STAGE_IO, cancelled).cancel(true);
+        scheduler.submit(ImageLoadScheduler.STAGE_IO, attached);
+
+        assertEquals(3, metrics.ioQueueDepth());
+
+        release.countDown();
+
+        assertTrue(attached.executed.await(5, TimeUnit.SECONDS));
+        assertTrue(detached.dropped.await(5, TimeUnit.SECONDS));
+        assertTrue(cancelled.dropped.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, detached.executed.getCount());
+        assertEquals(1, cancelled.executed.getCount());
+        assertEquals(2, metrics.droppedCount());
+    }
+
+    @Test
+    public void decode_stage() throws Exception {
+
+        final AtomicReference<String> io = new AtomicReference<>();
+        final AtomicReference<String> decode = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.submit(ImageLoadScheduler.STAGE_IO, new TestTask(true) {
+            @Override
+            public void run() {
+                io.set(Thread.currentThread().getName());
+                scheduler.submit(ImageLoadScheduler.STAGE_DECODE, new TestTask(true) {
+                    @Override
+                    public void run() {
+                        decode.set(Thread.currentThread().getName());
+                        done.countDown();
+                    }
+                });
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("markwon-image-io", io.get());
+        assertEquals("markwon-image-decode", decode.get());
+
+        // metrics are updated after task execution
+        final long end = System.currentTimeMillis() + 5000;
+        while (metrics.decodeCount() == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, metrics.ioCount());
+        assertEquals(1, metrics.decodeCount());
+    }
+
+    @Test
+    public void cancel_interrupts() throws Exception {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final Future<?> future = scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                done.countDown();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+
+        // thread can be used after interruption
+        final CountDownLatch next = new CountDownLatch(1);
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                next.countDown();
+            }
+        });
+        assertTrue(next.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shutdown() throws Exception {
+
+        scheduler.shutdown();
+
+        assertTrue(scheduler.isShutdown());
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.isTerminated());
+
+        try {
+            scheduler.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertFalse(e.getMessage(), e.getMessage().isEmpty());
+        }
+    }
+
+    private static void await(@NonNull CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class TestTask implements ImageLoadScheduler.Task {
+
+        final boolean attached;
+        final CountDownLatch executed = new CountDownLatch(1);
+        final CountDownLatch dropped = new CountDownLatch(1);
+
+        TestTask(boolean attached) {
+            this.attached = attached;
+        }
+
+        @Override
+        public boolean isAttached() {
+            return attached;
+        }
+
+        @Override
+        public void dropped() {
+            dropped.countDown();
+        }
+
+        @Override
+        public void run() {
+            executed.countDown();
+        }
+    }
+}
@@ -161,7 +161,7 @@ public class ImagesPluginTest {
         plugin.beforeSetText(textView, mock(Spanned.class));
 
         verify(textView, times(1))
-                .getTag(ArgumentMatchers.eq(R.id.markwon_drawables_scheduler_last_text_hashcode));
+                .getTag(ArgumentMatchers.eq(R.id.markwon_drawables_scheduler_last_text));
     }
 
     @Test
@@ -174,7 +174,7 @@ public class ImagesPluginTest {
         plugin.afterSetText(textView);
 
         verify(textView, times(1))
-                .getTag(eq(R.id.markwon_drawables_scheduler_last_text_hashcode));
+                .getTag(eq(R.id.markwon_drawables_scheduler_last_text));
     }
 
     @Test
@@ -0,0 +1,135 @@
+package io.noties.markwon.image;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RewindableInputStreamTest {
+
+    @Test
+    public void rewind_in_memory() throws IOException {
+
+        final byte[] data = data(1024);
+        final RewindableInputStream stream = new RewindableInputStream(new ByteArrayInputStream(data), 128);
+
+        final byte[] header = new byte[100];
+        assertEquals(100, stream.read(header));
+        assertEquals(data[100] & 0xFF, stream.read());
+
+        stream.rewind();
+
+        assertFalse(stream.hasSpilled());
+        assertArrayEquals(data, readAll(stream));
+
+        stream.close();
+    }
+
+    @Test
+    public void rewind_spilled() throws IOException {
+
+        final byte[] data = data(1024);
+        final RewindableInputStream stream = new RewindableInputStream(new ByteArrayInputStream(data), 128);
+
+        final byte[] header = new byte[512];
+        assertEquals(512, stream.read(header));
+
+        stream.rewind();
+
+        assertTrue(stream.hasSpilled());
+        assertArrayEquals(data, readAll(stream));
+
+        stream.close();
+    }
+
+    @Test
+    public void rewind_once() throws IOException {
+
+        final RewindableInputStream stream = new RewindableInputStream(new ByteArrayInputStream(data(16)), 128);
+        stream.rewind();
+
+        try {
+            stream.rewind();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("rewound"));
+        }
+    }
+
+    @Test
+    public void rewind_again_in_memory() throws IOException {
+
+        final byte[] data = data(100);
+        final RewindableInputStream stream = new RewindableInputStream(new ByteArrayInputStream(data), 128);
+
+        assertEquals(10, stream.read(new byte[10]));
+
+        stream.rewind(true);
+
+        // partially replayed and read from source
+        assertEquals(50, stream.read(new byte[50]));
+
+        stream.rewind();
+
+        assertFalse(stream.hasSpilled());
+        assertArrayEquals(data, readAll(stream));
+
+        stream.close();
+    }
+
+    @Test
+    public void rewind_again_spilled() throws IOException {
+
+        final byte[] data = data(1024);
+        final RewindableInputStream stream = new RewindableInputStream(new ByteArrayInputStream(data), 128);
+
+        assertEquals(100, stream.read(new byte[100]));
+
+        stream.rewind(true);
+
+        // recorded bytes are written to a file whilst stream is read after rewind
+        assertEquals(1024, readAll(stream).length);
+        assertTrue(stream.hasSpilled());
+
+        stream.rewind();
+
+        assertArrayEquals(data, readAll(stream));
+
+        stream.close();
+    }
+
+    @NonNull
+    private static byte[] data(int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @NonNull
+    private static byte[] readAll(@NonNull InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[64];
+        int length;
+        while ((length = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+}
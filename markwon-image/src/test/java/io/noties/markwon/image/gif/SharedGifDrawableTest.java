@@ -0,0 +1,210 @@
+package io.noties.markwon.image.gif;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import pl.droidsonroids.gif.GifDrawable;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class SharedGifDrawableTest {
+
+    private GifDrawable gifDrawable;
+
+    // state of mocked GifDrawable
+    private boolean running;
+
+    @Before
+    public void before() {
+        gifDrawable = mock(GifDrawable.class);
+        when(gifDrawable.getIntrinsicWidth()).thenReturn(10);
+        when(gifDrawable.getIntrinsicHeight()).thenReturn(10);
+        when(gifDrawable.isRunning()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return running;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                running = true;
+                return null;
+            }
+        }).when(gifDrawable).start();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                running = false;
+                return null;
+            }
+        }).when(gifDrawable).stop();
+    }
+
+    @Test
+    public void shared_state() {
+        running = true;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final Drawable second = first.getConstantState().newDrawable();
+
+        assertTrue(second instanceof SharedGifDrawable);
+        assertNotSame(first, second);
+        assertSame(gifDrawable, ((SharedGifDrawable) second).gifDrawable());
+    }
+
+    @Test
+    public void runs_while_one_is_active() {
+        // running GifDrawable is auto-played
+        running = true;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final SharedGifDrawable second = (SharedGifDrawable) first.getConstantState().newDrawable();
+
+        assertTrue(first.isRunning());
+        assertTrue(second.isRunning());
+        assertTrue(running);
+
+        first.setVisible(false, false);
+        assertTrue(running);
+
+        second.stop();
+        assertFalse(second.isRunning());
+        // first is running but not visible
+        assertTrue(first.isRunning());
+        assertFalse(running);
+
+        first.setVisible(true, false);
+        assertTrue(running);
+
+        first.stop();
+        assertFalse(running);
+
+        second.start();
+        assertTrue(running);
+    }
+
+    @Test
+    public void not_auto_played() {
+        // paused GifDrawable is not started until requested
+        running = false;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final SharedGifDrawable second = (SharedGifDrawable) first.getConstantState().newDrawable();
+
+        assertFalse(first.isRunning());
+        assertFalse(second.isRunning());
+        verify(gifDrawable, never()).start();
+
+        second.start();
+        assertTrue(running);
+        verify(gifDrawable, times(1)).start();
+
+        // already running
+        first.start();
+        verify(gifDrawable, times(1)).start();
+
+        second.stop();
+        assertTrue(running);
+
+        first.stop();
+        assertFalse(running);
+    }
+
+    @Test
+    public void same_drawable_counted_once() {
+        running = false;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final SharedGifDrawable second = (SharedGifDrawable) first.getConstantState().newDrawable();
+
+        first.start();
+        first.start();
+        first.setVisible(true, false);
+        second.start();
+
+        second.stop();
+        assertTrue(running);
+
+        // a single stop is enough
+        first.stop();
+        assertFalse(running);
+    }
+
+    @Test
+    public void alpha_and_color_filter_per_drawable() {
+        running = true;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final SharedGifDrawable second = (SharedGifDrawable) first.getConstantState().newDrawable();
+        first.setBounds(0, 0, 10, 10);
+        second.setBounds(0, 0, 10, 10);
+
+        final ColorFilter colorFilter = mock(ColorFilter.class);
+        first.setAlpha(100);
+        first.setColorFilter(colorFilter);
+
+        // not applied until drawn
+        verify(gifDrawable, never()).setAlpha(anyInt());
+        verify(gifDrawable, never()).setColorFilter(any(ColorFilter.class));
+
+        final Canvas canvas = mock(Canvas.class);
+
+        // defaults
+        second.draw(canvas);
+        verify(gifDrawable, never()).setAlpha(anyInt());
+
+        first.draw(canvas);
+        verify(gifDrawable).setAlpha(100);
+        verify(gifDrawable).setColorFilter(colorFilter);
+
+        second.draw(canvas);
+        verify(gifDrawable).setAlpha(255);
+        verify(gifDrawable).setColorFilter(null);
+
+        verify(gifDrawable, times(3)).draw(canvas);
+    }
+
+    @Test
+    public void invalidation_forwarded_to_active() {
+        running = true;
+
+        final SharedGifDrawable first = SharedGifDrawable.create(gifDrawable);
+        final SharedGifDrawable second = (SharedGifDrawable) first.getConstantState().newDrawable();
+
+        final Drawable.Callback firstCallback = mock(Drawable.Callback.class);
+        final Drawable.Callback secondCallback = mock(Drawable.Callback.class);
+        first.setCallback(firstCallback);
+        second.setCallback(secondCallback);
+
+        second.setVisible(false, false);
+
+        // GifDrawable invalidates itself on each new frame
+        ((Drawable.Callback) first.getConstantState()).invalidateDrawable(gifDrawable);
+
+        verify(firstCallback).invalidateDrawable(first);
+        verify(secondCallback, never()).invalidateDrawable(any(Drawable.class));
+    }
+}
@@ -761,6 +761,20 @@ public class MarkwonInlineParser implements InlineParser, MarkwonInlineParserCon
             return this;
         }
 
+        // @since $SNAPSHOT; characters that are handled by configured inline and delimiter processors
+        @NonNull
+        String specialCharacters() {
+            final StringBuilder builder = new StringBuilder();
+            for (InlineProcessor inlineProcessor : inlineProcessors) {
+                builder.append(inlineProcessor.specialCharacter());
+            }
+            for (DelimiterProcessor delimiterProcessor : delimiterProcessors) {
+                builder.append(delimiterProcessor.getOpeningCharacter());
+                builder.append(delimiterProcessor.getClosingCharacter());
+            }
+            return builder.toString();
+        }
+
         @NonNull
         @Override
         public FactoryBuilder excludeInlineProcessor(@NonNull Class<? extends InlineProcessor> type) {
@@ -1,15 +1,17 @@
 package io.noties.markwon.inlineparser;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.commonmark.parser.Parser;
 
 import io.noties.markwon.AbstractMarkwonPlugin;
+import io.noties.markwon.PlainTextAware;
 
 /**
  * @since 4.3.0
  */
-public class MarkwonInlineParserPlugin extends AbstractMarkwonPlugin {
+public class MarkwonInlineParserPlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     public interface BuilderConfigure<B extends MarkwonInlineParser.FactoryBuilder> {
         void configureBuilder(@NonNull B factoryBuilder);
@@ -47,6 +49,20 @@ public class MarkwonInlineParserPlugin extends AbstractMarkwonPlugin {
         this.factoryBuilder = factoryBuilder;
     }
 
+    /**
+     * @return special characters of configured inline and delimiter processors
+     * @since $SNAPSHOT;
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        if (factoryBuilder instanceof MarkwonInlineParser.FactoryBuilderImpl) {
+            return ((MarkwonInlineParser.FactoryBuilderImpl) factoryBuilder).specialCharacters();
+        }
+        // a custom builder can configure anything
+        return null;
+    }
+
     @Override
     public void configureParser(@NonNull Parser.Builder builder) {
         builder.inlineParserFactory(factoryBuilder.build());
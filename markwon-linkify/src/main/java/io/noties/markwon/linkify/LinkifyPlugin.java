@@ -7,6 +7,7 @@ import android.text.util.Linkify;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.text.util.LinkifyCompat;
 
 import org.commonmark.node.Link;
@@ -16,13 +17,14 @@ import java.lang.annotation.RetentionPolicy;
 
 import io.noties.markwon.AbstractMarkwonPlugin;
 import io.noties.markwon.MarkwonVisitor;
+import io.noties.markwon.PlainTextAware;
 import io.noties.markwon.RenderProps;
 import io.noties.markwon.SpanFactory;
 import io.noties.markwon.SpannableBuilder;
 import io.noties.markwon.core.CorePlugin;
 import io.noties.markwon.core.CoreProps;
 
-public class LinkifyPlugin extends AbstractMarkwonPlugin {
+public class LinkifyPlugin extends AbstractMarkwonPlugin implements PlainTextAware {
 
     @IntDef(flag = true, value = {
             Linkify.EMAIL_ADDRESSES,
@@ -74,6 +76,15 @@ public class LinkifyPlugin extends AbstractMarkwonPlugin {
         this.useCompat = useCompat;
     }
 
+    /**
+     * @since $SNAPSHOT; links are added by a listener of {@link CorePlugin}
+     */
+    @Nullable
+    @Override
+    public String specialCharacters() {
+        return "";
+    }
+
     @Override
     public void configure(@NonNull Registry registry) {
         registry.require(CorePlugin.class, new Action<CorePlugin>() {
@@ -91,7 +102,25 @@ public class LinkifyPlugin extends AbstractMarkwonPlugin {
         });
     }
 
-    private static class LinkifyTextAddedListener implements CorePlugin.OnTextAddedListener {
+    // @since $SNAPSHOT; all characters that are digits (phone numbers can use any of them)
+    private static String digits;
+
+    @NonNull
+    private static synchronized String digits() {
+        String digits = LinkifyPlugin.digits;
+        if (digits == null) {
+            final StringBuilder builder = new StringBuilder();
+            for (char c = 0; c < Character.MAX_VALUE; c++) {
+                if (Character.isDigit(c)) {
+                    builder.append(c);
+                }
+            }
+            digits = LinkifyPlugin.digits = builder.toString();
+        }
+        return digits;
+    }
+
+    private static class LinkifyTextAddedListener implements CorePlugin.OnTextAddedListener, PlainTextAware {
 
         private final int mask;
 
@@ -99,6 +128,33 @@ public class LinkifyPlugin extends AbstractMarkwonPlugin {
             this.mask = mask;
         }
 
+        /**
+         * A link cannot be detected in a text without these characters: a web URL requires
+         * a domain (with a dot) or a scheme (with a colon), an email requires {@code @} and
+         * a phone number requires digits
+         *
+         * @since $SNAPSHOT;
+         */
+        @Nullable
+        @Override
+        public String specialCharacters() {
+            // other kinds of links (for example map addresses) can be detected in any text
+            if ((mask & ~(Linkify.WEB_URLS | Linkify.EMAIL_ADDRESSES | Linkify.PHONE_NUMBERS)) != 0) {
+                return null;
+            }
+            final StringBuilder builder = new StringBuilder();
+            if ((mask & Linkify.WEB_URLS) != 0) {
+                builder.append(".:");
+            }
+            if ((mask & Linkify.EMAIL_ADDRESSES) != 0) {
+                builder.append('@');
+            }
+            if ((mask & Linkify.PHONE_NUMBERS) != 0) {
+                builder.append(digits());
+            }
+            return builder.toString();
+        }
+
         @Override
         public void onTextAdded(@NonNull MarkwonVisitor visitor, @NonNull String text, int start) {
 